@@ -90,6 +90,24 @@ public final class Check
         }
     }
 
+    /**
+     * Check if <code>a</code> is strictly superior to <code>b</code>.
+     * 
+     * @param a The parameter to test.
+     * @param b The parameter to compare to.
+     * @throws LionEngineException If check failed.
+     */
+    public static void superiorStrict(long a, long b)
+    {
+        if (a <= b)
+        {
+            throw new LionEngineException(ERROR_ARGUMENT
+                                          + String.valueOf(a)
+                                          + ERROR_SUPERIOR_STRICT
+                                          + String.valueOf(b));
+        }
+    }
+
     /**
      * Check if <code>a</code> is strictly superior to <code>b</code>.
      * 
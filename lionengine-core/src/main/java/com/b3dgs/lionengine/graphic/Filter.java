@@ -25,7 +25,7 @@ import com.b3dgs.lionengine.LionEngineException;
 public interface Filter
 {
     /**
-     * Apply a filter to the image source.
+     * Apply a filter to the image source. Returned image is owned by caller.
      * 
      * @param source The image source (must not be <code>null</code>).
      * @return The filtered image.
@@ -33,6 +33,20 @@ public interface Filter
      */
     ImageBuffer filter(ImageBuffer source);
 
+    /**
+     * Apply a filter to the image source, for repeated calls on same source size. Returned image may be owned by
+     * filter and overwritten by next call, until {@link #dispose()}, so it must neither be kept nor disposed by caller.
+     * Returns a new image with {@link #filter(ImageBuffer)} by default.
+     * 
+     * @param source The image source (must not be <code>null</code>).
+     * @return The filtered image.
+     * @throws LionEngineException If invalid argument.
+     */
+    default ImageBuffer filterReused(ImageBuffer source)
+    {
+        return filter(source);
+    }
+
     /**
      * Get the associated transform.
      * 
@@ -41,4 +55,13 @@ public interface Filter
      * @return The associated transform.
      */
     Transform getTransform(double scaleX, double scaleY);
+
+    /**
+     * Release filter buffers. Filter can still be used, buffers are allocated again on next call. Does nothing by
+     * default.
+     */
+    default void dispose()
+    {
+        // Does nothing by default
+    }
 }
@@ -88,14 +88,19 @@ final class SequenceRenderer
     }
 
     /**
-     * Set the filter to use.
+     * Set the filter to use. Previous filter buffers are released.
      * 
      * @param filter The filter to use (if <code>null</code> then {@link FilterNone#INSTANCE} is used).
      */
     void setFilter(Filter filter)
     {
+        final Filter old = this.filter;
         this.filter = Optional.ofNullable(filter).orElse(FilterNone.INSTANCE);
         transform = getTransform();
+        if (old != this.filter)
+        {
+            old.dispose();
+        }
     }
 
     /**
@@ -114,6 +119,11 @@ final class SequenceRenderer
         final int width = source.getWidth();
         final int height = source.getHeight();
 
+        if (buf != null)
+        {
+            buf.dispose();
+        }
+
         // Standard rendering
         final Resolution output = config.getOutput();
         if (FilterNone.INSTANCE.equals(filter) && width == output.getWidth() && height == output.getHeight())
@@ -186,7 +196,8 @@ final class SequenceRenderer
             else
             {
                 target.render(graphic);
-                g.drawImage(filter.filter(buf), transform, 0, 0);
+                // Filtered image is owned and reused by filter
+                g.drawImage(filter.filterReused(buf), transform, 0, 0);
             }
         }
     }
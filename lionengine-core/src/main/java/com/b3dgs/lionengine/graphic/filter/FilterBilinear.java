@@ -19,31 +19,28 @@ package com.b3dgs.lionengine.graphic.filter;
 
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.UtilMath;
-import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
-import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
 
 /**
  * Bilinear filter implementation.
  * <p>
- * This class is Thread-Safe.
+ * This class is not Thread-Safe.
  * </p>
  */
-public class FilterBilinear implements Filter
+public class FilterBilinear extends FilterBuffered
 {
+    /** Radius used. */
+    private static final int RADIUS = 1;
+
     /**
-     * Compute bilinear filtering.
+     * Create the divide table.
      * 
-     * @param in The source pixels.
-     * @param out The destination pixels.
-     * @param width The image width.
-     * @param height The image height.
      * @param radius The radius used.
+     * @return The divide table.
      */
-    private static void compute(int[] in, int[] out, int width, int height, int radius)
+    private static int[] createDivide(int radius)
     {
-        final int widthMinus1 = width - 1;
         final int tableSize = 2 * radius + 1;
         final int[] divide = new int[Constant.UNSIGNED_BYTE * tableSize];
 
@@ -51,11 +48,27 @@ public class FilterBilinear implements Filter
         {
             divide[i] = i / tableSize;
         }
+        return divide;
+    }
+
+    /**
+     * Compute bilinear filtering.
+     * 
+     * @param in The source pixels.
+     * @param out The destination pixels.
+     * @param width The image width.
+     * @param height The image height.
+     * @param divide The divide table.
+     * @param radius The radius used.
+     */
+    private static void computePass(int[] in, int[] out, int width, int height, int[] divide, int radius)
+    {
+        final int widthMinus1 = width - 1;
 
         int inIndex = 0;
         for (int y = 0; y < height; y++)
         {
-            compute(in, out, y, inIndex, divide, width, widthMinus1, height, radius);
+            computeLine(in, out, y, inIndex, divide, width, widthMinus1, height, radius);
             inIndex += width;
         }
     }
@@ -73,15 +86,15 @@ public class FilterBilinear implements Filter
      * @param height The image height.
      * @param radius The radius used.
      */
-    private static void compute(int[] in,
-                                int[] out,
-                                int y,
-                                int inIndex,
-                                int[] divide,
-                                int width,
-                                int widthMinus1,
-                                int height,
-                                int radius)
+    private static void computeLine(int[] in,
+                                    int[] out,
+                                    int y,
+                                    int inIndex,
+                                    int[] divide,
+                                    int width,
+                                    int widthMinus1,
+                                    int height,
+                                    int radius)
     {
         int outIndex = y;
         int ta = 0;
@@ -129,36 +142,39 @@ public class FilterBilinear implements Filter
         }
     }
 
+    /** Divide table. */
+    private final int[] divide = createDivide(RADIUS);
+
     /**
      * Create the filter.
      */
     public FilterBilinear()
     {
-        super();
+        super(1);
     }
 
     /*
-     * Filter
+     * FilterBuffered
      */
 
     @Override
-    public ImageBuffer filter(ImageBuffer source)
+    int[] compute(int[] src, int[] dst, int width, int height)
     {
-        final int width = source.getWidth();
-        final int height = source.getHeight();
-
-        final int[] inPixels = new int[width * height];
-        final int[] outPixels = new int[width * height];
-        source.getRgb(0, 0, width, height, inPixels, 0, width);
-
-        compute(inPixels, outPixels, width, height, 1);
-        compute(outPixels, inPixels, height, width, 1);
+        computePass(src, dst, width, height, divide, RADIUS);
+        computePass(dst, src, height, width, divide, RADIUS);
+        return src;
+    }
 
-        final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparentColor());
-        dest.setRgb(0, 0, width, height, inPixels, 0, width);
-        return dest;
+    @Override
+    void resize(int width, int height)
+    {
+        // Nothing to do
     }
 
+    /*
+     * Filter
+     */
+
     @Override
     public Transform getTransform(double scaleX, double scaleY)
     {
@@ -19,15 +19,17 @@ package com.b3dgs.lionengine.graphic.filter;
 
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.UtilMath;
-import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
 
 /**
  * Blur filter implementation.
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
  */
-public class FilterBlur implements Filter
+public class FilterBlur extends FilterBuffered
 {
     /** Clamp edges. */
     public static final int CLAMP_EDGES = 0;
@@ -167,11 +169,9 @@ public class FilterBlur implements Filter
      * Create a blur kernel.
      * 
      * @param radius The blur radius.
-     * @param width The image width.
-     * @param height The image height.
      * @return The blur kernel.
      */
-    private static Kernel createKernel(float radius, int width, int height)
+    private static Kernel createKernel(float radius)
     {
         final int r = (int) Math.ceil(radius);
         final int rows = r * 2 + 1;
@@ -203,10 +203,7 @@ public class FilterBlur implements Filter
             matrix[i] /= total;
         }
 
-        final float[] data = new float[width * height];
-        System.arraycopy(matrix, 0, data, 0, rows);
-
-        return new Kernel(rows, data);
+        return new Kernel(rows, matrix);
     }
 
     /**
@@ -226,13 +223,17 @@ public class FilterBlur implements Filter
     private volatile boolean alpha = true;
     /** Edge mode. */
     private volatile int edge = CLAMP_EDGES;
+    /** Kernel for {@link #kernelRadius}. */
+    private Kernel kernel = createKernel(RADIUS_DEFAULT);
+    /** Current kernel radius. */
+    private float kernelRadius = RADIUS_DEFAULT;
 
     /**
      * Create the filter.
      */
     public FilterBlur()
     {
-        super();
+        super(1);
     }
 
     /**
@@ -267,6 +268,30 @@ public class FilterBlur implements Filter
         this.edge = edge;
     }
 
+    /*
+     * FilterBuffered
+     */
+
+    @Override
+    int[] compute(int[] src, int[] dst, int width, int height)
+    {
+        final float current = radius;
+        if (Float.compare(current, kernelRadius) != 0)
+        {
+            kernel = createKernel(current);
+            kernelRadius = current;
+        }
+        compute(kernel, src, dst, width, height, alpha, edge);
+        compute(kernel, dst, src, height, width, alpha, edge);
+        return src;
+    }
+
+    @Override
+    void resize(int width, int height)
+    {
+        // Nothing to do
+    }
+
     /*
      * Filter
      */
@@ -274,24 +299,21 @@ public class FilterBlur implements Filter
     @Override
     public ImageBuffer filter(ImageBuffer source)
     {
-        final int width = source.getWidth();
-        final int height = source.getHeight();
-        if (width < MIN_SIZE || height < MIN_SIZE)
+        if (source.getWidth() < MIN_SIZE || source.getHeight() < MIN_SIZE)
         {
             return source;
         }
+        return super.filter(source);
+    }
 
-        final int[] inPixels = new int[width * height];
-        final int[] outPixels = new int[width * height];
-        source.getRgb(0, 0, width, height, inPixels, 0, width);
-
-        final Kernel kernel = createKernel(radius, width, height);
-        compute(kernel, inPixels, outPixels, width, height, alpha, edge);
-        compute(kernel, outPixels, inPixels, height, width, alpha, edge);
-
-        final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparentColor());
-        dest.setRgb(0, 0, width, height, inPixels, 0, width);
-        return dest;
+    @Override
+    public ImageBuffer filterReused(ImageBuffer source)
+    {
+        if (source.getWidth() < MIN_SIZE || source.getHeight() < MIN_SIZE)
+        {
+            return source;
+        }
+        return super.filterReused(source);
     }
 
     @Override
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import java.util.Objects;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Filter owning its source and destination pixels and its reused output buffer, allocated again only on source size or
+ * transparency change. {@link #filter(ImageBuffer)} returns a new image, {@link #filterReused(ImageBuffer)} returns the
+ * same instance until next allocation.
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+abstract class FilterBuffered implements Filter
+{
+    /** Output scale factor. */
+    private final int scale;
+    /** Source pixels. */
+    private int[] source = new int[0];
+    /** Destination pixels. */
+    private int[] destination = new int[0];
+    /** Output image (<code>null</code> if not allocated). */
+    private ImageBuffer output;
+    /** Output transparency. */
+    private ColorRgba transparency;
+    /** Source width. */
+    private int width;
+    /** Source height. */
+    private int height;
+
+    /**
+     * Create filter.
+     * 
+     * @param scale The output scale factor.
+     */
+    FilterBuffered(int scale)
+    {
+        super();
+
+        this.scale = scale;
+    }
+
+    /**
+     * Compute filter.
+     * 
+     * @param src The source pixels.
+     * @param dst The destination pixels, of scaled size.
+     * @param width The source width.
+     * @param height The source height.
+     * @return The array containing the result, <code>src</code> or <code>dst</code>.
+     */
+    abstract int[] compute(int[] src, int[] dst, int width, int height);
+
+    /**
+     * Called when source size changed, before compute.
+     * 
+     * @param width The new source width.
+     * @param height The new source height.
+     */
+    abstract void resize(int width, int height);
+
+    /**
+     * Allocate buffers if source changed.
+     * 
+     * @param image The source image.
+     */
+    private void allocate(ImageBuffer image)
+    {
+        final int newWidth = image.getWidth();
+        final int newHeight = image.getHeight();
+        final ColorRgba newTransparency = image.getTransparentColor();
+        if (source.length == 0
+            || newWidth != width
+            || newHeight != height
+            || !Objects.equals(newTransparency, transparency))
+        {
+            dispose();
+            width = newWidth;
+            height = newHeight;
+            transparency = newTransparency;
+            source = new int[width * height];
+            destination = new int[width * height * scale * scale];
+            resize(width, height);
+        }
+    }
+
+    /**
+     * Compute filter on image and store result to output.
+     * 
+     * @param image The source image.
+     * @param output The output image, of scaled size.
+     */
+    private void apply(ImageBuffer image, ImageBuffer output)
+    {
+        image.getRgb(0, 0, width, height, source, 0, width);
+
+        final int[] result = compute(source, destination, width, height);
+        output.setRgb(0, 0, width * scale, height * scale, result, 0, width * scale);
+    }
+
+    /*
+     * Filter
+     */
+
+    @Override
+    public ImageBuffer filter(ImageBuffer image)
+    {
+        Check.notNull(image);
+
+        allocate(image);
+
+        final ImageBuffer filtered = Graphics.createImageBuffer(width * scale, height * scale, transparency);
+        apply(image, filtered);
+
+        return filtered;
+    }
+
+    @Override
+    public ImageBuffer filterReused(ImageBuffer image)
+    {
+        Check.notNull(image);
+
+        allocate(image);
+        if (output == null)
+        {
+            output = Graphics.createImageBuffer(width * scale, height * scale, transparency);
+        }
+        apply(image, output);
+
+        return output;
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (output != null)
+        {
+            output.dispose();
+            output = null;
+        }
+        source = new int[0];
+        destination = new int[0];
+    }
+}
@@ -17,54 +17,49 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
-import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
-import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
 
 /**
  * HQ2X implementation.
  * <p>
- * This class is Thread-Safe.
+ * This class is not Thread-Safe.
  * </p>
  */
-public final class FilterHq2x implements Filter
+public final class FilterHq2x extends FilterBuffered
 {
+    /** Scaler for current size (<code>null</code> if not allocated). */
+    private RawScale2x scaler;
+
     /**
      * Create an Hq2x filter.
      */
     public FilterHq2x()
     {
-        super();
+        super(RawScale2x.SCALE);
     }
 
     /*
-     * Filter
+     * FilterBuffered
      */
 
     @Override
-    public ImageBuffer filter(ImageBuffer source)
+    int[] compute(int[] src, int[] dst, int width, int height)
     {
-        final int width = source.getWidth();
-        final int height = source.getHeight();
-        final int[] srcData = new int[width * height];
-        source.getRgb(0, 0, width, height, srcData, 0, width);
-
-        final RawScale2x scaler = new RawScale2x(width, height);
-        final ImageBuffer image = Graphics.createImageBuffer(width * RawScale2x.SCALE,
-                                                             height * RawScale2x.SCALE,
-                                                             source.getTransparentColor());
-        image.setRgb(0,
-                     0,
-                     width * RawScale2x.SCALE,
-                     height * RawScale2x.SCALE,
-                     scaler.getScaledData(srcData),
-                     0,
-                     width * RawScale2x.SCALE);
+        scaler.getScaledData(src, dst);
+        return dst;
+    }
 
-        return image;
+    @Override
+    void resize(int width, int height)
+    {
+        scaler = new RawScale2x(width, height);
     }
 
+    /*
+     * Filter
+     */
+
     @Override
     public Transform getTransform(double scaleX, double scaleY)
     {
@@ -17,53 +17,49 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
-import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
-import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
 
 /**
  * HQ3X implementation.
  * <p>
- * This class is Thread-Safe.
+ * This class is not Thread-Safe.
  * </p>
  */
-public final class FilterHq3x implements Filter
+public final class FilterHq3x extends FilterBuffered
 {
+    /** Scaler for current size (<code>null</code> if not allocated). */
+    private RawScale3x scaler;
+
     /**
      * Create an Hq3x filter.
      */
     public FilterHq3x()
     {
-        super();
+        super(RawScale3x.SCALE);
     }
 
     /*
-     * Filter
+     * FilterBuffered
      */
 
     @Override
-    public ImageBuffer filter(ImageBuffer source)
+    int[] compute(int[] src, int[] dst, int width, int height)
     {
-        final int width = source.getWidth();
-        final int height = source.getHeight();
-        final int[] srcData = new int[width * height];
-        source.getRgb(0, 0, width, height, srcData, 0, width);
+        scaler.getScaledData(src, dst);
+        return dst;
+    }
 
-        final RawScale3x scaler = new RawScale3x(width, height);
-        final ImageBuffer image = Graphics.createImageBuffer(width * RawScale3x.SCALE,
-                                                             height * RawScale3x.SCALE,
-                                                             source.getTransparentColor());
-        image.setRgb(0,
-                     0,
-                     width * RawScale3x.SCALE,
-                     height * RawScale3x.SCALE,
-                     scaler.getScaledData(srcData),
-                     0,
-                     width * RawScale3x.SCALE);
-        return image;
+    @Override
+    void resize(int width, int height)
+    {
+        scaler = new RawScale3x(width, height);
     }
 
+    /*
+     * Filter
+     */
+
     @Override
     public Transform getTransform(double scaleX, double scaleY)
     {
@@ -45,15 +45,13 @@ final class RawScale2x
     }
 
     /**
-     * Get the scaled data.
+     * Compute the scaled data.
      * 
      * @param srcImage The image source.
-     * @return The data array.
+     * @param dstImage The image destination, of scaled size.
      */
-    int[] getScaledData(int[] srcImage)
+    void getScaledData(int[] srcImage, int[] dstImage)
     {
-        final int[] dstImage = new int[srcImage.length * SCALE * SCALE];
-
         for (int y = 0; y < height; y++)
         {
             for (int x = 0; x < width; x++)
@@ -61,8 +59,6 @@ final class RawScale2x
                 process(srcImage, dstImage, x, y);
             }
         }
-
-        return dstImage;
     }
 
     /**
@@ -193,15 +193,13 @@ final class RawScale3x
     }
 
     /**
-     * Get the scaled data.
+     * Compute the scaled data.
      * 
-     * @param srcImage The image source
-     * @return The data array.
+     * @param srcImage The image source.
+     * @param dstImage The image destination, of scaled size.
      */
-    int[] getScaledData(int[] srcImage)
+    void getScaledData(int[] srcImage, int[] dstImage)
     {
-        final int[] dstImage = new int[srcImage.length * SCALE * SCALE];
-
         for (int y = 0; y < height; y++)
         {
             for (int x = 0; x < width; x++)
@@ -209,8 +207,6 @@ final class RawScale3x
                 process(srcImage, dstImage, x, y);
             }
         }
-
-        return dstImage;
     }
 
     /**
@@ -137,6 +137,17 @@ public final class FileReading implements Closeable
         return in.readDouble();
     }
 
+    /**
+     * Read a sequence of bytes, filling the whole array.
+     * 
+     * @param bytes The bytes destination (must not be <code>null</code>).
+     * @throws IOException If read failed.
+     */
+    public void readBytes(byte[] bytes) throws IOException
+    {
+        in.readFully(bytes);
+    }
+
     /**
      * Read a sequence of characters (2 bytes and more).
      * 
@@ -137,6 +137,17 @@ public final class FileWriting implements Closeable
         out.writeDouble(d);
     }
 
+    /**
+     * Write a sequence of bytes, without length.
+     * 
+     * @param bytes The bytes to write (must not be <code>null</code>).
+     * @throws IOException If write failed.
+     */
+    public void writeBytes(byte[] bytes) throws IOException
+    {
+        out.write(bytes);
+    }
+
     /**
      * Write a sequence of characters (2 bytes and more).
      * 
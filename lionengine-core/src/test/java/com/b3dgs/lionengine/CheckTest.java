@@ -151,6 +151,35 @@ public final class CheckTest
                      Check.ERROR_ARGUMENT + Integer.MIN_VALUE + Check.ERROR_SUPERIOR_STRICT + Integer.MAX_VALUE);
     }
 
+    /**
+     * Test superior strict with long valid cases.
+     */
+    @Test
+    public void testSuperiorStrictLong()
+    {
+        for (long i = -Constant.THOUSAND; i < Constant.THOUSAND; i++)
+        {
+            Check.superiorStrict(i + 1L, i);
+        }
+        Check.superiorStrict(Long.MAX_VALUE, Long.MIN_VALUE);
+    }
+
+    /**
+     * Test superior strict with long invalid cases.
+     */
+    @Test
+    public void testSuperiorStrictLongFail()
+    {
+        for (long i = -Constant.THOUSAND; i < Constant.THOUSAND; i++)
+        {
+            final long a = i;
+            final long b = i + 1L;
+            assertThrows(() -> Check.superiorStrict(a, b), Check.ERROR_ARGUMENT + a + Check.ERROR_SUPERIOR_STRICT + b);
+        }
+        assertThrows(() -> Check.superiorStrict(Long.MIN_VALUE, Long.MAX_VALUE),
+                     Check.ERROR_ARGUMENT + Long.MIN_VALUE + Check.ERROR_SUPERIOR_STRICT + Long.MAX_VALUE);
+    }
+
     /**
      * Test superior strict with double valid cases.
      */
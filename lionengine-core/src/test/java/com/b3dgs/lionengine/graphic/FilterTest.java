@@ -45,4 +45,34 @@ public final class FilterTest
 
         assertEquals(0, transform.getInterpolation());
     }
+
+    /**
+     * Test default reused filter and dispose.
+     */
+    @Test
+    public void testFilterReusedDefault()
+    {
+        final ImageBuffer source = new ImageBufferMock(2, 2);
+        final ImageBuffer target = new ImageBufferMock(4, 4);
+        final Filter filter = new Filter()
+        {
+            @Override
+            public ImageBuffer filter(ImageBuffer image)
+            {
+                return target;
+            }
+
+            @Override
+            public Transform getTransform(double scaleX, double scaleY)
+            {
+                return FilterNone.INSTANCE.getTransform(scaleX, scaleY);
+            }
+        };
+
+        assertEquals(target, filter.filterReused(source));
+
+        filter.dispose();
+
+        assertEquals(target, filter.filterReused(source));
+    }
 }
@@ -345,6 +345,28 @@ public final class SpriteTest
         assertEquals(32, sprite.getHeight());
     }
 
+    /**
+     * Test same filter on different sprites does not share surface.
+     */
+    @Test
+    public void testFilterShared()
+    {
+        final FilterBilinear filter = new FilterBilinear();
+        final Sprite sprite1 = new SpriteImpl(Graphics.createImageBuffer(64, 32));
+        final Sprite sprite2 = new SpriteImpl(Graphics.createImageBuffer(64, 32));
+        sprite1.filter(filter);
+        sprite2.filter(filter);
+
+        assertNotEquals(sprite1.getSurface(), sprite2.getSurface());
+
+        final Sprite sprite3 = new SpriteImpl(Graphics.createImageBuffer(32, 16));
+        sprite3.filter(filter);
+        filter.dispose();
+
+        assertEquals(64, sprite1.getSurface().getWidth());
+        assertEquals(32, sprite2.getSurface().getHeight());
+    }
+
     /**
      * Test filter <code>null</code>.
      */
@@ -92,7 +92,14 @@ public final class FilterBilinearTest
         assertEquals(image.getWidth(), filtered.getWidth());
         assertEquals(image.getHeight(), filtered.getHeight());
 
+        final ImageBuffer other = bilinear.filter(image);
+
+        assertNotEquals(filtered, other);
+
+        UtilFilter.testReused(bilinear, image);
+
         image.dispose();
         filtered.dispose();
+        other.dispose();
     }
 }
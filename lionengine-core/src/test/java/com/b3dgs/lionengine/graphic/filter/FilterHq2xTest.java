@@ -92,7 +92,14 @@ public final class FilterHq2xTest
         assertEquals(image.getWidth() * 2, filtered.getWidth());
         assertEquals(image.getHeight() * 2, filtered.getHeight());
 
+        final ImageBuffer other = hq2x.filter(image);
+
+        assertNotEquals(filtered, other);
+
+        UtilFilter.testReused(hq2x, image);
+
         image.dispose();
         filtered.dispose();
+        other.dispose();
     }
 }
@@ -92,7 +92,14 @@ public final class FilterHq3xTest
         assertEquals(image.getWidth() * 3, filtered.getWidth());
         assertEquals(image.getHeight() * 3, filtered.getHeight());
 
+        final ImageBuffer other = hq3x.filter(image);
+
+        assertNotEquals(filtered, other);
+
+        UtilFilter.testReused(hq3x, image);
+
         image.dispose();
         filtered.dispose();
+        other.dispose();
     }
 }
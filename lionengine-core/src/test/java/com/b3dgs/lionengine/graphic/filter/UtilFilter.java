@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Filter test utility.
+ */
+public final class UtilFilter
+{
+    /**
+     * Check reused output has the same pixels as a new filtered image, after a source size change and back, and is
+     * reused while size does not change.
+     * 
+     * @param filter The filter to test.
+     * @param image The source image.
+     */
+    public static void testReused(Filter filter, ImageBuffer image)
+    {
+        final ImageBuffer resized = Graphics.createImageBuffer(image.getWidth() / 2, image.getHeight() / 2);
+        for (int y = 0; y < resized.getHeight(); y++)
+        {
+            for (int x = 0; x < resized.getWidth(); x++)
+            {
+                resized.setRgb(x, y, 0xFF000000 | x * 0x0A0B0C + y * 0x0D0E0F);
+            }
+        }
+
+        assertReused(filter, image);
+        assertReused(filter, resized);
+
+        final ImageBuffer reused = assertReused(filter, image);
+
+        assertEquals(reused, filter.filterReused(image));
+
+        resized.dispose();
+        filter.dispose();
+    }
+
+    /**
+     * Check reused output has the same pixels as a new filtered image.
+     * 
+     * @param filter The filter to test.
+     * @param image The source image.
+     * @return The reused output.
+     */
+    private static ImageBuffer assertReused(Filter filter, ImageBuffer image)
+    {
+        final ImageBuffer expected = filter.filter(image);
+        final ImageBuffer reused = filter.filterReused(image);
+
+        assertEquals(expected.getWidth(), reused.getWidth());
+        assertEquals(expected.getHeight(), reused.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++)
+        {
+            for (int x = 0; x < expected.getWidth(); x++)
+            {
+                assertEquals(expected.getRgb(x, y), reused.getRgb(x, y));
+            }
+        }
+        expected.dispose();
+
+        return reused;
+    }
+}
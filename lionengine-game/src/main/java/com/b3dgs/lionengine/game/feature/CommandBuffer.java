@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Buffer of deferred commands, used to keep side effects ordered when features are updated in parallel.
+ * <p>
+ * While a buffer is bound to the current thread, {@link #submit(Runnable)} stores commands instead of executing them.
+ * They are executed later by {@link #replay()}, in submission order. Without bound buffer, commands are executed
+ * immediately. Binding a buffer while another one is bound to the same thread keeps the previous one, restored on
+ * {@link #unbind()}.
+ * </p>
+ * <p>
+ * Features notifying listeners or modifying shared state during their update should use {@link #submit(Runnable)},
+ * as done by {@link Handler}, {@link IdentifiableModel}, {@link LayerableModel} and {@link TransformableModel}.
+ * </p>
+ * 
+ * @see ComponentRefreshable#setParallel(Integer, boolean)
+ */
+public final class CommandBuffer
+{
+    /** Buffer bound to thread. */
+    private static final ThreadLocal<CommandBuffer> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Check if commands are currently deferred on this thread.
+     * 
+     * @return <code>true</code> if a buffer is bound to current thread, <code>false</code> else.
+     */
+    public static boolean isDeferring()
+    {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Submit a command, stored in the buffer bound to current thread, or executed immediately if none.
+     * 
+     * @param command The command to submit.
+     */
+    public static void submit(Runnable command)
+    {
+        final CommandBuffer buffer = CURRENT.get();
+        if (buffer == null)
+        {
+            command.run();
+        }
+        else
+        {
+            buffer.commands.add(command);
+        }
+    }
+
+    /**
+     * Submit a command only once per key until next {@link #replay()} or {@link #clear()}, stored in the buffer bound
+     * to current thread, or executed immediately if none. Used to coalesce repeated notifications of a same object.
+     * 
+     * @param key The command key, compared by identity.
+     * @param command The command to submit.
+     * @return <code>true</code> if command has been stored or executed, <code>false</code> if key already stored.
+     */
+    public static boolean submitOnce(Object key, Runnable command)
+    {
+        final CommandBuffer buffer = CURRENT.get();
+        if (buffer == null)
+        {
+            command.run();
+            return true;
+        }
+        if (buffer.keys.add(key))
+        {
+            buffer.commands.add(command);
+            return true;
+        }
+        return false;
+    }
+
+    /** Deferred commands. */
+    private final List<Runnable> commands = new ArrayList<>();
+    /** Stored commands keys. */
+    private final Set<Object> keys = Collections.newSetFromMap(new IdentityHashMap<>());
+    /** Buffer bound before this one (<code>null</code> if none). */
+    private CommandBuffer previous;
+
+    /**
+     * Create buffer.
+     */
+    public CommandBuffer()
+    {
+        super();
+    }
+
+    /**
+     * Bind buffer to current thread. Following submitted commands will be stored.
+     */
+    public void bind()
+    {
+        previous = CURRENT.get();
+        CURRENT.set(this);
+    }
+
+    /**
+     * Unbind buffer from current thread, and bind again the previous buffer if any.
+     */
+    public void unbind()
+    {
+        if (previous == null)
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set(previous);
+            previous = null;
+        }
+    }
+
+    /**
+     * Execute stored commands in submission order, and clear buffer. Must be called with buffer not bound.
+     */
+    public void replay()
+    {
+        final int length = commands.size();
+        for (int i = 0; i < length; i++)
+        {
+            commands.get(i).run();
+        }
+        commands.clear();
+        keys.clear();
+    }
+
+    /**
+     * Clear stored commands without executing them.
+     */
+    public void clear()
+    {
+        commands.clear();
+        keys.clear();
+    }
+
+    /**
+     * Get the number of stored commands.
+     * 
+     * @return The stored commands number.
+     */
+    public int size()
+    {
+        return commands.size();
+    }
+}
@@ -17,20 +17,24 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
-import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
 
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.graphic.Graphic;
 
 /**
  * Renderer component implementation which render {@link Displayable} elements with {@link Layerable} support to order
  * rendering. If there is not {@link Layerable} feature, {@link #LAYER_DEFAULT} will be used as default layer value.
- * The lower layer index is handled first.
+ * The lower layer index is handled first, and displayables of a layer are handled in their adding order.
+ * <p>
+ * With culling enabled (see {@link #ComponentDisplayable(Viewer, int, int)}), displayables with {@link Transformable}
+ * are referenced in a spatial index, and only the ones viewable are rendered. Others are always rendered. Rendering
+ * order is kept: by layer, then by adding order, whatever the displayables location.
+ * </p>
  */
 public class ComponentDisplayable implements ComponentRenderer, HandlerListener, LayerableListener
 {
@@ -53,10 +57,16 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
         return LAYER_DEFAULT;
     }
 
-    /** Sorted layers index. */
-    private final Set<Integer> indexs = new TreeSet<>();
-    /** Layers to render. */
-    private final Map<Integer, Collection<Displayable>> layers = new HashMap<>();
+    /** Layers to render, only layers indexes if culling enabled. */
+    private final ComponentLayers<Displayable> layers;
+    /** Viewable displayables by layer, in adding order, filled on each render. */
+    private final Map<Integer, List<Displayable>> visible = new HashMap<>();
+    /** Spatial index, <code>null</code> if culling disabled. */
+    private final DisplayableIndex index;
+    /** Rendered displayables on last render. */
+    private int rendered;
+    /** Culled displayables on last render. */
+    private int culled;
 
     /**
      * Create component.
@@ -64,43 +74,45 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     public ComponentDisplayable()
     {
         super();
+
+        index = null;
+        layers = new ComponentLayers<>();
     }
 
     /**
-     * Get the layer set at the specified index. Creates an empty set if no set already defined.
+     * Create component with culling. Displayables with {@link Transformable} are rendered only if viewable.
      * 
-     * @param layer The layer index.
-     * @return The layer set reference.
+     * @param viewer The viewer reference (must not be <code>null</code>).
+     * @param cellSize The spatial index cell size in pixel (must be strictly positive).
+     * @param margin The viewable margin in pixel, added to transformable size (must be positive).
+     * @throws LionEngineException If invalid arguments.
      */
-    private Collection<Displayable> getLayer(Integer layer)
+    public ComponentDisplayable(Viewer viewer, int cellSize, int margin)
     {
-        final Collection<Displayable> displayables;
-        if (!layers.containsKey(layer))
-        {
-            displayables = new HashSet<>();
-            layers.put(layer, displayables);
-        }
-        else
-        {
-            displayables = layers.get(layer);
-        }
-        return displayables;
+        super();
+
+        index = new DisplayableIndex(viewer, cellSize, margin);
+        layers = new ComponentLayers<>(index::hasLayer);
     }
 
     /**
-     * Remove displayable and its layer.
+     * Get the number of displayables rendered on last render.
      * 
-     * @param layer The layer index.
-     * @param displayable The displayable to remove.
+     * @return The rendered number.
      */
-    private void remove(Integer layer, Displayable displayable)
+    public int getRendered()
     {
-        final Collection<Displayable> displayables = getLayer(layer);
-        displayables.remove(displayable);
-        if (displayables.isEmpty())
-        {
-            indexs.remove(layer);
-        }
+        return rendered;
+    }
+
+    /**
+     * Get the number of displayables skipped as not viewable on last render.
+     * 
+     * @return The culled number.
+     */
+    public int getCulled()
+    {
+        return culled;
     }
 
     /*
@@ -110,13 +122,48 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     @Override
     public void render(Graphic g, Handlables featurables)
     {
-        for (final Integer layer : indexs)
+        if (index == null)
         {
-            for (final Displayable displayable : layers.get(layer))
+            rendered = 0;
+            layers.forEach(displayable ->
             {
                 displayable.render(g);
-            }
+                rendered++;
+            });
+        }
+        else
+        {
+            renderCulled(g);
+        }
+    }
+
+    /**
+     * Render viewable displayables.
+     * 
+     * @param g The graphic output.
+     */
+    private void renderCulled(Graphic g)
+    {
+        for (final List<Displayable> viewed : visible.values())
+        {
+            viewed.clear();
         }
+        final int viewable = index.collect(visible);
+        culled = index.size() - viewable;
+        rendered = viewable;
+
+        layers.forEachLayer((layer, items, count) ->
+        {
+            final List<Displayable> viewed = visible.get(layer);
+            if (viewed != null)
+            {
+                final int length = viewed.size();
+                for (int i = 0; i < length; i++)
+                {
+                    viewed.get(i).render(g);
+                }
+            }
+        });
     }
 
     /*
@@ -130,9 +177,24 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
         {
             final Displayable displayable = featurable.getFeature(Displayable.class);
             final Integer layer = getLayer(featurable);
-            final Collection<Displayable> displayables = getLayer(layer);
-            displayables.add(displayable);
-            indexs.add(layer);
+            if (index != null)
+            {
+                final Transformable transformable;
+                if (featurable.hasFeature(Transformable.class))
+                {
+                    transformable = featurable.getFeature(Transformable.class);
+                }
+                else
+                {
+                    transformable = null;
+                }
+                index.add(displayable, transformable, layer);
+                layers.addLayer(layer);
+            }
+            else
+            {
+                layers.add(layer, displayable);
+            }
         }
     }
 
@@ -143,7 +205,11 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
         {
             final Displayable displayable = featurable.getFeature(Displayable.class);
             final Integer layer = getLayer(featurable);
-            remove(layer, displayable);
+            if (index != null)
+            {
+                index.remove(displayable);
+            }
+            layers.remove(layer, displayable);
         }
     }
 
@@ -161,9 +227,16 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
         if (provider.hasFeature(Displayable.class))
         {
             final Displayable displayable = provider.getFeature(Displayable.class);
-            getLayer(layerDisplayOld).remove(displayable);
-            getLayer(layerDisplayNew).add(displayable);
-            indexs.add(layerDisplayNew);
+            layers.remove(layerDisplayOld, displayable);
+            if (index != null)
+            {
+                index.setLayer(displayable, layerDisplayNew);
+                layers.addLayer(layerDisplayNew);
+            }
+            else
+            {
+                layers.add(layerDisplayNew, displayable);
+            }
         }
     }
 }
@@ -0,0 +1,443 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Layered items storage used by components, iterated by ascending layer index, and in insertion order inside a layer.
+ * <p>
+ * Items are stored in arrays, each item knowing its position for constant time removal. Removed items leave an empty
+ * slot, compacted before next iteration, so order remains deterministic. Storage can be modified during iteration:
+ * removed items are skipped, and added items will be iterated from next iteration.
+ * </p>
+ * 
+ * @param <T> The item type.
+ */
+final class ComponentLayers<T>
+{
+    /** Initial layer capacity. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Layers by index. */
+    private final Map<Integer, Layer> layers = new HashMap<>();
+    /** Layers sorted by index. */
+    private final List<Layer> sorted = new ArrayList<>();
+    /** Layers to keep even if empty. */
+    private final Predicate<Integer> keep;
+    /** Current iterations depth. */
+    private int iterating;
+    /** Compaction needed flag. */
+    private boolean dirty;
+
+    /**
+     * Create storage, removing empty layers.
+     */
+    ComponentLayers()
+    {
+        this(layer -> false);
+    }
+
+    /**
+     * Create storage.
+     * 
+     * @param keep The layers to keep even if empty.
+     */
+    ComponentLayers(Predicate<Integer> keep)
+    {
+        super();
+
+        this.keep = keep;
+    }
+
+    /**
+     * Ensure layer exists.
+     * 
+     * @param layer The layer index.
+     */
+    void addLayer(Integer layer)
+    {
+        getLayer(layer);
+    }
+
+    /**
+     * Add item to layer if not already inside.
+     * 
+     * @param layer The layer index.
+     * @param item The item to add.
+     */
+    void add(Integer layer, T item)
+    {
+        getLayer(layer).add(item);
+    }
+
+    /**
+     * Remove item from layer if inside. Layer is removed once empty, on next iteration.
+     * 
+     * @param layer The layer index.
+     * @param item The item to remove.
+     */
+    void remove(Integer layer, T item)
+    {
+        final Layer current = layers.get(layer);
+        if (current != null)
+        {
+            current.remove(item);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Get the number of items in layer.
+     * 
+     * @param layer The layer index.
+     * @return The items number, <code>0</code> if no layer.
+     */
+    int size(Integer layer)
+    {
+        final Layer current = layers.get(layer);
+        if (current == null)
+        {
+            return 0;
+        }
+        return current.count();
+    }
+
+    /**
+     * Get the number of layers.
+     * 
+     * @return The layers number.
+     */
+    int getLayers()
+    {
+        if (dirty && iterating == 0)
+        {
+            compact();
+        }
+        return sorted.size();
+    }
+
+    /**
+     * Iterate all items.
+     * 
+     * @param action The action on each item.
+     */
+    void forEach(Consumer<? super T> action)
+    {
+        forEach(action, null);
+    }
+
+    /**
+     * Iterate all items, with notification after each layer.
+     * 
+     * @param action The action on each item.
+     * @param layerDone The action after each layer items, with layer index (can be <code>null</code>).
+     */
+    void forEach(Consumer<? super T> action, Consumer<Integer> layerDone)
+    {
+        final int length = begin();
+        try
+        {
+            for (int i = 0; i < length; i++)
+            {
+                final Layer layer = sorted.get(i);
+                final int count = layer.limit;
+                for (int j = 0; j < count; j++)
+                {
+                    final Object item = layer.iterated[j];
+                    if (item != null)
+                    {
+                        action.accept(cast(item));
+                    }
+                }
+                if (layerDone != null)
+                {
+                    layerDone.accept(layer.index);
+                }
+            }
+        }
+        finally
+        {
+            iterating--;
+        }
+    }
+
+    /**
+     * Iterate all layers, giving direct access to their items. Items removed during iteration are set to
+     * <code>null</code> in the given array.
+     * 
+     * @param action The action on each layer.
+     */
+    void forEachLayer(LayerAction action)
+    {
+        final int length = begin();
+        try
+        {
+            for (int i = 0; i < length; i++)
+            {
+                final Layer layer = sorted.get(i);
+                action.accept(layer.index, layer.iterated, layer.limit);
+            }
+        }
+        finally
+        {
+            iterating--;
+        }
+    }
+
+    /**
+     * Cast item to its type.
+     * 
+     * @param item The item to cast.
+     * @return The casted item.
+     */
+    @SuppressWarnings("unchecked")
+    private T cast(Object item)
+    {
+        return (T) item;
+    }
+
+    /**
+     * Start iteration, compacting storage if not already iterating.
+     * 
+     * @return The number of layers to iterate.
+     */
+    private int begin()
+    {
+        if (dirty && iterating == 0)
+        {
+            compact();
+        }
+        final int length = sorted.size();
+        if (iterating == 0)
+        {
+            for (int i = 0; i < length; i++)
+            {
+                final Layer layer = sorted.get(i);
+                layer.limit = layer.size;
+                layer.iterated = layer.items;
+            }
+        }
+        iterating++;
+        return length;
+    }
+
+    /**
+     * Get the layer, created if not existing.
+     * 
+     * @param layer The layer index.
+     * @return The layer reference.
+     */
+    private Layer getLayer(Integer layer)
+    {
+        Layer current = layers.get(layer);
+        if (current == null)
+        {
+            current = new Layer(layer);
+            layers.put(layer, current);
+            if (iterating == 0)
+            {
+                insert(current);
+            }
+            else
+            {
+                dirty = true;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Insert layer in sorted layers.
+     * 
+     * @param layer The layer to insert.
+     */
+    private void insert(Layer layer)
+    {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high)
+        {
+            final int middle = low + high >>> 1;
+            if (sorted.get(middle).index.compareTo(layer.index) < 0)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        sorted.add(low, layer);
+    }
+
+    /**
+     * Remove empty slots, empty layers and insert new layers.
+     */
+    private void compact()
+    {
+        dirty = false;
+        for (int i = sorted.size() - 1; i >= 0; i--)
+        {
+            final Layer layer = sorted.get(i);
+            layer.compact();
+            if (layer.count() == 0 && !keep.test(layer.index))
+            {
+                sorted.remove(i);
+                layers.remove(layer.index);
+            }
+        }
+        if (layers.size() > sorted.size())
+        {
+            for (final Layer layer : layers.values())
+            {
+                if (!sorted.contains(layer))
+                {
+                    insert(layer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Items of a layer.
+     */
+    private final class Layer
+    {
+        /** Layer index. */
+        private final Integer index;
+        /** Items position. */
+        private final Map<Object, Integer> positions = new HashMap<>();
+        /** Items, with <code>null</code> for removed ones. */
+        private Object[] items = new Object[INITIAL_CAPACITY];
+        /** Used slots. */
+        private int size;
+        /** Slots to iterate, set when iteration starts. */
+        private int limit;
+        /** Items array when iteration started. */
+        private Object[] iterated;
+
+        /**
+         * Create layer.
+         * 
+         * @param index The layer index.
+         */
+        Layer(Integer index)
+        {
+            super();
+
+            this.index = index;
+        }
+
+        /**
+         * Add item if not already inside.
+         * 
+         * @param item The item to add.
+         */
+        void add(Object item)
+        {
+            if (!positions.containsKey(item))
+            {
+                if (size == items.length)
+                {
+                    items = Arrays.copyOf(items, size * 2);
+                }
+                positions.put(item, Integer.valueOf(size));
+                items[size] = item;
+                size++;
+            }
+        }
+
+        /**
+         * Remove item if inside.
+         * 
+         * @param item The item to remove.
+         */
+        void remove(Object item)
+        {
+            final Integer position = positions.remove(item);
+            if (position != null)
+            {
+                final int index = position.intValue();
+                items[index] = null;
+                if (iterated != items && iterated != null && index < iterated.length)
+                {
+                    iterated[index] = null;
+                }
+            }
+        }
+
+        /**
+         * Get the number of items.
+         * 
+         * @return The items number.
+         */
+        int count()
+        {
+            return positions.size();
+        }
+
+        /**
+         * Remove empty slots, keeping items order.
+         */
+        void compact()
+        {
+            if (positions.size() < size)
+            {
+                int j = 0;
+                for (int i = 0; i < size; i++)
+                {
+                    final Object item = items[i];
+                    if (item != null)
+                    {
+                        if (i != j)
+                        {
+                            items[j] = item;
+                            positions.put(item, Integer.valueOf(j));
+                        }
+                        j++;
+                    }
+                }
+                Arrays.fill(items, j, size, null);
+                size = j;
+            }
+        }
+    }
+
+    /**
+     * Action on layer items.
+     */
+    @FunctionalInterface
+    interface LayerAction
+    {
+        /**
+         * Called for each layer.
+         * 
+         * @param layer The layer index.
+         * @param items The layer items, with <code>null</code> for removed ones (must not be modified).
+         * @param length The number of slots to iterate.
+         */
+        void accept(Integer layer, Object[] items, int length);
+    }
+}
@@ -17,19 +17,28 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.FeatureProvider;
 
 /**
  * Refresher component implementation which refreshes {@link Refreshable} elements with {@link Layerable} support to
  * order rendering. If there is not {@link Layerable} feature, {@link #LAYER_DEFAULT} will be used as default layer
- * value. The lower layer index is handled first.
+ * value. The lower layer index is handled first, and refreshables of a layer are handled in their adding order.
+ * <p>
+ * Layers can be updated in parallel (see {@link #setParallel(Integer, boolean)}), split in chunks updated by a
+ * {@link ForkJoinPool}. Their refreshables must only modify their own state: other side effects are deferred with
+ * {@link CommandBuffer}, and replayed in chunk order once the whole layer is updated, so result does not depend on
+ * threads scheduling.
+ * </p>
  */
 public class ComponentRefreshable implements ComponentUpdater, HandlerListener, LayerableListener
 {
@@ -52,53 +61,158 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
         return LAYER_DEFAULT;
     }
 
-    /** Sorted layers index. */
-    private final Set<Integer> indexs = new TreeSet<>();
-    /** Layers to render. */
-    private final Map<Integer, Collection<Refreshable>> layers = new HashMap<>();
+    /** Layers to update. */
+    private final ComponentLayers<Refreshable> layers = new ComponentLayers<>();
+    /** Layers updated in parallel. */
+    private final Set<Integer> parallel = new HashSet<>();
+    /** Commands buffer per chunk. */
+    private final List<CommandBuffer> buffers = new ArrayList<>();
+    /** Parallel tasks, reused. */
+    private final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    /** Pool used for parallel layers, <code>null</code> if serial only. */
+    private final ForkJoinPool pool;
+    /** Number of refreshables per parallel chunk. */
+    private final int chunkSize;
 
     /**
-     * Create component.
+     * Create component, updating all layers serially.
      */
     public ComponentRefreshable()
     {
         super();
+
+        pool = null;
+        chunkSize = 0;
+    }
+
+    /**
+     * Create component, allowing parallel layers.
+     * 
+     * @param pool The pool used to update parallel layers (must not be <code>null</code>).
+     * @param chunkSize The number of refreshables updated per task (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public ComponentRefreshable(ForkJoinPool pool, int chunkSize)
+    {
+        super();
+
+        Check.notNull(pool);
+        Check.superiorStrict(chunkSize, 0);
+
+        this.pool = pool;
+        this.chunkSize = chunkSize;
     }
 
     /**
-     * Get the layer set at the specified index. Creates an empty set if no set already defined.
+     * Set a layer update mode. Refreshables of a parallel layer must be thread safe between each other.
      * 
      * @param layer The layer index.
-     * @return The layer set reference.
+     * @param enabled <code>true</code> to update layer in parallel, <code>false</code> to update serially.
+     * @throws LionEngineException If component has been created without pool.
      */
-    private Collection<Refreshable> getLayer(Integer layer)
+    public void setParallel(Integer layer, boolean enabled)
     {
-        final Collection<Refreshable> refreshables;
-        if (!layers.containsKey(layer))
+        Check.notNull(pool);
+
+        if (enabled)
         {
-            refreshables = new HashSet<>();
-            layers.put(layer, refreshables);
+            parallel.add(layer);
         }
         else
         {
-            refreshables = layers.get(layer);
+            parallel.remove(layer);
         }
-        return refreshables;
     }
 
     /**
-     * Remove refreshable and its layer.
+     * Update layer refreshables serially.
      * 
-     * @param layer The layer index.
-     * @param refreshable The refreshable to remove.
+     * @param extrp The extrapolation value.
+     * @param items The layer refreshables.
+     * @param length The number of slots.
      */
-    private void remove(Integer layer, Refreshable refreshable)
+    private static void update(double extrp, Object[] items, int length)
     {
-        final Collection<Refreshable> refreshables = getLayer(layer);
-        refreshables.remove(refreshable);
-        if (refreshables.isEmpty())
+        update(extrp, items, 0, length);
+    }
+
+    /**
+     * Update a range of refreshables.
+     * 
+     * @param extrp The extrapolation value.
+     * @param items The layer refreshables.
+     * @param start The first slot.
+     * @param end The last slot excluded.
+     */
+    private static void update(double extrp, Object[] items, int start, int end)
+    {
+        for (int i = start; i < end; i++)
         {
-            indexs.remove(layer);
+            final Object item = items[i];
+            if (item != null)
+            {
+                ((Refreshable) item).update(extrp);
+            }
+        }
+    }
+
+    /**
+     * Update layer refreshables in parallel chunks, then replay deferred commands in chunks order.
+     * 
+     * @param extrp The extrapolation value.
+     * @param items The layer refreshables.
+     * @param length The number of slots.
+     */
+    private void updateParallel(double extrp, Object[] items, int length)
+    {
+        final int chunks = (length + chunkSize - 1) / chunkSize;
+        while (buffers.size() < chunks)
+        {
+            buffers.add(new CommandBuffer());
+        }
+        tasks.clear();
+        for (int chunk = 0; chunk < chunks; chunk++)
+        {
+            final CommandBuffer buffer = buffers.get(chunk);
+            final int start = chunk * chunkSize;
+            final int end = Math.min(length, start + chunkSize);
+            tasks.add(ForkJoinTask.adapt(() ->
+            {
+                buffer.bind();
+                try
+                {
+                    update(extrp, items, start, end);
+                }
+                finally
+                {
+                    buffer.unbind();
+                }
+            }));
+        }
+        try
+        {
+            pool.invoke(new RecursiveAction()
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute()
+                {
+                    invokeAll(tasks);
+                }
+            });
+        }
+        catch (final RuntimeException exception)
+        {
+            for (int chunk = 0; chunk < chunks; chunk++)
+            {
+                buffers.get(chunk).clear();
+            }
+            throw exception;
+        }
+        for (int chunk = 0; chunk < chunks; chunk++)
+        {
+            buffers.get(chunk).replay();
         }
     }
 
@@ -109,12 +223,23 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
     @Override
     public void update(double extrp, Handlables featurables)
     {
-        for (final Integer layer : indexs)
+        if (parallel.isEmpty())
         {
-            for (final Refreshable refreshable : layers.get(layer))
+            layers.forEach(refreshable -> refreshable.update(extrp));
+        }
+        else
+        {
+            layers.forEachLayer((layer, items, length) ->
             {
-                refreshable.update(extrp);
-            }
+                if (length > chunkSize && parallel.contains(layer))
+                {
+                    updateParallel(extrp, items, length);
+                }
+                else
+                {
+                    update(extrp, items, length);
+                }
+            });
         }
     }
 
@@ -128,10 +253,7 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
         if (featurable.hasFeature(Refreshable.class))
         {
             final Refreshable refreshable = featurable.getFeature(Refreshable.class);
-            final Integer layer = getLayer(featurable);
-            final Collection<Refreshable> refreshables = getLayer(layer);
-            refreshables.add(refreshable);
-            indexs.add(layer);
+            layers.add(getLayer(featurable), refreshable);
         }
     }
 
@@ -141,8 +263,7 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
         if (featurable.hasFeature(Refreshable.class))
         {
             final Refreshable refreshable = featurable.getFeature(Refreshable.class);
-            final Integer layer = getLayer(featurable);
-            remove(layer, refreshable);
+            layers.remove(getLayer(featurable), refreshable);
         }
     }
 
@@ -160,9 +281,8 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
         if (provider.hasFeature(Refreshable.class))
         {
             final Refreshable refreshable = provider.getFeature(Refreshable.class);
-            getLayer(layerRefreshOld).remove(refreshable);
-            getLayer(layerRefreshNew).add(refreshable);
-            indexs.add(layerRefreshNew);
+            layers.remove(layerRefreshOld, refreshable);
+            layers.add(layerRefreshNew, refreshable);
         }
     }
 }
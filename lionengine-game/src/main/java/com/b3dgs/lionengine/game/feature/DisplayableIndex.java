@@ -0,0 +1,632 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Viewer;
+
+/**
+ * Spatial index of {@link Displayable} with {@link Transformable} bounds, used to find the ones visible by a
+ * {@link Viewer}. Space is divided in square cells, each displayable being referenced in all cells covered by its
+ * bounds. Location is updated on {@link #notifyTransformed(Transformable)}, and only moves between cells when its
+ * covered cells change. Displayables without bounds are always visible.
+ * <p>
+ * Visible displayables are collected by layer in their adding order, whatever their location.
+ * </p>
+ */
+final class DisplayableIndex implements TransformableListener
+{
+    /** Adding order comparator. */
+    private static final Comparator<Entry> ORDER = (a, b) -> Long.compare(a.sequence, b.sequence);
+
+    /**
+     * Get the cell key.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The cell key.
+     */
+    private static long key(int cx, int cy)
+    {
+        return (long) cx << Integer.SIZE | cy & 0xFFFFFFFFL;
+    }
+
+    /** Displayables per cell. */
+    private final Cells cells = new Cells();
+    /** Displayables without bounds. */
+    private final List<Entry> unbounded = new ArrayList<>();
+    /** Entries by displayable. */
+    private final Map<Displayable, Entry> entries = new HashMap<>();
+    /** Entries by transformable. */
+    private final Map<Transformable, Entry> transformables = new HashMap<>();
+    /** Number of entries per layer. */
+    private final Map<Integer, Integer> layers = new HashMap<>();
+    /** Entries found by last query, by layer. */
+    private final Map<Integer, List<Entry>> found = new HashMap<>();
+    /** Viewer reference. */
+    private final Viewer viewer;
+    /** Cell size in pixel. */
+    private final int cellSize;
+    /** Viewable margin in pixel. */
+    private final int margin;
+    /** Current query number, to report entries once. */
+    private int query;
+    /** Next adding sequence. */
+    private long sequence;
+
+    /**
+     * Create index.
+     * 
+     * @param viewer The viewer reference (must not be <code>null</code>).
+     * @param cellSize The cell size in pixel (must be strictly positive).
+     * @param margin The viewable margin in pixel (must be positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    DisplayableIndex(Viewer viewer, int cellSize, int margin)
+    {
+        super();
+
+        Check.notNull(viewer);
+        Check.superiorStrict(cellSize, 0);
+        Check.superiorOrEqual(margin, 0);
+
+        this.viewer = viewer;
+        this.cellSize = cellSize;
+        this.margin = margin;
+    }
+
+    /**
+     * Add a displayable.
+     * 
+     * @param displayable The displayable reference.
+     * @param transformable The displayable bounds (<code>null</code> if always visible).
+     * @param layer The displayable layer.
+     */
+    void add(Displayable displayable, Transformable transformable, Integer layer)
+    {
+        if (!entries.containsKey(displayable))
+        {
+            final Entry entry = new Entry(displayable, transformable, layer, sequence++);
+            entries.put(displayable, entry);
+            layers.merge(layer, Integer.valueOf(1), Integer::sum);
+            if (transformable == null)
+            {
+                unbounded.add(entry);
+            }
+            else
+            {
+                transformables.put(transformable, entry);
+                place(entry);
+                transformable.addListener(this);
+            }
+        }
+    }
+
+    /**
+     * Remove a displayable.
+     * 
+     * @param displayable The displayable reference.
+     */
+    void remove(Displayable displayable)
+    {
+        final Entry entry = entries.remove(displayable);
+        if (entry != null)
+        {
+            decrease(entry.layer);
+            if (entry.transformable == null)
+            {
+                unbounded.remove(entry);
+            }
+            else
+            {
+                transformables.remove(entry.transformable);
+                entry.transformable.removeListener(this);
+                unplace(entry);
+            }
+        }
+    }
+
+    /**
+     * Check if displayable is indexed.
+     * 
+     * @param displayable The displayable reference.
+     * @return <code>true</code> if indexed, <code>false</code> else.
+     */
+    boolean contains(Displayable displayable)
+    {
+        return entries.containsKey(displayable);
+    }
+
+    /**
+     * Set the displayable layer.
+     * 
+     * @param displayable The displayable reference.
+     * @param layer The new layer.
+     */
+    void setLayer(Displayable displayable, Integer layer)
+    {
+        final Entry entry = entries.get(displayable);
+        if (entry != null && !entry.layer.equals(layer))
+        {
+            decrease(entry.layer);
+            layers.merge(layer, Integer.valueOf(1), Integer::sum);
+            entry.layer = layer;
+        }
+    }
+
+    /**
+     * Check if layer contains indexed displayables.
+     * 
+     * @param layer The layer index.
+     * @return <code>true</code> if at least one displayable is indexed on layer, <code>false</code> else.
+     */
+    boolean hasLayer(Integer layer)
+    {
+        return layers.containsKey(layer);
+    }
+
+    /**
+     * Get the number of indexed displayables.
+     * 
+     * @return The indexed displayables number.
+     */
+    int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Collect displayables currently viewable, by layer, in their adding order.
+     * 
+     * @param visible The visible displayables by layer, filled.
+     * @return The number of collected displayables.
+     */
+    int collect(Map<Integer, List<Displayable>> visible)
+    {
+        query++;
+        for (final List<Entry> layer : found.values())
+        {
+            layer.clear();
+        }
+
+        int count = unbounded.size();
+        for (int i = 0; i < count; i++)
+        {
+            addFound(unbounded.get(i));
+        }
+
+        final double x0 = viewer.getViewpointX(0.0);
+        final double sx = viewer.getViewpointX(1.0) - x0;
+        final double y0 = viewer.getViewpointY(0.0);
+        final double sy = viewer.getViewpointY(1.0) - y0;
+        if (Double.compare(sx, 0.0) == 0 || Double.compare(sy, 0.0) == 0)
+        {
+            count += collectAll();
+        }
+        else
+        {
+            count += collectCells(x0, sx, y0, sy);
+        }
+
+        for (final Map.Entry<Integer, List<Entry>> layer : found.entrySet())
+        {
+            final List<Entry> entriesFound = layer.getValue();
+            final int length = entriesFound.size();
+            if (length > 0)
+            {
+                entriesFound.sort(ORDER);
+                final List<Displayable> displayables = visible.computeIfAbsent(layer.getKey(),
+                                                                               key -> new ArrayList<>());
+                for (int i = 0; i < length; i++)
+                {
+                    displayables.add(entriesFound.get(i).displayable);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collect viewable displayables of cells covered by viewer.
+     * 
+     * @param x0 The horizontal viewpoint of origin.
+     * @param sx The horizontal viewpoint scale.
+     * @param y0 The vertical viewpoint of origin.
+     * @param sy The vertical viewpoint scale.
+     * @return The number of collected displayables.
+     */
+    private int collectCells(double x0, double sx, double y0, double sy)
+    {
+        final double ax = (viewer.getViewX() - x0) / sx;
+        final double bx = (viewer.getViewX() + viewer.getWidth() - x0) / sx;
+        final double ay = (viewer.getViewY() - y0) / sy;
+        final double by = (viewer.getViewY() + viewer.getHeight() - y0) / sy;
+
+        final int minX = toCell(Math.min(ax, bx) - margin);
+        final int maxX = toCell(Math.max(ax, bx) + margin);
+        final int minY = toCell(Math.min(ay, by) - margin);
+        final int maxY = toCell(Math.max(ay, by) + margin);
+
+        int count = 0;
+        for (int cy = minY; cy <= maxY; cy++)
+        {
+            for (int cx = minX; cx <= maxX; cx++)
+            {
+                final List<Entry> cell = cells.get(key(cx, cy));
+                if (cell != null)
+                {
+                    count += collect(cell);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collect viewable displayables of cell not already collected.
+     * 
+     * @param cell The cell entries.
+     * @return The number of collected displayables.
+     */
+    private int collect(List<Entry> cell)
+    {
+        int count = 0;
+        final int length = cell.size();
+        for (int i = 0; i < length; i++)
+        {
+            final Entry entry = cell.get(i);
+            if (entry.query != query)
+            {
+                entry.query = query;
+                if (viewer.isViewable(entry.transformable, margin, margin))
+                {
+                    addFound(entry);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collect all displayables with bounds, used when viewer does not define a space.
+     * 
+     * @return The number of collected displayables.
+     */
+    private int collectAll()
+    {
+        for (final Entry entry : transformables.values())
+        {
+            addFound(entry);
+        }
+        return transformables.size();
+    }
+
+    /**
+     * Add entry to found ones of its layer.
+     * 
+     * @param entry The entry found.
+     */
+    private void addFound(Entry entry)
+    {
+        found.computeIfAbsent(entry.layer, key -> new ArrayList<>()).add(entry);
+    }
+
+    /**
+     * Decrease layer entries count.
+     * 
+     * @param layer The layer index.
+     */
+    private void decrease(Integer layer)
+    {
+        layers.computeIfPresent(layer, (key, count) -> count.intValue() > 1 ? Integer.valueOf(count.intValue() - 1)
+                                                                              : null);
+    }
+
+    /**
+     * Get the cell index from location.
+     * 
+     * @param value The location value.
+     * @return The cell index.
+     */
+    private int toCell(double value)
+    {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    /**
+     * Reference entry in its covered cells.
+     * 
+     * @param entry The entry to place.
+     */
+    private void place(Entry entry)
+    {
+        final Transformable transformable = entry.transformable;
+        entry.minX = toCell(transformable.getX() - transformable.getWidth());
+        entry.maxX = toCell(transformable.getX() + transformable.getWidth());
+        entry.minY = toCell(transformable.getY() - transformable.getHeight());
+        entry.maxY = toCell(transformable.getY() + transformable.getHeight());
+
+        for (int cy = entry.minY; cy <= entry.maxY; cy++)
+        {
+            for (int cx = entry.minX; cx <= entry.maxX; cx++)
+            {
+                cells.getOrCreate(key(cx, cy)).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Remove entry from its covered cells.
+     * 
+     * @param entry The entry to remove.
+     */
+    private void unplace(Entry entry)
+    {
+        for (int cy = entry.minY; cy <= entry.maxY; cy++)
+        {
+            for (int cx = entry.minX; cx <= entry.maxX; cx++)
+            {
+                final long key = key(cx, cy);
+                final List<Entry> cell = cells.get(key);
+                if (cell != null && cell.remove(entry) && cell.isEmpty())
+                {
+                    cells.remove(key);
+                }
+            }
+        }
+    }
+
+    /*
+     * TransformableListener
+     */
+
+    @Override
+    public void notifyTransformed(Transformable transformable)
+    {
+        final Entry entry = transformables.get(transformable);
+        if (entry != null)
+        {
+            final int minX = toCell(transformable.getX() - transformable.getWidth());
+            final int maxX = toCell(transformable.getX() + transformable.getWidth());
+            final int minY = toCell(transformable.getY() - transformable.getHeight());
+            final int maxY = toCell(transformable.getY() + transformable.getHeight());
+            if (minX != entry.minX || maxX != entry.maxX || minY != entry.minY || maxY != entry.maxY)
+            {
+                unplace(entry);
+                place(entry);
+            }
+        }
+    }
+
+    /**
+     * Indexed displayable.
+     */
+    private static final class Entry
+    {
+        /** Displayable reference. */
+        private final Displayable displayable;
+        /** Displayable bounds (<code>null</code> if always visible). */
+        private final Transformable transformable;
+        /** Adding sequence. */
+        private final long sequence;
+        /** Displayable layer. */
+        private Integer layer;
+        /** Last query having reported entry. */
+        private int query;
+        /** Minimum horizontal cell covered. */
+        private int minX;
+        /** Maximum horizontal cell covered. */
+        private int maxX;
+        /** Minimum vertical cell covered. */
+        private int minY;
+        /** Maximum vertical cell covered. */
+        private int maxY;
+
+        /**
+         * Create entry.
+         * 
+         * @param displayable The displayable reference.
+         * @param transformable The displayable bounds (<code>null</code> if always visible).
+         * @param layer The displayable layer.
+         * @param sequence The adding sequence.
+         */
+        Entry(Displayable displayable, Transformable transformable, Integer layer, long sequence)
+        {
+            super();
+
+            this.displayable = displayable;
+            this.transformable = transformable;
+            this.layer = layer;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Cells entries by cell key, with open addressing on primitive keys so lookups do not allocate.
+     */
+    private static final class Cells
+    {
+        /** Initial capacity, power of two. */
+        private static final int CAPACITY = 64;
+        /** Hash multiplier. */
+        private static final int HASH = 0x9E3779B9;
+
+        /** Cells key. */
+        private long[] keys = new long[CAPACITY];
+        /** Cells entries, <code>null</code> if free slot. */
+        private Object[] values = new Object[CAPACITY];
+        /** Number of cells. */
+        private int size;
+
+        /**
+         * Create cells.
+         */
+        Cells()
+        {
+            super();
+        }
+
+        /**
+         * Get the cell entries.
+         * 
+         * @param key The cell key.
+         * @return The cell entries, <code>null</code> if none.
+         */
+        List<Entry> get(long key)
+        {
+            final int slot = find(key);
+            return cast(values[slot]);
+        }
+
+        /**
+         * Get the cell entries, created if none.
+         * 
+         * @param key The cell key.
+         * @return The cell entries.
+         */
+        List<Entry> getOrCreate(long key)
+        {
+            int slot = find(key);
+            if (values[slot] == null)
+            {
+                if ((size + 1) * 2 > values.length)
+                {
+                    grow();
+                    slot = find(key);
+                }
+                keys[slot] = key;
+                values[slot] = new ArrayList<Entry>();
+                size++;
+            }
+            return cast(values[slot]);
+        }
+
+        /**
+         * Remove the cell, shifting back following colliding cells.
+         * 
+         * @param key The cell key.
+         */
+        void remove(long key)
+        {
+            int free = find(key);
+            if (values[free] == null)
+            {
+                return;
+            }
+            values[free] = null;
+            size--;
+
+            final int mask = values.length - 1;
+            for (int i = free + 1 & mask; values[i] != null; i = i + 1 & mask)
+            {
+                final int home = slot(keys[i], mask);
+                final boolean stays;
+                if (free <= i)
+                {
+                    stays = free < home && home <= i;
+                }
+                else
+                {
+                    stays = free < home || home <= i;
+                }
+                if (!stays)
+                {
+                    keys[free] = keys[i];
+                    values[free] = values[i];
+                    values[i] = null;
+                    free = i;
+                }
+            }
+        }
+
+        /**
+         * Get the home slot of key.
+         * 
+         * @param key The cell key.
+         * @param mask The slots mask.
+         * @return The home slot.
+         */
+        private static int slot(long key, int mask)
+        {
+            final int hash = Long.hashCode(key) * HASH;
+            return (hash ^ hash >>> Short.SIZE) & mask;
+        }
+
+        /**
+         * Find the slot of key, or the free slot where it would be stored.
+         * 
+         * @param key The cell key.
+         * @return The slot index.
+         */
+        private int find(long key)
+        {
+            final int mask = values.length - 1;
+            int i = slot(key, mask);
+            while (values[i] != null && keys[i] != key)
+            {
+                i = i + 1 & mask;
+            }
+            return i;
+        }
+
+        /**
+         * Double capacity and store cells again.
+         */
+        private void grow()
+        {
+            final long[] oldKeys = keys;
+            final Object[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldValues.length * 2];
+            final int mask = values.length - 1;
+            for (int i = 0; i < oldValues.length; i++)
+            {
+                if (oldValues[i] != null)
+                {
+                    int slot = slot(oldKeys[i], mask);
+                    while (values[slot] != null)
+                    {
+                        slot = slot + 1 & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        /**
+         * Cast cell entries.
+         * 
+         * @param value The stored value.
+         * @return The cell entries.
+         */
+        @SuppressWarnings("unchecked")
+        private static List<Entry> cast(Object value)
+        {
+            return (List<Entry>) value;
+        }
+    }
+}
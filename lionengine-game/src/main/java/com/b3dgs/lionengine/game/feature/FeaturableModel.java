@@ -17,14 +17,8 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.List;
-
-import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
-import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.game.Feature;
 
 /**
@@ -36,35 +30,6 @@ public class FeaturableModel implements Featurable
     static final String ERROR_CLASS_PRESENCE = "Class not found: ";
     /** In. */
     private static final String IN = " in ";
-    /** Inject service error. */
-    private static final String ERROR_INJECT = "Error during service injection !";
-
-    /**
-     * Get all with that require an injected service.
-     * 
-     * @param object The object which requires injected services.
-     * @return The field requiring injected services.
-     */
-    private static List<Field> getServiceFields(Object object)
-    {
-        final List<Field> toInject = new ArrayList<>();
-        Class<?> clazz = object.getClass();
-        while (clazz != null)
-        {
-            final Field[] fields = clazz.getDeclaredFields();
-            final int length = fields.length;
-            for (int i = 0; i < length; i++)
-            {
-                final Field field = fields[i];
-                if (field.isAnnotationPresent(FeatureGet.class))
-                {
-                    toInject.add(field);
-                }
-            }
-            clazz = clazz.getSuperclass();
-        }
-        return toInject;
-    }
 
     /** Features provider. */
     private final Features features = new Features();
@@ -93,63 +58,51 @@ public class FeaturableModel implements Featurable
         super();
 
         media = setup.getMedia();
-        addFeature(new IdentifiableModel());
+        addFeature(new IdentifiableModel(services));
     }
 
     /**
-     * Fill services fields with their right instance.
+     * Fill services fields with their right instance, using the cached injection plan of object class.
      * 
      * @param object The object to update.
      * @throws LionEngineException If error on setting service.
      */
     private void fillServices(Object object)
     {
-        final List<Field> fields = getServiceFields(object);
-        final int length = fields.size();
+        final FeatureInjection plan = FeatureInjection.get(object.getClass());
+        final int length = plan.size();
         for (int i = 0; i < length; i++)
         {
-            final Field field = fields.get(i);
-            UtilReflection.setAccessible(field, true);
-
-            final Class<?> type = field.getType();
-            setField(field, object, type);
+            if (plan.get(object, i) == null)
+            {
+                plan.set(object, i, getService(object, plan.getType(i)));
+            }
         }
     }
 
     /**
-     * Set the field service only if currently <code>null</code>.
+     * Get the service instance to inject.
      * 
-     * @param field The field to set.
      * @param object The object to update.
      * @param type The service type.
-     * @throws LionEngineException If error on setting service.
+     * @return The service instance.
+     * @throws LionEngineException If service not found.
      */
-    private void setField(Field field, Object object, Class<?> type)
+    private Object getService(Object object, Class<?> type)
     {
-        try
+        final Class<? extends Feature> clazz;
+        // CHECKSTYLE IGNORE LINE: InnerAssignment
+        if (Feature.class.isAssignableFrom(type) && hasFeature(clazz = type.asSubclass(Feature.class)))
         {
-            if (field.get(object) == null)
-            {
-                final Class<? extends Feature> clazz;
-                // CHECKSTYLE IGNORE LINE: InnerAssignment
-                if (Feature.class.isAssignableFrom(type) && hasFeature(clazz = type.asSubclass(Feature.class)))
-                {
-                    field.set(object, getFeature(clazz));
-                }
-                else if (media != null)
-                {
-                    throw new LionEngineException(media, ERROR_CLASS_PRESENCE + String.valueOf(type) + IN + object);
-                }
-                else
-                {
-                    throw new LionEngineException(ERROR_CLASS_PRESENCE + String.valueOf(type) + IN + object);
-                }
-            }
+            return getFeature(clazz);
+        }
+        else if (media != null)
+        {
+            throw new LionEngineException(media, ERROR_CLASS_PRESENCE + String.valueOf(type) + IN + object);
         }
-        catch (final IllegalAccessException exception)
+        else
         {
-            throw new LionEngineException(exception,
-                                          ERROR_INJECT + type.getSimpleName() + Constant.SLASH + field.getName());
+            throw new LionEngineException(ERROR_CLASS_PRESENCE + String.valueOf(type) + IN + object);
         }
     }
 
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilReflection;
+
+/**
+ * Injection plan of {@link FeatureGet} fields for a class. Plans are built once per class, with direct method handles
+ * on fields, so injecting an instance does not perform any reflection lookup.
+ */
+final class FeatureInjection
+{
+    /** Inject service error. */
+    static final String ERROR_INJECT = "Error during service injection !";
+    /** Getter type. */
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    /** Setter type. */
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    /** Plans cache. */
+    private static final ClassValue<FeatureInjection> PLANS = new ClassValue<FeatureInjection>()
+    {
+        @Override
+        protected FeatureInjection computeValue(Class<?> type)
+        {
+            return new FeatureInjection(type);
+        }
+    };
+
+    /**
+     * Get the injection plan of a class.
+     * 
+     * @param type The class to inject.
+     * @return The cached plan.
+     * @throws LionEngineException If a field cannot be accessed.
+     */
+    static FeatureInjection get(Class<?> type)
+    {
+        return PLANS.get(type);
+    }
+
+    /**
+     * Create exception for field.
+     * 
+     * @param cause The error cause.
+     * @param field The field in error.
+     * @return The exception.
+     */
+    private static LionEngineException createException(Throwable cause, Field field)
+    {
+        return new LionEngineException(cause,
+                                       ERROR_INJECT + field.getType().getSimpleName() + Constant.SLASH + field.getName());
+    }
+
+    /** Injected fields. */
+    private final Field[] fields;
+    /** Fields getter. */
+    private final MethodHandle[] getters;
+    /** Fields setter. */
+    private final MethodHandle[] setters;
+
+    /**
+     * Create plan by finding all fields that require an injected service, in type and its parents.
+     * 
+     * @param type The class to inject.
+     * @throws LionEngineException If a field cannot be accessed.
+     */
+    private FeatureInjection(Class<?> type)
+    {
+        super();
+
+        final List<Field> toInject = new ArrayList<>();
+        Class<?> clazz = type;
+        while (clazz != null)
+        {
+            for (final Field field : clazz.getDeclaredFields())
+            {
+                if (field.isAnnotationPresent(FeatureGet.class))
+                {
+                    toInject.add(field);
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+
+        final int length = toInject.size();
+        fields = toInject.toArray(new Field[length]);
+        getters = new MethodHandle[length];
+        setters = new MethodHandle[length];
+
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (int i = 0; i < length; i++)
+        {
+            final Field field = fields[i];
+            UtilReflection.setAccessible(field, true);
+            try
+            {
+                getters[i] = lookup.unreflectGetter(field).asType(GETTER);
+                setters[i] = lookup.unreflectSetter(field).asType(SETTER);
+            }
+            catch (final IllegalAccessException exception)
+            {
+                throw createException(exception, field);
+            }
+        }
+    }
+
+    /**
+     * Get the number of fields to inject.
+     * 
+     * @return The fields number.
+     */
+    int size()
+    {
+        return fields.length;
+    }
+
+    /**
+     * Get the field type.
+     * 
+     * @param index The field index.
+     * @return The field type.
+     */
+    Class<?> getType(int index)
+    {
+        return fields[index].getType();
+    }
+
+    /**
+     * Get the current field value.
+     * 
+     * @param object The object owning field.
+     * @param index The field index.
+     * @return The field value.
+     * @throws LionEngineException If unable to read field.
+     */
+    Object get(Object object, int index)
+    {
+        try
+        {
+            return getters[index].invokeExact(object);
+        }
+        catch (final Throwable exception) // CHECKSTYLE IGNORE LINE: IllegalCatch
+        {
+            throw createException(exception, fields[index]);
+        }
+    }
+
+    /**
+     * Set the field value.
+     * 
+     * @param object The object owning field.
+     * @param index The field index.
+     * @param value The value to set.
+     * @throws LionEngineException If unable to write field.
+     */
+    void set(Object object, int index, Object value)
+    {
+        try
+        {
+            setters[index].invokeExact(object, value);
+        }
+        catch (final Throwable exception) // CHECKSTYLE IGNORE LINE: IllegalCatch
+        {
+            throw createException(exception, fields[index]);
+        }
+    }
+}
@@ -17,10 +17,13 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,16 +33,54 @@ import com.b3dgs.lionengine.game.Feature;
 
 /**
  * Handlables implementation.
+ * <p>
+ * Featurables are grouped by archetype (featurable class and features set). Each archetype resolves once the types
+ * its featurables and features are stored as, so adding and removing does not depend on types hierarchy depth. Items
+ * of each type are stored in a dense array.
+ * </p>
  */
 final class HandlablesImpl implements Handlables
 {
     /** Featurable not found error. */
     static final String ERROR_FEATURABLE_NOT_FOUND = "Featurable not found: ";
+    /** Featurable types cache (class, its interfaces and parents interfaces). */
+    private static final ClassValue<Class<?>[]> FEATURABLE_TYPES = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            final Set<Class<?>> types = new LinkedHashSet<>();
+            types.add(type);
+            Class<?> current = type;
+            while (current != null)
+            {
+                Collections.addAll(types, current.getInterfaces());
+                current = current.getSuperclass();
+            }
+            return types.toArray(new Class<?>[types.size()]);
+        }
+    };
+    /** Feature types cache (feature type and its feature interfaces). */
+    private static final ClassValue<Class<?>[]> FEATURE_TYPES = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            final Set<Class<?>> types = new LinkedHashSet<>();
+            types.add(type);
+            types.addAll(UtilReflection.getInterfaces(type, Feature.class));
+            return types.toArray(new Class<?>[types.size()]);
+        }
+    };
 
     /** List of featurables (key is the featurable ID). */
     private final Map<Integer, Featurable> featurables = new HashMap<>();
+    /** Stored items by featurable ID. */
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    /** Archetypes by featurable class and features set. */
+    private final Map<Class<?>, Map<Set<Class<? extends Feature>>, Archetype>> archetypes = new HashMap<>();
     /** List of typed items (key is the feature type). */
-    private final Map<Class<?>, Set<Object>> items = new HashMap<>();
+    private final Map<Class<?>, HandlablesType<?>> items = new HashMap<>();
 
     /**
      * Create the handlables.
@@ -56,24 +97,18 @@ final class HandlablesImpl implements Handlables
      */
     public void add(Featurable featurable)
     {
-        featurables.put(featurable.getFeature(Identifiable.class).getId(), featurable);
-
-        for (final Class<?> type : featurable.getClass().getInterfaces())
+        final Integer id = featurable.getFeature(Identifiable.class).getId();
+        final Entry old = entries.remove(id);
+        if (old != null)
         {
-            addType(type, featurable);
+            old.remove();
         }
+        featurables.put(id, featurable);
 
-        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
-        {
-            final Feature object = featurable.getFeature(feature);
-            addType(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
-            {
-                addType(other, object);
-            }
-        }
-        addType(featurable.getClass(), featurable);
-        addSuperClass(featurable, featurable.getClass());
+        final Archetype archetype = getArchetype(featurable);
+        final Entry entry = new Entry(archetype, archetype.resolve(featurable));
+        entry.add();
+        entries.put(id, entry);
     }
 
     /**
@@ -84,24 +119,11 @@ final class HandlablesImpl implements Handlables
      */
     public void remove(Featurable featurable, Integer id)
     {
-        for (final Class<?> type : featurable.getClass().getInterfaces())
-        {
-            remove(type, featurable);
-        }
-
-        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
+        final Entry entry = entries.remove(id);
+        if (entry != null)
         {
-            final Feature object = featurable.getFeature(feature);
-            remove(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
-            {
-                remove(other, object);
-            }
-
+            entry.remove();
         }
-        remove(featurable.getClass(), featurable);
-        removeSuperClass(featurable, featurable.getClass());
-
         featurables.remove(id);
     }
 
@@ -116,71 +138,87 @@ final class HandlablesImpl implements Handlables
     }
 
     /**
-     * Add a type from its interface.
+     * Get the number of archetypes.
      * 
-     * @param type The type interface.
-     * @param object The type value.
+     * @return The archetypes number.
      */
-    private void addType(Class<?> type, Object object)
+    int getArchetypes()
     {
-        if (!items.containsKey(type))
+        int count = 0;
+        for (final Map<?, Archetype> byFeatures : archetypes.values())
         {
-            items.put(type, new HashSet<>());
+            count += byFeatures.size();
         }
-        items.get(type).add(object);
+        return count;
     }
 
     /**
-     * Add object parent super type.
+     * Get the featurable archetype, created on first use.
      * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * @param featurable The featurable reference.
+     * @return The archetype.
      */
-    private void addSuperClass(Object object, Class<?> type)
+    private Archetype getArchetype(Featurable featurable)
     {
-        for (final Class<?> types : type.getInterfaces())
+        final Set<Class<? extends Feature>> features = new HashSet<>();
+        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
         {
-            addType(types, object);
+            features.add(feature);
         }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
+        final Map<Set<Class<? extends Feature>>, Archetype> byFeatures;
+        byFeatures = archetypes.computeIfAbsent(featurable.getClass(), type -> new HashMap<>());
+
+        Archetype archetype = byFeatures.get(features);
+        if (archetype == null)
         {
-            addSuperClass(object, parent);
+            archetype = createArchetype(featurable);
+            byFeatures.put(features, archetype);
         }
+        return archetype;
     }
 
     /**
-     * Remove object parent super type.
+     * Create the featurable archetype by resolving all types its featurable and features are stored as.
      * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * @param featurable The featurable reference.
+     * @return The created archetype.
      */
-    private void removeSuperClass(Object object, Class<?> type)
+    private Archetype createArchetype(Featurable featurable)
     {
-        for (final Class<?> types : type.getInterfaces())
+        final List<HandlablesType<?>> stores = new ArrayList<>();
+        final List<Class<? extends Feature>> sources = new ArrayList<>();
+        final Map<Class<?>, Set<Object>> added = new HashMap<>();
+
+        for (final Class<?> type : FEATURABLE_TYPES.get(featurable.getClass()))
         {
-            remove(types, object);
+            added.computeIfAbsent(type, key -> new HashSet<>()).add(featurable);
+            stores.add(getStore(type));
+            sources.add(null);
         }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
+        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
         {
-            removeSuperClass(object, parent);
+            final Feature object = featurable.getFeature(feature);
+            for (final Class<?> type : FEATURE_TYPES.get(feature))
+            {
+                if (added.computeIfAbsent(type, key -> new HashSet<>()).add(object))
+                {
+                    stores.add(getStore(type));
+                    sources.add(feature);
+                }
+            }
         }
+        return new Archetype(stores, sources);
     }
 
     /**
-     * Remove the object from its type list.
+     * Get the items storage of a type, created if not existing.
      * 
-     * @param type The type reference.
-     * @param object The object reference.
+     * @param type The items type.
+     * @return The items storage.
      */
-    private void remove(Class<?> type, Object object)
+    private HandlablesType<?> getStore(Class<?> type)
     {
-        final Set<?> set = items.get(type);
-        if (set != null)
-        {
-            set.remove(object);
-        }
+        return items.computeIfAbsent(type, key -> new HandlablesType<>());
     }
 
     /*
@@ -202,7 +240,7 @@ final class HandlablesImpl implements Handlables
     @SuppressWarnings("unchecked")
     public <I> Iterable<I> get(Class<I> type)
     {
-        final Set<?> typeFeaturables = items.get(type);
+        final HandlablesType<?> typeFeaturables = items.get(type);
         if (typeFeaturables != null)
         {
             return (Iterable<I>) typeFeaturables;
@@ -215,4 +253,104 @@ final class HandlablesImpl implements Handlables
     {
         return featurables.values();
     }
+
+    /**
+     * Featurables sharing the same class and features set, with their resolved storage.
+     */
+    private static final class Archetype
+    {
+        /** Storage of each stored item. */
+        private final HandlablesType<?>[] stores;
+        /** Feature type of each stored item, <code>null</code> for the featurable itself. */
+        private final Class<? extends Feature>[] sources;
+
+        /**
+         * Create archetype.
+         * 
+         * @param stores The items storage.
+         * @param sources The items feature type.
+         */
+        @SuppressWarnings("unchecked")
+        Archetype(List<HandlablesType<?>> stores, List<Class<? extends Feature>> sources)
+        {
+            super();
+
+            this.stores = stores.toArray(new HandlablesType<?>[stores.size()]);
+            this.sources = sources.toArray((Class<? extends Feature>[]) new Class<?>[sources.size()]);
+        }
+
+        /**
+         * Get the items to store for a featurable of this archetype.
+         * 
+         * @param featurable The featurable reference.
+         * @return The items to store.
+         */
+        Object[] resolve(Featurable featurable)
+        {
+            final int length = sources.length;
+            final Object[] objects = new Object[length];
+            for (int i = 0; i < length; i++)
+            {
+                final Class<? extends Feature> source = sources[i];
+                if (source == null)
+                {
+                    objects[i] = featurable;
+                }
+                else
+                {
+                    objects[i] = featurable.getFeature(source);
+                }
+            }
+            return objects;
+        }
+    }
+
+    /**
+     * Items stored for a featurable.
+     */
+    private static final class Entry
+    {
+        /** Featurable archetype. */
+        private final Archetype archetype;
+        /** Stored items. */
+        private final Object[] objects;
+
+        /**
+         * Create entry.
+         * 
+         * @param archetype The featurable archetype.
+         * @param objects The items to store.
+         */
+        Entry(Archetype archetype, Object[] objects)
+        {
+            super();
+
+            this.archetype = archetype;
+            this.objects = objects;
+        }
+
+        /**
+         * Add items to their storage.
+         */
+        void add()
+        {
+            final int length = objects.length;
+            for (int i = 0; i < length; i++)
+            {
+                archetype.stores[i].add(objects[i]);
+            }
+        }
+
+        /**
+         * Remove items from their storage.
+         */
+        void remove()
+        {
+            final int length = objects.length;
+            for (int i = 0; i < length; i++)
+            {
+                archetype.stores[i].remove(objects[i]);
+            }
+        }
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Dense storage of handled items of one type. Items are stored contiguously in an array for fast iteration, with an
+ * index allowing constant time add and remove by swapping with the last item.
+ * 
+ * @param <I> The item type.
+ */
+final class HandlablesType<I> implements Iterable<I>
+{
+    /** Initial capacity. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Items index in array. */
+    private final Map<Object, Integer> indexes = new HashMap<>();
+    /** Items array. */
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    /** Items number. */
+    private int size;
+    /** Modifications count, to detect modification during iteration. */
+    private int modifications;
+
+    /**
+     * Create storage.
+     */
+    HandlablesType()
+    {
+        super();
+    }
+
+    /**
+     * Add item if not already stored.
+     * 
+     * @param item The item to add.
+     */
+    void add(Object item)
+    {
+        if (!indexes.containsKey(item))
+        {
+            if (size == items.length)
+            {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            indexes.put(item, Integer.valueOf(size));
+            items[size] = item;
+            size++;
+            modifications++;
+        }
+    }
+
+    /**
+     * Remove item if stored. Last item takes its place.
+     * 
+     * @param item The item to remove.
+     */
+    void remove(Object item)
+    {
+        final Integer index = indexes.remove(item);
+        if (index != null)
+        {
+            size--;
+            final int i = index.intValue();
+            if (i < size)
+            {
+                final Object last = items[size];
+                items[i] = last;
+                indexes.put(last, index);
+            }
+            items[size] = null;
+            modifications++;
+        }
+    }
+
+    /**
+     * Get the number of items.
+     * 
+     * @return The items number.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /*
+     * Iterable
+     */
+
+    @Override
+    public Iterator<I> iterator()
+    {
+        return new Iterator<I>()
+        {
+            /** Expected modifications count. */
+            private final int expected = modifications;
+            /** Current index. */
+            private int index;
+
+            @Override
+            public boolean hasNext()
+            {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public I next()
+            {
+                if (expected != modifications)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                if (index >= size)
+                {
+                    throw new NoSuchElementException();
+                }
+                return (I) items[index++];
+            }
+        };
+    }
+}
@@ -20,6 +20,7 @@ package com.b3dgs.lionengine.game.feature;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 
 import com.b3dgs.lionengine.Updatable;
 import com.b3dgs.lionengine.game.FeatureProvider;
@@ -45,9 +46,9 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     /** List of items. */
     private final HandlablesImpl featurables = new HandlablesImpl();
     /** To add list. */
-    private final Collection<Featurable> toAdd = new HashSet<>();
+    private final Collection<Featurable> toAdd = new LinkedHashSet<>();
     /** To delete list. */
-    private final Collection<Integer> toDelete = new HashSet<>();
+    private final Collection<Integer> toDelete = new LinkedHashSet<>();
     /** Services reference. */
     private final Services services;
     /** Will delete flag. */
@@ -131,9 +132,16 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void add(Featurable featurable)
     {
-        featurable.getFeature(Identifiable.class).addListener(this);
-        toAdd.add(featurable);
-        willAdd = true;
+        if (CommandBuffer.isDeferring())
+        {
+            CommandBuffer.submit(() -> add(featurable));
+        }
+        else
+        {
+            featurable.getFeature(Identifiable.class).addListener(this);
+            toAdd.add(featurable);
+            willAdd = true;
+        }
     }
 
     /**
@@ -145,8 +153,15 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void remove(FeatureProvider featurable)
     {
-        toDelete.add(featurable.getFeature(Identifiable.class).getId());
-        willDelete = true;
+        if (CommandBuffer.isDeferring())
+        {
+            CommandBuffer.submit(() -> remove(featurable));
+        }
+        else
+        {
+            toDelete.add(featurable.getFeature(Identifiable.class).getId());
+            willDelete = true;
+        }
     }
 
     /**
@@ -156,8 +171,15 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void removeAll()
     {
-        toDelete.addAll(featurables.getIds());
-        willDelete = true;
+        if (CommandBuffer.isDeferring())
+        {
+            CommandBuffer.submit(this::removeAll);
+        }
+        else
+        {
+            toDelete.addAll(featurables.getIds());
+            willDelete = true;
+        }
     }
 
     /**
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Unique id allocator, recycling released ids. Allocation and release are lock free and can be performed from any
+ * thread.
+ * <p>
+ * A default allocator is shared by all {@link IdentifiableModel} created without services. Add an instance to a
+ * {@link Services} to scope ids to a world, so several worlds do not share id space:
+ * </p>
+ * 
+ * <pre>
+ * final Services services = new Services();
+ * services.create(IdentifiableAllocator.class);
+ * </pre>
+ */
+public final class IdentifiableAllocator
+{
+    /** Free ID error. */
+    static final String ERROR_FREE_ID = "No more free id available !";
+    /** Default allocator. */
+    private static final IdentifiableAllocator DEFAULT = new IdentifiableAllocator();
+
+    /**
+     * Get the default allocator, shared by identifiables without scoped allocator.
+     * 
+     * @return The default allocator.
+     */
+    public static IdentifiableAllocator getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /** Released ids available for reuse. */
+    private final Queue<Integer> recycle = new ConcurrentLinkedQueue<>();
+    /** Next never used id. */
+    private final AtomicInteger next = new AtomicInteger();
+    /** Live ids count. */
+    private final AtomicInteger live = new AtomicInteger();
+    /** Total allocations. */
+    private final AtomicLong allocated = new AtomicLong();
+    /** Allocations served from recycled ids. */
+    private final AtomicLong reused = new AtomicLong();
+
+    /**
+     * Create an allocator.
+     */
+    public IdentifiableAllocator()
+    {
+        super();
+    }
+
+    /**
+     * Get a free id, reusing a released one if available.
+     * 
+     * @return The allocated id.
+     * @throws LionEngineException If there is more than {@link Integer#MAX_VALUE} ids at the same time.
+     */
+    public Integer acquire()
+    {
+        Integer id = recycle.poll();
+        if (id == null)
+        {
+            int current;
+            do
+            {
+                current = next.get();
+                if (current == Integer.MAX_VALUE)
+                {
+                    throw new LionEngineException(ERROR_FREE_ID);
+                }
+            }
+            while (!next.compareAndSet(current, current + 1));
+            id = Integer.valueOf(current);
+        }
+        else
+        {
+            reused.incrementAndGet();
+        }
+        allocated.incrementAndGet();
+        live.incrementAndGet();
+        return id;
+    }
+
+    /**
+     * Release an id, which becomes available for reuse. Must be called once per acquired id.
+     * 
+     * @param id The id to release.
+     */
+    public void release(Integer id)
+    {
+        live.decrementAndGet();
+        recycle.add(id);
+    }
+
+    /**
+     * Get the number of ids currently in use.
+     * 
+     * @return The live ids number.
+     */
+    public int getLive()
+    {
+        return live.get();
+    }
+
+    /**
+     * Get the total number of allocations.
+     * 
+     * @return The allocations number.
+     */
+    public long getAllocated()
+    {
+        return allocated.get();
+    }
+
+    /**
+     * Get the number of allocations served from released ids.
+     * 
+     * @return The reused ids number.
+     */
+    public long getReused()
+    {
+        return reused.get();
+    }
+
+    /**
+     * Get the ratio of allocations served from released ids.
+     * 
+     * @return The reuse rate in <code>[0, 1]</code>, <code>0</code> if nothing allocated.
+     */
+    public double getReuseRate()
+    {
+        final long total = allocated.get();
+        if (total == 0L)
+        {
+            return 0.0;
+        }
+        return reused.get() / (double) total;
+    }
+}
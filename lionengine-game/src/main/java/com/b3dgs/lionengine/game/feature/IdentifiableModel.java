@@ -17,71 +17,75 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Queue;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 
 /**
- * Default identifiable implementation. Handle a list of unique ID, provide the next free ID, and recycle destroyed ID.
+ * Default identifiable implementation. Provide a unique ID from an {@link IdentifiableAllocator}, and recycle destroyed
+ * ID.
  */
 public class IdentifiableModel extends FeatureModel implements Identifiable, Recyclable
 {
-    /** Free ID error. */
-    static final String ERROR_FREE_ID = "No more free id available !";
-    /** ID used (list of active id used). */
-    private static final Collection<Integer> IDS = new HashSet<>();
-    /** Recycle ID (reuse previous removed object ID). */
-    private static final Queue<Integer> RECYCLE = new ArrayDeque<>();
-    /** Last ID used (last maximum id value). */
-    private static int lastId;
-
-    /**
-     * Get the next unused ID.
-     * 
-     * @return The next unused ID.
-     * @throws LionEngineException If there is more than {@link Integer#MAX_VALUE} at the same time.
-     */
-    private static Integer getFreeId()
-    {
-        if (!RECYCLE.isEmpty())
-        {
-            final Integer id = RECYCLE.poll();
-            IDS.add(id);
-            return id;
-        }
-        if (IDS.size() == Integer.MAX_VALUE)
-        {
-            throw new LionEngineException(ERROR_FREE_ID);
-        }
-        Integer id;
-        while (IDS.contains(id = Integer.valueOf(lastId))) // CHECKSTYLE IGNORE LINE: TrailingComment|InnerAssignment
-        {
-            lastId++;
-        }
-        IDS.add(id);
-        return id;
-    }
-
     /** Listeners. */
     private final Collection<IdentifiableListener> listeners = new HashSet<>(1);
+    /** Id allocator. */
+    private final IdentifiableAllocator allocator;
     /** Unique ID. */
-    private final Integer id = getFreeId();
+    private final Integer id;
     /** Destroy request flag. */
     private boolean destroy;
     /** Destroyed flag. */
     private boolean destroyed;
 
     /**
-     * Create the identifiable with a unique ID.
+     * Create the identifiable with a unique ID from the default allocator.
      * 
      * @throws LionEngineException If no free ID available.
      */
     public IdentifiableModel()
+    {
+        this(IdentifiableAllocator.getDefault());
+    }
+
+    /**
+     * Create the identifiable with a unique ID from the services allocator if defined, else from the default one.
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument or no free ID available.
+     */
+    public IdentifiableModel(Services services)
+    {
+        this(services.getOptional(IdentifiableAllocator.class).orElse(IdentifiableAllocator.getDefault()));
+    }
+
+    /**
+     * Create the identifiable with a unique ID from allocator.
+     * 
+     * @param allocator The id allocator (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument or no free ID available.
+     */
+    public IdentifiableModel(IdentifiableAllocator allocator)
     {
         super();
+
+        Check.notNull(allocator);
+
+        this.allocator = allocator;
+        id = allocator.acquire();
+    }
+
+    /**
+     * Notify listeners of destruction request.
+     */
+    private void notifyListeners()
+    {
+        for (final IdentifiableListener listener : listeners)
+        {
+            listener.notifyDestroyed(id);
+        }
     }
 
     /*
@@ -117,9 +121,13 @@ public class IdentifiableModel extends FeatureModel implements Identifiable, Rec
         {
             destroy = true;
 
-            for (final IdentifiableListener listener : listeners)
+            if (CommandBuffer.isDeferring())
             {
-                listener.notifyDestroyed(id);
+                CommandBuffer.submit(this::notifyListeners);
+            }
+            else
+            {
+                notifyListeners();
             }
         }
     }
@@ -127,12 +135,11 @@ public class IdentifiableModel extends FeatureModel implements Identifiable, Rec
     @Override
     public void notifyDestroyed()
     {
-        destroyed = true;
-        if (!hasFeature(Recycler.class))
+        if (!destroyed && !hasFeature(Recycler.class))
         {
-            IDS.remove(id);
-            RECYCLE.add(id);
+            allocator.release(id);
         }
+        destroyed = true;
     }
 
     @Override
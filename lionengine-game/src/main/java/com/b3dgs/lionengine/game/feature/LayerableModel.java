@@ -106,6 +106,25 @@ public class LayerableModel extends FeatureModel implements Layerable
         this.layerDisplay = Integer.valueOf(layerDisplay);
     }
 
+    /**
+     * Notify listeners of layer change.
+     * 
+     * @param layerRefreshOld The old refresh layer.
+     * @param layerRefreshNew The new refresh layer.
+     * @param layerDisplayOld The old display layer.
+     * @param layerDisplayNew The new display layer.
+     */
+    private void notifyLayerChanged(Integer layerRefreshOld,
+                                    Integer layerRefreshNew,
+                                    Integer layerDisplayOld,
+                                    Integer layerDisplayNew)
+    {
+        for (final LayerableListener listener : listeners)
+        {
+            listener.notifyLayerChanged(this, layerRefreshOld, layerRefreshNew, layerDisplayOld, layerDisplayNew);
+        }
+    }
+
     /*
      * Layerable
      */
@@ -131,9 +150,15 @@ public class LayerableModel extends FeatureModel implements Layerable
     @Override
     public void setLayer(Integer layerRefresh, Integer layerDisplay)
     {
-        for (final LayerableListener listener : listeners)
+        if (CommandBuffer.isDeferring())
+        {
+            final Integer oldRefresh = this.layerRefresh;
+            final Integer oldDisplay = this.layerDisplay;
+            CommandBuffer.submit(() -> notifyLayerChanged(oldRefresh, layerRefresh, oldDisplay, layerDisplay));
+        }
+        else
         {
-            listener.notifyLayerChanged(this, this.layerRefresh, layerRefresh, this.layerDisplay, layerDisplay);
+            notifyLayerChanged(this.layerRefresh, layerRefresh, this.layerDisplay, layerDisplay);
         }
         this.layerRefresh = layerRefresh;
         this.layerDisplay = layerDisplay;
@@ -18,7 +18,10 @@
 package com.b3dgs.lionengine.game.feature;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
@@ -51,6 +54,11 @@ import com.b3dgs.lionengine.game.Feature;
  * final Camera camera = services.create(Camera.class);
  * final MapTile map = services.create(MapTileGame.class);
  * </pre>
+ * <p>
+ * Lookups are resolved once per requested type and cached until next {@link #add(Object)}, so their cost does not
+ * depend on the number of registered services. Services are not thread safe, and must be accessed from the game
+ * thread only.
+ * </p>
  */
 public class Services
 {
@@ -60,9 +68,15 @@ public class Services
     private static final String ERROR_SERVICE_CREATE = "Unable to create service: ";
     /** Service create error. */
     private static final String ERROR_SERVICE_NO_CONSTRUCTOR = "No recognized constructor found for: ";
+    /** Resolved service not found. */
+    private static final Object NONE = new Object();
 
     /** Services list. */
     private final Collection<Object> servicesSet = new HashSet<>();
+    /** Resolved services by requested type, {@link #NONE} if not found. */
+    private final Map<Class<?>, Object> resolved = new HashMap<>();
+    /** Lookups requiring services scan. */
+    private long scans;
 
     /**
      * Create a services container.
@@ -168,6 +182,7 @@ public class Services
     {
         Check.notNull(service);
         servicesSet.add(service);
+        resolved.clear();
         return service;
     }
 
@@ -191,19 +206,95 @@ public class Services
      * @throws LionEngineException If service not found or <code>null</code>.
      */
     public <S> S get(Class<S> service)
+    {
+        final S found = find(service);
+        if (found == null)
+        {
+            throw new LionEngineException(ERROR_SERVICE_GET + service.getName());
+        }
+        return found;
+    }
+
+    /**
+     * Get a service from its class if available.
+     * 
+     * @param <S> The service type.
+     * @param service The service type.
+     * @return The service implementation found, empty if none.
+     * @throws LionEngineException If service is <code>null</code>.
+     * @see #get(Class)
+     */
+    public <S> Optional<S> getOptional(Class<S> service)
+    {
+        return Optional.ofNullable(find(service));
+    }
+
+    /**
+     * Get the number of lookups which were not cached and required to scan services.
+     * 
+     * @return The scans number.
+     */
+    public long getScans()
+    {
+        return scans;
+    }
+
+    /**
+     * Find the service matching the type, resolved once until next {@link #add(Object)}.
+     * 
+     * @param <S> The service type.
+     * @param service The service type.
+     * @return The service found, <code>null</code> if none.
+     * @throws LionEngineException If service is <code>null</code>.
+     */
+    private <S> S find(Class<S> service)
     {
         Check.notNull(service);
+
+        Object found = resolved.get(service);
+        if (found == null)
+        {
+            found = resolve(service);
+            resolved.put(service, found);
+        }
+        if (found == NONE)
+        {
+            return null;
+        }
+        return service.cast(found);
+    }
+
+    /**
+     * Find the service matching the type by scanning services. An instance of exactly the requested type is preferred.
+     * 
+     * @param service The service type.
+     * @return The service found, {@link #NONE} if none.
+     */
+    private Object resolve(Class<?> service)
+    {
+        scans++;
+
+        Object assignable = null;
         for (final Object object : servicesSet)
         {
-            if (service.isAssignableFrom(object.getClass()))
+            final Class<?> type = object.getClass();
+            if (type == service)
+            {
+                return object;
+            }
+            if (assignable == null && service.isAssignableFrom(type))
             {
-                return service.cast(object);
+                assignable = object;
             }
         }
-        if (service == getClass())
+        if (assignable == null && service == getClass())
+        {
+            assignable = this;
+        }
+        if (assignable == null)
         {
-            return service.cast(this);
+            return NONE;
         }
-        throw new LionEngineException(ERROR_SERVICE_GET + service.getName());
+        return assignable;
     }
 }
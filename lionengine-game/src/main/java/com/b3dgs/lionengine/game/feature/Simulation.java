@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Simulated world stepped by a {@link SimulationRunner}, with its own tick budget and tick durations histogram.
+ * <p>
+ * A world failing during its update is stopped and removed from its runner, without affecting other worlds.
+ * </p>
+ */
+public final class Simulation
+{
+    /** Simulation stopped error. */
+    private static final String ERROR_STOPPED = "Simulation stopped: ";
+
+    /** Simulated world. */
+    private final Updatable world;
+    /** Tick budget in nano seconds. */
+    private final long budget;
+    /** Tick durations. */
+    private final TickHistogram histogram = new TickHistogram();
+    /** Ticks over budget. */
+    private volatile long overruns;
+    /** Done ticks. */
+    private volatile long ticks;
+    /** Failure flag. */
+    private volatile boolean failed;
+
+    /**
+     * Create simulation.
+     * 
+     * @param world The simulated world.
+     * @param budget The tick budget in nano seconds.
+     */
+    Simulation(Updatable world, long budget)
+    {
+        super();
+
+        this.world = world;
+        this.budget = budget;
+    }
+
+    /**
+     * Step world once, recording its duration.
+     * 
+     * @param extrp The extrapolation value.
+     */
+    void tick(double extrp)
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            world.update(extrp);
+        }
+        catch (final RuntimeException exception) // CHECKSTYLE IGNORE LINE: IllegalCatch
+        {
+            failed = true;
+            Verbose.exception(exception, ERROR_STOPPED, String.valueOf(world));
+        }
+        final long elapsed = System.nanoTime() - start;
+        histogram.record(elapsed);
+        if (elapsed > budget)
+        {
+            overruns++;
+        }
+        ticks++;
+    }
+
+    /**
+     * Get the simulated world.
+     * 
+     * @return The simulated world.
+     */
+    public Updatable getWorld()
+    {
+        return world;
+    }
+
+    /**
+     * Get the tick budget.
+     * 
+     * @return The tick budget in nano seconds.
+     */
+    public long getBudget()
+    {
+        return budget;
+    }
+
+    /**
+     * Get the tick durations histogram.
+     * 
+     * @return The tick durations.
+     */
+    public TickHistogram getHistogram()
+    {
+        return histogram;
+    }
+
+    /**
+     * Get the number of ticks which took longer than budget.
+     * 
+     * @return The ticks over budget.
+     */
+    public long getOverruns()
+    {
+        return overruns;
+    }
+
+    /**
+     * Get the number of done ticks.
+     * 
+     * @return The done ticks.
+     */
+    public long getTicks()
+    {
+        return ticks;
+    }
+
+    /**
+     * Check if world failed during an update. A failed simulation is not stepped anymore.
+     * 
+     * @return <code>true</code> if failed, <code>false</code> else.
+     */
+    public boolean isFailed()
+    {
+        return failed;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.LockSupport;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Updatable;
+
+/**
+ * Headless runner stepping many independent worlds ({@link WorldGame}, {@link Handler} or any {@link Updatable}) at a
+ * fixed tick rate, without {@link com.b3dgs.lionengine.graphic.Screen} nor rendering. Allows to host many simulations
+ * in a single virtual machine.
+ * <p>
+ * On each tick, all worlds are updated once with {@link Constant#EXTRP}, each one as a task of a work stealing
+ * {@link ForkJoinPool}. A world is always updated by one thread at a time, and two ticks never overlap, so worlds do
+ * not need to be thread safe as long as they do not share state.
+ * </p>
+ * <p>
+ * Each {@link Simulation} has its own tick budget and tick durations histogram. The whole tick durations are available
+ * with {@link #getHistogram()}.
+ * </p>
+ */
+public final class SimulationRunner
+{
+    /** Pool used to step worlds. */
+    private final ForkJoinPool pool;
+    /** Tick period in nano seconds. */
+    private final long period;
+    /** Running simulations. */
+    private final List<Simulation> simulations = new CopyOnWriteArrayList<>();
+    /** Tasks, reused. */
+    private final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    /** Whole tick durations. */
+    private final TickHistogram histogram = new TickHistogram();
+    /** Ticks behind schedule. */
+    private volatile long late;
+    /** Done ticks. */
+    private volatile long ticks;
+    /** Running flag. */
+    private volatile boolean running;
+
+    /**
+     * Create runner using the common pool.
+     * 
+     * @param rate The tick rate per second (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public SimulationRunner(int rate)
+    {
+        this(ForkJoinPool.commonPool(), rate);
+    }
+
+    /**
+     * Create runner.
+     * 
+     * @param pool The pool used to step worlds (must not be <code>null</code>).
+     * @param rate The tick rate per second (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public SimulationRunner(ForkJoinPool pool, int rate)
+    {
+        super();
+
+        Check.notNull(pool);
+        Check.superiorStrict(rate, 0);
+
+        this.pool = pool;
+        period = Constant.ONE_SECOND_IN_NANO / rate;
+    }
+
+    /**
+     * Add a world to simulate, with the tick period as budget.
+     * 
+     * @param world The world to simulate (must not be <code>null</code>).
+     * @return The added simulation.
+     * @throws LionEngineException If invalid argument.
+     */
+    public Simulation add(Updatable world)
+    {
+        return add(world, period);
+    }
+
+    /**
+     * Add a world to simulate. It will be stepped from next tick.
+     * 
+     * @param world The world to simulate (must not be <code>null</code>).
+     * @param budget The tick budget in nano seconds (must be strictly positive).
+     * @return The added simulation.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Simulation add(Updatable world, long budget)
+    {
+        Check.notNull(world);
+        Check.superiorStrict(budget, 0L);
+
+        final Simulation simulation = new Simulation(world, budget);
+        simulations.add(simulation);
+        return simulation;
+    }
+
+    /**
+     * Remove a simulation. It will not be stepped from next tick.
+     * 
+     * @param simulation The simulation to remove.
+     */
+    public void remove(Simulation simulation)
+    {
+        simulations.remove(simulation);
+    }
+
+    /**
+     * Step all worlds once, and wait for them. Failed simulations are removed.
+     */
+    public synchronized void tick()
+    {
+        final long start = System.nanoTime();
+
+        tasks.clear();
+        for (final Simulation simulation : simulations)
+        {
+            tasks.add(ForkJoinTask.adapt(() -> simulation.tick(Constant.EXTRP)));
+        }
+        pool.invoke(new RecursiveAction()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute()
+            {
+                invokeAll(tasks);
+            }
+        });
+        simulations.removeIf(Simulation::isFailed);
+
+        histogram.record(System.nanoTime() - start);
+        ticks++;
+    }
+
+    /**
+     * Step all worlds the specified number of times, as fast as possible.
+     * 
+     * @param count The number of ticks (must be positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public void run(int count)
+    {
+        Check.superiorOrEqual(count, 0);
+
+        for (int i = 0; i < count; i++)
+        {
+            tick();
+        }
+    }
+
+    /**
+     * Step all worlds at fixed rate. Blocks until {@link #stop()} is called. If ticks are late by more than one period,
+     * schedule is reset instead of catching up.
+     */
+    public void start()
+    {
+        running = true;
+        long next = System.nanoTime();
+        while (running)
+        {
+            tick();
+            next += period;
+
+            long remaining = next - System.nanoTime();
+            if (remaining < -period)
+            {
+                late++;
+                next = System.nanoTime();
+            }
+            while (running && remaining > 0L)
+            {
+                LockSupport.parkNanos(remaining);
+                remaining = next - System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Stop runner started with {@link #start()}. Current tick is completed.
+     */
+    public void stop()
+    {
+        running = false;
+    }
+
+    /**
+     * Check if runner is started.
+     * 
+     * @return <code>true</code> if started, <code>false</code> else.
+     */
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * Get the running simulations.
+     * 
+     * @return The running simulations.
+     */
+    public Collection<Simulation> getSimulations()
+    {
+        return Collections.unmodifiableCollection(simulations);
+    }
+
+    /**
+     * Get the tick period.
+     * 
+     * @return The tick period in nano seconds.
+     */
+    public long getPeriod()
+    {
+        return period;
+    }
+
+    /**
+     * Get the whole tick durations histogram.
+     * 
+     * @return The tick durations.
+     */
+    public TickHistogram getHistogram()
+    {
+        return histogram;
+    }
+
+    /**
+     * Get the number of done ticks.
+     * 
+     * @return The done ticks.
+     */
+    public long getTicks()
+    {
+        return ticks;
+    }
+
+    /**
+     * Get the number of times schedule has been reset because ticks were late by more than one period.
+     * 
+     * @return The late ticks.
+     */
+    public long getLate()
+    {
+        return late;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Histogram of tick durations, in nano seconds. Durations are stored in power of two buckets, so recording is
+ * allocation free and percentiles are approximated by their bucket upper bound.
+ * <p>
+ * This class is thread safe: durations can be recorded while being read from another thread.
+ * </p>
+ */
+public final class TickHistogram
+{
+    /** Buckets number (one per bit, plus zero). */
+    public static final int BUCKETS = Long.SIZE + 1;
+
+    /**
+     * Get the bucket index of a duration.
+     * 
+     * @param nano The duration in nano seconds.
+     * @return The bucket index.
+     */
+    static int getBucket(long nano)
+    {
+        return Long.SIZE - Long.numberOfLeadingZeros(Math.max(0L, nano));
+    }
+
+    /** Durations count per bucket. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    /** Recorded durations. */
+    private final AtomicLong count = new AtomicLong();
+    /** Durations sum. */
+    private final AtomicLong total = new AtomicLong();
+    /** Longest duration. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Create histogram.
+     */
+    public TickHistogram()
+    {
+        super();
+    }
+
+    /**
+     * Record a tick duration.
+     * 
+     * @param nano The duration in nano seconds.
+     */
+    public void record(long nano)
+    {
+        final long duration = Math.max(0L, nano);
+        buckets.incrementAndGet(getBucket(duration));
+        total.addAndGet(duration);
+        max.accumulateAndGet(duration, Math::max);
+        count.incrementAndGet();
+    }
+
+    /**
+     * Clear all recorded durations.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            buckets.set(i, 0L);
+        }
+        count.set(0L);
+        total.set(0L);
+        max.set(0L);
+    }
+
+    /**
+     * Get the number of recorded durations.
+     * 
+     * @return The recorded durations.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Get the number of durations recorded in a bucket. Bucket <code>0</code> contains zero durations, bucket
+     * <code>n</code> contains durations in <code>[2^(n-1), 2^n[</code>.
+     * 
+     * @param bucket The bucket index.
+     * @return The bucket durations.
+     * @throws LionEngineException If invalid bucket.
+     */
+    public long getCount(int bucket)
+    {
+        Check.superiorOrEqual(bucket, 0);
+        Check.inferiorStrict(bucket, BUCKETS);
+
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Get the mean duration.
+     * 
+     * @return The mean duration in nano seconds, <code>0</code> if none.
+     */
+    public long getMean()
+    {
+        final long recorded = count.get();
+        if (recorded == 0L)
+        {
+            return 0L;
+        }
+        return total.get() / recorded;
+    }
+
+    /**
+     * Get the longest duration.
+     * 
+     * @return The longest duration in nano seconds.
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Get the approximated duration under which the percentile of ticks are.
+     * 
+     * @param percentile The percentile in <code>[0, 100]</code>.
+     * @return The duration upper bound in nano seconds, never greater than {@link #getMax()}.
+     * @throws LionEngineException If invalid percentile.
+     */
+    public long getPercentile(double percentile)
+    {
+        Check.superiorOrEqual(percentile, 0.0);
+        Check.inferiorOrEqual(percentile, 100.0);
+
+        long recorded = 0L;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            recorded += buckets.get(i);
+        }
+        final long target = (long) Math.ceil(recorded * percentile / 100.0);
+        long current = 0L;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            current += buckets.get(i);
+            if (current >= target && current > 0L)
+            {
+                final long upper;
+                if (i == 0)
+                {
+                    upper = 0L;
+                }
+                else if (i == Long.SIZE)
+                {
+                    upper = Long.MAX_VALUE;
+                }
+                else
+                {
+                    upper = (1L << i) - 1L;
+                }
+                return Math.min(upper, max.get());
+            }
+        }
+        return 0L;
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append(getClass().getSimpleName())
+                                  .append(" [count=")
+                                  .append(getCount())
+                                  .append(", mean=")
+                                  .append(getMean())
+                                  .append(", p50=")
+                                  .append(getPercentile(50.0))
+                                  .append(", p99=")
+                                  .append(getPercentile(99.0))
+                                  .append(", max=")
+                                  .append(getMax())
+                                  .append(']')
+                                  .toString();
+    }
+}
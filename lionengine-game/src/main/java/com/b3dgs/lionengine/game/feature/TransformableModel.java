@@ -42,6 +42,16 @@ public class TransformableModel extends FeatureModel implements Transformable, R
     private int oldWidth;
     /** Body old height. */
     private int oldHeight;
+    /** Deferred notification replaying flag, old values are the ones before deferred changes. */
+    private boolean replaying;
+    /** Old horizontal location before deferred changes. */
+    private double deferredOldX;
+    /** Old vertical location before deferred changes. */
+    private double deferredOldY;
+    /** Old width before deferred changes. */
+    private int deferredOldWidth;
+    /** Old height before deferred changes. */
+    private int deferredOldHeight;
 
     /**
      * Create a transformable model without configuration.
@@ -89,11 +99,52 @@ public class TransformableModel extends FeatureModel implements Transformable, R
             || Double.compare(getWidth(), getOldWidth()) != 0
             || Double.compare(getHeight(), getOldHeight()) != 0)
         {
-            final int length = listeners.size();
-            for (int i = 0; i < length; i++)
+            if (CommandBuffer.isDeferring())
             {
-                listeners.get(i).notifyTransformed(this);
+                final double x = getOldX();
+                final double y = getOldY();
+                final int w = getOldWidth();
+                final int h = getOldHeight();
+                if (CommandBuffer.submitOnce(this, this::notifyDeferred))
+                {
+                    deferredOldX = x;
+                    deferredOldY = y;
+                    deferredOldWidth = w;
+                    deferredOldHeight = h;
+                }
             }
+            else
+            {
+                notifyListeners();
+            }
+        }
+    }
+
+    /**
+     * Notify listeners once for all deferred changes, from the state before the first one to the current one.
+     */
+    private void notifyDeferred()
+    {
+        replaying = true;
+        try
+        {
+            notifyListeners();
+        }
+        finally
+        {
+            replaying = false;
+        }
+    }
+
+    /**
+     * Notify listeners of transformation.
+     */
+    private void notifyListeners()
+    {
+        final int length = listeners.size();
+        for (int i = 0; i < length; i++)
+        {
+            listeners.get(i).notifyTransformed(this);
         }
     }
 
@@ -231,24 +282,40 @@ public class TransformableModel extends FeatureModel implements Transformable, R
     @Override
     public double getOldX()
     {
+        if (replaying)
+        {
+            return deferredOldX;
+        }
         return mover.getOldX();
     }
 
     @Override
     public double getOldY()
     {
+        if (replaying)
+        {
+            return deferredOldY;
+        }
         return mover.getOldY();
     }
 
     @Override
     public int getOldWidth()
     {
+        if (replaying)
+        {
+            return deferredOldWidth;
+        }
         return oldWidth;
     }
 
     @Override
     public int getOldHeight()
     {
+        if (replaying)
+        {
+            return deferredOldHeight;
+        }
         return oldHeight;
     }
 
@@ -75,6 +75,14 @@ public interface Collidable extends Feature, Renderable, CollidableListener
      */
     List<Collision> collide(Collidable collidable);
 
+    /**
+     * Check if the collidable entered in collision with another one, without allocation.
+     * 
+     * @param collidable The collidable reference.
+     * @param collisions The collisions found if collide, added at end of buffer.
+     */
+    void collide(Collidable collidable, List<Collision> collisions);
+
     /**
      * Set the associated group.
      * 
@@ -194,6 +194,12 @@ public class CollidableModel extends FeatureModel
         return updater.collide(origin, this, transformable, other, accepted);
     }
 
+    @Override
+    public void collide(Collidable other, List<Collision> collisions)
+    {
+        updater.collide(origin, this, transformable, other, accepted, collisions);
+    }
+
     @Override
     public void render(Graphic g)
     {
@@ -36,6 +36,11 @@ import com.b3dgs.lionengine.geom.Rectangle;
 
 /**
  * Box ray cast collidable model implementation.
+ * <p>
+ * Collision rectangles are swept along the transformable movement, one unit step at a time, from their current
+ * location. Steps are not iterated: the steps range overlapping each other area is computed on both axis, and a
+ * collision occurs if this range contains a step. Checks do not allocate and do not modify collision rectangles.
+ * </p>
  */
 final class CollidableUpdater implements IdentifiableListener
 {
@@ -48,9 +53,9 @@ final class CollidableUpdater implements IdentifiableListener
      * @param other The other collidable to check.
      * @param collision The collision to check with.
      * @param rectangle The collision rectangle.
-     * @return The collision collides with other, <code>null</code> if none.
+     * @return <code>true</code> if collision collides with other, <code>false</code> else.
      */
-    private static Collision collide(Origin origin,
+    private static boolean collide(Origin origin,
                                      FeatureProvider provider,
                                      Transformable transformable,
                                      Collidable other,
@@ -79,37 +84,108 @@ final class CollidableUpdater implements IdentifiableListener
             sy = dv / norm;
         }
 
-        for (int count = 0; count <= norm; count++)
+        final int steps = (int) norm;
+
+        final List<Area> others = other.getCollisionBounds();
+        final int size = others.size();
+        for (int i = 0; i < size; i++)
         {
-            if (checkCollide(rectangle, other))
+            if (intersects(rectangle, sx, sy, steps, others.get(i)))
             {
-                return collision;
+                return true;
             }
-            rectangle.translate(sx, sy);
         }
-        return null;
+        return false;
     }
 
     /**
-     * Check if current area collides other collidable area.
+     * Check if rectangle translated by a step intersects area, for at least one step in <code>[0, steps]</code>.
      * 
-     * @param area The current area.
-     * @param other The other collidable.
-     * @return <code>true</code> if collide, <code>false</code> else.
+     * @param rectangle The rectangle at step <code>0</code>.
+     * @param sx The horizontal translation per step.
+     * @param sy The vertical translation per step.
+     * @param steps The last step.
+     * @param area The area to check with.
+     * @return <code>true</code> if intersects, <code>false</code> else.
      */
-    private static boolean checkCollide(Area area, Collidable other)
+    private static boolean intersects(Rectangle rectangle, double sx, double sy, int steps, Area area)
     {
-        final List<Area> others = other.getCollisionBounds();
-        final int size = others.size();
-        for (int i = 0; i < size; i++)
+        final double minX = area.getX() - rectangle.getX() - rectangle.getWidthReal();
+        final double maxX = area.getX() + area.getWidthReal() - rectangle.getX();
+        final double minY = area.getY() - rectangle.getY() - rectangle.getHeightReal();
+        final double maxY = area.getY() + area.getHeightReal() - rectangle.getY();
+        if (!isReachable(minX, maxX, sx) || !isReachable(minY, maxY, sy))
         {
-            final Area current = others.get(i);
-            if (area.intersects(current))
-            {
-                return true;
-            }
+            return false;
         }
-        return false;
+
+        final double lower = Math.max(getLower(minX, maxX, sx), getLower(minY, maxY, sy));
+        final double upper = Math.min(getUpper(minX, maxX, sx), getUpper(minY, maxY, sy));
+        final double first;
+        if (lower < 0.0)
+        {
+            first = 0.0;
+        }
+        else
+        {
+            first = Math.floor(lower) + 1.0;
+        }
+        return first <= steps && first < upper;
+    }
+
+    /**
+     * Check if an axis overlap is possible. Without movement, overlap must already exist.
+     * 
+     * @param min The translation above which overlap starts.
+     * @param max The translation below which overlap ends.
+     * @param speed The translation per step.
+     * @return <code>true</code> if overlap is possible, <code>false</code> else.
+     */
+    private static boolean isReachable(double min, double max, double speed)
+    {
+        return Double.compare(speed, 0.0) != 0 || min < 0.0 && max > 0.0;
+    }
+
+    /**
+     * Get the step above which axis overlaps (excluded).
+     * 
+     * @param min The translation above which overlap starts.
+     * @param max The translation below which overlap ends.
+     * @param speed The translation per step.
+     * @return The lower step.
+     */
+    private static double getLower(double min, double max, double speed)
+    {
+        if (speed > 0.0)
+        {
+            return min / speed;
+        }
+        if (speed < 0.0)
+        {
+            return max / speed;
+        }
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Get the step below which axis overlaps (excluded).
+     * 
+     * @param min The translation above which overlap starts.
+     * @param max The translation below which overlap ends.
+     * @param speed The translation per step.
+     * @return The upper step.
+     */
+    private static double getUpper(double min, double max, double speed)
+    {
+        if (speed > 0.0)
+        {
+            return max / speed;
+        }
+        if (speed < 0.0)
+        {
+            return min / speed;
+        }
+        return Double.POSITIVE_INFINITY;
     }
 
     /**
@@ -223,24 +299,39 @@ final class CollidableUpdater implements IdentifiableListener
                                    Collection<Integer> accepted)
     {
         final List<Collision> collisions = new ArrayList<>();
+        collide(origin, provider, transformable, other, accepted, collisions);
+        return collisions;
+    }
+
+    /**
+     * Check if the collidable entered in collision with another one, without allocation.
+     * 
+     * @param origin The origin used.
+     * @param provider The provider owner.
+     * @param transformable The transformable owner.
+     * @param other The collidable reference.
+     * @param accepted The accepted groups.
+     * @param collisions The collisions found if collide, added at end.
+     */
+    public void collide(Origin origin,
+                        FeatureProvider provider,
+                        Transformable transformable,
+                        Collidable other,
+                        Collection<Integer> accepted,
+                        List<Collision> collisions)
+    {
         if (enabled && accepted.contains(other.getGroup()))
         {
             final int size = cacheColls.size();
             for (int i = 0; i < size; i++)
             {
-                final Collision collision = collide(origin,
-                                                    provider,
-                                                    transformable,
-                                                    other,
-                                                    cacheColls.get(i),
-                                                    cacheRect.get(i));
-                if (collision != null)
+                final Collision collision = cacheColls.get(i);
+                if (collide(origin, provider, transformable, other, collision, cacheRect.get(i)))
                 {
                     collisions.add(collision);
                 }
             }
         }
-        return collisions;
     }
 
     /**
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase used by {@link ComponentCollision} to reduce the number of {@link Collidable} pairs to test. Each
+ * collidable is stored at its location, covering its maximum collision size, and only collidables sharing a location
+ * are considered as candidates.
+ * 
+ * @see CollisionBroadPhaseMap
+ * @see CollisionBroadPhaseGrid
+ */
+public interface CollisionBroadPhase
+{
+    /**
+     * Add collidable at location.
+     * 
+     * @param collidable The collidable reference.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    void add(Collidable collidable, double x, double y);
+
+    /**
+     * Remove collidable from location. Does nothing if collidable was not at this location.
+     * 
+     * @param collidable The collidable reference.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    void remove(Collidable collidable, double x, double y);
+
+    /**
+     * Notify each candidate pair, where second collidable group is accepted by the first one.
+     * 
+     * @param checker The pair checker, called with the collidable reference and the other collidable.
+     */
+    void check(BiConsumer<Collidable, Collidable> checker);
+}
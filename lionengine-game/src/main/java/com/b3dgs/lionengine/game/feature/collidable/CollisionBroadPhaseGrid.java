@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Broad phase storing collidables in a uniform grid of fixed size cells, backed by flat arrays sized to the map.
+ * Each collidable is stored in all cells covered by its maximum collision size, and locations outside the grid are
+ * clamped to its border cells.
+ * <p>
+ * Once cells capacity reached its peak, adding, removing and checking collidables does not allocate. A pair sharing
+ * several cells is notified only once, in the first cell they share.
+ * </p>
+ */
+public class CollisionBroadPhaseGrid implements CollisionBroadPhase
+{
+    /** Initial cell capacity. */
+    private static final int CELL_CAPACITY = 4;
+
+    /** Cell size in pixel. */
+    private final int cellSize;
+    /** Number of horizontal cells. */
+    private final int cellsX;
+    /** Number of vertical cells. */
+    private final int cellsY;
+    /** Collidables per cell index. */
+    private final Collidable[][] cells;
+    /** First covered cell index of each collidable per cell index, used to notify pairs once. */
+    private final int[][] origins;
+    /** Number of collidables per cell index. */
+    private final int[] counts;
+    /** Non empty cell indexes. */
+    private final int[] active;
+    /** Position of each cell index in active cells, <code>-1</code> if empty. */
+    private final int[] activePositions;
+    /** Number of active cells. */
+    private int activeCount;
+
+    /**
+     * Create broad phase.
+     * 
+     * @param width The covered width in pixel (must be strictly positive).
+     * @param height The covered height in pixel (must be strictly positive).
+     * @param cellSize The cell size in pixel (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public CollisionBroadPhaseGrid(int width, int height, int cellSize)
+    {
+        super();
+
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+        Check.superiorStrict(cellSize, 0);
+
+        this.cellSize = cellSize;
+        cellsX = (int) Math.ceil(width / (double) cellSize);
+        cellsY = (int) Math.ceil(height / (double) cellSize);
+
+        final int length = cellsX * cellsY;
+        cells = new Collidable[length][];
+        origins = new int[length][];
+        counts = new int[length];
+        active = new int[length];
+        activePositions = new int[length];
+        Arrays.fill(activePositions, -1);
+    }
+
+    /**
+     * Get the number of horizontal cells.
+     * 
+     * @return The number of horizontal cells.
+     */
+    public int getCellsX()
+    {
+        return cellsX;
+    }
+
+    /**
+     * Get the number of vertical cells.
+     * 
+     * @return The number of vertical cells.
+     */
+    public int getCellsY()
+    {
+        return cellsY;
+    }
+
+    /**
+     * Get the number of collidables stored in cell.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The number of collidables in cell.
+     */
+    public int getCount(int cx, int cy)
+    {
+        return counts[cy * cellsX + cx];
+    }
+
+    /**
+     * Get the cell index from location.
+     * 
+     * @param value The location value.
+     * @param cells The number of cells on this axis.
+     * @return The clamped cell index.
+     */
+    private int toCell(double value, int cells)
+    {
+        final int cell = (int) Math.floor(value / cellSize);
+        if (cell < 0)
+        {
+            return 0;
+        }
+        if (cell >= cells)
+        {
+            return cells - 1;
+        }
+        return cell;
+    }
+
+    /**
+     * Add collidable to cell.
+     * 
+     * @param index The cell index.
+     * @param collidable The collidable to add.
+     * @param origin The first covered cell index.
+     */
+    private void addCell(int index, Collidable collidable, int origin)
+    {
+        final int count = counts[index];
+        if (cells[index] == null)
+        {
+            cells[index] = new Collidable[CELL_CAPACITY];
+            origins[index] = new int[CELL_CAPACITY];
+        }
+        else if (count == cells[index].length)
+        {
+            cells[index] = Arrays.copyOf(cells[index], count * 2);
+            origins[index] = Arrays.copyOf(origins[index], count * 2);
+        }
+        cells[index][count] = collidable;
+        origins[index][count] = origin;
+        counts[index] = count + 1;
+
+        if (count == 0)
+        {
+            activePositions[index] = activeCount;
+            active[activeCount] = index;
+            activeCount++;
+        }
+    }
+
+    /**
+     * Remove collidable from cell by swapping it with the last one.
+     * 
+     * @param index The cell index.
+     * @param collidable The collidable to remove.
+     */
+    private void removeCell(int index, Collidable collidable)
+    {
+        final Collidable[] elements = cells[index];
+        final int count = counts[index];
+        for (int i = 0; i < count; i++)
+        {
+            if (elements[i] == collidable)
+            {
+                final int last = count - 1;
+                elements[i] = elements[last];
+                origins[index][i] = origins[index][last];
+                elements[last] = null;
+                counts[index] = last;
+
+                if (last == 0)
+                {
+                    removeActive(index);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Remove cell from active cells by swapping it with the last one.
+     * 
+     * @param index The cell index.
+     */
+    private void removeActive(int index)
+    {
+        final int position = activePositions[index];
+        activeCount--;
+        final int moved = active[activeCount];
+        active[position] = moved;
+        activePositions[moved] = position;
+        activePositions[index] = -1;
+    }
+
+    /**
+     * Check all pairs of cell.
+     * 
+     * @param index The cell index.
+     * @param checker The pair checker.
+     */
+    private void checkCell(int index, BiConsumer<Collidable, Collidable> checker)
+    {
+        final Collidable[] elements = cells[index];
+        final int[] cellOrigins = origins[index];
+        final int count = counts[index];
+        final int cx = index % cellsX;
+        final int cy = index / cellsX;
+
+        for (int i = 0; i < count; i++)
+        {
+            final Collidable objectA = elements[i];
+            final Collection<Integer> accepted = objectA.getAccepted();
+            if (!accepted.isEmpty())
+            {
+                final int originA = cellOrigins[i];
+                for (int j = 0; j < count; j++)
+                {
+                    final Collidable objectB = elements[j];
+                    if (i != j
+                        && accepted.contains(objectB.getGroup())
+                        && isFirstShared(originA, cellOrigins[j], cx, cy))
+                    {
+                        checker.accept(objectA, objectB);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if cell is the first cell shared by two collidables.
+     * 
+     * @param originA The first cell covered by the first collidable.
+     * @param originB The first cell covered by the second collidable.
+     * @param cx The current horizontal cell.
+     * @param cy The current vertical cell.
+     * @return <code>true</code> if first shared cell, <code>false</code> else.
+     */
+    private boolean isFirstShared(int originA, int originB, int cx, int cy)
+    {
+        return Math.max(originA % cellsX, originB % cellsX) == cx
+               && Math.max(originA / cellsX, originB / cellsX) == cy;
+    }
+
+    /*
+     * CollisionBroadPhase
+     */
+
+    @Override
+    public void add(Collidable collidable, double x, double y)
+    {
+        final int minX = toCell(x, cellsX);
+        final int minY = toCell(y, cellsY);
+        final int maxX = toCell(x + collidable.getMaxWidth(), cellsX);
+        final int maxY = toCell(y + collidable.getMaxHeight(), cellsY);
+        final int origin = minY * cellsX + minX;
+
+        for (int cy = minY; cy <= maxY; cy++)
+        {
+            for (int cx = minX; cx <= maxX; cx++)
+            {
+                addCell(cy * cellsX + cx, collidable, origin);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Collidable collidable, double x, double y)
+    {
+        final int minX = toCell(x, cellsX);
+        final int minY = toCell(y, cellsY);
+        final int maxX = toCell(x + collidable.getMaxWidth(), cellsX);
+        final int maxY = toCell(y + collidable.getMaxHeight(), cellsY);
+
+        for (int cy = minY; cy <= maxY; cy++)
+        {
+            for (int cx = minX; cx <= maxX; cx++)
+            {
+                removeCell(cy * cellsX + cx, collidable);
+            }
+        }
+    }
+
+    @Override
+    public void check(BiConsumer<Collidable, Collidable> checker)
+    {
+        for (int i = 0; i < activeCount; i++)
+        {
+            checkCell(active[i], checker);
+        }
+    }
+}
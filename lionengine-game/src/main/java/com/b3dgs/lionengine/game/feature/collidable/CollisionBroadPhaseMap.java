@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.geom.Point;
+
+/**
+ * Broad phase storing collidables by group and reduced location in hash maps. Only corners of the maximum collision
+ * size are stored.
+ */
+public class CollisionBroadPhaseMap implements CollisionBroadPhase
+{
+    /** Location reduce factor (the higher it is, the lower is the map division per location). */
+    private final double reduceFactor;
+    /** Mapping reduced. */
+    private final Map<Integer, Map<Point, List<Collidable>>> collidables = new HashMap<>();
+
+    /**
+     * Create broad phase.
+     * 
+     * @param reduceFactor The location reduce factor (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public CollisionBroadPhaseMap(double reduceFactor)
+    {
+        super();
+
+        Check.superiorStrict(reduceFactor, 0);
+
+        this.reduceFactor = reduceFactor;
+    }
+
+    /**
+     * Remove point. Remove list of no more collidable.
+     * 
+     * @param point The point to remove.
+     * @param collidable The associated collidable.
+     */
+    private void removePoint(Point point, Collidable collidable)
+    {
+        final Integer group = collidable.getGroup();
+        if (collidables.containsKey(group))
+        {
+            final Map<Point, List<Collidable>> elements = collidables.get(group);
+            if (elements.containsKey(point))
+            {
+                removePoint(point, collidable, elements, group);
+            }
+        }
+    }
+
+    /**
+     * Remove point. Remove list of no more collidable.
+     * 
+     * @param point The point to remove.
+     * @param collidable The associated collidable.
+     * @param elements The current group elements.
+     * @param group The current group.
+     */
+    private void removePoint(Point point, Collidable collidable, Map<Point, List<Collidable>> elements, Integer group)
+    {
+        final List<Collidable> points = elements.get(point);
+        points.remove(collidable);
+        if (points.isEmpty())
+        {
+            elements.remove(point);
+        }
+        if (elements.isEmpty())
+        {
+            collidables.remove(group);
+        }
+    }
+
+    /**
+     * Add point. Create empty list of not existing.
+     * 
+     * @param point The point to remove.
+     * @param collidable The associated collidable.
+     */
+    private void addPoint(Point point, Collidable collidable)
+    {
+        final Integer group = collidable.getGroup();
+        if (!collidables.containsKey(group))
+        {
+            collidables.put(group, new HashMap<Point, List<Collidable>>());
+        }
+        final Map<Point, List<Collidable>> elements = collidables.get(group);
+        if (!elements.containsKey(point))
+        {
+            elements.put(point, new ArrayList<Collidable>());
+        }
+        elements.get(point).add(collidable);
+    }
+
+    /**
+     * Check elements in group.
+     * 
+     * @param current The elements in group.
+     * @param checker The pair checker.
+     */
+    private void checkGroup(Entry<Point, List<Collidable>> current, BiConsumer<Collidable, Collidable> checker)
+    {
+        final List<Collidable> elements = current.getValue();
+        final int length = elements.size();
+        for (int i = 0; i < length; i++)
+        {
+            final Collidable objectA = elements.get(i);
+            checkOthers(objectA, current, checker);
+        }
+    }
+
+    /**
+     * Check others element.
+     * 
+     * @param objectA The collidable reference.
+     * @param current The current group to check.
+     * @param checker The pair checker.
+     */
+    private void checkOthers(Collidable objectA,
+                             Entry<Point, List<Collidable>> current,
+                             BiConsumer<Collidable, Collidable> checker)
+    {
+        for (final Integer acceptedGroup : objectA.getAccepted())
+        {
+            // Others to compare only in accepted group
+            if (collidables.containsKey(acceptedGroup))
+            {
+                checkOthers(objectA, current, acceptedGroup, checker);
+            }
+        }
+    }
+
+    /**
+     * Check others element.
+     * 
+     * @param objectA The collidable reference.
+     * @param current The current group to check.
+     * @param acceptedGroup The accepted group.
+     * @param checker The pair checker.
+     */
+    private void checkOthers(Collidable objectA,
+                             Entry<Point, List<Collidable>> current,
+                             Integer acceptedGroup,
+                             BiConsumer<Collidable, Collidable> checker)
+    {
+        final Map<Point, List<Collidable>> acceptedElements = collidables.get(acceptedGroup);
+        final Point point = current.getKey();
+        if (acceptedElements.containsKey(point))
+        {
+            checkPoint(objectA, acceptedElements, point, checker);
+        }
+    }
+
+    /**
+     * Check others element at specified point.
+     * 
+     * @param objectA The collidable reference.
+     * @param acceptedElements The current elements to check.
+     * @param point The point to check.
+     * @param checker The pair checker.
+     */
+    private void checkPoint(Collidable objectA,
+                            Map<Point, List<Collidable>> acceptedElements,
+                            Point point,
+                            BiConsumer<Collidable, Collidable> checker)
+    {
+        final List<Collidable> others = acceptedElements.get(point);
+        final int othersLength = others.size();
+
+        for (int k = 0; k < othersLength; k++)
+        {
+            final Collidable objectB = others.get(k);
+            if (objectA != objectB)
+            {
+                checker.accept(objectA, objectB);
+            }
+        }
+    }
+
+    /*
+     * CollisionBroadPhase
+     */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Add point and adjacent points depending of the collidable max collision size.
+     * </p>
+     */
+    @Override
+    public void add(Collidable collidable, double x, double y)
+    {
+        final int minX = (int) Math.floor(x / reduceFactor);
+        final int minY = (int) Math.floor(y / reduceFactor);
+        final int maxX = (int) Math.floor((x + collidable.getMaxWidth()) / reduceFactor);
+        final int maxY = (int) Math.floor((y + collidable.getMaxHeight()) / reduceFactor);
+
+        addPoint(new Point(minX, minY), collidable);
+
+        if (minX != maxX && minY == maxY)
+        {
+            addPoint(new Point(maxX, minY), collidable);
+        }
+        else if (minX == maxX && minY != maxY)
+        {
+            addPoint(new Point(minX, maxY), collidable);
+        }
+        else if (minX != maxX)
+        {
+            addPoint(new Point(minX, maxY), collidable);
+            addPoint(new Point(maxX, minY), collidable);
+            addPoint(new Point(maxX, maxY), collidable);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Remove point and adjacent points depending of the collidable max collision size.
+     * </p>
+     */
+    @Override
+    public void remove(Collidable collidable, double x, double y)
+    {
+        final int minX = (int) Math.floor(x / reduceFactor);
+        final int minY = (int) Math.floor(y / reduceFactor);
+        final int maxX = (int) Math.floor((x + collidable.getMaxWidth()) / reduceFactor);
+        final int maxY = (int) Math.floor((y + collidable.getMaxHeight()) / reduceFactor);
+
+        removePoint(new Point(minX, minY), collidable);
+
+        if (minX != maxX && minY == maxY)
+        {
+            removePoint(new Point(maxX, minY), collidable);
+        }
+        else if (minX == maxX && minY != maxY)
+        {
+            removePoint(new Point(minX, maxY), collidable);
+        }
+        else if (minX != maxX)
+        {
+            removePoint(new Point(minX, maxY), collidable);
+            removePoint(new Point(maxX, minY), collidable);
+            removePoint(new Point(maxX, maxY), collidable);
+        }
+    }
+
+    @Override
+    public void check(BiConsumer<Collidable, Collidable> checker)
+    {
+        for (final Map<Point, List<Collidable>> groups : collidables.values())
+        {
+            for (final Entry<Point, List<Collidable>> current : groups.entrySet())
+            {
+                checkGroup(current, checker);
+            }
+        }
+    }
+}
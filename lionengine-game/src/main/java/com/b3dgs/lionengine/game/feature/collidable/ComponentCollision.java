@@ -18,104 +18,86 @@
 package com.b3dgs.lionengine.game.feature.collidable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.function.BiConsumer;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.feature.ComponentUpdater;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.Handlables;
 import com.b3dgs.lionengine.game.feature.HandlerListener;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableListener;
-import com.b3dgs.lionengine.geom.Point;
 
 /**
  * Default collision component implementation. Designed to check collision between {@link Collidable}.
- * Collision events are notified to {@link CollidableListener}.
+ * Collision events are notified to {@link CollidableListener}. Pairs to check are provided by a
+ * {@link CollisionBroadPhase}.
  * 
  * @see Collidable
+ * @see CollisionBroadPhase
  * @see CollidableListener
  */
 public class ComponentCollision implements ComponentUpdater, HandlerListener, TransformableListener
 {
-    /** Location reduce factor (the higher it is, the lower is the map division per location). */
+    /** Default location reduce factor, used by default broad phase. */
     static final double REDUCE_FACTOR = 128.0;
 
-    /** Mapping reduced. */
-    private final Map<Integer, Map<Point, List<Collidable>>> collidables = new HashMap<>();
-    /** To be notified. */
-    private final List<Collided> toNotify = new ArrayList<>();
+    /** Broad phase reference. */
+    private final CollisionBroadPhase broadPhase;
+    /** Pair checker. */
+    private final BiConsumer<Collidable, Collidable> checker = this::checkPair;
+    /** Collisions found for current pair, reused. */
+    private final List<Collision> found = new ArrayList<>();
+    /** Collidables to be notified. */
+    private final List<Collidable> toNotifyA = new ArrayList<>();
+    /** Collided collidables to be notified. */
+    private final List<Collidable> toNotifyB = new ArrayList<>();
+    /** Collisions to be notified. */
+    private final List<Collision> toNotifyCollision = new ArrayList<>();
 
     /**
-     * Create component.
+     * Create component with default broad phase, {@link CollisionBroadPhaseMap}.
      */
     public ComponentCollision()
     {
-        super();
+        this(new CollisionBroadPhaseMap(REDUCE_FACTOR));
     }
 
     /**
-     * Remove point. Remove list of no more collidable.
+     * Create component.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
+     * @param broadPhase The broad phase used to find collidable pairs to check (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
      */
-    private void removePoint(Point point, Collidable collidable)
+    public ComponentCollision(CollisionBroadPhase broadPhase)
     {
-        final Integer group = collidable.getGroup();
-        if (collidables.containsKey(group))
-        {
-            final Map<Point, List<Collidable>> elements = collidables.get(group);
-            if (elements.containsKey(point))
-            {
-                removePoint(point, collidable, elements, group);
-            }
-        }
-    }
+        super();
 
-    /**
-     * Remove point. Remove list of no more collidable.
-     * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
-     * @param elements The current group elements.
-     * @param group The current group.
-     */
-    private void removePoint(Point point, Collidable collidable, Map<Point, List<Collidable>> elements, Integer group)
-    {
-        final List<Collidable> points = elements.get(point);
-        points.remove(collidable);
-        if (points.isEmpty())
-        {
-            elements.remove(point);
-        }
-        if (elements.isEmpty())
-        {
-            collidables.remove(group);
-        }
+        Check.notNull(broadPhase);
+
+        this.broadPhase = broadPhase;
     }
 
     /**
-     * Add point. Create empty list of not existing.
+     * Check collision between two collidables.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
+     * @param objectA The collidable reference.
+     * @param objectB The other collidable.
      */
-    private void addPoint(Point point, Collidable collidable)
+    private void checkPair(Collidable objectA, Collidable objectB)
     {
-        final Integer group = collidable.getGroup();
-        if (!collidables.containsKey(group))
-        {
-            collidables.put(group, new HashMap<Point, List<Collidable>>());
-        }
-        final Map<Point, List<Collidable>> elements = collidables.get(group);
-        if (!elements.containsKey(point))
+        objectA.collide(objectB, found);
+
+        final int size = found.size();
+        for (int i = 0; i < size; i++)
         {
-            elements.put(point, new ArrayList<Collidable>());
+            toNotifyA.add(objectA);
+            toNotifyB.add(objectB);
+            toNotifyCollision.add(found.get(i));
         }
-        elements.get(point).add(collidable);
+        found.clear();
     }
 
     /*
@@ -125,95 +107,16 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     @Override
     public void update(double extrp, Handlables objects)
     {
-        for (final Map<Point, List<Collidable>> groups : collidables.values())
-        {
-            for (final Entry<Point, List<Collidable>> current : groups.entrySet())
-            {
-                checkGroup(current);
-            }
-        }
-        for (final Collided collided : toNotify)
-        {
-            collided.collidableA.notifyCollided(collided.collidableB, collided.collision);
-        }
-        toNotify.clear();
-    }
-
-    /**
-     * Check elements in group.
-     * 
-     * @param current The elements in group.
-     */
-    private void checkGroup(Entry<Point, List<Collidable>> current)
-    {
-        final List<Collidable> elements = current.getValue();
-        final int length = elements.size();
-        for (int i = 0; i < length; i++)
-        {
-            final Collidable objectA = elements.get(i);
-            checkOthers(objectA, current);
-        }
-    }
-
-    /**
-     * Check others element.
-     * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
-     */
-    private void checkOthers(Collidable objectA, Entry<Point, List<Collidable>> current)
-    {
-        for (final Integer acceptedGroup : objectA.getAccepted())
-        {
-            // Others to compare only in accepted group
-            if (collidables.containsKey(acceptedGroup))
-            {
-                checkOthers(objectA, current, acceptedGroup);
-            }
-        }
-    }
-
-    /**
-     * Check others element.
-     * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
-     * @param acceptedGroup The accepted group.
-     */
-    private void checkOthers(Collidable objectA, Entry<Point, List<Collidable>> current, Integer acceptedGroup)
-    {
-        final Map<Point, List<Collidable>> acceptedElements = collidables.get(acceptedGroup);
-        final Point point = current.getKey();
-        if (acceptedElements.containsKey(point))
-        {
-            checkPoint(objectA, acceptedElements, point);
-        }
-    }
-
-    /**
-     * Check others element at specified point.
-     * 
-     * @param objectA The collidable reference.
-     * @param acceptedElements The current elements to check.
-     * @param point The point to check.
-     */
-    private void checkPoint(Collidable objectA, Map<Point, List<Collidable>> acceptedElements, Point point)
-    {
-        final List<Collidable> others = acceptedElements.get(point);
-        final int othersLength = others.size();
+        broadPhase.check(checker);
 
-        for (int k = 0; k < othersLength; k++)
+        final int size = toNotifyA.size();
+        for (int i = 0; i < size; i++)
         {
-            final Collidable objectB = others.get(k);
-            if (objectA != objectB)
-            {
-                final List<Collision> collisions = objectA.collide(objectB);
-                for (final Collision collision : collisions)
-                {
-                    toNotify.add(new Collided(objectA, objectB, collision));
-                }
-            }
+            toNotifyA.get(i).notifyCollided(toNotifyB.get(i), toNotifyCollision.get(i));
         }
+        toNotifyA.clear();
+        toNotifyB.clear();
+        toNotifyCollision.clear();
     }
 
     /*
@@ -238,8 +141,8 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
             final Transformable transformable = featurable.getFeature(Transformable.class);
             final Collidable collidable = transformable.getFeature(Collidable.class);
 
-            removePoints(transformable.getOldX(), transformable.getOldY(), collidable);
-            removePoints(transformable.getX(), transformable.getY(), collidable);
+            broadPhase.remove(collidable, transformable.getOldX(), transformable.getOldY());
+            broadPhase.remove(collidable, transformable.getX(), transformable.getY());
 
             transformable.removeListener(this);
         }
@@ -254,97 +157,7 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     {
         final Collidable collidable = transformable.getFeature(Collidable.class);
 
-        removePoints(transformable.getOldX(), transformable.getOldY(), collidable);
-        addPoints(transformable.getX(), transformable.getY(), collidable);
-    }
-
-    /**
-     * Remove point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param x The horizontal location.
-     * @param y The vertical location.
-     * @param collidable The collidable reference.
-     */
-    private void removePoints(double x, double y, Collidable collidable)
-    {
-        final int minX = (int) Math.floor(x / REDUCE_FACTOR);
-        final int minY = (int) Math.floor(y / REDUCE_FACTOR);
-        final int maxX = (int) Math.floor((x + collidable.getMaxWidth()) / REDUCE_FACTOR);
-        final int maxY = (int) Math.floor((y + collidable.getMaxHeight()) / REDUCE_FACTOR);
-
-        removePoint(new Point(minX, minY), collidable);
-
-        if (minX != maxX && minY == maxY)
-        {
-            removePoint(new Point(maxX, minY), collidable);
-        }
-        else if (minX == maxX && minY != maxY)
-        {
-            removePoint(new Point(minX, maxY), collidable);
-        }
-        else if (minX != maxX)
-        {
-            removePoint(new Point(minX, maxY), collidable);
-            removePoint(new Point(maxX, minY), collidable);
-            removePoint(new Point(maxX, maxY), collidable);
-        }
-    }
-
-    /**
-     * Add point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param x The horizontal location.
-     * @param y The vertical location.
-     * @param collidable The collidable reference.
-     */
-    private void addPoints(double x, double y, Collidable collidable)
-    {
-        final int minX = (int) Math.floor(x / REDUCE_FACTOR);
-        final int minY = (int) Math.floor(y / REDUCE_FACTOR);
-        final int maxX = (int) Math.floor((x + collidable.getMaxWidth()) / REDUCE_FACTOR);
-        final int maxY = (int) Math.floor((y + collidable.getMaxHeight()) / REDUCE_FACTOR);
-
-        addPoint(new Point(minX, minY), collidable);
-
-        if (minX != maxX && minY == maxY)
-        {
-            addPoint(new Point(maxX, minY), collidable);
-        }
-        else if (minX == maxX && minY != maxY)
-        {
-            addPoint(new Point(minX, maxY), collidable);
-        }
-        else if (minX != maxX)
-        {
-            addPoint(new Point(minX, maxY), collidable);
-            addPoint(new Point(maxX, minY), collidable);
-            addPoint(new Point(maxX, maxY), collidable);
-        }
-    }
-
-    /**
-     * Collided data for postponed notification.
-     */
-    private static final class Collided
-    {
-        private final Collidable collidableA;
-        private final Collidable collidableB;
-        private final Collision collision;
-
-        /**
-         * Create collided data.
-         * 
-         * @param collidableA The first collidable.
-         * @param collidableB The second collidable.
-         * @param collision The associated collision.
-         */
-        private Collided(Collidable collidableA, Collidable collidableB, Collision collision)
-        {
-            super();
-
-            this.collidableA = collidableA;
-            this.collidableB = collidableB;
-            this.collision = collision;
-        }
+        broadPhase.remove(collidable, transformable.getOldX(), transformable.getOldY());
+        broadPhase.add(collidable, transformable.getX(), transformable.getY());
     }
 }
@@ -164,6 +164,16 @@ public interface MapTile extends SurfaceTile, Featurable
      */
     void setTile(Tile tile);
 
+    /**
+     * Remove the tile at specified map location, if any. Listeners are notified with
+     * {@link TileSetListener#onTileRemoved(int, int)} if a tile was removed.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @throws LionEngineException If outside map range.
+     */
+    void removeTile(int tx, int ty);
+
     /**
      * Get tile from specified map location (in tile index). If the returned tile is equal to <code>null</code>, this
      * means that there is not tile at this location. It is not an error, just a way to avoid useless tile storage.
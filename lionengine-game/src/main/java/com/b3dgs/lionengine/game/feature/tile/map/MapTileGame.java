@@ -22,7 +22,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 
 import com.b3dgs.lionengine.Check;
@@ -33,9 +32,12 @@ import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.game.Force;
+import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.TileGame;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
+import com.b3dgs.lionengine.game.feature.tile.TileShared;
 import com.b3dgs.lionengine.game.feature.tile.TilesExtractor;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
@@ -45,6 +47,12 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
  * Abstract representation of a standard tile based map. This class uses a List of List to store tiles, a TreeMap to
  * store sheets references ({@link SpriteTiled}), and collisions.
  * <p>
+ * In compact mode (see {@link #MapTileGame(boolean)}), tiles are stored in a flat array indexed by cell, with sheet
+ * and number encoded as a single integer per cell. {@link #createTile(Integer, int, double, double)} creates
+ * {@link TileShared}, only storing its location and sharing features between all tiles of the same {@link TileRef},
+ * so position dependent data must be stored by map features in their own arrays.
+ * </p>
+ * <p>
  * The way to prepare a map is the following:
  * </p>
  * 
@@ -82,50 +90,81 @@ public class MapTileGame extends FeaturableModel implements MapTile
     private int heightInTile;
     /** Map radius. */
     private int radius;
-    /** Tiles map. */
-    private List<List<Tile>> tiles;
+    /** Tiles storage. */
+    private final MapTileStorage tiles;
+    /** Features shared by tile reference, indexed by sheet then number, used in compact mode only. */
+    private Featurable[][] shared = new Featurable[0][];
+    /** Compact mode flag. */
+    private final boolean compact;
+    /** Created flag. */
+    private boolean created;
 
     /**
      * Create a map tile.
      */
     public MapTileGame()
     {
-        super();
+        this(false);
     }
 
     /**
-     * Resize map with new size.
+     * Create a map tile.
      * 
-     * @param newWidth The new width in tile.
-     * @param newHeight The new height in tile.
+     * @param compact <code>true</code> to store tiles as sheet and number per cell with shared features,
+     *            <code>false</code> to store tiles instances.
      */
-    final void resize(int newWidth, int newHeight)
+    public MapTileGame(boolean compact)
     {
-        final int oldWidth = widthInTile;
-        final int oldheight = heightInTile;
+        super();
 
-        // Adjust height
-        for (int v = 0; v < newHeight - oldheight; v++)
+        this.compact = compact;
+        if (compact)
         {
-            tiles.add(new ArrayList<Tile>(newWidth));
+            tiles = new MapTileStorageCompact();
         }
-        // Adjust width
-        for (int v = 0; v < newHeight; v++)
+        else
         {
-            final int width;
-            if (v < oldheight)
-            {
-                width = newWidth - oldWidth;
-            }
-            else
-            {
-                width = newWidth;
-            }
-            for (int h = 0; h < width; h++)
-            {
-                tiles.get(v).add(null);
-            }
+            tiles = new MapTileStorageList();
         }
+    }
+
+    /**
+     * Get the features shared by tile reference, created on first access.
+     * 
+     * @param sheet The sheet number.
+     * @param number The tile number on sheet.
+     * @return The shared features.
+     */
+    private Featurable getShared(int sheet, int number)
+    {
+        if (sheet >= shared.length)
+        {
+            shared = Arrays.copyOf(shared, sheet + 1);
+        }
+        Featurable[] numbers = shared[sheet];
+        if (numbers == null || number >= numbers.length)
+        {
+            numbers = numbers == null ? new Featurable[number + 1] : Arrays.copyOf(numbers, number + 1);
+            shared[sheet] = numbers;
+        }
+        Featurable features = numbers[number];
+        if (features == null)
+        {
+            features = new FeaturableModel();
+            numbers[number] = features;
+        }
+        return features;
+    }
+
+    /**
+     * Resize map with new size.
+     * 
+     * @param newWidth The new width in tile.
+     * @param newHeight The new height in tile.
+     */
+    final void resize(int newWidth, int newHeight)
+    {
+        tiles.resize(widthInTile, heightInTile, newWidth, newHeight);
 
         widthInTile = newWidth;
         heightInTile = newHeight;
@@ -152,21 +191,17 @@ public class MapTileGame extends FeaturableModel implements MapTile
         this.heightInTile = heightInTile;
 
         radius = (int) Math.ceil(StrictMath.sqrt(widthInTile * widthInTile + heightInTile * (double) heightInTile));
-        tiles = new ArrayList<>(heightInTile);
-
-        for (int v = 0; v < heightInTile; v++)
-        {
-            tiles.add(v, new ArrayList<Tile>(widthInTile));
-            for (int h = 0; h < widthInTile; h++)
-            {
-                tiles.get(v).add(h, null);
-            }
-        }
+        tiles.create(widthInTile, heightInTile);
+        created = true;
     }
 
     @Override
     public Tile createTile(Integer sheet, int number, double x, double y)
     {
+        if (compact)
+        {
+            return new TileShared(sheet, number, x, y, tileWidth, tileHeight, getShared(sheet.intValue(), number));
+        }
         return new TileGame(sheet, number, x, y, tileWidth, tileHeight);
     }
 
@@ -254,13 +289,10 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public void clear()
     {
-        if (tiles != null)
+        if (created)
         {
-            for (final List<Tile> list : tiles)
-            {
-                list.clear();
-            }
             tiles.clear();
+            shared = new Featurable[0][];
             widthInTile = 0;
             heightInTile = 0;
         }
@@ -286,7 +318,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         Check.inferiorStrict(tx, getInTileWidth());
         Check.inferiorStrict(ty, getInTileHeight());
 
-        tiles.get(ty).set(tx, tile);
+        tiles.set(tx, ty, tile);
 
         for (final TileSetListener listener : tileSetListeners)
         {
@@ -294,6 +326,23 @@ public class MapTileGame extends FeaturableModel implements MapTile
         }
     }
 
+    @Override
+    public void removeTile(int tx, int ty)
+    {
+        Check.inferiorStrict(tx, getInTileWidth());
+        Check.inferiorStrict(ty, getInTileHeight());
+
+        if (tiles.get(tx, ty) != null)
+        {
+            tiles.set(tx, ty, null);
+
+            for (final TileSetListener listener : tileSetListeners)
+            {
+                listener.onTileRemoved(tx, ty);
+            }
+        }
+    }
+
     @Override
     public Tile getTile(int tx, int ty)
     {
@@ -301,7 +350,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         {
             return null;
         }
-        return tiles.get(ty).get(tx);
+        return tiles.get(tx, ty);
     }
 
     @Override
@@ -416,8 +465,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         {
             for (int tx = 0; tx < widthInTile; tx++)
             {
-                final Tile tile = getTile(tx, ty);
-                if (tile != null)
+                if (tiles.has(tx, ty))
                 {
                     tilesNumber++;
                 }
@@ -459,7 +507,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public boolean isCreated()
     {
-        return tiles != null;
+        return created;
     }
 
     /*
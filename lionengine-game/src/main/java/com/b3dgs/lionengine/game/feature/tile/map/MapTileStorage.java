@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Tiles storage of {@link MapTileGame}. Locations are always checked by map before access.
+ */
+interface MapTileStorage
+{
+    /**
+     * Allocate an empty storage.
+     * 
+     * @param widthInTile The number of horizontal tiles.
+     * @param heightInTile The number of vertical tiles.
+     */
+    void create(int widthInTile, int heightInTile);
+
+    /**
+     * Resize storage, keeping existing tiles.
+     * 
+     * @param oldWidth The current number of horizontal tiles.
+     * @param oldHeight The current number of vertical tiles.
+     * @param newWidth The new number of horizontal tiles.
+     * @param newHeight The new number of vertical tiles.
+     */
+    void resize(int oldWidth, int oldHeight, int newWidth, int newHeight);
+
+    /**
+     * Store tile.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @param tile The tile reference, <code>null</code> to remove.
+     */
+    void set(int tx, int ty, Tile tile);
+
+    /**
+     * Get tile.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The tile reference, <code>null</code> if none.
+     */
+    Tile get(int tx, int ty);
+
+    /**
+     * Check if tile is defined.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if tile defined, <code>false</code> else.
+     */
+    boolean has(int tx, int ty);
+
+    /**
+     * Clear all tiles.
+     */
+    void clear();
+}
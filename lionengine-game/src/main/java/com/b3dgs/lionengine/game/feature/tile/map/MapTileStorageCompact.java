@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileShared;
+
+/**
+ * Tiles stored in a flat array indexed by cell, so a read is a single array access and never allocates. Tiles are
+ * expected to be {@link TileShared}, only storing their location and sharing features by {@link TileRef}. Sheet and
+ * number are also stored as one integer per cell in a parallel array, so cells can be checked without dereferencing
+ * tiles.
+ */
+final class MapTileStorageCompact implements MapTileStorage
+{
+    /** Number bits. */
+    private static final int NUMBER_BITS = 16;
+    /** Number mask. */
+    private static final int NUMBER_MASK = (1 << NUMBER_BITS) - 1;
+    /** Maximum sheet value. */
+    private static final int SHEET_MAX = (1 << Integer.SIZE - NUMBER_BITS) - 2;
+    /** Empty cell. */
+    private static final int EMPTY = 0;
+
+    /**
+     * Encode tile.
+     * 
+     * @param tile The tile to encode.
+     * @return The encoded cell.
+     */
+    private static int encode(Tile tile)
+    {
+        final int sheet = tile.getSheet().intValue();
+        final int number = tile.getNumber();
+        Check.inferiorOrEqual(sheet, SHEET_MAX);
+        Check.inferiorOrEqual(number, NUMBER_MASK);
+
+        return sheet + 1 << NUMBER_BITS | number;
+    }
+
+    /** Tiles by cell index, <code>null</code> if none. */
+    private Tile[] tiles = new Tile[0];
+    /** Encoded cells, sheet plus one on high bits, number on low bits, {@link #EMPTY} if none. */
+    private int[] cells = new int[0];
+    /** Number of horizontal tiles. */
+    private int width;
+
+    /**
+     * Create storage.
+     */
+    MapTileStorageCompact()
+    {
+        super();
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int widthInTile, int heightInTile)
+    {
+        width = widthInTile;
+        tiles = new Tile[widthInTile * heightInTile];
+        cells = new int[widthInTile * heightInTile];
+    }
+
+    @Override
+    public void resize(int oldWidth, int oldHeight, int newWidth, int newHeight)
+    {
+        final Tile[] resizedTiles = new Tile[newWidth * newHeight];
+        final int[] resizedCells = new int[newWidth * newHeight];
+        for (int ty = 0; ty < oldHeight; ty++)
+        {
+            System.arraycopy(tiles, ty * oldWidth, resizedTiles, ty * newWidth, oldWidth);
+            System.arraycopy(cells, ty * oldWidth, resizedCells, ty * newWidth, oldWidth);
+        }
+        tiles = resizedTiles;
+        cells = resizedCells;
+        width = newWidth;
+    }
+
+    @Override
+    public void set(int tx, int ty, Tile tile)
+    {
+        final int index = ty * width + tx;
+        if (tile == null)
+        {
+            cells[index] = EMPTY;
+        }
+        else
+        {
+            cells[index] = encode(tile);
+        }
+        tiles[index] = tile;
+    }
+
+    @Override
+    public Tile get(int tx, int ty)
+    {
+        return tiles[ty * width + tx];
+    }
+
+    @Override
+    public boolean has(int tx, int ty)
+    {
+        return cells[ty * width + tx] != EMPTY;
+    }
+
+    @Override
+    public void clear()
+    {
+        tiles = new Tile[0];
+        cells = new int[0];
+        width = 0;
+    }
+}
@@ -20,7 +20,7 @@ package com.b3dgs.lionengine.game.feature.tile.map;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 
 /**
- * Map tile set listener, notify when tile has been set.
+ * Map tile set listener, notify when tile has been set or removed.
  */
 public interface TileSetListener
 {
@@ -30,4 +30,15 @@ public interface TileSetListener
      * @param tile The tile set.
      */
     void onTileSet(Tile tile);
+
+    /**
+     * Called on tile removed, such as when its region is unloaded. Does nothing by default.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    default void onTileRemoved(int tx, int ty)
+    {
+        // Does nothing by default
+    }
 }
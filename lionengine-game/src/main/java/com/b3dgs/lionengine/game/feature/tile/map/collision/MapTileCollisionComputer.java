@@ -52,16 +52,21 @@ final class MapTileCollisionComputer
      * Get the horizontal collision from current location.
      * 
      * @param category The collision category.
+     * @param tile The current tile.
      * @param tileCollision The current tile collision.
      * @param x The current horizontal location.
      * @param y The current vertical location.
      * @return The computed horizontal collision.
      */
-    private static Double getCollisionX(CollisionCategory category, TileCollision tileCollision, double x, double y)
+    private static Double getCollisionX(CollisionCategory category,
+                                        Tile tile,
+                                        TileCollision tileCollision,
+                                        double x,
+                                        double y)
     {
         if (Axis.X == category.getAxis())
         {
-            return tileCollision.getCollisionX(category, x, y);
+            return tileCollision.getCollisionX(tile, category, x, y);
         }
         return null;
     }
@@ -70,16 +75,21 @@ final class MapTileCollisionComputer
      * Get the vertical collision from current location.
      * 
      * @param category The collision category.
+     * @param tile The current tile.
      * @param tileCollision The current tile collision.
      * @param x The current horizontal location.
      * @param y The current vertical location.
      * @return The computed vertical collision.
      */
-    private static Double getCollisionY(CollisionCategory category, TileCollision tileCollision, double x, double y)
+    private static Double getCollisionY(CollisionCategory category,
+                                        Tile tile,
+                                        TileCollision tileCollision,
+                                        double x,
+                                        double y)
     {
         if (Axis.Y == category.getAxis())
         {
-            return tileCollision.getCollisionY(category, x, y);
+            return tileCollision.getCollisionY(tile, category, x, y);
         }
         return null;
     }
@@ -278,8 +288,8 @@ final class MapTileCollisionComputer
             final TileCollision tileCollision = tile.getFeature(TileCollision.class);
             if (containsCollisionFormula(tileCollision, category))
             {
-                final Double cx = getCollisionX(category, tileCollision, x, y);
-                final Double cy = getCollisionY(category, tileCollision, x, y);
+                final Double cx = getCollisionX(category, tile, tileCollision, x, y);
+                final Double cy = getCollisionY(category, tile, tileCollision, x, y);
                 // CHECKSTYLE IGNORE LINE: NestedIfDepth
                 if (cx != null || cy != null)
                 {
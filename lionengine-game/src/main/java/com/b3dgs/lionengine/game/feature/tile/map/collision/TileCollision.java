@@ -21,6 +21,8 @@ import java.util.Collection;
 
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileShared;
 
 /**
  * Tile representation with the following data:
@@ -76,6 +78,30 @@ public interface TileCollision extends Feature
      */
     Double getCollisionY(CollisionCategory category, double x, double y);
 
+    /**
+     * Get the horizontal collision location between the specified tile and the movement vector. Used when feature is
+     * shared between tiles of the same reference, see {@link TileShared}.
+     * 
+     * @param tile The tile location to use.
+     * @param category The collision category.
+     * @param x The current horizontal location.
+     * @param y The current vertical location.
+     * @return The horizontal collision (<code>null</code> if none).
+     */
+    Double getCollisionX(Tile tile, CollisionCategory category, double x, double y);
+
+    /**
+     * Get the vertical collision location between the specified tile and the movement vector. Used when feature is
+     * shared between tiles of the same reference, see {@link TileShared}.
+     * 
+     * @param tile The tile location to use.
+     * @param category The collision category.
+     * @param x The current horizontal location.
+     * @param y The current vertical location.
+     * @return The vertical collision (<code>null</code> if none).
+     */
+    Double getCollisionY(Tile tile, CollisionCategory category, double x, double y);
+
     /**
      * Get tile collision formulas.
      * 
@@ -56,6 +56,20 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
      * @return The input value.
      */
     public double getInputValue(Axis input, double x, double y)
+    {
+        return getInputValue(tile, input, x, y);
+    }
+
+    /**
+     * Get the input value relative to specified tile.
+     * 
+     * @param tile The tile location to use.
+     * @param input The input used.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return The input value.
+     */
+    private static double getInputValue(Tile tile, Axis input, double x, double y)
     {
         final double v;
         switch (input)
@@ -75,6 +89,7 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
     /**
      * Get the horizontal collision location between the tile and the current location.
      * 
+     * @param tile The tile location to use.
      * @param range The collision range.
      * @param function The collision function.
      * @param x The current horizontal location.
@@ -82,12 +97,17 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
      * @param offsetX The horizontal offset.
      * @return The horizontal collision (<code>null</code> if none).
      */
-    private Double getCollisionX(CollisionRange range, CollisionFunction function, double x, double y, int offsetX)
+    private static Double getCollisionX(Tile tile,
+                                        CollisionRange range,
+                                        CollisionFunction function,
+                                        double x,
+                                        double y,
+                                        int offsetX)
     {
-        final double yOnTile = getInputValue(Axis.Y, x, y);
+        final double yOnTile = getInputValue(tile, Axis.Y, x, y);
         if (UtilMath.isBetween(yOnTile, range.getMinY(), range.getMaxY()))
         {
-            final double xOnTile = getInputValue(Axis.X, x, y);
+            final double xOnTile = getInputValue(tile, Axis.X, x, y);
             final double result = function.compute(yOnTile);
 
             if (UtilMath.isBetween(xOnTile, result + range.getMinX() - 1, result + range.getMaxX()))
@@ -102,6 +122,7 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
     /**
      * Get the vertical collision location between the tile and the current location.
      * 
+     * @param tile The tile location to use.
      * @param range The collision range.
      * @param function The collision function.
      * @param x The current horizontal location.
@@ -109,12 +130,17 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
      * @param offsetY The vertical offset.
      * @return The vertical collision (<code>null</code> if none).
      */
-    private Double getCollisionY(CollisionRange range, CollisionFunction function, double x, double y, int offsetY)
+    private static Double getCollisionY(Tile tile,
+                                        CollisionRange range,
+                                        CollisionFunction function,
+                                        double x,
+                                        double y,
+                                        int offsetY)
     {
-        final double xOnTile = getInputValue(Axis.X, x, y);
+        final double xOnTile = getInputValue(tile, Axis.X, x, y);
         if (UtilMath.isBetween(xOnTile, range.getMinX(), range.getMaxX()))
         {
-            final double yOnTile = getInputValue(Axis.Y, x, y);
+            final double yOnTile = getInputValue(tile, Axis.Y, x, y);
             final double result = Math.floor(function.compute(xOnTile));
 
             if (UtilMath.isBetween(yOnTile, result + range.getMinY() - 1, result + range.getMaxY()))
@@ -150,13 +176,24 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
 
     @Override
     public Double getCollisionX(CollisionCategory category, double x, double y)
+    {
+        return getCollisionX(tile, category, x, y);
+    }
+
+    @Override
+    public Double getCollisionX(Tile tile, CollisionCategory category, double x, double y)
     {
         for (final CollisionFormula formula : category.getFormulas())
         {
             final CollisionRange range = formula.getRange();
             if (category.getAxis() == range.getOutput() && formulas.contains(formula))
             {
-                final Double collisionX = getCollisionX(range, formula.getFunction(), x, y, category.getOffsetX());
+                final Double collisionX = getCollisionX(tile,
+                                                           range,
+                                                           formula.getFunction(),
+                                                           x,
+                                                           y,
+                                                           category.getOffsetX());
                 if (collisionX != null)
                 {
                     return collisionX;
@@ -168,13 +205,24 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
 
     @Override
     public Double getCollisionY(CollisionCategory category, double x, double y)
+    {
+        return getCollisionY(tile, category, x, y);
+    }
+
+    @Override
+    public Double getCollisionY(Tile tile, CollisionCategory category, double x, double y)
     {
         for (final CollisionFormula formula : category.getFormulas())
         {
             final CollisionRange range = formula.getRange();
             if (category.getAxis() == range.getOutput() && formulas.contains(formula))
             {
-                final Double collisionY = getCollisionY(range, formula.getFunction(), x, y, category.getOffsetY());
+                final Double collisionY = getCollisionY(tile,
+                                                           range,
+                                                           formula.getFunction(),
+                                                           x,
+                                                           y,
+                                                           category.getOffsetY());
                 if (collisionY != null)
                 {
                     return collisionY;
@@ -36,7 +36,7 @@ public final class Astar
      */
     public static PathFinder createPathFinder(MapTile map, int maxSearchDistance, Heuristic heuristic)
     {
-        return new PathFinderImpl(map, maxSearchDistance, heuristic);
+        return new PathFinderImpl(new PathSourceMap(map), maxSearchDistance, heuristic);
     }
 
     /**
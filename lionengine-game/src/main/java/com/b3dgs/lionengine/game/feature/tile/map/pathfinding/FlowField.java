@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Flow field to one destination: integrated cost to destination and next step direction for each tile, computed once
+ * with Dijkstra from destination, and shared by all movers with same rules. Use
+ * {@link Pathfindable#setDestination(FlowField)} to follow it step by step.
+ * 
+ * @see FlowFields
+ */
+public final class FlowField
+{
+    /** No direction (destination or unreachable). */
+    private static final byte NO_DIRECTION = 4;
+    /** Directions count on each axis. */
+    private static final int SIDES = 3;
+
+    /**
+     * Generate flow field with mover rules.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param mover The mover reference.
+     * @param dtx The destination horizontal tile, must not be blocked.
+     * @param dty The destination vertical tile, must not be blocked.
+     * @return The generated flow field.
+     */
+    static FlowField generate(MapTile map, MapTilePath mapPath, Pathfindable mover, int dtx, int dty)
+    {
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        final FlowField field = new FlowField(width, height, dtx, dty);
+        final PathSearchWorkspace workspace = PathSearchWorkspace.lease(width, height);
+        try
+        {
+            workspace.open(workspace.index(dtx, dty));
+            while (!workspace.isOpenEmpty())
+            {
+                final int current = workspace.close();
+                field.costs[current] = (float) workspace.getCost(current);
+                final int cx = workspace.getX(current);
+                final int cy = workspace.getY(current);
+                for (int sy = -1; sy < 2; sy++)
+                {
+                    for (int sx = -1; sx < 2; sx++)
+                    {
+                        final int tx = cx - sx;
+                        final int ty = cy - sy;
+                        if ((sx != 0 || sy != 0) && isAllowed(map, mapPath, mover, tx, ty, MovementTile.from(sx, sy)))
+                        {
+                            final double cost = workspace.getCost(current) + mapPath.getCost(mover, tx, ty);
+                            if (workspace.update(workspace.index(tx, ty), current, cost, 0.0) > -1)
+                            {
+                                field.directions[ty * width + tx] = (byte) ((sx + 1) * SIDES + sy + 1);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        finally
+        {
+            workspace.release();
+        }
+        return field;
+    }
+
+    /**
+     * Check if mover can move from tile with movement.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param mover The mover reference.
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @param movement The movement from tile.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    private static boolean isAllowed(MapTile map,
+                                     MapTilePath mapPath,
+                                     Pathfindable mover,
+                                     int tx,
+                                     int ty,
+                                     MovementTile movement)
+    {
+        if (mapPath.isBlocked(mover, tx, ty, true))
+        {
+            return false;
+        }
+        final Tile tile = map.getTile(tx, ty);
+        return tile != null && mover.isMovementAllowed(tile.getFeature(TilePath.class).getCategory(), movement);
+    }
+
+    /** Integrated cost to destination per tile. */
+    private final float[] costs;
+    /** Next step direction per tile. */
+    private final byte[] directions;
+    /** Number of horizontal tiles. */
+    private final int width;
+    /** Number of vertical tiles. */
+    private final int height;
+    /** Destination horizontal tile. */
+    private final int dtx;
+    /** Destination vertical tile. */
+    private final int dty;
+
+    /**
+     * Create empty field, where only destination is reachable.
+     * 
+     * @param width The number of horizontal tiles.
+     * @param height The number of vertical tiles.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     */
+    private FlowField(int width, int height, int dtx, int dty)
+    {
+        super();
+
+        this.width = width;
+        this.height = height;
+        this.dtx = dtx;
+        this.dty = dty;
+        costs = new float[width * height];
+        directions = new byte[width * height];
+        Arrays.fill(costs, Float.POSITIVE_INFINITY);
+        Arrays.fill(directions, NO_DIRECTION);
+    }
+
+    /**
+     * Create a lazy path following field from tile.
+     * 
+     * @param tx The starting horizontal tile.
+     * @param ty The starting vertical tile.
+     * @return The path refiner, appending one step each time.
+     */
+    PathRefiner follow(int tx, int ty)
+    {
+        return new Follower(tx, ty);
+    }
+
+    /**
+     * Check if destination can be reached from tile.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if reachable, <code>false</code> else.
+     */
+    public boolean isReachable(int tx, int ty)
+    {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height && costs[ty * width + tx] < Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Get the integrated cost to destination from tile.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return The cost, {@link Double#POSITIVE_INFINITY} if unreachable.
+     */
+    public double getCost(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        return costs[ty * width + tx];
+    }
+
+    /**
+     * Get the next step movement from tile.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return The movement, {@link MovementTile#NONE} on destination or if unreachable.
+     */
+    public MovementTile getMovement(int tx, int ty)
+    {
+        if (!isReachable(tx, ty))
+        {
+            return MovementTile.NONE;
+        }
+        final int direction = directions[ty * width + tx];
+        return MovementTile.from(direction / SIDES - 1, direction % SIDES - 1);
+    }
+
+    /**
+     * Get the destination horizontal tile.
+     * 
+     * @return The destination horizontal tile.
+     */
+    public int getDestinationX()
+    {
+        return dtx;
+    }
+
+    /**
+     * Get the destination vertical tile.
+     * 
+     * @return The destination vertical tile.
+     */
+    public int getDestinationY()
+    {
+        return dty;
+    }
+
+    /**
+     * Append field steps one by one.
+     */
+    private final class Follower implements PathRefiner
+    {
+        /** Current horizontal tile. */
+        private int tx;
+        /** Current vertical tile. */
+        private int ty;
+
+        /**
+         * Create follower.
+         * 
+         * @param tx The starting horizontal tile.
+         * @param ty The starting vertical tile.
+         */
+        Follower(int tx, int ty)
+        {
+            super();
+
+            this.tx = tx;
+            this.ty = ty;
+        }
+
+        /*
+         * PathRefiner
+         */
+
+        @Override
+        public boolean refine(Path path)
+        {
+            final int direction = directions[ty * width + tx];
+            if (direction == NO_DIRECTION)
+            {
+                return false;
+            }
+            tx += direction / SIDES - 1;
+            ty += direction % SIDES - 1;
+            path.appendStep(tx, ty);
+            return true;
+        }
+    }
+}
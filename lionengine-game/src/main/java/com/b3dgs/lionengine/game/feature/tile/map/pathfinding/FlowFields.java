@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Flow fields cache, by destination and mover rules, with least recently used eviction. Movers sharing destination
+ * and category rules share the same {@link FlowField}. Cache is cleared when a map tile is set or removed.
+ * <p>
+ * Cache listens to map tiles from its creation, {@link #dispose()} must be called once not used anymore.
+ * </p>
+ */
+public class FlowFields implements TileSetListener
+{
+    /** Default cache capacity. */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /** Cached fields. */
+    private final Map<Key, FlowField> cache;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Generated fields count. */
+    private int generated;
+
+    /**
+     * Create cache with {@link #DEFAULT_CAPACITY}.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @throws LionEngineException If services not found.
+     */
+    public FlowFields(Services services)
+    {
+        this(services, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create cache.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param capacity The maximum number of cached fields (must be strictly positive).
+     * @throws LionEngineException If services not found or invalid capacity.
+     */
+    public FlowFields(Services services, int capacity)
+    {
+        super();
+
+        Check.superiorStrict(capacity, 0);
+
+        map = services.get(MapTile.class);
+        mapPath = map.getFeature(MapTilePath.class);
+        cache = new LinkedHashMap<Key, FlowField>(capacity, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, FlowField> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+        map.addListener(this);
+    }
+
+    /**
+     * Get the flow field to destination for mover, generated if not cached. A blocked destination is replaced by the
+     * closest available tile around it.
+     * 
+     * @param mover The mover reference (must not be <code>null</code>).
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @return The flow field, <code>null</code> if destination is blocked and no tile available around.
+     * @throws LionEngineException If invalid mover.
+     */
+    public FlowField get(Pathfindable mover, int dtx, int dty)
+    {
+        Check.notNull(mover);
+
+        final List<String> categories = new ArrayList<>();
+        categories.add(null);
+        categories.addAll(mapPath.getCategories());
+        final Key key = new Key(new PathRules(mover, categories), dtx, dty);
+
+        FlowField field = cache.get(key);
+        if (field == null)
+        {
+            field = generate(mover, dtx, dty);
+            if (field != null)
+            {
+                cache.put(key, field);
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Clear cached fields.
+     */
+    public void clear()
+    {
+        cache.clear();
+    }
+
+    /**
+     * Clear cached fields and stop listening to map tiles.
+     */
+    public void dispose()
+    {
+        map.removeListener(this);
+        cache.clear();
+    }
+
+    /**
+     * Get the number of cached fields.
+     * 
+     * @return The cached fields count.
+     */
+    public int getSize()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of generated fields since creation.
+     * 
+     * @return The generated fields count.
+     */
+    public int getGenerated()
+    {
+        return generated;
+    }
+
+    /**
+     * Generate field to destination, or closest available tile if blocked.
+     * 
+     * @param mover The mover reference.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @return The generated field, <code>null</code> if none.
+     */
+    private FlowField generate(Pathfindable mover, int dtx, int dty)
+    {
+        int tx = dtx;
+        int ty = dty;
+        if (mapPath.isBlocked(mover, dtx, dty, true))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, dtx, dty, map.getInTileRadius());
+            if (tile == null)
+            {
+                return null;
+            }
+            tx = tile.getX();
+            ty = tile.getY();
+        }
+        generated++;
+        return FlowField.generate(map, mapPath, mover, tx, ty);
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        cache.clear();
+    }
+
+    @Override
+    public void onTileRemoved(int tx, int ty)
+    {
+        cache.clear();
+    }
+
+    /**
+     * Cache key.
+     */
+    private static final class Key
+    {
+        /** Mover rules. */
+        private final PathRules rules;
+        /** Destination horizontal tile. */
+        private final int dtx;
+        /** Destination vertical tile. */
+        private final int dty;
+
+        /**
+         * Create key.
+         * 
+         * @param rules The mover rules.
+         * @param dtx The destination horizontal tile.
+         * @param dty The destination vertical tile.
+         */
+        Key(PathRules rules, int dtx, int dty)
+        {
+            super();
+
+            this.rules = rules;
+            this.dtx = dtx;
+            this.dty = dty;
+        }
+
+        /*
+         * Object
+         */
+
+        @Override
+        public int hashCode()
+        {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + rules.hashCode();
+            result = prime * result + dtx;
+            result = prime * result + dty;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (object == null || object.getClass() != getClass())
+            {
+                return false;
+            }
+            final Key other = (Key) object;
+            return dtx == other.dtx && dty == other.dty && rules.equals(other.rules);
+        }
+    }
+}
@@ -41,4 +41,20 @@ public final class HeuristicClosest implements Heuristic
         final double y = dy - (double) sy;
         return Math.sqrt(x * x + y * y);
     }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        return object != null && object.getClass() == getClass();
+    }
 }
@@ -42,4 +42,20 @@ public final class HeuristicClosestSquared implements Heuristic
         final double y = dy - (double) sy;
         return x * x + y * y;
     }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        return object != null && object.getClass() == getClass();
+    }
 }
@@ -46,4 +46,28 @@ public final class HeuristicManhattan implements Heuristic
     {
         return minimumCost * (Math.abs(sx - (double) dx) + Math.abs(sy - (double) dy));
     }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        return minimumCost;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+        {
+            return true;
+        }
+        if (object == null || object.getClass() != getClass())
+        {
+            return false;
+        }
+        return minimumCost == ((HeuristicManhattan) object).minimumCost;
+    }
 }
@@ -38,6 +38,23 @@ public interface MapTilePath extends Feature
      */
     void loadPathfinding(Media pathfindingConfig);
 
+    /**
+     * Create a path finder, using the implementation selected by {@link PathfindingConfig#importsFinder(Media)}.
+     * 
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @return The path finder instance.
+     */
+    PathFinder createPathFinder(int maxSearchDistance);
+
+    /**
+     * Create a path finder, using the implementation selected by {@link PathfindingConfig#importsFinder(Media)}.
+     * 
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @return The path finder instance.
+     */
+    PathFinder createPathFinder(int maxSearchDistance, Heuristic heuristic);
+
     /**
      * Add object ID at this location.
      * 
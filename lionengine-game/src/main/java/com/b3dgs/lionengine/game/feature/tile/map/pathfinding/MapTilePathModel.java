@@ -20,7 +20,9 @@ package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
@@ -30,21 +32,31 @@ import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileShared;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
 
 /**
  * Map tile path model implementation.
  */
-public class MapTilePathModel extends FeatureModel implements MapTilePath
+public class MapTilePathModel extends FeatureModel implements MapTilePath, TileSetListener
 {
     /** Categories list. */
     private final Map<String, PathCategory> categories = new HashMap<>();
+    /** Objects id by tile index, stored by map as tile features may be shared (see {@link TileShared}). */
+    private Collection<Integer>[] objectsId = createObjectsId(0);
+    /** Number of horizontal tiles of objects id storage. */
+    private int objectsWidth;
+    /** Number of vertical tiles of objects id storage. */
+    private int objectsHeight;
     /** Map reference. */
     private final MapTile map;
     /** Map group reference. */
     private final MapTileGroup mapGroup;
+    /** Hierarchical clusters (<code>null</code> if not hierarchical). */
+    private PathClusters clusters;
 
     /**
      * Create a map tile path.
@@ -72,6 +84,56 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         mapGroup = map.getFeature(MapTileGroupModel.class);
     }
 
+    /**
+     * Create objects id storage.
+     * 
+     * @param length The number of tiles.
+     * @return The objects id storage, <code>null</code> entry if no object on tile.
+     */
+    @SuppressWarnings("unchecked")
+    private static Collection<Integer>[] createObjectsId(int length)
+    {
+        return (Collection<Integer>[]) new Collection<?>[length];
+    }
+
+    /**
+     * Get the objects id on tile, without checking map size.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The objects id, <code>null</code> if none.
+     */
+    private Collection<Integer> getIds(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= objectsWidth || ty >= objectsHeight)
+        {
+            return null;
+        }
+        return objectsId[ty * objectsWidth + tx];
+    }
+
+    /**
+     * Resize objects id storage to map size if changed, keeping stored objects id.
+     */
+    private void updateObjectsSize()
+    {
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        if (width != objectsWidth || height != objectsHeight)
+        {
+            final Collection<Integer>[] resized = createObjectsId(width * height);
+            final int copyWidth = Math.min(width, objectsWidth);
+            final int copyHeight = Math.min(height, objectsHeight);
+            for (int ty = 0; ty < copyHeight; ty++)
+            {
+                System.arraycopy(objectsId, ty * objectsWidth, resized, ty * width, copyWidth);
+            }
+            objectsId = resized;
+            objectsWidth = width;
+            objectsHeight = height;
+        }
+    }
+
     /**
      * Check if area if used.
      * 
@@ -107,7 +169,11 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
      */
     private boolean isBlocked(Pathfindable mover, int tx, int ty)
     {
-        final Collection<Integer> ids = getObjectsId(tx, ty);
+        final Collection<Integer> ids = getIds(tx, ty);
+        if (ids == null)
+        {
+            return false;
+        }
         int ignoredCount = 0;
         for (final Integer id : ids)
         {
@@ -262,45 +328,86 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
                 final Tile tile = map.getTile(tx, ty);
                 if (tile != null)
                 {
-                    final String group = mapGroup.getGroup(tile);
-                    final String category = getCategory(group);
-                    final TilePath tilePath = new TilePathModel(category);
-                    tile.addFeature(tilePath);
+                    final String category = getCategory(mapGroup.getGroup(tile));
+                    // Shared features are set once per tile reference
+                    if (!tile.hasFeature(TilePath.class)
+                        || !Objects.equals(category, tile.getFeature(TilePath.class).getCategory()))
+                    {
+                        tile.addFeature(new TilePathModel(category));
+                    }
                 }
             }
         }
+
+        map.removeListener(this);
+        map.addListener(this);
+
+        if (PathFinderType.HIERARCHICAL == PathfindingConfig.importsFinder(pathfindingConfig))
+        {
+            clusters = new PathClusters(map,
+                                        categories.keySet(),
+                                        PathfindingConfig.importsClusterSize(pathfindingConfig));
+        }
+        else
+        {
+            clusters = null;
+        }
+    }
+
+    @Override
+    public PathFinder createPathFinder(int maxSearchDistance)
+    {
+        return createPathFinder(maxSearchDistance, new HeuristicClosest());
+    }
+
+    @Override
+    public PathFinder createPathFinder(int maxSearchDistance, Heuristic heuristic)
+    {
+        if (clusters != null)
+        {
+            return new PathFinderHierarchical(map, clusters, maxSearchDistance, heuristic);
+        }
+        return Astar.createPathFinder(map, maxSearchDistance, heuristic);
     }
 
     @Override
     public void addObjectId(int tx, int ty, Integer id)
     {
-        final Tile tile = map.getTile(tx, ty);
-        if (tile != null)
+        if (map.getTile(tx, ty) != null)
         {
-            final TilePath tilePath = tile.getFeature(TilePath.class);
-            tilePath.addObjectId(id);
+            updateObjectsSize();
+            final int index = ty * objectsWidth + tx;
+            Collection<Integer> ids = objectsId[index];
+            if (ids == null)
+            {
+                ids = new HashSet<>();
+                objectsId[index] = ids;
+            }
+            ids.add(id);
         }
     }
 
     @Override
     public void removeObjectId(int tx, int ty, Integer id)
     {
-        final Tile tile = map.getTile(tx, ty);
-        if (tile != null)
+        final Collection<Integer> ids = getIds(tx, ty);
+        if (ids != null)
         {
-            final TilePath tilePath = tile.getFeature(TilePath.class);
-            tilePath.removeObjectId(id);
+            ids.remove(id);
+            if (ids.isEmpty())
+            {
+                objectsId[ty * objectsWidth + tx] = null;
+            }
         }
     }
 
     @Override
     public Collection<Integer> getObjectsId(int tx, int ty)
     {
-        final Tile tile = map.getTile(tx, ty);
-        if (tile != null)
+        final Collection<Integer> ids = getIds(tx, ty);
+        if (ids != null)
         {
-            final TilePath tilePath = tile.getFeature(TilePath.class);
-            return tilePath.getObjectsId();
+            return ids;
         }
         return Collections.emptyList();
     }
@@ -411,4 +518,30 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         }
         return true;
     }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        if (!tile.hasFeature(TilePath.class))
+        {
+            tile.addFeature(new TilePathModel(getCategory(mapGroup.getGroup(tile))));
+        }
+        if (clusters != null)
+        {
+            clusters.update(tile.getInTileX(), tile.getInTileY());
+        }
+    }
+
+    @Override
+    public void onTileRemoved(int tx, int ty)
+    {
+        if (clusters != null)
+        {
+            clusters.update(tx, ty);
+        }
+    }
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Read-only copy of {@link MapTilePath} blocking data, which can be searched from any thread. Tile categories are
+ * stored as indexes, and objects id only for occupied tiles. Objects id are only captured on demand with
+ * {@link #withObjects(MapTile)}, as they change far more often than tiles.
+ */
+final class MapTilePathSnapshot
+{
+    /** No tile category index. */
+    static final int NO_TILE = 0;
+
+    /**
+     * Capture current map tiles category, without objects id. Must be called from the map owner thread.
+     * 
+     * @param map The map reference. Must have the {@link MapTilePath} feature.
+     * @return The snapshot.
+     */
+    static MapTilePathSnapshot capture(MapTile map)
+    {
+        return new MapTilePathSnapshot(map);
+    }
+
+    /** Categories name by index, first one is {@link #NO_TILE}. */
+    private final List<String> names;
+    /** Distinct objects id present on map. */
+    private final Collection<Integer> occupants = new HashSet<>();
+    /** Category index per tile. */
+    private final int[] categories;
+    /** Objects id per tile, <code>null</code> if none. */
+    private final Integer[][] objectsId;
+    /** Number of horizontal tiles. */
+    private final int width;
+    /** Number of vertical tiles. */
+    private final int height;
+    /** Map radius in tile. */
+    private final int radius;
+
+    /**
+     * Create snapshot of tiles category.
+     * 
+     * @param map The map reference.
+     */
+    private MapTilePathSnapshot(MapTile map)
+    {
+        super();
+
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        radius = map.getInTileRadius();
+        names = new ArrayList<>();
+        categories = new int[width * height];
+        objectsId = new Integer[0][];
+
+        final Map<String, Integer> indexes = new HashMap<>();
+        names.add(null);
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    capture(tile.getFeature(TilePath.class), ty * width + tx, indexes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create snapshot sharing tiles category with base one, and capturing current objects id.
+     * 
+     * @param base The tiles category snapshot.
+     * @param map The map reference.
+     */
+    private MapTilePathSnapshot(MapTilePathSnapshot base, MapTile map)
+    {
+        super();
+
+        width = base.width;
+        height = base.height;
+        radius = base.radius;
+        names = base.names;
+        categories = base.categories;
+        objectsId = new Integer[width * height][];
+
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                final Collection<Integer> ids = mapPath.getObjectsId(tx, ty);
+                if (!ids.isEmpty())
+                {
+                    objectsId[ty * width + tx] = ids.toArray(new Integer[ids.size()]);
+                    occupants.addAll(ids);
+                }
+            }
+        }
+    }
+
+    /**
+     * Capture tile category.
+     * 
+     * @param tilePath The tile path.
+     * @param index The tile index.
+     * @param indexes The category indexes.
+     */
+    private void capture(TilePath tilePath, int index, Map<String, Integer> indexes)
+    {
+        final String category = tilePath.getCategory();
+        Integer categoryIndex = indexes.get(category);
+        if (categoryIndex == null)
+        {
+            categoryIndex = Integer.valueOf(names.size());
+            indexes.put(category, categoryIndex);
+            names.add(category);
+        }
+        categories[index] = categoryIndex.intValue();
+    }
+
+    /**
+     * Create a snapshot sharing tiles category with this one, with current objects id. Must be called from the map
+     * owner thread.
+     * 
+     * @param map The map reference, which tiles must not have changed since this snapshot.
+     * @return The snapshot with objects id.
+     */
+    MapTilePathSnapshot withObjects(MapTile map)
+    {
+        return new MapTilePathSnapshot(this, map);
+    }
+
+    /**
+     * Check if snapshot matches map size.
+     * 
+     * @param map The map reference.
+     * @return <code>true</code> if same size, <code>false</code> else.
+     */
+    boolean isSameSize(MapTile map)
+    {
+        return width == map.getInTileWidth() && height == map.getInTileHeight();
+    }
+
+    /**
+     * Get the categories name by index. First one is <code>null</code>, for {@link #NO_TILE}.
+     * 
+     * @return The categories name.
+     */
+    List<String> getCategories()
+    {
+        return names;
+    }
+
+    /**
+     * Get the distinct objects id present on map.
+     * 
+     * @return The objects id.
+     */
+    Collection<Integer> getOccupants()
+    {
+        return occupants;
+    }
+
+    /**
+     * Get the tile category index.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The category index, {@link #NO_TILE} if no tile.
+     */
+    int getCategory(int tx, int ty)
+    {
+        return categories[ty * width + tx];
+    }
+
+    /**
+     * Get the tile objects id.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The objects id, <code>null</code> if none or not captured.
+     */
+    Integer[] getObjectsId(int tx, int ty)
+    {
+        final int index = ty * width + tx;
+        if (index < objectsId.length)
+        {
+            return objectsId[index];
+        }
+        return null;
+    }
+
+    /**
+     * Check if tile is inside map.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    boolean isInside(int tx, int ty)
+    {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height;
+    }
+
+    /**
+     * Get the number of horizontal tiles.
+     * 
+     * @return The number of horizontal tiles.
+     */
+    int getInTileWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get the number of vertical tiles.
+     * 
+     * @return The number of vertical tiles.
+     */
+    int getInTileHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Get the map radius in tile.
+     * 
+     * @return The map radius in tile.
+     */
+    int getInTileRadius()
+    {
+        return radius;
+    }
+}
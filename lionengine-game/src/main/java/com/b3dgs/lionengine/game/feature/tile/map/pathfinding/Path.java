@@ -23,11 +23,19 @@ import java.util.List;
 /**
  * A path determined by some path finding algorithm. A series of steps from the starting location to the target
  * location. This includes a step for the initial location.
+ * <p>
+ * Steps may be refined lazily: next steps are appended when reading a step close to the last known one.
+ * </p>
  */
 public final class Path
 {
+    /** Steps read in advance before refining. */
+    private static final int LOOKAHEAD = 2;
+
     /** List of steps. */
     private final List<Step> steps = new ArrayList<>();
+    /** Lazy refiner (<code>null</code> if path is complete). */
+    private PathRefiner refiner;
 
     /**
      * Constructor.
@@ -49,7 +57,46 @@ public final class Path
     }
 
     /**
-     * Get the length of the path, i.e. the number of steps.
+     * Append a step to the path.
+     * 
+     * @param x The x coordinate of the new step.
+     * @param y The y coordinate of the new step.
+     */
+    void appendStep(int x, int y)
+    {
+        steps.add(new Step(x, y));
+    }
+
+    /**
+     * Set the lazy refiner, called when reading steps close to the last known one. Steps following the last known one
+     * are refined immediately.
+     * 
+     * @param refiner The refiner reference (<code>null</code> if path is complete).
+     */
+    void setRefiner(PathRefiner refiner)
+    {
+        this.refiner = refiner;
+        refine(steps.size() - 1);
+    }
+
+    /**
+     * Refine path until step after index is known, or nothing remains to refine.
+     * 
+     * @param index The step index to be read.
+     */
+    private void refine(int index)
+    {
+        while (refiner != null && index + LOOKAHEAD >= steps.size())
+        {
+            if (!refiner.refine(this))
+            {
+                refiner = null;
+            }
+        }
+    }
+
+    /**
+     * Get the length of the path, i.e. the number of steps known so far.
      * 
      * @return The number of steps in this path.
      */
@@ -58,6 +105,20 @@ public final class Path
         return steps.size();
     }
 
+    /**
+     * Get the number of steps which can be read without refining the path.
+     * 
+     * @return The number of refined steps in this path.
+     */
+    public int getRefinedLength()
+    {
+        if (refiner == null)
+        {
+            return steps.size();
+        }
+        return Math.max(0, steps.size() - LOOKAHEAD);
+    }
+
     /**
      * Get the x coordinate for the step at the given index.
      * 
@@ -66,6 +127,7 @@ public final class Path
      */
     public int getX(int index)
     {
+        refine(index);
         return steps.get(index).getX();
     }
 
@@ -77,6 +139,7 @@ public final class Path
      */
     public int getY(int index)
     {
+        refine(index);
         return steps.get(index).getY();
     }
 
@@ -86,5 +149,6 @@ public final class Path
     public void clear()
     {
         steps.clear();
+        refiner = null;
     }
 }
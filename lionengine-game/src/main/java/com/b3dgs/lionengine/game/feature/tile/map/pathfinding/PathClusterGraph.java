@@ -0,0 +1,685 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * Abstract graph of {@link PathClusters} for one mover {@link PathRules}. Nodes are entrance tiles, one per open run
+ * of tiles along each border between two clusters. Edges are either crossings between two clusters, or intra-cluster
+ * paths, whose costs are searched with A star bounded to the cluster.
+ * <p>
+ * Objects id are not part of the graph, as they are mover dependent and change at each step: they are checked when
+ * route is refined.
+ * </p>
+ */
+final class PathClusterGraph
+{
+    /** Unreachable cost. */
+    private static final double UNREACHABLE = Double.POSITIVE_INFINITY;
+    /** No data. */
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Get the tile position in first tiles.
+     * 
+     * @param tiles The tiles index.
+     * @param count The number of tiles to check.
+     * @param tile The tile index.
+     * @return The tile position, <code>-1</code> if not found.
+     */
+    private static int indexOf(int[] tiles, int count, int tile)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (tiles[i] == tile)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Collect distinct border tiles on one side.
+     * 
+     * @param found The found tiles.
+     * @param count The current found count.
+     * @param border The border pairs.
+     * @param side The side in pair.
+     * @return The new found count.
+     */
+    private static int collect(int[] found, int count, int[] border, int side)
+    {
+        int total = count;
+        if (border != null)
+        {
+            for (int i = 0; i < border.length; i += 2)
+            {
+                final int tile = border[i + side];
+                if (indexOf(found, total, tile) < 0)
+                {
+                    found[total++] = tile;
+                }
+            }
+        }
+        return total;
+    }
+
+    /** Cluster bounded search source. */
+    private final ClusterSource source = new ClusterSource();
+    /** Clusters reference. */
+    private final PathClusters clusters;
+    /** Mover rules. */
+    private final PathRules rules;
+    /** Intra-cluster finder. */
+    private final PathFinderImpl finder;
+    /** Dirty clusters. */
+    private final boolean[] dirty;
+    /** Entrance tiles per cluster. */
+    private final int[][] nodes;
+    /** Intra-cluster costs per cluster, from node to node. */
+    private final double[][] costs;
+    /** Entrance pairs with next horizontal cluster, as cluster tile then neighbor tile. */
+    private final int[][] bordersX;
+    /** Entrance pairs with next vertical cluster, as cluster tile then neighbor tile. */
+    private final int[][] bordersY;
+    /** Number of horizontal tiles. */
+    private final int width;
+    /** Number of horizontal clusters. */
+    private final int clustersX;
+    /** Number of vertical clusters. */
+    private final int clustersY;
+    /** Cluster size in tile. */
+    private final int size;
+
+    /**
+     * Create graph. All clusters are dirty until first {@link #refresh()}.
+     * 
+     * @param clusters The clusters reference.
+     * @param rules The mover rules.
+     */
+    PathClusterGraph(PathClusters clusters, PathRules rules)
+    {
+        super();
+
+        this.clusters = clusters;
+        this.rules = rules;
+        width = clusters.getInTileWidth();
+        clustersX = clusters.getClustersX();
+        clustersY = clusters.getClustersY();
+        size = clusters.getSize();
+
+        final int count = clustersX * clustersY;
+        dirty = new boolean[count];
+        nodes = new int[count][];
+        costs = new double[count][];
+        bordersX = new int[count][];
+        bordersY = new int[count][];
+        Arrays.fill(dirty, true);
+        Arrays.fill(nodes, NONE);
+        finder = new PathFinderImpl(source, size * size, new HeuristicClosest());
+    }
+
+    /**
+     * Mark cluster as dirty.
+     * 
+     * @param cluster The cluster index.
+     */
+    void invalidate(int cluster)
+    {
+        dirty[cluster] = true;
+    }
+
+    /**
+     * Recompute borders of dirty clusters, and nodes with costs of dirty clusters and their neighbors.
+     */
+    void refresh()
+    {
+        final boolean[] affected = new boolean[dirty.length];
+        boolean changed = false;
+        for (int cluster = 0; cluster < dirty.length; cluster++)
+        {
+            if (dirty[cluster])
+            {
+                refreshBorders(cluster, affected);
+                dirty[cluster] = false;
+                changed = true;
+            }
+        }
+        if (changed)
+        {
+            for (int cluster = 0; cluster < affected.length; cluster++)
+            {
+                if (affected[cluster])
+                {
+                    computeNodes(cluster);
+                    computeCosts(cluster);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the route of entrance tiles from start to goal, which must be in different clusters.
+     * 
+     * @param start The start tile index.
+     * @param goal The goal tile index.
+     * @param heuristic The heuristic used.
+     * @return The tile indexes, from start to goal included, <code>null</code> if none.
+     */
+    int[] findRoute(int start, int goal, Heuristic heuristic)
+    {
+        final int startCluster = getCluster(start);
+        final int goalCluster = getCluster(goal);
+        final int[] startNodes = nodes[startCluster];
+        final int[] goalNodes = nodes[goalCluster];
+        final double[] startCosts = new double[startNodes.length];
+        final double[] goalCosts = new double[goalNodes.length];
+        for (int i = 0; i < startNodes.length; i++)
+        {
+            startCosts[i] = search(start, startNodes[i], startCluster);
+        }
+        for (int i = 0; i < goalNodes.length; i++)
+        {
+            goalCosts[i] = search(goalNodes[i], goal, goalCluster);
+        }
+
+        final Route route = new Route(goal, heuristic);
+        route.relax(start, -1, 0.0);
+        Candidate current = route.poll();
+        while (current != null && current.tile != goal)
+        {
+            if (current.tile == start)
+            {
+                for (int i = 0; i < startNodes.length; i++)
+                {
+                    route.relax(startNodes[i], start, current.cost + startCosts[i]);
+                }
+            }
+            expand(route, current, goalCluster, goalCosts);
+            current = route.poll();
+        }
+        if (current == null)
+        {
+            return null;
+        }
+        return route.get(goal);
+    }
+
+    /**
+     * Expand node neighbors: cluster nodes, next cluster entrances and goal.
+     * 
+     * @param route The current route search.
+     * @param current The current node.
+     * @param goalCluster The goal cluster index.
+     * @param goalCosts The costs from goal cluster nodes to goal.
+     */
+    private void expand(Route route, Candidate current, int goalCluster, double[] goalCosts)
+    {
+        final int tile = current.tile;
+        final int cluster = getCluster(tile);
+        final int index = indexOf(nodes[cluster], nodes[cluster].length, tile);
+        if (index < 0)
+        {
+            return;
+        }
+        final int[] clusterNodes = nodes[cluster];
+        final double[] clusterCosts = costs[cluster];
+        for (int i = 0; i < clusterNodes.length; i++)
+        {
+            route.relax(clusterNodes[i], tile, current.cost + clusterCosts[index * clusterNodes.length + i]);
+        }
+        if (cluster == goalCluster)
+        {
+            route.relax(route.goal, tile, current.cost + goalCosts[index]);
+        }
+
+        final int cx = cluster % clustersX;
+        final int cy = cluster / clustersX;
+        final double cost = current.cost + rules.getCost(getCategory(tile));
+        cross(route, tile, cost, bordersX[cluster], 0, MovementTile.RIGHT);
+        cross(route, tile, cost, bordersY[cluster], 0, MovementTile.UP);
+        if (cx > 0)
+        {
+            cross(route, tile, cost, bordersX[cluster - 1], 1, MovementTile.LEFT);
+        }
+        if (cy > 0)
+        {
+            cross(route, tile, cost, bordersY[cluster - clustersX], 1, MovementTile.DOWN);
+        }
+    }
+
+    /**
+     * Relax border crossing from tile.
+     * 
+     * @param route The current route search.
+     * @param tile The current tile.
+     * @param cost The cost after crossing.
+     * @param border The border entrances pairs.
+     * @param side The tile side in pair (0 for first, 1 for second).
+     * @param movement The crossing movement.
+     */
+    private void cross(Route route, int tile, double cost, int[] border, int side, MovementTile movement)
+    {
+        if (border != null && rules.isMovementAllowed(getCategory(tile), movement))
+        {
+            for (int i = 0; i < border.length; i += 2)
+            {
+                if (border[i + side] == tile)
+                {
+                    route.relax(border[i + 1 - side], tile, cost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompute borders owned or shared by cluster, and mark it and its neighbors as affected.
+     * 
+     * @param cluster The dirty cluster.
+     * @param affected The affected clusters.
+     */
+    private void refreshBorders(int cluster, boolean[] affected)
+    {
+        final int cx = cluster % clustersX;
+        final int cy = cluster / clustersX;
+        affected[cluster] = true;
+        bordersX[cluster] = computeBorder(cx, cy, true);
+        bordersY[cluster] = computeBorder(cx, cy, false);
+        if (cx > 0)
+        {
+            bordersX[cluster - 1] = computeBorder(cx - 1, cy, true);
+            affected[cluster - 1] = true;
+        }
+        if (cy > 0)
+        {
+            bordersY[cluster - clustersX] = computeBorder(cx, cy - 1, false);
+            affected[cluster - clustersX] = true;
+        }
+        if (cx + 1 < clustersX)
+        {
+            affected[cluster + 1] = true;
+        }
+        if (cy + 1 < clustersY)
+        {
+            affected[cluster + clustersX] = true;
+        }
+    }
+
+    /**
+     * Compute entrances with next cluster, one at the middle of each run of walkable tiles on both sides.
+     * 
+     * @param cx The horizontal cluster index.
+     * @param cy The vertical cluster index.
+     * @param horizontal <code>true</code> for next horizontal cluster, <code>false</code> for next vertical one.
+     * @return The entrance pairs, as cluster tile then neighbor tile.
+     */
+    private int[] computeBorder(int cx, int cy, boolean horizontal)
+    {
+        final int next = horizontal ? cx + 1 : cy + 1;
+        final int max = horizontal ? clustersX : clustersY;
+        if (next >= max)
+        {
+            return NONE;
+        }
+        final int fixed = next * size - 1;
+        final int start = (horizontal ? cy : cx) * size;
+        final int end = Math.min(start + size, horizontal ? clusters.getInTileHeight() : width);
+        final int[] pairs = new int[size * 2];
+        int count = 0;
+        int runStart = -1;
+        for (int i = start; i <= end; i++)
+        {
+            final boolean open = i < end && isOpen(fixed, i, horizontal);
+            if (open && runStart < 0)
+            {
+                runStart = i;
+            }
+            else if (!open && runStart >= 0)
+            {
+                final int middle = (runStart + i - 1) / 2;
+                pairs[count++] = horizontal ? middle * width + fixed : fixed * width + middle;
+                pairs[count++] = horizontal ? middle * width + fixed + 1 : (fixed + 1) * width + middle;
+                runStart = -1;
+            }
+        }
+        return Arrays.copyOf(pairs, count);
+    }
+
+    /**
+     * Check if both sides of border are walkable.
+     * 
+     * @param fixed The border location on its axis.
+     * @param i The location along border.
+     * @param horizontal <code>true</code> for horizontal crossing, <code>false</code> for vertical.
+     * @return <code>true</code> if open, <code>false</code> else.
+     */
+    private boolean isOpen(int fixed, int i, boolean horizontal)
+    {
+        if (horizontal)
+        {
+            return !rules.isBlocking(clusters.getCategory(fixed, i))
+                   && !rules.isBlocking(clusters.getCategory(fixed + 1, i));
+        }
+        return !rules.isBlocking(clusters.getCategory(i, fixed)) && !rules.isBlocking(clusters.getCategory(i, fixed + 1));
+    }
+
+    /**
+     * Collect cluster entrance tiles from its borders.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void computeNodes(int cluster)
+    {
+        final int[] found = new int[size * 4];
+        int count = 0;
+        count = collect(found, count, bordersX[cluster], 0);
+        count = collect(found, count, bordersY[cluster], 0);
+        if (cluster % clustersX > 0)
+        {
+            count = collect(found, count, bordersX[cluster - 1], 1);
+        }
+        if (cluster >= clustersX)
+        {
+            count = collect(found, count, bordersY[cluster - clustersX], 1);
+        }
+        nodes[cluster] = Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Search costs between each cluster nodes.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void computeCosts(int cluster)
+    {
+        final int[] clusterNodes = nodes[cluster];
+        final int count = clusterNodes.length;
+        final double[] clusterCosts = new double[count * count];
+        for (int i = 0; i < count; i++)
+        {
+            for (int j = 0; j < count; j++)
+            {
+                clusterCosts[i * count + j] = search(clusterNodes[i], clusterNodes[j], cluster);
+            }
+        }
+        costs[cluster] = clusterCosts;
+    }
+
+    /**
+     * Search path cost inside cluster.
+     * 
+     * @param from The start tile index.
+     * @param to The end tile index.
+     * @param cluster The cluster index.
+     * @return The path cost, {@link #UNREACHABLE} if none.
+     */
+    private double search(int from, int to, int cluster)
+    {
+        if (from == to)
+        {
+            return 0.0;
+        }
+        source.setCluster(cluster);
+        final Path path = finder.findPath(null, from % width, from / width, to % width, to / width, true);
+        if (path == null)
+        {
+            return UNREACHABLE;
+        }
+        double cost = 0.0;
+        for (int i = 0; i < path.getLength() - 1; i++)
+        {
+            cost += rules.getCost(clusters.getCategory(path.getX(i), path.getY(i)));
+        }
+        return cost;
+    }
+
+    /**
+     * Get the cluster of tile.
+     * 
+     * @param tile The tile index.
+     * @return The cluster index.
+     */
+    private int getCluster(int tile)
+    {
+        return clusters.getCluster(tile % width, tile / width);
+    }
+
+    /**
+     * Get the category of tile.
+     * 
+     * @param tile The tile index.
+     * @return The category index.
+     */
+    private int getCategory(int tile)
+    {
+        return clusters.getCategory(tile % width, tile / width);
+    }
+
+    /**
+     * Route search state, on tile indexes.
+     */
+    private final class Route
+    {
+        /** Open nodes. */
+        private final Queue<Candidate> open = new PriorityQueue<>();
+        /** Best cost by tile. */
+        private final Map<Integer, Double> best = new HashMap<>();
+        /** Parent by tile. */
+        private final Map<Integer, Integer> parents = new HashMap<>();
+        /** Goal tile. */
+        private final int goal;
+        /** Heuristic used. */
+        private final Heuristic heuristic;
+
+        /**
+         * Create route.
+         * 
+         * @param goal The goal tile.
+         * @param heuristic The heuristic used.
+         */
+        Route(int goal, Heuristic heuristic)
+        {
+            super();
+
+            this.goal = goal;
+            this.heuristic = heuristic;
+        }
+
+        /**
+         * Open tile if reached with a lower cost.
+         * 
+         * @param tile The reached tile.
+         * @param parent The parent tile.
+         * @param cost The cost to tile.
+         */
+        void relax(int tile, int parent, double cost)
+        {
+            if (cost < UNREACHABLE)
+            {
+                final Integer key = Integer.valueOf(tile);
+                final Double old = best.get(key);
+                if (old == null || cost < old.doubleValue())
+                {
+                    best.put(key, Double.valueOf(cost));
+                    parents.put(key, Integer.valueOf(parent));
+                    final double h = heuristic.getCost(tile % width, tile / width, goal % width, goal / width);
+                    open.add(new Candidate(tile, cost, cost + h));
+                }
+            }
+        }
+
+        /**
+         * Get next best open candidate, skipping outdated ones.
+         * 
+         * @return The next candidate, <code>null</code> if none.
+         */
+        Candidate poll()
+        {
+            Candidate candidate = open.poll();
+            while (candidate != null && candidate.cost > best.get(Integer.valueOf(candidate.tile)).doubleValue())
+            {
+                candidate = open.poll();
+            }
+            return candidate;
+        }
+
+        /**
+         * Get the route to tile.
+         * 
+         * @param tile The reached tile.
+         * @return The tiles from start to tile.
+         */
+        int[] get(int tile)
+        {
+            int count = 0;
+            int current = tile;
+            while (current >= 0)
+            {
+                count++;
+                current = parents.get(Integer.valueOf(current)).intValue();
+            }
+            final int[] route = new int[count];
+            current = tile;
+            for (int i = count - 1; i >= 0; i--)
+            {
+                route[i] = current;
+                current = parents.get(Integer.valueOf(current)).intValue();
+            }
+            return route;
+        }
+    }
+
+    /**
+     * Route candidate.
+     */
+    private static final class Candidate implements Comparable<Candidate>
+    {
+        /** Tile index. */
+        private final int tile;
+        /** Cost from start. */
+        private final double cost;
+        /** Estimated total cost. */
+        private final double priority;
+
+        /**
+         * Create candidate.
+         * 
+         * @param tile The tile index.
+         * @param cost The cost from start.
+         * @param priority The estimated total cost.
+         */
+        Candidate(int tile, double cost, double priority)
+        {
+            super();
+
+            this.tile = tile;
+            this.cost = cost;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Candidate other)
+        {
+            return Double.compare(priority, other.priority);
+        }
+    }
+
+    /**
+     * Search source bounded to one cluster.
+     */
+    private final class ClusterSource implements PathSource
+    {
+        /** Minimum horizontal tile. */
+        private int minX;
+        /** Minimum vertical tile. */
+        private int minY;
+
+        /**
+         * Create source.
+         */
+        ClusterSource()
+        {
+            super();
+        }
+
+        /**
+         * Set the cluster bounds.
+         * 
+         * @param cluster The cluster index.
+         */
+        void setCluster(int cluster)
+        {
+            minX = cluster % clustersX * size;
+            minY = cluster / clustersX * size;
+        }
+
+        @Override
+        public int getInTileWidth()
+        {
+            return width;
+        }
+
+        @Override
+        public int getInTileHeight()
+        {
+            return clusters.getInTileHeight();
+        }
+
+        @Override
+        public int getInTileRadius()
+        {
+            return size;
+        }
+
+        @Override
+        public boolean isMovementAllowed(Pathfindable mover, int tx, int ty, MovementTile movement)
+        {
+            return rules.isMovementAllowed(clusters.getCategory(tx, ty), movement);
+        }
+
+        @Override
+        public boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId)
+        {
+            final boolean inside = tx >= minX
+                                   && ty >= minY
+                                   && tx < minX + size
+                                   && ty < minY + size
+                                   && tx < width
+                                   && ty < clusters.getInTileHeight();
+            return !inside || rules.isBlocking(clusters.getCategory(tx, ty));
+        }
+
+        @Override
+        public double getCost(Pathfindable mover, int tx, int ty)
+        {
+            return rules.getCost(clusters.getCategory(tx, ty));
+        }
+
+        @Override
+        public CoordTile getClosestAvailableTile(Pathfindable mover, int tx, int ty, int sx, int sy, int radius)
+        {
+            return null;
+        }
+    }
+}
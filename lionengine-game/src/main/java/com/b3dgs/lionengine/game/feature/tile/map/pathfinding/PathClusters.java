@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Map split in square clusters, with tile categories stored as indexes. Keeps one {@link PathClusterGraph} per mover
+ * {@link PathRules}, and only marks clusters dirty when a tile is set or removed, so graphs are recomputed
+ * incrementally on next use.
+ */
+final class PathClusters
+{
+    /** Categories name by index, first one for tile without category. */
+    private final List<String> names = new ArrayList<>();
+    /** Categories index by name. */
+    private final Map<String, Integer> indexes = new HashMap<>();
+    /** Graphs by mover rules. */
+    private final Map<PathRules, PathClusterGraph> graphs = new HashMap<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Category index per tile. */
+    private final int[] tiles;
+    /** Number of horizontal tiles. */
+    private final int width;
+    /** Number of vertical tiles. */
+    private final int height;
+    /** Cluster size in tile. */
+    private final int size;
+    /** Number of horizontal clusters. */
+    private final int clustersX;
+    /** Number of vertical clusters. */
+    private final int clustersY;
+
+    /**
+     * Create clusters.
+     * 
+     * @param map The map reference, with {@link TilePath} on each tile.
+     * @param categories The categories name.
+     * @param size The cluster size in tile.
+     */
+    PathClusters(MapTile map, Collection<String> categories, int size)
+    {
+        super();
+
+        this.map = map;
+        this.size = size;
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        clustersX = (width + size - 1) / size;
+        clustersY = (height + size - 1) / size;
+        tiles = new int[width * height];
+
+        names.add(null);
+        for (final String category : categories)
+        {
+            indexes.put(category, Integer.valueOf(names.size()));
+            names.add(category);
+        }
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                capture(tx, ty);
+            }
+        }
+    }
+
+    /**
+     * Update tile category, and mark its cluster as dirty for all graphs.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    void update(int tx, int ty)
+    {
+        if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+        {
+            final int old = tiles[ty * width + tx];
+            capture(tx, ty);
+            if (old != tiles[ty * width + tx])
+            {
+                final int cluster = getCluster(tx, ty);
+                for (final PathClusterGraph graph : graphs.values())
+                {
+                    graph.invalidate(cluster);
+                }
+            }
+        }
+    }
+
+    /**
+     * Capture rules of mover.
+     * 
+     * @param mover The mover reference.
+     * @return The mover rules.
+     */
+    PathRules createRules(Pathfindable mover)
+    {
+        return new PathRules(mover, names);
+    }
+
+    /**
+     * Get the up to date graph for rules, created on first use.
+     * 
+     * @param rules The mover rules.
+     * @return The graph.
+     */
+    PathClusterGraph getGraph(PathRules rules)
+    {
+        final PathClusterGraph graph = graphs.computeIfAbsent(rules, key -> new PathClusterGraph(this, key));
+        graph.refresh();
+        return graph;
+    }
+
+    /**
+     * Get the tile category index.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The category index.
+     */
+    int getCategory(int tx, int ty)
+    {
+        return tiles[ty * width + tx];
+    }
+
+    /**
+     * Get the cluster index containing tile.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The cluster index.
+     */
+    int getCluster(int tx, int ty)
+    {
+        return ty / size * clustersX + tx / size;
+    }
+
+    /**
+     * Get the cluster size in tile.
+     * 
+     * @return The cluster size.
+     */
+    int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the number of horizontal clusters.
+     * 
+     * @return The number of horizontal clusters.
+     */
+    int getClustersX()
+    {
+        return clustersX;
+    }
+
+    /**
+     * Get the number of vertical clusters.
+     * 
+     * @return The number of vertical clusters.
+     */
+    int getClustersY()
+    {
+        return clustersY;
+    }
+
+    /**
+     * Get the number of horizontal tiles.
+     * 
+     * @return The number of horizontal tiles.
+     */
+    int getInTileWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get the number of vertical tiles.
+     * 
+     * @return The number of vertical tiles.
+     */
+    int getInTileHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Capture tile category index.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    private void capture(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        int category = 0;
+        if (tile != null && tile.hasFeature(TilePath.class))
+        {
+            final Integer index = indexes.get(tile.getFeature(TilePath.class).getCategory());
+            if (index != null)
+            {
+                category = index.intValue();
+            }
+        }
+        tiles[ty * width + tx] = category;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Hierarchical path finder (HPA*). A route is first searched on the {@link PathClusterGraph} of the mover rules, then
+ * refined lazily with A star, segment by segment, when the mover is about to reach the end of the known steps.
+ * Destinations inside the starting cluster are directly searched with A star.
+ */
+final class PathFinderHierarchical implements PathFinder
+{
+    /** Map source. */
+    private final PathSource source;
+    /** Clusters reference. */
+    private final PathClusters clusters;
+    /** Refinement finder. */
+    private final PathFinderImpl finder;
+    /** Route heuristic. */
+    private final Heuristic heuristic;
+    /** Number of horizontal tiles. */
+    private final int width;
+
+    /**
+     * Create finder.
+     * 
+     * @param map The map reference. Must have the {@link MapTilePath} feature.
+     * @param clusters The map clusters.
+     * @param maxSearchDistance The maximum depth of each refinement search.
+     * @param heuristic The heuristic used.
+     */
+    PathFinderHierarchical(MapTile map, PathClusters clusters, int maxSearchDistance, Heuristic heuristic)
+    {
+        super();
+
+        source = new PathSourceMap(map);
+        this.clusters = clusters;
+        this.heuristic = heuristic;
+        finder = new PathFinderImpl(source, maxSearchDistance, heuristic);
+        width = clusters.getInTileWidth();
+    }
+
+    /**
+     * Find a path from the starting location provided to the destination location.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    // CHECKSTYLE IGNORE LINE: ReturnCount
+    private Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        if (source.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (source.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = source.getClosestAvailableTile(mover,
+                                                                  dtx,
+                                                                  dty,
+                                                                  stx,
+                                                                  sty,
+                                                                  source.getInTileRadius());
+            if (tile == null)
+            {
+                return null;
+            }
+            return findPath(mover, stx, sty, tile.getX(), tile.getY(), ignoreRef);
+        }
+        if (clusters.getCluster(stx, sty) == clusters.getCluster(dtx, dty))
+        {
+            return finder.findPath(mover, stx, sty, dtx, dty, ignoreRef);
+        }
+
+        final PathClusterGraph graph = clusters.getGraph(clusters.createRules(mover));
+        final int[] route = graph.findRoute(sty * width + stx, dty * width + dtx, heuristic);
+        if (route == null)
+        {
+            return null;
+        }
+
+        final Path path = new Path();
+        path.appendStep(stx, sty);
+        final Segments segments = new Segments(mover, route, ignoreRef);
+        if (!segments.refine(path))
+        {
+            return null;
+        }
+        path.setRefiner(segments);
+        return path;
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPath(mover, mover.getInTileX(), mover.getInTileY(), dtx, dty, ignoreRef);
+    }
+
+    /**
+     * Route segments refined on demand.
+     */
+    private final class Segments implements PathRefiner
+    {
+        /** The moving entity. */
+        private final Pathfindable mover;
+        /** Route tiles index. */
+        private final int[] route;
+        /** Ignore objects id. */
+        private final boolean ignoreRef;
+        /** Next route tile. */
+        private int next = 1;
+        /** Last refined horizontal tile. */
+        private int lastX;
+        /** Last refined vertical tile. */
+        private int lastY;
+
+        /**
+         * Create segments.
+         * 
+         * @param mover The moving entity.
+         * @param route The route tiles index, starting with start tile.
+         * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+         */
+        Segments(Pathfindable mover, int[] route, boolean ignoreRef)
+        {
+            super();
+
+            this.mover = mover;
+            this.route = route;
+            this.ignoreRef = ignoreRef;
+            lastX = route[0] % width;
+            lastY = route[0] / width;
+        }
+
+        /*
+         * PathRefiner
+         */
+
+        @Override
+        public boolean refine(Path path)
+        {
+            if (next >= route.length)
+            {
+                return false;
+            }
+            final int goal = route[route.length - 1];
+            Path segment = finder.findPath(mover, lastX, lastY, route[next] % width, route[next] / width, ignoreRef);
+            if (segment == null)
+            {
+                // Route changed since search (objects moved), join destination directly
+                segment = finder.findPath(mover, lastX, lastY, goal % width, goal / width, ignoreRef);
+                next = route.length;
+                if (segment == null)
+                {
+                    return false;
+                }
+            }
+            else
+            {
+                next++;
+            }
+            for (int i = 1; i < segment.getLength(); i++)
+            {
+                path.appendStep(segment.getX(i), segment.getY(i));
+            }
+            lastX = segment.getX(segment.getLength() - 1);
+            lastY = segment.getY(segment.getLength() - 1);
+            return true;
+        }
+    }
+}
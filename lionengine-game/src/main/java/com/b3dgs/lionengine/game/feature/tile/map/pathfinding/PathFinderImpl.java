@@ -17,59 +17,38 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.NavigableSet;
-import java.util.TreeSet;
-
 import com.b3dgs.lionengine.UtilMath;
-import com.b3dgs.lionengine.game.feature.tile.Tile;
-import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 
 /**
  * A path finder implementation that uses the AStar heuristic based algorithm to determine a path.
+ * <p>
+ * Search state is stored in a {@link PathSearchWorkspace} leased for the search duration, so path finders do not hold
+ * any per node data. Map data are read from a {@link PathSource}.
+ * </p>
  */
 final class PathFinderImpl implements PathFinder
 {
-    /** Closed list. */
-    private final Collection<Node> closed = new HashSet<>();
-    /** Open list. */
-    private final NavigableSet<Node> open = new TreeSet<>();
-    /** Map reference. */
-    private final MapTile map;
-    /** Map path reference. */
-    private final MapTilePath mapPath;
+    /** Path source reference. */
+    private final PathSource source;
     /** Max distance to search. */
     private final int maxSearchDistance;
-    /** Nodes array. */
-    private final Node[][] nodes;
     /** Heuristic used. */
     private final Heuristic heuristic;
 
     /**
      * Internal constructor.
      * 
-     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param source The path source to be searched.
      * @param maxSearchDistance The maximum depth we'll search before giving up.
      * @param heuristic The heuristic used to determine the search order of the map.
      */
-    PathFinderImpl(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    PathFinderImpl(PathSource source, int maxSearchDistance, Heuristic heuristic)
     {
         super();
 
         this.heuristic = heuristic;
-        this.map = map;
+        this.source = source;
         this.maxSearchDistance = maxSearchDistance;
-        mapPath = map.getFeature(MapTilePath.class);
-        nodes = new Node[map.getInTileHeight()][map.getInTileWidth()];
-
-        for (int ty = 0; ty < map.getInTileHeight(); ty++)
-        {
-            for (int tx = 0; tx < map.getInTileWidth(); tx++)
-            {
-                nodes[ty][tx] = new Node(tx, ty);
-            }
-        }
     }
 
     /**
@@ -82,7 +61,7 @@ final class PathFinderImpl implements PathFinder
      */
     public double getMovementCost(Pathfindable pathfindable, int tx, int ty)
     {
-        return mapPath.getCost(pathfindable, tx, ty);
+        return source.getCost(pathfindable, tx, ty);
     }
 
     /**
@@ -112,11 +91,11 @@ final class PathFinderImpl implements PathFinder
      */
     private boolean isValidLocation(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
     {
-        boolean invalid = dtx < 0 || dty < 0 || dtx >= map.getInTileWidth() || dty >= map.getInTileHeight();
+        boolean invalid = dtx < 0 || dty < 0 || dtx >= source.getInTileWidth() || dty >= source.getInTileHeight();
 
         if (!invalid && (stx != dtx || sty != dty))
         {
-            invalid = mapPath.isBlocked(mover, dtx, dty, ignoreRef);
+            invalid = source.isBlocked(mover, dtx, dty, ignoreRef);
         }
 
         return !invalid;
@@ -131,7 +110,8 @@ final class PathFinderImpl implements PathFinder
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
      * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
-     * @param current The current node.
+     * @param workspace The search workspace.
+     * @param current The current node index.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
@@ -141,19 +121,29 @@ final class PathFinderImpl implements PathFinder
                            int dtx,
                            int dty,
                            boolean ignoreRef,
-                           Node current,
+                           PathSearchWorkspace workspace,
+                           int current,
                            int maxDepth)
     {
         int depth = maxDepth;
-        final Tile tile = map.getTile(current.getX(), current.getY());
-        final TilePath tilePath = tile.getFeature(TilePath.class);
         for (int y = -1; y < 2; y++)
         {
             for (int x = -1; x < 2; x++)
             {
                 if (!(x == 0 && y == 0))
                 {
-                    depth = check(tilePath, depth, x, y, mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
+                    depth = check(depth,
+                                  x,
+                                  y,
+                                  mover,
+                                  stx,
+                                  sty,
+                                  dtx,
+                                  dty,
+                                  ignoreRef,
+                                  workspace,
+                                  current,
+                                  maxDepth);
                 }
             }
         }
@@ -163,7 +153,6 @@ final class PathFinderImpl implements PathFinder
     /**
      * Update the open and closed list to find the path.
      * 
-     * @param tilePath The current tile.
      * @param nextDepth The next depth value.
      * @param x The current horizontal movement.
      * @param y The current vertical movement.
@@ -173,12 +162,12 @@ final class PathFinderImpl implements PathFinder
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
      * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
-     * @param current The current node.
+     * @param workspace The search workspace.
+     * @param current The current node index.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
-    private int check(TilePath tilePath,
-                      int nextDepth,
+    private int check(int nextDepth,
                       int x,
                       int y,
                       Pathfindable mover,
@@ -187,18 +176,21 @@ final class PathFinderImpl implements PathFinder
                       int dtx,
                       int dty,
                       boolean ignoreRef,
-                      Node current,
+                      PathSearchWorkspace workspace,
+                      int current,
                       int maxDepth)
     {
         final MovementTile movement = MovementTile.from(x, y);
-        if (mover.isMovementAllowed(tilePath.getCategory(), movement))
+        final int cx = workspace.getX(current);
+        final int cy = workspace.getY(current);
+        if (source.isMovementAllowed(mover, cx, cy, movement))
         {
-            final int xp = x + current.getX();
-            final int yp = y + current.getY();
+            final int xp = x + cx;
+            final int yp = y + cy;
 
             if (isValidLocation(mover, stx, sty, xp, yp, ignoreRef))
             {
-                return updateNeighbour(mover, dtx, dty, current, xp, yp, maxDepth);
+                return updateNeighbour(mover, dtx, dty, workspace, current, xp, yp, maxDepth);
             }
         }
         return nextDepth;
@@ -210,90 +202,134 @@ final class PathFinderImpl implements PathFinder
      * @param mover The entity that will be moving along the path.
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
-     * @param current The current node.
+     * @param workspace The search workspace.
+     * @param current The current node index.
      * @param xp The x coordinate of the destination location.
      * @param yp The y coordinate of the destination location.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
-    private int updateNeighbour(Pathfindable mover, int dtx, int dty, Node current, int xp, int yp, int maxDepth)
+    private int updateNeighbour(Pathfindable mover,
+                                int dtx,
+                                int dty,
+                                PathSearchWorkspace workspace,
+                                int current,
+                                int xp,
+                                int yp,
+                                int maxDepth)
     {
-        int nextDepth = maxDepth;
-        final double nextStepCost = current.getCost() + getMovementCost(mover, current.getX(), current.getY());
-        final Node neighbour = nodes[yp][xp];
+        final double nextStepCost = workspace.getCost(current)
+                                    + getMovementCost(mover, workspace.getX(current), workspace.getY(current));
+        final int depth = workspace.update(workspace.index(xp, yp),
+                                           current,
+                                           nextStepCost,
+                                           getHeuristicCost(xp, yp, dtx, dty));
+        return Math.max(maxDepth, depth);
+    }
 
-        if (nextStepCost < neighbour.getCost())
+    /**
+     * Find path with workspace.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param workspace The search workspace.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    private Path findPath(Pathfindable mover,
+                          int stx,
+                          int sty,
+                          int dtx,
+                          int dty,
+                          boolean ignoreRef,
+                          PathSearchWorkspace workspace)
+    {
+        final int start = workspace.index(stx, sty);
+        final int destination = workspace.index(dtx, dty);
+        workspace.open(start);
+
+        int maxDepth = 0;
+        while (maxDepth < maxSearchDistance && !workspace.isOpenEmpty())
         {
-            open.remove(neighbour);
-            closed.remove(neighbour);
+            if (workspace.peek() == destination)
+            {
+                break;
+            }
+            final int current = workspace.close();
+            maxDepth = updateList(mover, stx, sty, dtx, dty, ignoreRef, workspace, current, maxDepth);
         }
-        if (!open.contains(neighbour) && !closed.contains(neighbour))
+        if (!workspace.isReached(destination))
         {
-            neighbour.setCost(nextStepCost);
-            neighbour.setHeuristic(getHeuristicCost(xp, yp, dtx, dty));
-            nextDepth = Math.max(maxDepth, neighbour.setParent(current));
-            open.add(neighbour);
+            return null;
         }
-        return nextDepth;
+        final Path path = new Path();
+        int target = destination;
+
+        while (target != start)
+        {
+            path.prependStep(workspace.getX(target), workspace.getY(target));
+            target = workspace.getParent(target);
+        }
+        path.prependStep(stx, sty);
+
+        return path;
     }
 
-    /*
-     * PathFinder
+    /**
+     * Find a path from the starting location provided to the destination location.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to end, or null if no path can be found.
      */
-
-    @Override // CHECKSTYLE IGNORE LINE: TrailingComment|ReturnCount
-    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    // CHECKSTYLE IGNORE LINE: ReturnCount
+    Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
     {
-        final int stx = mover.getInTileX();
-        final int sty = mover.getInTileY();
-
-        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        if (source.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
         {
             return null;
         }
-        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        if (source.isBlocked(mover, dtx, dty, ignoreRef))
         {
-            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+            final CoordTile tile = source.getClosestAvailableTile(mover,
+                                                                  dtx,
+                                                                  dty,
+                                                                  stx,
+                                                                  sty,
+                                                                  source.getInTileRadius());
             if (tile == null)
             {
                 return null;
             }
-            return findPath(mover, tile.getX(), tile.getY(), ignoreRef);
+            return findPath(mover, stx, sty, tile.getX(), tile.getY(), ignoreRef);
         }
 
-        nodes[sty][stx].setCost(0);
-        nodes[sty][stx].setDepth(0);
-        closed.clear();
-        open.clear();
-        open.add(nodes[sty][stx]);
-        nodes[dty][dtx].setParent(null);
-
-        int maxDepth = 0;
-        while (maxDepth < maxSearchDistance && !open.isEmpty())
+        final PathSearchWorkspace workspace = PathSearchWorkspace.lease(source.getInTileWidth(),
+                                                                        source.getInTileHeight());
+        try
         {
-            final Node current = open.first();
-            if (current == nodes[dty][dtx])
-            {
-                break;
-            }
-            open.remove(current);
-            closed.add(current);
-            maxDepth = updateList(mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
+            return findPath(mover, stx, sty, dtx, dty, ignoreRef, workspace);
         }
-        if (nodes[dty][dtx].getParent() == null)
+        finally
         {
-            return null;
+            workspace.release();
         }
-        final Path path = new Path();
-        Node target = nodes[dty][dtx];
+    }
 
-        while (target != nodes[sty][stx])
-        {
-            path.prependStep(target.getX(), target.getY());
-            target = target.getParent();
-        }
-        path.prependStep(stx, sty);
+    /*
+     * PathFinder
+     */
 
-        return path;
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPath(mover, mover.getInTileX(), mover.getInTileY(), dtx, dty, ignoreRef);
     }
 }
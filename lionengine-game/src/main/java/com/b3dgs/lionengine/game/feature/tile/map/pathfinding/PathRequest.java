@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import com.b3dgs.lionengine.UtilMath;
+
+/**
+ * Path request captured from a {@link Pathfindable} on the game thread. Mover {@link PathRules}, search settings and
+ * ignored objects id are copied, so the search can run on any thread without accessing the mover.
+ */
+final class PathRequest implements PathSource
+{
+    /** Ignored objects id. */
+    private final Collection<Integer> ignored = new HashSet<>();
+    /** Requesting mover. */
+    private final Pathfindable owner;
+    /** Map snapshot. */
+    private final MapTilePathSnapshot snapshot;
+    /** Mover rules per category index. */
+    private final PathRules rules;
+    /** Search heuristic. */
+    private final Heuristic heuristic;
+    /** Maximum search distance. */
+    private final int maxSearchDistance;
+    /** Starting horizontal tile. */
+    private final int stx;
+    /** Starting vertical tile. */
+    private final int sty;
+    /** Destination horizontal tile. */
+    private final int dtx;
+    /** Destination vertical tile. */
+    private final int dty;
+    /** Ignore objects id on path. */
+    private final boolean ignoreRef;
+
+    /**
+     * Create request. Must be called from the mover owner thread.
+     * 
+     * @param mover The requesting mover.
+     * @param snapshot The map snapshot.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @param ignoreRef <code>true</code> to ignore objects id on path, <code>false</code> else.
+     */
+    PathRequest(Pathfindable mover, MapTilePathSnapshot snapshot, int dtx, int dty, boolean ignoreRef)
+    {
+        super();
+
+        owner = mover;
+        this.snapshot = snapshot;
+        this.dtx = dtx;
+        this.dty = dty;
+        this.ignoreRef = ignoreRef;
+        stx = mover.getInTileX();
+        sty = mover.getInTileY();
+        rules = new PathRules(mover, snapshot.getCategories());
+        heuristic = mover.getHeuristic();
+        maxSearchDistance = mover.getMaxSearchDistance();
+
+        if (!ignoreRef)
+        {
+            for (final Integer id : snapshot.getOccupants())
+            {
+                if (mover.isIgnoredId(id))
+                {
+                    ignored.add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if another request can share search result with this one (same destination, same mover rules per
+     * category, same search distance and equal heuristic).
+     * 
+     * @param other The other request.
+     * @return <code>true</code> if compatible, <code>false</code> else.
+     */
+    boolean isCompatible(PathRequest other)
+    {
+        return snapshot == other.snapshot
+               && maxSearchDistance == other.maxSearchDistance
+               && heuristic.equals(other.heuristic)
+               && dtx == other.dtx
+               && dty == other.dty
+               && ignoreRef == other.ignoreRef
+               && rules.equals(other.rules)
+               && ignored.equals(other.ignored);
+    }
+
+    /**
+     * Get the requesting mover.
+     * 
+     * @return The requesting mover.
+     */
+    Pathfindable getMover()
+    {
+        return owner;
+    }
+
+    /**
+     * Get the search heuristic captured from mover.
+     * 
+     * @return The search heuristic.
+     */
+    Heuristic getHeuristic()
+    {
+        return heuristic;
+    }
+
+    /**
+     * Get the maximum search distance captured from mover.
+     * 
+     * @return The maximum search distance.
+     */
+    int getMaxSearchDistance()
+    {
+        return maxSearchDistance;
+    }
+
+    /**
+     * Get the starting horizontal tile.
+     * 
+     * @return The starting horizontal tile.
+     */
+    int getStartX()
+    {
+        return stx;
+    }
+
+    /**
+     * Get the starting vertical tile.
+     * 
+     * @return The starting vertical tile.
+     */
+    int getStartY()
+    {
+        return sty;
+    }
+
+    /**
+     * Get the destination horizontal tile.
+     * 
+     * @return The destination horizontal tile.
+     */
+    int getDestinationX()
+    {
+        return dtx;
+    }
+
+    /**
+     * Get the destination vertical tile.
+     * 
+     * @return The destination vertical tile.
+     */
+    int getDestinationY()
+    {
+        return dty;
+    }
+
+    /**
+     * Get the ignore objects id flag.
+     * 
+     * @return <code>true</code> to ignore objects id on path, <code>false</code> else.
+     */
+    boolean isIgnoreRef()
+    {
+        return ignoreRef;
+    }
+
+    /**
+     * Check if tile is blocking by its category.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if blocking, <code>false</code> else.
+     */
+    private boolean isTileBlocked(int tx, int ty)
+    {
+        return rules.isBlocking(snapshot.getCategory(tx, ty));
+    }
+
+    /**
+     * Check if tile is occupied by a non ignored object.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if occupied, <code>false</code> else.
+     */
+    private boolean isOccupied(int tx, int ty)
+    {
+        final Integer[] ids = snapshot.getObjectsId(tx, ty);
+        if (ids != null)
+        {
+            for (final Integer id : ids)
+            {
+                if (!ignored.contains(id))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * PathSource
+     */
+
+    @Override
+    public int getInTileWidth()
+    {
+        return snapshot.getInTileWidth();
+    }
+
+    @Override
+    public int getInTileHeight()
+    {
+        return snapshot.getInTileHeight();
+    }
+
+    @Override
+    public int getInTileRadius()
+    {
+        return snapshot.getInTileRadius();
+    }
+
+    @Override
+    public boolean isMovementAllowed(Pathfindable mover, int tx, int ty, MovementTile movement)
+    {
+        return rules.isMovementAllowed(snapshot.getCategory(tx, ty), movement);
+    }
+
+    @Override
+    public boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId)
+    {
+        return !snapshot.isInside(tx, ty) || !ignoreObjectsId && isOccupied(tx, ty) || isTileBlocked(tx, ty);
+    }
+
+    @Override
+    public double getCost(Pathfindable mover, int tx, int ty)
+    {
+        return rules.getCost(snapshot.getCategory(tx, ty));
+    }
+
+    @Override
+    public CoordTile getClosestAvailableTile(Pathfindable mover, int tx, int ty, int sx, int sy, int radius)
+    {
+        int closestX = 0;
+        int closestY = 0;
+        double dist = Double.MAX_VALUE;
+        int size = 1;
+        boolean found = false;
+        while (!found)
+        {
+            for (int ctx = tx - size; ctx <= tx + size; ctx++)
+            {
+                for (int cty = ty - size; cty <= ty + size; cty++)
+                {
+                    if (snapshot.isInside(ctx, cty) && !isTileBlocked(ctx, cty))
+                    {
+                        final double d = UtilMath.getDistance(ctx, cty, 1, 1, sx, sy, 1, 1);
+                        if (d < dist)
+                        {
+                            dist = d;
+                            closestX = ctx;
+                            closestY = cty;
+                            found = true;
+                        }
+                    }
+                }
+            }
+            size++;
+            if (size >= radius)
+            {
+                return null;
+            }
+        }
+        return new CoordTile(closestX, closestY);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Mover rules captured per category index: cost, blocking and allowed movements. Category unknown by mover is
+ * considered as blocking. Index zero is reserved for tiles without category, which are neither blocking nor
+ * walkable.
+ * <p>
+ * Rules are values: two movers with same rules share equal instances, which can be used as key.
+ * </p>
+ */
+final class PathRules
+{
+    /** Movements values. */
+    private static final MovementTile[] MOVEMENTS = MovementTile.values();
+
+    /** Cost per category index. */
+    private final double[] costs;
+    /** Blocking per category index. */
+    private final boolean[] blocking;
+    /** Allowed movements bit mask per category index. */
+    private final int[] movements;
+
+    /**
+     * Capture rules. Must be called from the mover owner thread.
+     * 
+     * @param mover The mover reference.
+     * @param categories The categories name by index, first one ignored.
+     */
+    PathRules(Pathfindable mover, List<String> categories)
+    {
+        super();
+
+        final int count = categories.size();
+        costs = new double[count];
+        blocking = new boolean[count];
+        movements = new int[count];
+        for (int i = 1; i < count; i++)
+        {
+            capture(mover, categories.get(i), i);
+        }
+    }
+
+    /**
+     * Capture mover rules for category.
+     * 
+     * @param mover The mover reference.
+     * @param category The category name.
+     * @param index The category index.
+     */
+    private void capture(Pathfindable mover, String category, int index)
+    {
+        try
+        {
+            costs[index] = mover.getCost(category);
+            int mask = 0;
+            for (final MovementTile movement : MOVEMENTS)
+            {
+                if (mover.isMovementAllowed(category, movement))
+                {
+                    mask |= 1 << movement.ordinal();
+                }
+            }
+            movements[index] = mask;
+            blocking[index] = mover.isBlocking(category);
+        }
+        catch (final LionEngineException exception)
+        {
+            blocking[index] = true;
+        }
+    }
+
+    /**
+     * Get the category cost.
+     * 
+     * @param category The category index.
+     * @return The cost.
+     */
+    double getCost(int category)
+    {
+        return costs[category];
+    }
+
+    /**
+     * Check if category is blocking.
+     * 
+     * @param category The category index.
+     * @return <code>true</code> if blocking, <code>false</code> else.
+     */
+    boolean isBlocking(int category)
+    {
+        return blocking[category];
+    }
+
+    /**
+     * Check if movement is allowed from category.
+     * 
+     * @param category The category index.
+     * @param movement The movement.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    boolean isMovementAllowed(int category, MovementTile movement)
+    {
+        return (movements[category] & 1 << movement.ordinal()) != 0;
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + Arrays.hashCode(costs);
+        result = prime * result + Arrays.hashCode(blocking);
+        result = prime * result + Arrays.hashCode(movements);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+        {
+            return true;
+        }
+        if (object == null || object.getClass() != getClass())
+        {
+            return false;
+        }
+        final PathRules other = (PathRules) object;
+        return Arrays.equals(costs, other.costs)
+               && Arrays.equals(blocking, other.blocking)
+               && Arrays.equals(movements, other.movements);
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Search state of all map nodes, stored as structure of arrays indexed by <code>ty * width + tx</code>. Open list is
+ * an indexed binary heap of node indexes, ordered by cost plus heuristic. Visited and closed states are stamped with
+ * the current search generation, so starting a new search does not clear anything.
+ * <p>
+ * Workspaces are leased from a small pool per thread with {@link #lease(int, int)} and given back with
+ * {@link #release()}, so memory is bounded by the number of concurrent searches, not by the number of path finders.
+ * </p>
+ */
+final class PathSearchWorkspace
+{
+    /** Maximum number of released workspaces kept per thread. */
+    private static final int POOL_SIZE = 2;
+    /** No parent. */
+    private static final int NONE = -1;
+    /** Pool per thread. */
+    private static final ThreadLocal<Deque<PathSearchWorkspace>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Lease a workspace able to store the map nodes, and start a new search generation.
+     * 
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @return The workspace, to be released once search is done.
+     */
+    static PathSearchWorkspace lease(int width, int height)
+    {
+        final int length = width * height;
+        final Deque<PathSearchWorkspace> pool = POOL.get();
+        PathSearchWorkspace workspace = pool.pollFirst();
+        while (workspace != null && workspace.capacity < length)
+        {
+            workspace = pool.pollFirst();
+        }
+        if (workspace == null)
+        {
+            workspace = new PathSearchWorkspace(length);
+        }
+        workspace.start(width);
+        return workspace;
+    }
+
+    /** Node cost from start. */
+    private final float[] cost;
+    /** Node heuristic cost to destination. */
+    private final float[] heuristic;
+    /** Node parent index. */
+    private final int[] parent;
+    /** Node depth from start. */
+    private final short[] depth;
+    /** Open list binary heap, storing node indexes. */
+    private final int[] heap;
+    /** Heap position per node index, valid only if node is open for the current generation. */
+    private final int[] heapPositions;
+    /** Generation of the last search which visited the node index. */
+    private final int[] visited;
+    /** Generation of the last search which closed the node index. */
+    private final int[] closed;
+    /** Number of nodes storable. */
+    private final int capacity;
+    /** Current map width in tile. */
+    private int width;
+    /** Open list size. */
+    private int heapSize;
+    /** Current search generation. */
+    private int generation;
+
+    /**
+     * Create workspace.
+     * 
+     * @param capacity The number of nodes storable.
+     */
+    private PathSearchWorkspace(int capacity)
+    {
+        super();
+
+        this.capacity = capacity;
+        cost = new float[capacity];
+        heuristic = new float[capacity];
+        parent = new int[capacity];
+        depth = new short[capacity];
+        heap = new int[capacity];
+        heapPositions = new int[capacity];
+        visited = new int[capacity];
+        closed = new int[capacity];
+    }
+
+    /**
+     * Give back workspace to the pool of the current thread. Must not be used after.
+     */
+    void release()
+    {
+        final Deque<PathSearchWorkspace> pool = POOL.get();
+        if (pool.size() < POOL_SIZE)
+        {
+            pool.addFirst(this);
+        }
+    }
+
+    /**
+     * Get node index.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return The node index.
+     */
+    int index(int tx, int ty)
+    {
+        return ty * width + tx;
+    }
+
+    /**
+     * Get node horizontal tile.
+     * 
+     * @param index The node index.
+     * @return The horizontal tile.
+     */
+    int getX(int index)
+    {
+        return index % width;
+    }
+
+    /**
+     * Get node vertical tile.
+     * 
+     * @param index The node index.
+     * @return The vertical tile.
+     */
+    int getY(int index)
+    {
+        return index / width;
+    }
+
+    /**
+     * Open the start node.
+     * 
+     * @param index The start node index.
+     */
+    void open(int index)
+    {
+        visited[index] = generation;
+        cost[index] = 0.0F;
+        heuristic[index] = 0.0F;
+        depth[index] = 0;
+        parent[index] = NONE;
+        push(index);
+    }
+
+    /**
+     * Update neighbor node if not visited yet or reached with a lower cost, and open it.
+     * 
+     * @param index The neighbor node index.
+     * @param from The current node index.
+     * @param nextCost The cost to reach neighbor from current node.
+     * @param heuristicCost The neighbor heuristic cost, used only on first visit.
+     * @return The neighbor depth if updated, <code>-1</code> else.
+     */
+    int update(int index, int from, double nextCost, double heuristicCost)
+    {
+        if (visited[index] != generation)
+        {
+            visited[index] = generation;
+            heuristic[index] = (float) heuristicCost;
+            setParent(index, from, nextCost);
+            push(index);
+            return depth[index];
+        }
+        if (nextCost < cost[index])
+        {
+            setParent(index, from, nextCost);
+            if (closed[index] == generation)
+            {
+                closed[index] = 0;
+                push(index);
+            }
+            else
+            {
+                siftUp(heapPositions[index]);
+            }
+            return depth[index];
+        }
+        return NONE;
+    }
+
+    /**
+     * Remove the lowest cost node index from open list and close it.
+     * 
+     * @return The closed node index.
+     */
+    int close()
+    {
+        final int first = heap[0];
+        heapSize--;
+        if (heapSize > 0)
+        {
+            heap[0] = heap[heapSize];
+            heapPositions[heap[0]] = 0;
+            siftDown(0);
+        }
+        closed[first] = generation;
+        return first;
+    }
+
+    /**
+     * Get the lowest cost open node index.
+     * 
+     * @return The lowest cost node index.
+     */
+    int peek()
+    {
+        return heap[0];
+    }
+
+    /**
+     * Check if open list is empty.
+     * 
+     * @return <code>true</code> if no more open node, <code>false</code> else.
+     */
+    boolean isOpenEmpty()
+    {
+        return heapSize == 0;
+    }
+
+    /**
+     * Check if node has been reached by current search from another node.
+     * 
+     * @param index The node index.
+     * @return <code>true</code> if reached, <code>false</code> else.
+     */
+    boolean isReached(int index)
+    {
+        return visited[index] == generation && parent[index] != NONE;
+    }
+
+    /**
+     * Get node cost from start.
+     * 
+     * @param index The node index.
+     * @return The node cost.
+     */
+    double getCost(int index)
+    {
+        return cost[index];
+    }
+
+    /**
+     * Get node parent.
+     * 
+     * @param index The node index.
+     * @return The parent index, <code>-1</code> if none.
+     */
+    int getParent(int index)
+    {
+        return parent[index];
+    }
+
+    /**
+     * Start a new search generation. Stamps are reset only when generation overflows.
+     * 
+     * @param width The map width in tile.
+     */
+    private void start(int width)
+    {
+        this.width = width;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(visited, 0);
+            Arrays.fill(closed, 0);
+            generation = 0;
+        }
+        generation++;
+        heapSize = 0;
+    }
+
+    /**
+     * Set node parent and cost, depth is computed from parent and saturates.
+     * 
+     * @param index The node index.
+     * @param from The parent index.
+     * @param nextCost The node cost.
+     */
+    private void setParent(int index, int from, double nextCost)
+    {
+        cost[index] = (float) nextCost;
+        parent[index] = from;
+        depth[index] = (short) Math.min(depth[from] + 1, Short.MAX_VALUE);
+    }
+
+    /**
+     * Get the total cost of node, used as heap ordering.
+     * 
+     * @param index The node index.
+     * @return The node cost plus heuristic.
+     */
+    private float getTotalCost(int index)
+    {
+        return cost[index] + heuristic[index];
+    }
+
+    /**
+     * Add node index to open list.
+     * 
+     * @param index The node index.
+     */
+    private void push(int index)
+    {
+        heap[heapSize] = index;
+        heapSize++;
+        siftUp(heapSize - 1);
+    }
+
+    /**
+     * Move heap element up until heap order is respected.
+     * 
+     * @param position The heap position.
+     */
+    private void siftUp(int position)
+    {
+        final int index = heap[position];
+        final float total = getTotalCost(index);
+        int current = position;
+        while (current > 0)
+        {
+            final int next = (current - 1) >> 1;
+            if (total >= getTotalCost(heap[next]))
+            {
+                break;
+            }
+            heap[current] = heap[next];
+            heapPositions[heap[current]] = current;
+            current = next;
+        }
+        heap[current] = index;
+        heapPositions[index] = current;
+    }
+
+    /**
+     * Move heap element down until heap order is respected.
+     * 
+     * @param position The heap position.
+     */
+    private void siftDown(int position)
+    {
+        final int index = heap[position];
+        final float total = getTotalCost(index);
+        int current = position;
+        int child = (current << 1) + 1;
+        while (child < heapSize)
+        {
+            if (child + 1 < heapSize && getTotalCost(heap[child + 1]) < getTotalCost(heap[child]))
+            {
+                child++;
+            }
+            if (total <= getTotalCost(heap[child]))
+            {
+                break;
+            }
+            heap[current] = heap[child];
+            heapPositions[heap[current]] = current;
+            current = child;
+            child = (current << 1) + 1;
+        }
+        heap[current] = index;
+        heapPositions[index] = current;
+    }
+}
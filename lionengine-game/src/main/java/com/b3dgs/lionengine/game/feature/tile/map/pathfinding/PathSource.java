@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+/**
+ * Pathfinding data source read by {@link PathFinderImpl}: map size, tile costs, blocking and allowed movements.
+ */
+interface PathSource
+{
+    /**
+     * Get the number of horizontal tiles.
+     * 
+     * @return The number of horizontal tiles.
+     */
+    int getInTileWidth();
+
+    /**
+     * Get the number of vertical tiles.
+     * 
+     * @return The number of vertical tiles.
+     */
+    int getInTileHeight();
+
+    /**
+     * Get the map radius in tile.
+     * 
+     * @return The map radius in tile.
+     */
+    int getInTileRadius();
+
+    /**
+     * Check if movement is allowed from tile.
+     * 
+     * @param mover The object moving on map.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @param movement The movement from tile.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    boolean isMovementAllowed(Pathfindable mover, int tx, int ty, MovementTile movement);
+
+    /**
+     * Check if tile is blocked.
+     * 
+     * @param mover The object moving on map.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @param ignoreObjectsId <code>true</code> to ignore objects id, <code>false</code> else.
+     * @return <code>true</code> if blocked, <code>false</code> else.
+     */
+    boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId);
+
+    /**
+     * Get the cost to move through tile.
+     * 
+     * @param mover The object moving on map.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The movement cost.
+     */
+    double getCost(Pathfindable mover, int tx, int ty);
+
+    /**
+     * Get the closest unused location around the destination, from start location.
+     * 
+     * @param mover The object moving on map.
+     * @param tx The horizontal destination tile index.
+     * @param ty The vertical destination tile index.
+     * @param stx The horizontal start tile index.
+     * @param sty The vertical start tile index.
+     * @param radius The search radius.
+     * @return The closest tile found, <code>null</code> if none.
+     */
+    CoordTile getClosestAvailableTile(Pathfindable mover, int tx, int ty, int stx, int sty, int radius);
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Path source reading current map data through {@link MapTilePath} and mover configuration. Must be used from the map
+ * owner thread.
+ */
+final class PathSourceMap implements PathSource
+{
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+
+    /**
+     * Create source.
+     * 
+     * @param map The map reference. Must have the {@link MapTilePath} feature.
+     */
+    PathSourceMap(MapTile map)
+    {
+        super();
+
+        this.map = map;
+        mapPath = map.getFeature(MapTilePath.class);
+    }
+
+    /*
+     * PathSource
+     */
+
+    @Override
+    public int getInTileWidth()
+    {
+        return map.getInTileWidth();
+    }
+
+    @Override
+    public int getInTileHeight()
+    {
+        return map.getInTileHeight();
+    }
+
+    @Override
+    public int getInTileRadius()
+    {
+        return map.getInTileRadius();
+    }
+
+    @Override
+    public boolean isMovementAllowed(Pathfindable mover, int tx, int ty, MovementTile movement)
+    {
+        final TilePath tilePath = map.getTile(tx, ty).getFeature(TilePath.class);
+        return mover.isMovementAllowed(tilePath.getCategory(), movement);
+    }
+
+    @Override
+    public boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId)
+    {
+        return mapPath.isBlocked(mover, tx, ty, ignoreObjectsId);
+    }
+
+    @Override
+    public double getCost(Pathfindable mover, int tx, int ty)
+    {
+        return mapPath.getCost(mover, tx, ty);
+    }
+
+    @Override
+    public CoordTile getClosestAvailableTile(Pathfindable mover, int tx, int ty, int stx, int sty, int radius)
+    {
+        return mapPath.getClosestAvailableTile(mover, tx, ty, stx, sty, radius);
+    }
+}
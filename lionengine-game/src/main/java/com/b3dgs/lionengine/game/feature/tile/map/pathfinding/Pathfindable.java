@@ -118,6 +118,27 @@ public interface Pathfindable extends Feature, Tiled, Orientable, Updatable, Ren
      */
     boolean setDestination(int tx, int ty);
 
+    /**
+     * Assign a specified location with an already computed path, such as one found by {@link PathfindingService}.
+     * Will move automatically until reach it after this call. If object is already moving, path is computed again
+     * when next step point is reached.
+     * 
+     * @param path The path found (<code>null</code> if none).
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return <code>true</code> if path has been applied, <code>false</code> else.
+     */
+    boolean setDestination(Path path, int tx, int ty);
+
+    /**
+     * Assign the flow field destination. Will move automatically until reach it after this call, reading next step
+     * from field each time, without searching a path.
+     * 
+     * @param field The flow field to follow (must not be <code>null</code>).
+     * @return <code>true</code> if destination reachable and field applied, <code>false</code> else.
+     */
+    boolean setDestination(FlowField field);
+
     /**
      * Set specified location in tile.
      * 
@@ -168,6 +189,20 @@ public interface Pathfindable extends Feature, Tiled, Orientable, Updatable, Ren
      */
     double getMoveY();
 
+    /**
+     * Get the heuristic used to find paths.
+     * 
+     * @return The heuristic used.
+     */
+    Heuristic getHeuristic();
+
+    /**
+     * Get the maximum search distance used to find paths.
+     * 
+     * @return The maximum search distance.
+     */
+    int getMaxSearchDistance();
+
     /**
      * Get the cost movement depending of the category.
      * 
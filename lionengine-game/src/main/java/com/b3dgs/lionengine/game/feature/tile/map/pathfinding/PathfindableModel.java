@@ -56,6 +56,26 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     /** Debug text size. */
     private static final int TEXT_DEBUG_SIZE = 8;
 
+    /**
+     * Create the path following a flow field from location.
+     * 
+     * @param field The flow field to follow.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The path, refined while followed, <code>null</code> if destination not reachable from location.
+     */
+    private static Path follow(FlowField field, int tx, int ty)
+    {
+        if (!field.isReachable(tx, ty))
+        {
+            return null;
+        }
+        final Path found = new Path();
+        found.appendStep(tx, ty);
+        found.setRefiner(field.follow(tx, ty));
+        return found;
+    }
+
     /** Pathfindable listeners. */
     private final Collection<PathfindableListener> listeners = new ArrayList<>();
     /** List of shared path id. */
@@ -72,6 +92,10 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final MapTilePath mapPath;
     /** Pathfinder reference. */
     private final PathFinder pathfinder;
+    /** Pathfinder heuristic. */
+    private final Heuristic heuristic;
+    /** Pathfinder maximum search distance. */
+    private final int maxSearchDistance;
     /** List of categories. */
     private final Map<String, PathData> categories;
     /** Transformable model. */
@@ -80,6 +104,10 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final OrientableModel orientable;
     /** Last valid path found. */
     private Path path;
+    /** Next path supplied while moving, applied at next step point (<code>null</code> if none). */
+    private Path pathNext;
+    /** Next flow field supplied while moving, followed from next step point (<code>null</code> if none). */
+    private FlowField fieldNext;
     /** Text debug rendering. */
     private Text text;
     /** Current step index on path. */
@@ -150,9 +178,10 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         categories = PathfindableConfig.imports(setup);
         orientable = new OrientableModel(services);
 
-        final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
-                                          + map.getInTileHeight() * (double) map.getInTileHeight());
-        pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        heuristic = new HeuristicClosest();
+        maxSearchDistance = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
+                                            + map.getInTileHeight() * (double) map.getInTileHeight());
+        pathfinder = mapPath.createPathFinder(maxSearchDistance, heuristic);
 
         recycle();
     }
@@ -272,7 +301,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     {
         final int tw = map.getTileWidth();
         final int th = map.getTileHeight();
-        for (int i = 0; i < path.getLength(); i++)
+        final int length = path.getRefinedLength();
+        for (int i = 0; i < length; i++)
         {
             final int x = (int) viewer.getViewpointX(path.getX(i) * (double) tw);
             final int y = (int) viewer.getViewpointY(path.getY(i) * (double) th);
@@ -404,9 +434,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
             {
                 path.clear();
             }
-            path = pathfinder.findPath(this, destX, destY, false);
+            path = getNextPath();
             pathFoundChanged = false;
-            currentStep = 0;
             skip = false;
             reCheckRef = false;
 
@@ -423,6 +452,60 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         }
     }
 
+    /**
+     * Get the next path and set its current step. A supplied path is followed from current location, and searched
+     * again from current location if mover is not on it anymore. Without supplied path, path is searched.
+     * 
+     * @return The next path, <code>null</code> if none.
+     */
+    private Path getNextPath()
+    {
+        final Path next;
+        final int step = getStep(pathNext);
+        currentStep = 0;
+        if (fieldNext != null)
+        {
+            next = follow(fieldNext, getInTileX(), getInTileY());
+        }
+        else if (step > -1)
+        {
+            next = pathNext;
+            currentStep = step;
+        }
+        else
+        {
+            next = pathfinder.findPath(this, destX, destY, false);
+        }
+        pathNext = null;
+        fieldNext = null;
+        return next;
+    }
+
+    /**
+     * Get the step of path at current location. A supplied path may have been found from a previous location.
+     * Only refined steps are checked.
+     * 
+     * @param next The path to follow (can be <code>null</code>).
+     * @return The current location step, <code>-1</code> if none or not on path.
+     */
+    private int getStep(Path next)
+    {
+        if (next != null)
+        {
+            final int tx = getInTileX();
+            final int ty = getInTileY();
+            final int length = next.getRefinedLength();
+            for (int i = 0; i < length; i++)
+            {
+                if (next.getX(i) == tx && next.getY(i) == ty)
+                {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * Check if the object id location is available for the pathfindable.
      * 
@@ -709,6 +792,58 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
             }
             // Next path, while object is moving, change takes effect when the object reached a step point
             prepareDestination(tx, ty);
+            pathNext = null;
+            fieldNext = null;
+            pathFoundChanged = true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean setDestination(Path path, int tx, int ty)
+    {
+        if (getInTileX() != tx || getInTileY() != ty)
+        {
+            if (this.path == null)
+            {
+                currentStep = 0;
+                this.path = path;
+                pathFoundChanged = false;
+                for (final PathfindableListener listener : listeners)
+                {
+                    listener.notifyStartMove();
+                }
+                prepareDestination(tx, ty);
+                return true;
+            }
+            // Supplied path is kept until the object reached a step point
+            prepareDestination(tx, ty);
+            pathNext = path;
+            fieldNext = null;
+            pathFoundChanged = true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean setDestination(FlowField field)
+    {
+        final int tx = getInTileX();
+        final int ty = getInTileY();
+        if (!field.isReachable(tx, ty))
+        {
+            return false;
+        }
+        if (path == null)
+        {
+            return setDestination(follow(field, tx, ty), field.getDestinationX(), field.getDestinationY());
+        }
+        // Field is followed from the step point reached
+        if (tx != field.getDestinationX() || ty != field.getDestinationY())
+        {
+            prepareDestination(field.getDestinationX(), field.getDestinationY());
+            pathNext = null;
+            fieldNext = field;
             pathFoundChanged = true;
         }
         return false;
@@ -769,6 +904,18 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         return moveY;
     }
 
+    @Override
+    public Heuristic getHeuristic()
+    {
+        return heuristic;
+    }
+
+    @Override
+    public int getMaxSearchDistance()
+    {
+        return maxSearchDistance;
+    }
+
     @Override
     public Orientation getOrientation()
     {
@@ -877,6 +1024,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         pathFoundChanged = false;
         currentStep = 0;
         path = null;
+        pathNext = null;
+        fieldNext = null;
         moveX = 0.0;
         moveY = 0.0;
         sharedPathIds.clear();
@@ -45,6 +45,12 @@ public final class PathfindingConfig
     public static final String TILE_PATH = Constant.XML_PREFIX + "tilepath";
     /** Tile path category name attribute. */
     public static final String CATEGORY = "category";
+    /** Path finder type attribute, on root node. */
+    public static final String FINDER = "finder";
+    /** Hierarchical cluster size attribute, on root node. */
+    public static final String CLUSTER = "cluster";
+    /** Default hierarchical cluster size in tile. */
+    public static final int DEFAULT_CLUSTER = 10;
 
     /**
      * Import the category data from configuration.
@@ -79,6 +85,39 @@ public final class PathfindingConfig
         return categories;
     }
 
+    /**
+     * Import the path finder type from configuration.
+     * 
+     * @param configPathfinding The pathfinding descriptor (must not be <code>null</code>).
+     * @return The path finder type, {@link PathFinderType#ASTAR} if undefined.
+     * @throws LionEngineException If unable to read data.
+     */
+    public static PathFinderType importsFinder(Media configPathfinding)
+    {
+        Check.notNull(configPathfinding);
+
+        final Xml root = new Xml(configPathfinding);
+        return PathFinderType.from(root.readString(PathFinderType.ASTAR.name(), FINDER));
+    }
+
+    /**
+     * Import the hierarchical cluster size from configuration.
+     * 
+     * @param configPathfinding The pathfinding descriptor (must not be <code>null</code>).
+     * @return The cluster size in tile, {@link #DEFAULT_CLUSTER} if undefined.
+     * @throws LionEngineException If unable to read data or invalid size.
+     */
+    public static int importsClusterSize(Media configPathfinding)
+    {
+        Check.notNull(configPathfinding);
+
+        final Xml root = new Xml(configPathfinding);
+        final int size = root.readInteger(DEFAULT_CLUSTER, CLUSTER);
+        Check.superiorStrict(size, 1);
+
+        return size;
+    }
+
     /**
      * Disabled constructor.
      */
@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.ComponentUpdater;
+import com.b3dgs.lionengine.game.feature.Handlables;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Asynchronous pathfinding service. Path requests are collected during the frame, and searched on an
+ * {@link Executor} against a snapshot of the map, so the game thread is never blocked by a search.
+ * <p>
+ * On each {@link #update(double, Handlables)}:
+ * </p>
+ * <ul>
+ * <li>found paths are applied with {@link Pathfindable#setDestination(Path, int, int)}, only for the latest request
+ * of each mover, failed searches only releasing their request. The mover then notifies its
+ * {@link PathfindableListener} as for any destination,</li>
+ * <li>pending requests are captured with mover rules and search settings, grouped by destination, rules and
+ * settings, and dispatched. Inside a group, a mover starting on an already found path reuses its remaining
+ * steps.</li>
+ * </ul>
+ * <p>
+ * Tiles category are captured once in a {@link MapTilePathSnapshot}, captured again only after a tile change.
+ * Objects id are captured on dispatch, only for requests not ignoring them.
+ * </p>
+ * <p>
+ * Must be added to handler with {@link com.b3dgs.lionengine.game.feature.Handler#addComponent(ComponentUpdater)},
+ * and {@link #dispose()} must be called once not used anymore, to stop listening to map tiles.
+ * </p>
+ */
+public class PathfindingService implements ComponentUpdater, TileSetListener
+{
+    /** Search error. */
+    private static final String ERROR_SEARCH = "Path search failed";
+
+    /**
+     * Copy path steps, starting from index.
+     * 
+     * @param path The source path.
+     * @param from The first step index.
+     * @return The path copy.
+     */
+    private static Path copy(Path path, int from)
+    {
+        final Path copy = new Path();
+        for (int i = path.getLength() - 1; i >= from; i--)
+        {
+            copy.prependStep(path.getX(i), path.getY(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Find path for each request of the group, with the heuristic and search distance captured by its first request.
+     * Executed by worker. If search fails, remaining requests are notified as failed.
+     * 
+     * @param group The compatible requests.
+     * @param results The found paths.
+     */
+    private static void search(List<PathRequest> group, Queue<Result> results)
+    {
+        int solved = 0;
+        try
+        {
+            final PathRequest first = group.get(0);
+            final PathFinderImpl finder = new PathFinderImpl(first,
+                                                             first.getMaxSearchDistance(),
+                                                             first.getHeuristic());
+            final List<Path> found = new ArrayList<>(group.size());
+            for (final PathRequest request : group)
+            {
+                Path path = reuse(request, found);
+                if (path == null)
+                {
+                    path = finder.findPath(request.getMover(),
+                                           request.getStartX(),
+                                           request.getStartY(),
+                                           request.getDestinationX(),
+                                           request.getDestinationY(),
+                                           request.isIgnoreRef());
+                    if (path != null)
+                    {
+                        found.add(path);
+                    }
+                }
+                results.add(new Result(request, path, false));
+                solved++;
+            }
+        }
+        catch (final RuntimeException exception)
+        {
+            Verbose.exception(exception, ERROR_SEARCH);
+            for (int i = solved; i < group.size(); i++)
+            {
+                results.add(new Result(group.get(i), null, true));
+            }
+        }
+    }
+
+    /**
+     * Get the remaining steps of an already found path which contains the request start.
+     * 
+     * @param request The request to solve.
+     * @param found The already found paths.
+     * @return The path copy, <code>null</code> if none can be reused.
+     */
+    private static Path reuse(PathRequest request, List<Path> found)
+    {
+        for (final Path path : found)
+        {
+            for (int i = 0; i < path.getLength(); i++)
+            {
+                if (path.getX(i) == request.getStartX() && path.getY(i) == request.getStartY())
+                {
+                    return copy(path, i);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the group compatible with request, created if none.
+     * 
+     * @param groups The existing groups.
+     * @param request The request to group.
+     * @return The compatible group.
+     */
+    private static List<PathRequest> getGroup(List<List<PathRequest>> groups, PathRequest request)
+    {
+        for (final List<PathRequest> group : groups)
+        {
+            if (group.get(0).isCompatible(request))
+            {
+                return group;
+            }
+        }
+        final List<PathRequest> group = new ArrayList<>();
+        groups.add(group);
+        return group;
+    }
+
+    /** Found paths, filled by workers. */
+    private final Queue<Result> results = new ConcurrentLinkedQueue<>();
+    /** Pending requests by mover. */
+    private final Map<Pathfindable, Pending> pending = new LinkedHashMap<>();
+    /** Dispatched requests by mover, only latest one is applied. */
+    private final Map<Pathfindable, PathRequest> dispatched = new HashMap<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Search executor. */
+    private final Executor executor;
+    /** Tiles category snapshot, <code>null</code> if tiles changed since last capture. */
+    private MapTilePathSnapshot snapshot;
+
+    /**
+     * Create service, using {@link ForkJoinPool#commonPool()} as executor.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @throws LionEngineException If services not found.
+     */
+    public PathfindingService(Services services)
+    {
+        this(services, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create service.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param executor The search executor (must not be <code>null</code>).
+     * @throws LionEngineException If services not found or invalid executor.
+     */
+    public PathfindingService(Services services, Executor executor)
+    {
+        super();
+
+        Check.notNull(executor);
+
+        map = services.get(MapTile.class);
+        this.executor = executor;
+        map.addListener(this);
+    }
+
+    /**
+     * Request a path to destination, ignoring objects on path. Previous request of the mover is discarded.
+     * 
+     * @param mover The mover reference (must not be <code>null</code>).
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @throws LionEngineException If invalid mover.
+     */
+    public void request(Pathfindable mover, int dtx, int dty)
+    {
+        request(mover, dtx, dty, true);
+    }
+
+    /**
+     * Request a path to destination. Previous request of the mover is discarded.
+     * 
+     * @param mover The mover reference (must not be <code>null</code>).
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @param ignoreRef <code>true</code> to ignore objects on path, <code>false</code> else.
+     * @throws LionEngineException If invalid mover.
+     */
+    public void request(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        Check.notNull(mover);
+
+        pending.remove(mover);
+        dispatched.remove(mover);
+        pending.put(mover, new Pending(dtx, dty, ignoreRef));
+    }
+
+    /**
+     * Stop listening to map tiles and release snapshot. Pending requests are still dispatched on next update.
+     */
+    public void dispose()
+    {
+        map.removeListener(this);
+        snapshot = null;
+    }
+
+    /**
+     * Get the number of requests not yet applied.
+     * 
+     * @return The number of requests waiting for dispatch or result.
+     */
+    public int getWaiting()
+    {
+        return pending.size() + dispatched.size();
+    }
+
+    /**
+     * Apply found paths of latest requests.
+     */
+    private void applyResults()
+    {
+        Result result = results.poll();
+        while (result != null)
+        {
+            final Pathfindable mover = result.request.getMover();
+            if (dispatched.get(mover) == result.request)
+            {
+                dispatched.remove(mover);
+                if (!result.failed)
+                {
+                    mover.setDestination(result.path,
+                                         result.request.getDestinationX(),
+                                         result.request.getDestinationY());
+                }
+            }
+            result = results.poll();
+        }
+    }
+
+    /**
+     * Capture pending requests and dispatch them by compatible groups.
+     */
+    private void dispatch()
+    {
+        if (snapshot == null || !snapshot.isSameSize(map))
+        {
+            snapshot = MapTilePathSnapshot.capture(map);
+        }
+        MapTilePathSnapshot objects = null;
+        final List<List<PathRequest>> groups = new ArrayList<>();
+        for (final Map.Entry<Pathfindable, Pending> entry : pending.entrySet())
+        {
+            final Pending data = entry.getValue();
+            final MapTilePathSnapshot source;
+            if (data.ignoreRef)
+            {
+                source = snapshot;
+            }
+            else
+            {
+                if (objects == null)
+                {
+                    objects = snapshot.withObjects(map);
+                }
+                source = objects;
+            }
+            final PathRequest request = new PathRequest(entry.getKey(), source, data.dtx, data.dty, data.ignoreRef);
+            dispatched.put(entry.getKey(), request);
+            getGroup(groups, request).add(request);
+        }
+        pending.clear();
+
+        for (final List<PathRequest> group : groups)
+        {
+            executor.execute(() -> search(group, results));
+        }
+    }
+
+    /*
+     * ComponentUpdater
+     */
+
+    @Override
+    public void update(double extrp, Handlables featurables)
+    {
+        applyResults();
+        if (!pending.isEmpty())
+        {
+            dispatch();
+        }
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        snapshot = null;
+    }
+
+    @Override
+    public void onTileRemoved(int tx, int ty)
+    {
+        snapshot = null;
+    }
+
+    /**
+     * Pending request data.
+     */
+    private static final class Pending
+    {
+        /** Destination horizontal tile. */
+        private final int dtx;
+        /** Destination vertical tile. */
+        private final int dty;
+        /** Ignore objects on path. */
+        private final boolean ignoreRef;
+
+        /**
+         * Create pending request.
+         * 
+         * @param dtx The destination horizontal tile.
+         * @param dty The destination vertical tile.
+         * @param ignoreRef <code>true</code> to ignore objects on path, <code>false</code> else.
+         */
+        Pending(int dtx, int dty, boolean ignoreRef)
+        {
+            super();
+
+            this.dtx = dtx;
+            this.dty = dty;
+            this.ignoreRef = ignoreRef;
+        }
+    }
+
+    /**
+     * Search result.
+     */
+    private static final class Result
+    {
+        /** Solved request. */
+        private final PathRequest request;
+        /** Found path, <code>null</code> if none. */
+        private final Path path;
+        /** Search failed, no path is applied. */
+        private final boolean failed;
+
+        /**
+         * Create result.
+         * 
+         * @param request The solved request.
+         * @param path The found path, <code>null</code> if none.
+         * @param failed <code>true</code> if search failed, <code>false</code> else.
+         */
+        Result(PathRequest request, Path path, boolean failed)
+        {
+            super();
+
+            this.request = request;
+            this.path = path;
+            this.failed = failed;
+        }
+    }
+}
@@ -17,45 +17,22 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
-import java.util.Collection;
-
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 
 /**
  * Tile representation with the following data:
  * <ul>
- * <li><code>objects ID</code> : current objects ID located over the tile</li>
- * <li><code>blocking</code> : flag to know if tile can block path</li>
+ * <li><code>category</code> : category name, used to know if tile can block path</li>
  * </ul>
  * <p>
- * This allows to know easily which objects are on tile.
+ * Objects located over the tile are stored by map, as tile features may be shared (see
+ * {@link MapTilePath#getObjectsId(int, int)}).
  * </p>
  */
 @FeatureInterface
 public interface TilePath extends Feature
 {
-    /**
-     * Add an object ID over this tile.
-     * 
-     * @param id The object ID reference to add.
-     */
-    void addObjectId(Integer id);
-
-    /**
-     * Remove an object ID from this tile.
-     * 
-     * @param id The object ID reference to remove.
-     */
-    void removeObjectId(Integer id);
-
-    /**
-     * Get the objects ID over this tile.
-     * 
-     * @return The objects ID over this tile.
-     */
-    Collection<Integer> getObjectsId();
-
     /**
      * Get the category name.
      * 
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Compact tiles encoding: a sheet and number palette followed by rows of run length encoded palette indexes, all
+ * integers written as variable length quantities.
+ * 
+ * <pre>
+ * <code>(varint)</code> palette size
+ * for each palette entry
+ *   <code>(varint)</code> sheet number
+ *   <code>(varint)</code> index number inside sheet
+ * for each row
+ *   until row is filled
+ *     <code>(varint)</code> run length
+ *     <code>(varint)</code> palette index + 1, 0 if no tile
+ * </pre>
+ */
+final class MapTileCompact
+{
+    /** Error sheet missing message. */
+    private static final String ERROR_SHEET_MISSING = "Sheet missing: ";
+    /** Error corrupted message. */
+    private static final String ERROR_CORRUPTED = "Corrupted map data";
+    /** Varint value bits per byte. */
+    private static final int VARINT_BITS = 7;
+    /** Varint value mask. */
+    private static final int VARINT_MASK = (1 << VARINT_BITS) - 1;
+    /** Varint continuation flag. */
+    private static final int VARINT_MORE = 1 << VARINT_BITS;
+    /** Empty cell value. */
+    private static final int EMPTY = 0;
+    /** Deflate buffer size. */
+    private static final int BUFFER = 8192;
+
+    /**
+     * Encode map tiles.
+     * 
+     * @param map The map reference.
+     * @return The encoded tiles.
+     */
+    static byte[] encode(MapTile map)
+    {
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        final Map<Long, Integer> palette = new HashMap<>();
+        final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        final ByteArrayOutputStream rows = new ByteArrayOutputStream();
+        for (int ty = 0; ty < height; ty++)
+        {
+            int previous = EMPTY;
+            int run = 0;
+            for (int tx = 0; tx < width; tx++)
+            {
+                final int value = getValue(map.getTile(tx, ty), palette, entries);
+                if (run > 0 && value != previous)
+                {
+                    writeVarint(rows, run);
+                    writeVarint(rows, previous);
+                    run = 0;
+                }
+                previous = value;
+                run++;
+            }
+            writeVarint(rows, run);
+            writeVarint(rows, previous);
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(entries.size() + rows.size() + Integer.BYTES);
+        writeVarint(out, palette.size());
+        out.write(entries.toByteArray(), 0, entries.size());
+        out.write(rows.toByteArray(), 0, rows.size());
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode tiles and set them to map, which must be already created.
+     * 
+     * @param data The encoded tiles.
+     * @param map The map reference.
+     * @throws IOException If corrupted data or sheet missing.
+     */
+    static void decode(byte[] data, MapTile map) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        try
+        {
+            final int size = readVarint(buffer);
+            final int[] sheets = new int[size];
+            final int[] numbers = new int[size];
+            for (int i = 0; i < size; i++)
+            {
+                sheets[i] = readVarint(buffer);
+                numbers[i] = readVarint(buffer);
+                if (sheets[i] > map.getSheetsNumber())
+                {
+                    throw new IOException(ERROR_SHEET_MISSING + Constant.DOUBLE_DOT + sheets[i]);
+                }
+            }
+            for (int ty = 0; ty < map.getInTileHeight(); ty++)
+            {
+                int tx = 0;
+                while (tx < map.getInTileWidth())
+                {
+                    final int run = readVarint(buffer);
+                    final int value = readVarint(buffer);
+                    if (run <= 0 || tx + run > map.getInTileWidth() || value > size)
+                    {
+                        throw new IOException(ERROR_CORRUPTED);
+                    }
+                    if (value != EMPTY)
+                    {
+                        setTiles(map, sheets[value - 1], numbers[value - 1], tx, ty, run);
+                    }
+                    tx += run;
+                }
+            }
+        }
+        catch (final BufferUnderflowException exception)
+        {
+            throw new IOException(ERROR_CORRUPTED, exception);
+        }
+    }
+
+    /**
+     * Deflate data.
+     * 
+     * @param data The data to compress.
+     * @return The compressed data.
+     */
+    static byte[] deflate(byte[] data)
+    {
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try
+        {
+            deflater.setInput(data);
+            deflater.finish();
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 1);
+            final byte[] buffer = new byte[BUFFER];
+            while (!deflater.finished())
+            {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Inflate data.
+     * 
+     * @param data The compressed data.
+     * @param length The inflated length.
+     * @return The inflated data.
+     * @throws IOException If corrupted data.
+     */
+    static byte[] inflate(byte[] data, int length) throws IOException
+    {
+        final Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(data);
+
+            final byte[] out = new byte[length];
+            int offset = 0;
+            while (offset < length)
+            {
+                final int read = inflater.inflate(out, offset, length - offset);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary() || inflater.finished()))
+                {
+                    throw new IOException(ERROR_CORRUPTED);
+                }
+                offset += read;
+            }
+            return out;
+        }
+        catch (final DataFormatException exception)
+        {
+            throw new IOException(ERROR_CORRUPTED, exception);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Get tile palette value, adding a new palette entry if needed.
+     * 
+     * @param tile The tile reference (can be <code>null</code>).
+     * @param palette The current palette.
+     * @param entries The palette entries output.
+     * @return The palette index + 1, {@link #EMPTY} if no tile.
+     */
+    private static int getValue(Tile tile, Map<Long, Integer> palette, ByteArrayOutputStream entries)
+    {
+        if (tile == null)
+        {
+            return EMPTY;
+        }
+        final int sheet = tile.getSheet().intValue();
+        final int number = tile.getNumber();
+        final Long key = Long.valueOf((long) sheet << Integer.SIZE | number & 0xFFFFFFFFL);
+        Integer value = palette.get(key);
+        if (value == null)
+        {
+            value = Integer.valueOf(palette.size() + 1);
+            palette.put(key, value);
+            writeVarint(entries, sheet);
+            writeVarint(entries, number);
+        }
+        return value.intValue();
+    }
+
+    /**
+     * Set a run of identical tiles.
+     * 
+     * @param map The map reference.
+     * @param sheet The tile sheet.
+     * @param number The tile number.
+     * @param tx The first horizontal tile index.
+     * @param ty The vertical tile index.
+     * @param run The run length.
+     */
+    private static void setTiles(MapTile map, int sheet, int number, int tx, int ty, int run)
+    {
+        final Integer key = Integer.valueOf(sheet);
+        for (int x = tx; x < tx + run; x++)
+        {
+            map.setTile(map.createTile(key,
+                                       number,
+                                       x * (double) map.getTileWidth(),
+                                       ty * (double) map.getTileHeight()));
+        }
+    }
+
+    /**
+     * Write integer as unsigned variable length quantity.
+     * 
+     * @param out The output.
+     * @param value The value to write.
+     */
+    private static void writeVarint(ByteArrayOutputStream out, int value)
+    {
+        int remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0)
+        {
+            out.write(remaining & VARINT_MASK | VARINT_MORE);
+            remaining >>>= VARINT_BITS;
+        }
+        out.write(remaining);
+    }
+
+    /**
+     * Read integer written with {@link #writeVarint(ByteArrayOutputStream, int)}.
+     * 
+     * @param buffer The input.
+     * @return The read value.
+     * @throws IOException If too long value.
+     */
+    private static int readVarint(ByteBuffer buffer) throws IOException
+    {
+        int value = 0;
+        int shift = 0;
+        int current;
+        do
+        {
+            if (shift >= Integer.SIZE)
+            {
+                throw new IOException(ERROR_CORRUPTED);
+            }
+            current = buffer.get();
+            value |= (current & VARINT_MASK) << shift;
+            shift += VARINT_BITS;
+        }
+        while ((current & VARINT_MORE) != 0);
+
+        return value;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private MapTileCompact()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -17,9 +17,13 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.persister;
 
+import java.io.IOException;
+
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.Persistable;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
+import com.b3dgs.lionengine.io.FileWriting;
 
 /**
  * Handle the map persistence by providing saving and loading functions.
@@ -27,5 +31,24 @@ import com.b3dgs.lionengine.game.feature.FeatureInterface;
 @FeatureInterface
 public interface MapTilePersister extends Feature, Persistable
 {
-    // Marker
+    /**
+     * Save map as fixed size regions, indexed in header, so they can be streamed with {@link MapTileRegions}. Saved
+     * file remains readable with {@link #load(com.b3dgs.lionengine.io.FileReading)}.
+     * 
+     * @param output The output level file.
+     * @param regionSize The region size in tile (must be strictly positive).
+     * @throws IOException If error on writing.
+     * @throws LionEngineException If invalid region size.
+     */
+    void saveRegions(FileWriting output, int regionSize) throws IOException;
+
+    /**
+     * Save map with the compact format: sheet and number palette, run length encoded rows, optionally deflated, and
+     * checked on load. Saved file remains readable with {@link #load(com.b3dgs.lionengine.io.FileReading)}.
+     * 
+     * @param output The output level file.
+     * @param compress <code>true</code> to deflate tiles data, <code>false</code> to store as is.
+     * @throws IOException If error on writing.
+     */
+    void saveCompact(FileWriting output, boolean compress) throws IOException;
 }
@@ -21,7 +21,9 @@ import java.io.IOException;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilChecksum;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
@@ -36,8 +38,32 @@ public class MapTilePersisterModel extends FeatureModel implements MapTilePersis
 {
     /** Error sheet missing message. */
     private static final String ERROR_SHEET_MISSING = "Sheet missing: ";
+    /** Error checksum message. */
+    private static final String ERROR_CHECKSUM = "Invalid map checksum";
+    /** Error bloc overflow message. */
+    private static final String ERROR_BLOC_OVERFLOW = "Too many tiles for blocs format, use regions or compact: ";
     /** Number of horizontal tiles to make a bloc. Used to reduce saved map file size. */
     private static final int BLOC_SIZE = 256;
+    /** Regions format marker, negative to never match the tile width starting blocs format. */
+    static final int FORMAT_REGIONS = -1;
+    /** Unsigned short mask, blocs counts are read unsigned to support up to 65535 tiles per bloc. */
+    private static final int SHORT_MASK = 0xFFFF;
+    /** Compact format marker, negative to never match the tile width starting blocs format. */
+    static final int FORMAT_COMPACT = -2;
+    /** Region tile data size in bytes (sheet, number and index inside region). */
+    static final int REGION_TILE_BYTES = Integer.BYTES * 3;
+
+    /**
+     * Get the number of regions along an axis.
+     * 
+     * @param inTile The number of tiles along the axis.
+     * @param regionSize The region size in tile.
+     * @return The number of regions.
+     */
+    static int getRegions(int inTile, int regionSize)
+    {
+        return (int) Math.ceil(inTile / (double) regionSize);
+    }
 
     /** The services reference. */
     private final MapTile map;
@@ -156,6 +182,308 @@ public class MapTilePersisterModel extends FeatureModel implements MapTilePersis
         }
     }
 
+    /**
+     * Save the map header.
+     * 
+     * @param output The output file.
+     * @throws IOException If error on saving.
+     */
+    private void saveHeader(FileWriting output) throws IOException
+    {
+        output.writeInteger(map.getTileWidth());
+        output.writeInteger(map.getTileHeight());
+        output.writeInteger(map.getInTileWidth());
+        output.writeInteger(map.getInTileHeight());
+
+        final boolean hasConfig = map.getMedia() != null;
+        output.writeBoolean(hasConfig);
+        if (hasConfig)
+        {
+            output.writeString(map.getMedia().getPath());
+        }
+    }
+
+    /**
+     * Load the map header and create map.
+     * 
+     * @param input The input file.
+     * @param tileWidth The already read tile width.
+     * @throws IOException If error on loading.
+     */
+    private void loadHeader(FileReading input, int tileWidth) throws IOException
+    {
+        map.create(tileWidth, input.readInteger(), input.readInteger(), input.readInteger());
+        if (input.readBoolean())
+        {
+            map.loadSheets(Medias.create(input.readString()));
+        }
+    }
+
+    /**
+     * Count the active tiles of a region.
+     * 
+     * @param rx The horizontal region index.
+     * @param ry The vertical region index.
+     * @param regionSize The region size in tile.
+     * @return The active tiles.
+     */
+    private int countRegion(int rx, int ry, int regionSize)
+    {
+        int count = 0;
+        for (int ty = ry * regionSize; ty < Math.min((ry + 1) * regionSize, map.getInTileHeight()); ty++)
+        {
+            for (int tx = rx * regionSize; tx < Math.min((rx + 1) * regionSize, map.getInTileWidth()); tx++)
+            {
+                if (map.getTile(tx, ty) != null)
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Save the active tiles of a region.
+     * 
+     * @param output The output file.
+     * @param rx The horizontal region index.
+     * @param ry The vertical region index.
+     * @param regionSize The region size in tile.
+     * @throws IOException If error on saving.
+     */
+    private void saveRegion(FileWriting output, int rx, int ry, int regionSize) throws IOException
+    {
+        for (int ty = ry * regionSize; ty < Math.min((ry + 1) * regionSize, map.getInTileHeight()); ty++)
+        {
+            for (int tx = rx * regionSize; tx < Math.min((rx + 1) * regionSize, map.getInTileWidth()); tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    output.writeInteger(tile.getSheet().intValue());
+                    output.writeInteger(tile.getNumber());
+                    output.writeInteger((ty - ry * regionSize) * regionSize + tx - rx * regionSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Load all blocs.
+     * 
+     * @param input The input file.
+     * @param tileWidth The already read tile width.
+     * @throws IOException If error on loading.
+     */
+    private void loadBlocs(FileReading input, int tileWidth) throws IOException
+    {
+        loadHeader(input, tileWidth);
+
+        final int t = input.readShort() & SHORT_MASK;
+        for (int v = 0; v < t; v++)
+        {
+            final int n = input.readShort() & SHORT_MASK;
+            for (int h = 0; h < n; h++)
+            {
+                final Tile tile = loadTile(input, v);
+                if (tile.getSheet().intValue() > map.getSheetsNumber())
+                {
+                    throw new IOException(ERROR_SHEET_MISSING + Constant.DOUBLE_DOT + tile.getSheet());
+                }
+                map.setTile(tile);
+            }
+        }
+    }
+
+    /**
+     * Load all regions, read in index order.
+     * 
+     * @param input The input file.
+     * @throws IOException If error on loading.
+     */
+    private void loadRegions(FileReading input) throws IOException
+    {
+        loadHeader(input, input.readInteger());
+
+        final int regionSize = input.readInteger();
+        final int regionsH = getRegions(map.getInTileWidth(), regionSize);
+        final int regionsV = getRegions(map.getInTileHeight(), regionSize);
+        for (int i = 0; i < regionsH * regionsV; i++)
+        {
+            input.readInteger();
+        }
+        for (int ry = 0; ry < regionsV; ry++)
+        {
+            for (int rx = 0; rx < regionsH; rx++)
+            {
+                final int n = input.readInteger();
+                for (int i = 0; i < n; i++)
+                {
+                    final int sheet = input.readInteger();
+                    final int number = input.readInteger();
+                    final int index = input.readInteger();
+                    setTile(sheet,
+                            number,
+                            rx * regionSize + index % regionSize,
+                            ry * regionSize + index / regionSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Load compact format.
+     * 
+     * @param input The input file.
+     * @throws IOException If error on loading.
+     */
+    private void loadCompact(FileReading input) throws IOException
+    {
+        loadHeader(input, input.readInteger());
+
+        final boolean compressed = input.readBoolean();
+        final String checksum = input.readString();
+        final int length = input.readInteger();
+        final byte[] stored = new byte[input.readInteger()];
+        input.readBytes(stored);
+
+        final byte[] data;
+        if (compressed)
+        {
+            data = MapTileCompact.inflate(stored, length);
+        }
+        else
+        {
+            data = stored;
+        }
+        if (data.length != length || !checksum.equals(UtilChecksum.getSha(data)))
+        {
+            throw new IOException(ERROR_CHECKSUM);
+        }
+        MapTileCompact.decode(data, map);
+    }
+
+    /**
+     * Create and set tile, checking its sheet.
+     * 
+     * @param sheet The tile sheet.
+     * @param number The tile number.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @throws IOException If sheet missing.
+     */
+    private void setTile(int sheet, int number, int tx, int ty) throws IOException
+    {
+        if (sheet > map.getSheetsNumber())
+        {
+            throw new IOException(ERROR_SHEET_MISSING + Constant.DOUBLE_DOT + sheet);
+        }
+        map.setTile(map.createTile(Integer.valueOf(sheet),
+                                   number,
+                                   tx * (double) map.getTileWidth(),
+                                   ty * (double) map.getTileHeight()));
+    }
+
+    /*
+     * MapTilePersister
+     */
+
+    /**
+     * Save map as regions. Data are saved this way:
+     * 
+     * <pre>
+     * <code>(integer)</code> {@value #FORMAT_REGIONS} format marker
+     * header as {@link #save(FileWriting)}
+     * <code>(integer)</code> region size in tile
+     * for each region, row by row
+     *   <code>(integer)</code> region data offset, relative to first region data
+     * for each region, row by row
+     *   <code>(integer)</code> number of tiles in this region
+     *   for each tile in this region
+     *     <code>(integer)</code> sheet number
+     *     <code>(integer)</code> index number inside sheet
+     *     <code>(integer)</code> tile index inside region (y * region size + x)
+     * </pre>
+     * 
+     * @param output The output level file.
+     * @param regionSize The region size in tile (must be strictly positive).
+     * @throws IOException If error on writing.
+     * @throws LionEngineException If invalid region size.
+     */
+    @Override
+    public void saveRegions(FileWriting output, int regionSize) throws IOException
+    {
+        Check.superiorStrict(regionSize, 0);
+
+        output.writeInteger(FORMAT_REGIONS);
+        saveHeader(output);
+        output.writeInteger(regionSize);
+
+        final int regionsH = getRegions(map.getInTileWidth(), regionSize);
+        final int regionsV = getRegions(map.getInTileHeight(), regionSize);
+        final int[] counts = new int[regionsH * regionsV];
+        int offset = 0;
+        for (int ry = 0; ry < regionsV; ry++)
+        {
+            for (int rx = 0; rx < regionsH; rx++)
+            {
+                final int i = ry * regionsH + rx;
+                counts[i] = countRegion(rx, ry, regionSize);
+                output.writeInteger(offset);
+                offset += Integer.BYTES + counts[i] * REGION_TILE_BYTES;
+            }
+        }
+        for (int ry = 0; ry < regionsV; ry++)
+        {
+            for (int rx = 0; rx < regionsH; rx++)
+            {
+                output.writeInteger(counts[ry * regionsH + rx]);
+                saveRegion(output, rx, ry, regionSize);
+            }
+        }
+    }
+
+    /**
+     * Save map with compact format. Data are saved this way:
+     * 
+     * <pre>
+     * <code>(integer)</code> {@value #FORMAT_COMPACT} format marker
+     * header as {@link #save(FileWriting)}
+     * <code>(boolean)</code> compressed flag
+     * <code>(String)</code> tiles data checksum
+     * <code>(integer)</code> tiles data length
+     * <code>(integer)</code> stored tiles data length
+     * <code>(bytes)</code> stored tiles data, deflated if compressed (see {@link MapTileCompact})
+     * </pre>
+     * 
+     * @param output The output level file.
+     * @param compress <code>true</code> to deflate tiles data, <code>false</code> to store as is.
+     * @throws IOException If error on writing.
+     */
+    @Override
+    public void saveCompact(FileWriting output, boolean compress) throws IOException
+    {
+        output.writeInteger(FORMAT_COMPACT);
+        saveHeader(output);
+
+        final byte[] data = MapTileCompact.encode(map);
+        final byte[] stored;
+        if (compress)
+        {
+            stored = MapTileCompact.deflate(data);
+        }
+        else
+        {
+            stored = data;
+        }
+        output.writeBoolean(compress);
+        output.writeString(UtilChecksum.getSha(data));
+        output.writeInteger(data.length);
+        output.writeInteger(stored.length);
+        output.writeBytes(stored);
+    }
+
     /*
      * Persistable
      */
@@ -176,36 +504,43 @@ public class MapTilePersisterModel extends FeatureModel implements MapTilePersis
      *     call tile.save(file)
      * </pre>
      * 
+     * <p>
+     * Blocs number and tiles number of each bloc are stored as unsigned short, so they must not exceed
+     * <code>65535</code>. Nothing is written if exceeded, {@link #saveRegions(FileWriting, int)} or
+     * {@link #saveCompact(FileWriting, boolean)} must be used instead.
+     * </p>
+     * 
      * @param output The output level file.
-     * @throws IOException If error on writing.
+     * @throws IOException If error on writing, or if blocs or bloc tiles number exceeds format capacity.
      */
     @Override
     public void save(FileWriting output) throws IOException
     {
         final int widthInTile = map.getInTileWidth();
+        final int step = BLOC_SIZE;
+        final int x = Math.min(step, widthInTile);
+        final int t = (int) Math.ceil(widthInTile / (double) step);
+        if (t > SHORT_MASK)
+        {
+            throw new IOException(ERROR_BLOC_OVERFLOW + t);
+        }
 
-        // Header
-        output.writeInteger(map.getTileWidth());
-        output.writeInteger(map.getTileHeight());
-        output.writeInteger(widthInTile);
-        output.writeInteger(map.getInTileHeight());
-
-        final boolean hasConfig = map.getMedia() != null;
-        output.writeBoolean(hasConfig);
-        if (hasConfig)
+        final int[] counts = new int[t];
+        for (int s = 0; s < t; s++)
         {
-            output.writeString(map.getMedia().getPath());
+            counts[s] = countTiles(x, step, s);
+            if (counts[s] > SHORT_MASK)
+            {
+                throw new IOException(ERROR_BLOC_OVERFLOW + counts[s]);
+            }
         }
 
-        final int step = BLOC_SIZE;
-        final int x = Math.min(step, widthInTile);
-        final int t = (int) Math.ceil(widthInTile / (double) step);
+        saveHeader(output);
 
         output.writeShort((short) t);
         for (int s = 0; s < t; s++)
         {
-            final int count = countTiles(x, step, s);
-            output.writeShort((short) count);
+            output.writeShort((short) counts[s]);
             saveTiles(output, Math.min(widthInTile, BLOC_SIZE), step, s);
         }
     }
@@ -213,7 +548,9 @@ public class MapTilePersisterModel extends FeatureModel implements MapTilePersis
     /**
      * Load a map from a specified file as binary data.
      * <p>
-     * Data are loaded this way (see {@link #save(FileWriting)} order):
+     * Data are loaded this way (see {@link #save(FileWriting)} order), or as regions if starting with
+     * {@value #FORMAT_REGIONS} (see {@link #saveRegions(FileWriting, int)} order), or as compact if starting with
+     * {@value #FORMAT_COMPACT} (see {@link #saveCompact(FileWriting, boolean)} order):
      * </p>
      * 
      * <pre>
@@ -237,25 +574,18 @@ public class MapTilePersisterModel extends FeatureModel implements MapTilePersis
     @Override
     public void load(FileReading input) throws IOException
     {
-        map.create(input.readInteger(), input.readInteger(), input.readInteger(), input.readInteger());
-        if (input.readBoolean())
+        final int format = input.readInteger();
+        if (format == FORMAT_REGIONS)
         {
-            map.loadSheets(Medias.create(input.readString()));
+            loadRegions(input);
         }
-
-        final int t = input.readShort();
-        for (int v = 0; v < t; v++)
+        else if (format == FORMAT_COMPACT)
         {
-            final int n = input.readShort();
-            for (int h = 0; h < n; h++)
-            {
-                final Tile tile = loadTile(input, v);
-                if (tile.getSheet().intValue() > map.getSheetsNumber())
-                {
-                    throw new IOException(ERROR_SHEET_MISSING + Constant.DOUBLE_DOT + tile.getSheet());
-                }
-                map.setTile(tile);
-            }
+            loadCompact(input);
+        }
+        else
+        {
+            loadBlocs(input, format);
         }
     }
 }
@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Stream a map saved with {@link MapTilePersister#saveRegions(com.b3dgs.lionengine.io.FileWriting, int)}.
+ * <p>
+ * Opening only reads header and region index, then regions data are memory mapped. On each update, regions around the
+ * {@link Viewer} are loaded, and regions outside are removed from map, keeping a bounded resident set. A compact
+ * {@link com.b3dgs.lionengine.game.feature.tile.map.MapTileGame} storage is recommended for very large maps.
+ * </p>
+ */
+public final class MapTileRegions implements Updatable, Closeable
+{
+    /** Error format message. */
+    private static final String ERROR_FORMAT = "Not a regions map: ";
+    /** Error sheet missing message. */
+    private static final String ERROR_SHEET_MISSING = "Sheet missing: ";
+    /** Empty window. */
+    private static final int[] EMPTY =
+    {
+        0, 0, -1, -1
+    };
+
+    /**
+     * Check if region is inside window.
+     * 
+     * @param window The window (min x, min y, max x, max y).
+     * @param rx The horizontal region index.
+     * @param ry The vertical region index.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private static boolean isInside(int[] window, int rx, int ry)
+    {
+        return rx >= window[0] && rx <= window[2] && ry >= window[1] && ry <= window[3];
+    }
+
+    /** Map reference. */
+    private final MapTile map;
+    /** Viewer reference. */
+    private final Viewer viewer;
+    /** Regions loaded flags. */
+    private boolean[] loaded = new boolean[0];
+    /** Regions data offsets. */
+    private int[] offsets = new int[0];
+    /** Regions data. */
+    private MappedByteBuffer data;
+    /** Opened channel. */
+    private FileChannel channel;
+    /** Region size in tile. */
+    private int regionSize;
+    /** Number of horizontal regions. */
+    private int regionsH;
+    /** Number of vertical regions. */
+    private int regionsV;
+    /** Number of loaded regions. */
+    private int count;
+    /** Last loaded window (min x, min y, max x, max y), empty if max lower than min. */
+    private final int[] last = EMPTY.clone();
+    /** Current window, same layout as {@link #last}. */
+    private final int[] window = new int[EMPTY.length];
+    /** Regions margin around viewer. */
+    private int margin = 1;
+
+    /**
+     * Create regions streamer.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @throws LionEngineException If missing service.
+     */
+    public MapTileRegions(Services services)
+    {
+        super();
+
+        map = services.get(MapTile.class);
+        viewer = services.get(Viewer.class);
+    }
+
+    /**
+     * Open regions map. Map is created empty, regions are loaded on next {@link #update(double)}. Previous opened
+     * map is closed.
+     * 
+     * @param media The regions map media.
+     * @throws IOException If error on reading.
+     */
+    public void open(Media media) throws IOException
+    {
+        Check.notNull(media);
+
+        close();
+        channel = FileChannel.open(media.getFile().toPath(), StandardOpenOption.READ);
+
+        final DataInputStream header = new DataInputStream(Channels.newInputStream(channel));
+        final int format = header.readInt();
+        if (format != MapTilePersisterModel.FORMAT_REGIONS)
+        {
+            close();
+            throw new IOException(ERROR_FORMAT + media.getPath());
+        }
+        map.create(header.readInt(), header.readInt(), header.readInt(), header.readInt());
+        if (header.readBoolean())
+        {
+            map.loadSheets(Medias.create(header.readUTF()));
+        }
+        regionSize = header.readInt();
+        regionsH = MapTilePersisterModel.getRegions(map.getInTileWidth(), regionSize);
+        regionsV = MapTilePersisterModel.getRegions(map.getInTileHeight(), regionSize);
+        offsets = new int[regionsH * regionsV];
+        for (int i = 0; i < offsets.length; i++)
+        {
+            offsets[i] = header.readInt();
+        }
+        loaded = new boolean[offsets.length];
+        System.arraycopy(EMPTY, 0, last, 0, EMPTY.length);
+        count = 0;
+
+        final long start = channel.position();
+        data = channel.map(FileChannel.MapMode.READ_ONLY, start, channel.size() - start);
+    }
+
+    /**
+     * Set the number of regions kept around viewer.
+     * 
+     * @param margin The regions margin (must be positive).
+     * @throws LionEngineException If invalid margin.
+     */
+    public void setMargin(int margin)
+    {
+        Check.superiorOrEqual(margin, 0);
+
+        this.margin = margin;
+    }
+
+    /**
+     * Get the region size.
+     * 
+     * @return The region size in tile.
+     */
+    public int getRegionSize()
+    {
+        return regionSize;
+    }
+
+    /**
+     * Get the number of regions.
+     * 
+     * @return The number of regions.
+     */
+    public int getRegionsNumber()
+    {
+        return offsets.length;
+    }
+
+    /**
+     * Get the number of loaded regions.
+     * 
+     * @return The number of loaded regions.
+     */
+    public int getLoaded()
+    {
+        return count;
+    }
+
+    /**
+     * Check if region is loaded.
+     * 
+     * @param rx The horizontal region index.
+     * @param ry The vertical region index.
+     * @return <code>true</code> if loaded, <code>false</code> else.
+     */
+    public boolean isLoaded(int rx, int ry)
+    {
+        return rx >= 0 && ry >= 0 && rx < regionsH && ry < regionsV && loaded[ry * regionsH + rx];
+    }
+
+    /**
+     * Load region tiles from mapped data.
+     * 
+     * @param rx The horizontal region index.
+     * @param ry The vertical region index.
+     * @throws LionEngineException If sheet missing.
+     */
+    private void load(int rx, int ry)
+    {
+        int offset = offsets[ry * regionsH + rx];
+        final int n = data.getInt(offset);
+        offset += Integer.BYTES;
+        for (int i = 0; i < n; i++)
+        {
+            final int sheet = data.getInt(offset);
+            final int number = data.getInt(offset + Integer.BYTES);
+            final int index = data.getInt(offset + Integer.BYTES * 2);
+            offset += MapTilePersisterModel.REGION_TILE_BYTES;
+
+            if (sheet > map.getSheetsNumber())
+            {
+                throw new LionEngineException(ERROR_SHEET_MISSING + Constant.DOUBLE_DOT + sheet);
+            }
+            final int tx = rx * regionSize + index % regionSize;
+            final int ty = ry * regionSize + index / regionSize;
+            map.setTile(map.createTile(Integer.valueOf(sheet),
+                                       number,
+                                       tx * (double) map.getTileWidth(),
+                                       ty * (double) map.getTileHeight()));
+        }
+        loaded[ry * regionsH + rx] = true;
+        count++;
+    }
+
+    /**
+     * Remove region tiles from map.
+     * 
+     * @param rx The horizontal region index.
+     * @param ry The vertical region index.
+     */
+    private void evict(int rx, int ry)
+    {
+        for (int ty = ry * regionSize; ty < Math.min((ry + 1) * regionSize, map.getInTileHeight()); ty++)
+        {
+            for (int tx = rx * regionSize; tx < Math.min((rx + 1) * regionSize, map.getInTileWidth()); tx++)
+            {
+                map.removeTile(tx, ty);
+            }
+        }
+        loaded[ry * regionsH + rx] = false;
+        count--;
+    }
+
+    /*
+     * Updatable
+     */
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws LionEngineException If sheet missing.
+     */
+    @Override
+    public void update(double extrp)
+    {
+        if (data != null)
+        {
+            final double x = viewer.getX() + viewer.getViewX();
+            final double y = viewer.getY() - viewer.getViewY();
+            final int pixelsH = regionSize * map.getTileWidth();
+            final int pixelsV = regionSize * map.getTileHeight();
+
+            window[0] = Math.max(0, (int) Math.floor(x / pixelsH) - margin);
+            window[1] = Math.max(0, (int) Math.floor(y / pixelsV) - margin);
+            window[2] = Math.min(regionsH - 1, (int) Math.floor((x + viewer.getWidth()) / pixelsH) + margin);
+            window[3] = Math.min(regionsV - 1, (int) Math.floor((y + viewer.getHeight()) / pixelsV) + margin);
+
+            if (!Arrays.equals(window, last))
+            {
+                for (int ry = last[1]; ry <= last[3]; ry++)
+                {
+                    for (int rx = last[0]; rx <= last[2]; rx++)
+                    {
+                        if (!isInside(window, rx, ry))
+                        {
+                            evict(rx, ry);
+                        }
+                    }
+                }
+                for (int ry = window[1]; ry <= window[3]; ry++)
+                {
+                    for (int rx = window[0]; rx <= window[2]; rx++)
+                    {
+                        if (!loaded[ry * regionsH + rx])
+                        {
+                            load(rx, ry);
+                        }
+                    }
+                }
+                System.arraycopy(window, 0, last, 0, window.length);
+            }
+        }
+    }
+
+    /*
+     * Closeable
+     */
+
+    /**
+     * Close opened map. Loaded tiles are kept.
+     * 
+     * @throws IOException If close failed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        data = null;
+        if (channel != null)
+        {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link CommandBuffer}.
+ */
+public final class CommandBufferTest
+{
+    /**
+     * Test the deferred commands.
+     */
+    @Test
+    public void testDeferred()
+    {
+        final List<String> commands = new ArrayList<>();
+        final CommandBuffer buffer = new CommandBuffer();
+
+        CommandBuffer.submit(() -> commands.add("now"));
+
+        assertFalse(CommandBuffer.isDeferring());
+        assertEquals(Arrays.asList("now"), commands);
+
+        buffer.bind();
+        try
+        {
+            assertTrue(CommandBuffer.isDeferring());
+
+            CommandBuffer.submit(() -> commands.add("a"));
+            CommandBuffer.submit(() -> commands.add("b"));
+        }
+        finally
+        {
+            buffer.unbind();
+        }
+
+        assertEquals(2, buffer.size());
+        assertEquals(Arrays.asList("now"), commands);
+
+        buffer.replay();
+
+        assertEquals(0, buffer.size());
+        assertEquals(Arrays.asList("now", "a", "b"), commands);
+
+        buffer.bind();
+        CommandBuffer.submit(() -> commands.add("c"));
+        buffer.unbind();
+        buffer.clear();
+        buffer.replay();
+
+        assertEquals(3, commands.size());
+    }
+
+    /**
+     * Test the nested binding restores previous buffer.
+     */
+    @Test
+    public void testNested()
+    {
+        final List<String> commands = new ArrayList<>();
+        final CommandBuffer outer = new CommandBuffer();
+        final CommandBuffer inner = new CommandBuffer();
+
+        outer.bind();
+        try
+        {
+            inner.bind();
+            CommandBuffer.submit(() -> commands.add("inner"));
+            inner.unbind();
+
+            assertTrue(CommandBuffer.isDeferring());
+
+            CommandBuffer.submit(() -> commands.add("outer"));
+        }
+        finally
+        {
+            outer.unbind();
+        }
+
+        assertFalse(CommandBuffer.isDeferring());
+        assertEquals(1, inner.size());
+        assertEquals(1, outer.size());
+
+        outer.replay();
+        inner.replay();
+
+        assertEquals(Arrays.asList("outer", "inner"), commands);
+    }
+
+    /**
+     * Test the command submitted once per key.
+     */
+    @Test
+    public void testSubmitOnce()
+    {
+        final List<String> commands = new ArrayList<>();
+        final Object key = new Object();
+
+        assertTrue(CommandBuffer.submitOnce(key, () -> commands.add("now")));
+        assertTrue(CommandBuffer.submitOnce(key, () -> commands.add("now")));
+
+        final CommandBuffer buffer = new CommandBuffer();
+        buffer.bind();
+        try
+        {
+            assertTrue(CommandBuffer.submitOnce(key, () -> commands.add("a")));
+            assertFalse(CommandBuffer.submitOnce(key, () -> commands.add("b")));
+        }
+        finally
+        {
+            buffer.unbind();
+        }
+        buffer.replay();
+
+        assertEquals(Arrays.asList("now", "now", "a"), commands);
+
+        buffer.bind();
+        assertTrue(CommandBuffer.submitOnce(key, () -> commands.add("c")));
+        buffer.unbind();
+        buffer.clear();
+
+        buffer.bind();
+        assertTrue(CommandBuffer.submitOnce(key, () -> commands.add("d")));
+        buffer.unbind();
+        buffer.replay();
+
+        assertEquals(Arrays.asList("now", "now", "a", "d"), commands);
+    }
+
+    /**
+     * Test the deferred transformable and layerable notifications.
+     */
+    @Test
+    public void testFeatures()
+    {
+        final Transformable transformable = new TransformableModel();
+        final List<Transformable> transformed = new ArrayList<>();
+        transformable.addListener(transformed::add);
+
+        final Layerable layerable = new LayerableModel(0);
+        final List<Integer> layers = new ArrayList<>();
+        layerable.addListener((provider, refreshOld, refreshNew, displayOld, displayNew) -> layers.add(refreshOld));
+
+        final CommandBuffer buffer = new CommandBuffer();
+        buffer.bind();
+        try
+        {
+            transformable.teleport(1.0, 2.0);
+            layerable.setLayer(Integer.valueOf(2), Integer.valueOf(3));
+        }
+        finally
+        {
+            buffer.unbind();
+        }
+
+        assertTrue(transformed.isEmpty());
+        assertTrue(layers.isEmpty());
+        assertEquals(Integer.valueOf(2), layerable.getLayerRefresh());
+
+        buffer.replay();
+
+        assertEquals(Arrays.asList(transformable), transformed);
+        assertEquals(Arrays.asList(Integer.valueOf(0)), layers);
+    }
+
+    /**
+     * Test the deferred transformable notifications are coalesced from the location before update.
+     */
+    @Test
+    public void testTransformableCoalesced()
+    {
+        final Transformable transformable = new TransformableModel();
+        final List<Double> locations = new ArrayList<>();
+        transformable.addListener(t ->
+        {
+            locations.add(Double.valueOf(t.getOldX()));
+            locations.add(Double.valueOf(t.getX()));
+        });
+
+        final CommandBuffer buffer = new CommandBuffer();
+        buffer.bind();
+        try
+        {
+            transformable.moveLocationX(1.0, 1.0);
+            transformable.moveLocationX(1.0, 1.0);
+        }
+        finally
+        {
+            buffer.unbind();
+        }
+
+        assertEquals(1, buffer.size());
+
+        buffer.replay();
+
+        assertEquals(Arrays.asList(Double.valueOf(0.0), Double.valueOf(2.0)), locations);
+        assertEquals(1.0, transformable.getOldX());
+    }
+}
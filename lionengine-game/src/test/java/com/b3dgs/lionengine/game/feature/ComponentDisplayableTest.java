@@ -18,11 +18,11 @@
 package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
-import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
-import java.util.HashSet;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -132,7 +132,9 @@ public final class ComponentDisplayableTest
         component.notifyHandlableAdded(featurable);
         component.notifyLayerChanged(featurable, null, null, null, null);
 
-        assertTrue(((TreeSet<?>) UtilReflection.getField(component, "indexs")).isEmpty());
+        final ComponentLayers<?> layers = UtilReflection.getField(component, "layers");
+
+        assertEquals(0, layers.getLayers());
 
         component.notifyHandlableRemoved(featurable);
 
@@ -142,11 +144,12 @@ public final class ComponentDisplayableTest
         }));
         component.notifyHandlableAdded(featurable);
 
-        assertFalse(((HashSet<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(1, layers.size(Integer.valueOf(0)));
 
         component.notifyHandlableRemoved(featurable);
 
-        assertTrue(((HashSet<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(0, layers.size(Integer.valueOf(0)));
+        assertEquals(0, layers.getLayers());
     }
 
     /**
@@ -170,4 +173,109 @@ public final class ComponentDisplayableTest
 
         assertEquals(1, layerable.getLayerDisplay().intValue());
     }
+
+    /**
+     * Test the culling.
+     */
+    @Test
+    public void testCulling()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 100, 100, 100);
+        camera.teleport(0.0, 0.0);
+
+        final ComponentDisplayable component = new ComponentDisplayable(camera, 32, 0);
+        final AtomicInteger count = new AtomicInteger();
+
+        final FeaturableModel inside = new FeaturableModel();
+        final Transformable transformable = inside.addFeatureAndGet(new TransformableModel());
+        transformable.setSize(8, 8);
+        transformable.teleport(50.0, 50.0);
+        inside.addFeature(new DisplayableModel(g -> count.incrementAndGet()));
+
+        final FeaturableModel outside = new FeaturableModel();
+        final Transformable far = outside.addFeatureAndGet(new TransformableModel());
+        far.setSize(8, 8);
+        far.teleport(500.0, 500.0);
+        outside.addFeature(new DisplayableModel(g -> count.incrementAndGet()));
+
+        final FeaturableModel hud = new FeaturableModel();
+        hud.addFeature(new DisplayableModel(g -> count.incrementAndGet()));
+
+        component.notifyHandlableAdded(inside);
+        component.notifyHandlableAdded(outside);
+        component.notifyHandlableAdded(hud);
+        component.render(null, null);
+
+        assertEquals(2, count.get());
+        assertEquals(2, component.getRendered());
+        assertEquals(1, component.getCulled());
+
+        far.teleport(60.0, 40.0);
+        transformable.teleport(-300.0, 50.0);
+        count.set(0);
+        component.render(null, null);
+
+        assertEquals(2, count.get());
+        assertEquals(1, component.getCulled());
+
+        camera.teleport(-330.0, 0.0);
+        component.render(null, null);
+
+        assertEquals(1, component.getCulled());
+        assertEquals(2, component.getRendered());
+
+        component.notifyHandlableRemoved(inside);
+        component.notifyHandlableRemoved(outside);
+        component.notifyHandlableRemoved(hud);
+        component.render(null, null);
+
+        assertEquals(0, component.getRendered());
+        assertEquals(0, component.getCulled());
+    }
+
+    /**
+     * Test the culling keeps the adding order, whatever the displayables location and bounds.
+     */
+    @Test
+    public void testCullingOrder()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 100, 100, 100);
+        camera.teleport(0.0, 0.0);
+
+        final ComponentDisplayable component = new ComponentDisplayable(camera, 32, 0);
+        final List<Integer> order = new ArrayList<>();
+
+        final FeaturableModel right = new FeaturableModel();
+        final Transformable transformable = right.addFeatureAndGet(new TransformableModel());
+        transformable.setSize(8, 8);
+        transformable.teleport(80.0, 50.0);
+        right.addFeature(new DisplayableModel(g -> order.add(Integer.valueOf(1))));
+
+        final FeaturableModel hud = new FeaturableModel();
+        hud.addFeature(new DisplayableModel(g -> order.add(Integer.valueOf(2))));
+
+        final FeaturableModel left = new FeaturableModel();
+        final Transformable other = left.addFeatureAndGet(new TransformableModel());
+        other.setSize(8, 8);
+        other.teleport(10.0, 50.0);
+        left.addFeature(new DisplayableModel(g -> order.add(Integer.valueOf(3))));
+
+        component.notifyHandlableAdded(right);
+        component.notifyHandlableAdded(hud);
+        component.notifyHandlableAdded(left);
+        component.render(null, null);
+
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)), order);
+        assertEquals(3, component.getRendered());
+        assertEquals(0, component.getCulled());
+
+        transformable.teleport(10.0, 10.0);
+        other.teleport(80.0, 80.0);
+        order.clear();
+        component.render(null, null);
+
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)), order);
+    }
 }
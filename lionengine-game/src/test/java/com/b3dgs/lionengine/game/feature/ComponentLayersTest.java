@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link ComponentLayers}.
+ */
+public final class ComponentLayersTest
+{
+    /**
+     * Test the iteration order.
+     */
+    @Test
+    public void testOrder()
+    {
+        final ComponentLayers<String> layers = new ComponentLayers<>();
+        layers.add(Integer.valueOf(2), "c");
+        layers.add(Integer.valueOf(1), "b");
+        layers.add(Integer.valueOf(2), "d");
+        layers.add(Integer.valueOf(-1), "a");
+        layers.add(Integer.valueOf(2), "c");
+        for (int i = 0; i < 10; i++)
+        {
+            layers.add(Integer.valueOf(3), String.valueOf(i));
+        }
+        layers.remove(Integer.valueOf(2), "c");
+        layers.remove(Integer.valueOf(3), "5");
+        layers.add(Integer.valueOf(2), "c");
+
+        final List<String> items = new ArrayList<>();
+        final List<Integer> done = new ArrayList<>();
+        layers.forEach(items::add, done::add);
+
+        assertEquals(Arrays.asList("a", "b", "d", "c", "0", "1", "2", "3", "4", "6", "7", "8", "9"), items);
+        assertEquals(Arrays.asList(Integer.valueOf(-1), Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)),
+                     done);
+
+        layers.remove(Integer.valueOf(1), "b");
+
+        assertEquals(3, layers.getLayers());
+        assertEquals(0, layers.size(Integer.valueOf(1)));
+        assertEquals(2, layers.size(Integer.valueOf(2)));
+    }
+
+    /**
+     * Test the modification during iteration.
+     */
+    @Test
+    public void testModifyDuringIteration()
+    {
+        final ComponentLayers<String> layers = new ComponentLayers<>();
+        layers.add(Integer.valueOf(0), "a");
+        layers.add(Integer.valueOf(0), "b");
+        layers.add(Integer.valueOf(1), "c");
+
+        final List<String> items = new ArrayList<>();
+        layers.forEach(item ->
+        {
+            items.add(item);
+            if ("a".equals(item))
+            {
+                layers.remove(Integer.valueOf(0), "b");
+                layers.remove(Integer.valueOf(0), "a");
+                layers.add(Integer.valueOf(1), "a");
+                layers.add(Integer.valueOf(0), "e");
+                layers.add(Integer.valueOf(-1), "f");
+            }
+        });
+
+        assertEquals(Arrays.asList("a", "c"), items);
+
+        items.clear();
+        layers.forEach(items::add);
+
+        assertEquals(Arrays.asList("f", "e", "c", "a"), items);
+    }
+
+    /**
+     * Test the kept layers.
+     */
+    @Test
+    public void testKeep()
+    {
+        final ComponentLayers<String> layers = new ComponentLayers<>(layer -> layer.intValue() == 0);
+        layers.addLayer(Integer.valueOf(0));
+        layers.add(Integer.valueOf(1), "a");
+        layers.remove(Integer.valueOf(1), "a");
+        layers.remove(Integer.valueOf(2), "a");
+
+        assertEquals(1, layers.getLayers());
+    }
+}
@@ -19,10 +19,12 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
-import java.util.HashSet;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -132,7 +134,9 @@ public final class ComponentRefreshableTest
         component.notifyHandlableAdded(featurable);
         component.notifyLayerChanged(featurable, null, null, null, null);
 
-        assertTrue(((TreeSet<?>) UtilReflection.getField(component, "indexs")).isEmpty());
+        final ComponentLayers<?> layers = UtilReflection.getField(component, "layers");
+
+        assertEquals(0, layers.getLayers());
 
         component.notifyHandlableRemoved(featurable);
 
@@ -142,11 +146,12 @@ public final class ComponentRefreshableTest
         }));
         component.notifyHandlableAdded(featurable);
 
-        assertFalse(((HashSet<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(1, layers.size(Integer.valueOf(0)));
 
         component.notifyHandlableRemoved(featurable);
 
-        assertTrue(((HashSet<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(0, layers.size(Integer.valueOf(0)));
+        assertEquals(0, layers.getLayers());
     }
 
     /**
@@ -170,4 +175,79 @@ public final class ComponentRefreshableTest
 
         assertEquals(1, layerable.getLayerRefresh().intValue());
     }
+
+    /**
+     * Test the parallel update with deferred commands.
+     */
+    @Test
+    public void testParallel()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            final Services services = new Services();
+            final Handler handler = services.create(Handler.class);
+            final ComponentRefreshable component = new ComponentRefreshable(pool, 16);
+            component.setParallel(Integer.valueOf(1), true);
+            handler.addComponent(component);
+
+            final List<Integer> order = new ArrayList<>();
+            final AtomicInteger deferred = new AtomicInteger();
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 100; i++)
+            {
+                final Integer value = Integer.valueOf(i);
+                final Featurable featurable = new FeaturableModel();
+                featurable.addFeature(new LayerableModel(1));
+                featurable.addFeature(new RefreshableModel(extrp ->
+                {
+                    if (CommandBuffer.isDeferring())
+                    {
+                        deferred.incrementAndGet();
+                    }
+                    CommandBuffer.submit(() -> order.add(value));
+                    if (value.intValue() == 50)
+                    {
+                        handler.remove(featurable);
+                    }
+                }));
+                handler.add(featurable);
+                expected.add(value);
+            }
+            handler.update(1.0);
+
+            assertEquals(100, deferred.get());
+            assertEquals(expected, order);
+            assertEquals(100, handler.size());
+            assertFalse(CommandBuffer.isDeferring());
+
+            order.clear();
+            handler.update(1.0);
+
+            assertEquals(99, handler.size());
+
+            component.setParallel(Integer.valueOf(1), false);
+            deferred.set(0);
+            handler.update(1.0);
+
+            assertEquals(0, deferred.get());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test the parallel mode without pool.
+     */
+    @Test
+    public void testParallelWithoutPool()
+    {
+        final ComponentRefreshable component = new ComponentRefreshable();
+
+        assertThrows(() -> component.setParallel(Integer.valueOf(0), true), "Unexpected null argument !");
+        assertThrows(() -> new ComponentRefreshable(new ForkJoinPool(1), 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+    }
 }
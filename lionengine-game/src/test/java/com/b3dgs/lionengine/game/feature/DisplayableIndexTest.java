@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link DisplayableIndex}.
+ */
+public final class DisplayableIndexTest
+{
+    /**
+     * Test constructor with invalid arguments.
+     */
+    @Test
+    public void testConstructorInvalid()
+    {
+        assertThrows(() -> new DisplayableIndex(null, 1, 0), "Unexpected null argument !");
+        assertThrows(() -> new DisplayableIndex(new Camera(), 0, 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new DisplayableIndex(new Camera(), 1, -1),
+                     "Invalid argument: -1 is not superior or equal to 0");
+    }
+
+    /**
+     * Create transformable.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return The created transformable.
+     */
+    private static Transformable create(double x, double y)
+    {
+        final Transformable transformable = new TransformableModel();
+        transformable.setSize(1, 1);
+        transformable.teleport(x, y);
+        return transformable;
+    }
+
+    /**
+     * Create displayable.
+     * 
+     * @return The created displayable.
+     */
+    private static Displayable create()
+    {
+        return new DisplayableModel(g ->
+        {
+            // Mock
+        });
+    }
+
+    /**
+     * Test the index with layers and large bounds.
+     */
+    @Test
+    public void testIndex()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 64, 64, 64);
+
+        final DisplayableIndex index = new DisplayableIndex(camera, 16, 0);
+        final Displayable displayable = new DisplayableModel(g ->
+        {
+            // Mock
+        });
+        final Transformable transformable = new TransformableModel();
+        transformable.setSize(100, 100);
+        transformable.teleport(-50.0, -50.0);
+
+        index.add(displayable, transformable, Integer.valueOf(1));
+        index.add(displayable, transformable, Integer.valueOf(1));
+
+        assertEquals(1, index.size());
+        assertTrue(index.contains(displayable));
+        assertTrue(index.hasLayer(Integer.valueOf(1)));
+
+        index.setLayer(displayable, Integer.valueOf(2));
+
+        assertFalse(index.hasLayer(Integer.valueOf(1)));
+
+        final Map<Integer, List<Displayable>> visible = new HashMap<>();
+        visible.put(Integer.valueOf(2), new ArrayList<>());
+
+        assertEquals(1, index.collect(visible));
+        assertEquals(displayable, visible.get(Integer.valueOf(2)).get(0));
+
+        index.remove(displayable);
+        transformable.teleport(0.0, 0.0);
+
+        assertEquals(0, index.size());
+        assertFalse(index.hasLayer(Integer.valueOf(2)));
+        assertEquals(0, index.collect(visible));
+    }
+
+    /**
+     * Test the collected displayables are in adding order, whatever their cell, with unbounded ones always collected.
+     */
+    @Test
+    public void testOrder()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 64, 64, 64);
+
+        final DisplayableIndex index = new DisplayableIndex(camera, 16, 0);
+        final Displayable first = create();
+        final Displayable second = create();
+        final Displayable third = create();
+        final Displayable fourth = create();
+        final Transformable moved = create(10.0, 10.0);
+
+        index.add(first, create(50.0, 50.0), Integer.valueOf(1));
+        index.add(second, null, Integer.valueOf(1));
+        index.add(third, moved, Integer.valueOf(1));
+        index.add(fourth, create(50.0, 10.0), Integer.valueOf(1));
+
+        final Map<Integer, List<Displayable>> visible = new HashMap<>();
+
+        assertEquals(4, index.collect(visible));
+        assertEquals(Arrays.asList(first, second, third, fourth), visible.get(Integer.valueOf(1)));
+
+        index.remove(first);
+        moved.teleport(-200.0, -200.0);
+        visible.get(Integer.valueOf(1)).clear();
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.collect(visible));
+        assertEquals(Arrays.asList(second, fourth), visible.get(Integer.valueOf(1)));
+
+        moved.teleport(30.0, 30.0);
+        visible.get(Integer.valueOf(1)).clear();
+
+        assertEquals(3, index.collect(visible));
+        assertEquals(Arrays.asList(second, third, fourth), visible.get(Integer.valueOf(1)));
+    }
+
+    /**
+     * Test the index with many cells, added then removed.
+     */
+    @Test
+    public void testCells()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 64, 64, 64);
+
+        final DisplayableIndex index = new DisplayableIndex(camera, 16, 0);
+        final List<Displayable> displayables = new ArrayList<>();
+        for (int y = -20; y < 20; y++)
+        {
+            for (int x = -20; x < 20; x++)
+            {
+                final Displayable displayable = create();
+                index.add(displayable, create(x * 16.0 + 8.0, y * 16.0 + 8.0), Integer.valueOf(0));
+                displayables.add(displayable);
+            }
+        }
+
+        final Map<Integer, List<Displayable>> visible = new HashMap<>();
+        final int viewable = index.collect(visible);
+
+        assertEquals(1600, index.size());
+        assertTrue(viewable > 0);
+        assertTrue(viewable < 100);
+
+        for (int i = 0; i < displayables.size(); i += 2)
+        {
+            index.remove(displayables.get(i));
+        }
+        visible.clear();
+
+        assertEquals(800, index.size());
+        assertEquals(viewable / 2, index.collect(visible));
+
+        for (int i = 1; i < displayables.size(); i += 2)
+        {
+            index.remove(displayables.get(i));
+        }
+        visible.clear();
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.collect(visible));
+    }
+}
@@ -17,15 +17,13 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import static com.b3dgs.lionengine.UtilAssert.assertCause;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
@@ -35,7 +33,6 @@ import org.junit.jupiter.api.Test;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.UtilFile;
-import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.Xml;
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.FeatureProvider;
@@ -172,26 +169,19 @@ public final class FeaturableModelTest
     }
 
     /**
-     * Test the set field not accessible.
-     * 
-     * @throws ReflectiveOperationException If error.
+     * Test the cached injection plan.
      */
     @Test
-    public void testSetFieldNotAccessible() throws ReflectiveOperationException
+    public void testInjectionPlan()
     {
-        final FeatureItself featurable = new FeatureItself();
-        final Method method = FeaturableModel.class.getDeclaredMethod("setField",
-                                                                      Field.class,
-                                                                      Object.class,
-                                                                      Class.class);
-        UtilReflection.setAccessible(method, true);
-        assertThrows(InvocationTargetException.class,
-                     () -> method.invoke(featurable,
-                                         featurable.getClass().getDeclaredField("object"),
-                                         featurable,
-                                         Object.class),
-                     null);
-
+        final FeatureInjection plan = FeatureInjection.get(MyFeatureModel.class);
+
+        assertEquals(plan, FeatureInjection.get(MyFeatureModel.class));
+        assertEquals(1, plan.size());
+        assertEquals(MyFeatureInterface.class, plan.getType(0));
+        assertEquals(0, FeatureInjection.get(Object.class).size());
+        assertCause(() -> plan.get(new Object(), 0), ClassCastException.class);
+        assertCause(() -> plan.set(new MyFeatureModel(), 0, new Object()), ClassCastException.class);
     }
 
     /**
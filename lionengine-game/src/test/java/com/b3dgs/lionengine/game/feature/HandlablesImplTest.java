@@ -162,6 +162,43 @@ public final class HandlablesImplTest
         assertEquals(1, i);
     }
 
+    /**
+     * Test featurables sharing archetype.
+     */
+    @Test
+    public void testArchetype()
+    {
+        final Featurable other = new FeaturableModel();
+        final Featurable different = new FeaturableModel();
+        different.addFeature(new MirrorableModel());
+
+        featurables.add(object);
+        featurables.add(other);
+        featurables.add(different);
+
+        assertEquals(2, featurables.getArchetypes());
+
+        int i = 0;
+        for (final Identifiable identifiable : featurables.get(Identifiable.class))
+        {
+            assertNotNull(identifiable.getId());
+            i++;
+        }
+        assertEquals(3, i);
+
+        featurables.remove(object, object.getFeature(Identifiable.class).getId());
+
+        assertEquals(different.getFeature(Identifiable.class), featurables.get(Identifiable.class).iterator().next());
+
+        featurables.remove(different, different.getFeature(Identifiable.class).getId());
+
+        assertFalse(featurables.get(Mirrorable.class).iterator().hasNext());
+        assertEquals(2, featurables.getArchetypes());
+
+        other.getFeature(Identifiable.class).notifyDestroyed();
+        different.getFeature(Identifiable.class).notifyDestroyed();
+    }
+
     /**
      * Complex object with interface.
      */
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link HandlablesType}.
+ */
+public final class HandlablesTypeTest
+{
+    /**
+     * Test add and remove.
+     */
+    @Test
+    public void testAddRemove()
+    {
+        final HandlablesType<String> items = new HandlablesType<>();
+        for (int i = 0; i < 10; i++)
+        {
+            items.add(String.valueOf(i));
+        }
+        items.add("0");
+
+        assertEquals(10, items.size());
+
+        items.remove("0");
+        items.remove("5");
+        items.remove("unknown");
+
+        assertEquals(8, items.size());
+
+        final Iterator<String> iterator = items.iterator();
+
+        assertEquals("9", iterator.next());
+        assertEquals("1", iterator.next());
+
+        int count = 2;
+        while (iterator.hasNext())
+        {
+            assertFalse("5".equals(iterator.next()));
+            count++;
+        }
+        assertEquals(8, count);
+        assertThrows(NoSuchElementException.class, iterator::next, null);
+    }
+
+    /**
+     * Test modification during iteration.
+     */
+    @Test
+    public void testConcurrentModification()
+    {
+        final HandlablesType<String> items = new HandlablesType<>();
+        items.add("a");
+        items.add("b");
+
+        final Iterator<String> iterator = items.iterator();
+        iterator.next();
+        items.remove("b");
+
+        assertTrue(iterator.hasNext() || items.size() == 1);
+        assertThrows(ConcurrentModificationException.class, iterator::next, null);
+    }
+}
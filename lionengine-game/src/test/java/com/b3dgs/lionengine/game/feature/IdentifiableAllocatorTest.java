@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.UtilReflection;
+
+/**
+ * Test {@link IdentifiableAllocator}.
+ */
+public final class IdentifiableAllocatorTest
+{
+    /**
+     * Test the allocation and metrics.
+     */
+    @Test
+    public void testAllocate()
+    {
+        final IdentifiableAllocator allocator = new IdentifiableAllocator();
+
+        assertEquals(0.0, allocator.getReuseRate());
+        assertEquals(Integer.valueOf(0), allocator.acquire());
+        assertEquals(Integer.valueOf(1), allocator.acquire());
+
+        allocator.release(Integer.valueOf(0));
+
+        assertEquals(1, allocator.getLive());
+        assertEquals(Integer.valueOf(0), allocator.acquire());
+        assertEquals(Integer.valueOf(2), allocator.acquire());
+        assertEquals(3, allocator.getLive());
+        assertEquals(4L, allocator.getAllocated());
+        assertEquals(1L, allocator.getReused());
+        assertEquals(0.25, allocator.getReuseRate());
+    }
+
+    /**
+     * Test the concurrent allocation.
+     * 
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testConcurrent() throws InterruptedException
+    {
+        final IdentifiableAllocator allocator = new IdentifiableAllocator();
+        final Collection<Integer> ids = ConcurrentHashMap.newKeySet();
+        final AtomicInteger duplicates = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++)
+        {
+            executor.execute(() ->
+            {
+                final Collection<Integer> owned = new HashSet<>();
+                for (int i = 0; i < 1000; i++)
+                {
+                    final Integer id = allocator.acquire();
+                    if (!ids.add(id))
+                    {
+                        duplicates.incrementAndGet();
+                    }
+                    owned.add(id);
+                    if (i % 2 == 0)
+                    {
+                        ids.remove(id);
+                        owned.remove(id);
+                        allocator.release(id);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+        assertEquals(0, duplicates.get());
+        assertEquals(2000, allocator.getLive());
+        assertEquals(2000, ids.size());
+    }
+
+    /**
+     * Test the maximum id.
+     * 
+     * @throws ReflectiveOperationException If error.
+     */
+    @Test
+    public void testMaxId() throws ReflectiveOperationException
+    {
+        final IdentifiableAllocator allocator = new IdentifiableAllocator();
+        final AtomicInteger next = UtilReflection.getField(allocator, "next");
+        next.set(Integer.MAX_VALUE - 1);
+
+        assertEquals(Integer.valueOf(Integer.MAX_VALUE - 1), allocator.acquire());
+        assertThrows(() -> allocator.acquire(), IdentifiableAllocator.ERROR_FREE_ID);
+
+        allocator.release(Integer.valueOf(1));
+
+        assertEquals(Integer.valueOf(1), allocator.acquire());
+    }
+}
@@ -18,23 +18,16 @@
 package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
-import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.Test;
 
-import com.b3dgs.lionengine.UtilReflection;
-
 /**
  * Test {@link IdentifiableModel}.
  */
@@ -42,46 +35,41 @@ public final class IdentifiableModelTest
 {
     /**
      * Test the id.
-     * 
-     * @throws ReflectiveOperationException If error.
      */
     @Test
-    public void testId() throws ReflectiveOperationException
+    public void testId()
     {
-        final Collection<Integer> ids = UtilReflection.getField(IdentifiableModel.class, "IDS");
-        ids.clear();
-
-        final Collection<Integer> recycle = UtilReflection.getField(IdentifiableModel.class, "RECYCLE");
-        recycle.clear();
-
-        final Field field = IdentifiableModel.class.getDeclaredField("lastId");
-        UtilReflection.setAccessible(field, true);
-        field.set(IdentifiableModel.class, Integer.valueOf(0));
+        final Services services = new Services();
+        final IdentifiableAllocator allocator = services.create(IdentifiableAllocator.class);
 
         final Collection<Identifiable> identifiables = new ArrayList<>();
         for (int i = 0; i < 10; i++)
         {
             final Featurable featurable = new FeaturableModel();
-            final Identifiable identifiable = featurable.getFeature(Identifiable.class);
+            final Identifiable identifiable = new IdentifiableModel(services);
             identifiable.prepare(featurable);
             identifiables.add(identifiable);
 
             assertEquals(Integer.valueOf(i), identifiable.getId());
         }
+        assertEquals(10, allocator.getLive());
 
         for (final Identifiable identifiable : identifiables)
         {
             identifiable.destroy();
             identifiable.notifyDestroyed();
+            identifiable.notifyDestroyed();
 
             assertNull(identifiable.getId());
         }
+        assertEquals(0, allocator.getLive());
 
         final Featurable featurable = new FeaturableModel();
-        final IdentifiableModel identifiable = featurable.getFeature(IdentifiableModel.class);
+        final IdentifiableModel identifiable = new IdentifiableModel(allocator);
         featurable.addFeature(new Recycler());
         identifiable.prepare(featurable);
         assertEquals(Integer.valueOf(0), identifiable.getId());
+        assertEquals(1L, allocator.getReused());
 
         identifiable.destroy();
         identifiable.notifyDestroyed();
@@ -95,41 +83,29 @@ public final class IdentifiableModelTest
 
         identifiable.recycle();
 
-        assertNotNull(identifiable.getId());
+        assertEquals(Integer.valueOf(0), identifiable.getId());
+        assertEquals(1, allocator.getLive());
     }
 
     /**
-     * Test the maximum id.
-     * 
-     * @throws ReflectiveOperationException If error.
+     * Test the default allocator.
      */
     @Test
-    public void testMaxId() throws ReflectiveOperationException
+    public void testDefault()
     {
-        final HashSet<?> ids = UtilReflection.getField(IdentifiableModel.class, "IDS");
-        final HashMap<?, ?> map = UtilReflection.getField(ids, "map");
-        final Field size = map.getClass().getDeclaredField("size");
-        UtilReflection.setAccessible(size, true);
-        ids.clear();
-        size.setInt(map, Integer.MAX_VALUE);
+        final IdentifiableAllocator allocator = IdentifiableAllocator.getDefault();
+        final Featurable featurable = new FeaturableModel();
+        final int live = allocator.getLive();
+        final Identifiable identifiable = new IdentifiableModel(new Services());
+        identifiable.prepare(featurable);
 
-        final Field lastId = IdentifiableModel.class.getDeclaredField("lastId");
-        UtilReflection.setAccessible(lastId, true);
-        lastId.setInt(lastId, 0);
+        assertEquals(live + 1, allocator.getLive());
 
-        final Queue<?> recycle = UtilReflection.getField(IdentifiableModel.class, "RECYCLE");
-        recycle.clear();
+        identifiable.destroy();
+        identifiable.notifyDestroyed();
 
-        try
-        {
-            assertThrows(() -> new IdentifiableModel(), IdentifiableModel.ERROR_FREE_ID);
-        }
-        finally
-        {
-            lastId.setInt(lastId, 0);
-            size.setInt(map, 0);
-            ids.clear();
-        }
+        assertEquals(live, allocator.getLive());
+        assertThrows(() -> new IdentifiableModel((IdentifiableAllocator) null), "Unexpected null argument !");
     }
 
     /**
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertCause;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 
 import org.junit.jupiter.api.Test;
@@ -98,6 +99,51 @@ public final class ServicesTest
         assertThrows(() -> services.get(Camera.class), Services.ERROR_SERVICE_GET + Camera.class.getName());
     }
 
+    /**
+     * Test the optional service.
+     */
+    @Test
+    public void testOptional()
+    {
+        final Services services = new Services();
+
+        assertFalse(services.getOptional(Camera.class).isPresent());
+
+        final Camera camera = services.create(Camera.class);
+
+        assertEquals(camera, services.getOptional(Camera.class).get());
+        assertEquals(services, services.getOptional(Services.class).get());
+        assertThrows(() -> services.getOptional(null), "Unexpected null argument !");
+    }
+
+    /**
+     * Test the lookup cache.
+     */
+    @Test
+    public void testCache()
+    {
+        final Services services = new Services();
+        final Camera camera = services.create(Camera.class);
+        for (int i = 0; i < 20; i++)
+        {
+            services.add(new Object());
+        }
+
+        assertEquals(camera, services.get(Viewer.class));
+        assertEquals(camera, services.get(Viewer.class));
+        assertEquals(camera, services.get(Camera.class));
+        assertFalse(services.getOptional(MapTile.class).isPresent());
+        assertFalse(services.getOptional(MapTile.class).isPresent());
+
+        assertEquals(3L, services.getScans());
+
+        final MapTile map = services.create(MapTileGame.class);
+
+        assertEquals(map, services.get(MapTile.class));
+        assertEquals(camera, services.get(Viewer.class));
+        assertEquals(5L, services.getScans());
+    }
+
     /**
      * Test the service <code>null</code>.
      */
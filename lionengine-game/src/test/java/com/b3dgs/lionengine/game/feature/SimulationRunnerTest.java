@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Test {@link SimulationRunner}.
+ */
+public final class SimulationRunnerTest
+{
+    /** Pool used. */
+    private static ForkJoinPool pool;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        pool = new ForkJoinPool(4);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Test the batch run of many handlers.
+     */
+    @Test
+    public void testRun()
+    {
+        final SimulationRunner runner = new SimulationRunner(pool, 50);
+        final AtomicInteger[] counts = new AtomicInteger[8];
+        for (int i = 0; i < counts.length; i++)
+        {
+            final AtomicInteger count = new AtomicInteger();
+            counts[i] = count;
+
+            final Handler handler = new Handler(new Services());
+            handler.addComponent(new ComponentRefreshable());
+            final Featurable featurable = new FeaturableModel();
+            featurable.addFeature(new RefreshableModel(extrp -> count.incrementAndGet()));
+            handler.add(featurable);
+            runner.add(handler);
+        }
+
+        assertEquals(Constant.ONE_SECOND_IN_NANO / 50, runner.getPeriod());
+
+        runner.run(10);
+
+        assertEquals(10L, runner.getTicks());
+        assertEquals(10L, runner.getHistogram().getCount());
+        for (final AtomicInteger count : counts)
+        {
+            assertEquals(10, count.get());
+        }
+        for (final Simulation simulation : runner.getSimulations())
+        {
+            assertEquals(10L, simulation.getTicks());
+            assertEquals(10L, simulation.getHistogram().getCount());
+            assertEquals(runner.getPeriod(), simulation.getBudget());
+            assertFalse(simulation.isFailed());
+        }
+    }
+
+    /**
+     * Test the budget and failure of a simulation.
+     */
+    @Test
+    public void testBudgetAndFailure()
+    {
+        final SimulationRunner runner = new SimulationRunner(pool, 50);
+        final Simulation slow = runner.add(extrp -> Thread.yield(), 1L);
+        final AtomicInteger count = new AtomicInteger();
+        final Simulation failing = runner.add(extrp ->
+        {
+            if (count.incrementAndGet() > 1)
+            {
+                throw new LionEngineException("failed");
+            }
+        });
+
+        Verbose.info("*********************************** EXPECTED VERBOSE ***********************************");
+        runner.run(3);
+        Verbose.info("****************************************************************************************");
+
+        assertEquals(3L, slow.getOverruns());
+        assertTrue(failing.isFailed());
+        assertEquals(2L, failing.getTicks());
+        assertEquals(2, count.get());
+        assertEquals(1, runner.getSimulations().size());
+        assertEquals(slow, runner.getSimulations().iterator().next());
+
+        runner.remove(slow);
+        runner.run(1);
+
+        assertEquals(3L, slow.getTicks());
+        assertTrue(runner.getSimulations().isEmpty());
+    }
+
+    /**
+     * Test the fixed rate start and stop.
+     * 
+     * @throws InterruptedException If error.
+     */
+    @Test
+    public void testStart() throws InterruptedException
+    {
+        final SimulationRunner runner = new SimulationRunner(pool, 100);
+        final AtomicInteger count = new AtomicInteger();
+        runner.add(extrp ->
+        {
+            if (count.incrementAndGet() == 5)
+            {
+                runner.stop();
+            }
+        });
+
+        final Thread thread = new Thread(runner::start);
+        thread.start();
+        thread.join(Constant.ONE_SECOND_IN_MILLI * 10L);
+
+        assertFalse(thread.isAlive());
+        assertFalse(runner.isRunning());
+        assertEquals(5, count.get());
+        assertEquals(5L, runner.getTicks());
+    }
+
+    /**
+     * Test the invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new SimulationRunner(0), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new SimulationRunner(null, 1), "Unexpected null argument !");
+        assertThrows(() -> new SimulationRunner(1).add(null), "Unexpected null argument !");
+        assertThrows(() -> new SimulationRunner(1).run(-1), "Invalid argument: -1 is not superior or equal to 0");
+    }
+}
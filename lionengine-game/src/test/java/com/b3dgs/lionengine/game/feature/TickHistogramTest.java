@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link TickHistogram}.
+ */
+public final class TickHistogramTest
+{
+    /**
+     * Test the recorded durations.
+     */
+    @Test
+    public void testRecord()
+    {
+        final TickHistogram histogram = new TickHistogram();
+
+        assertEquals(0L, histogram.getMean());
+        assertEquals(0L, histogram.getPercentile(99.0));
+
+        histogram.record(0L);
+        histogram.record(3L);
+        histogram.record(5L);
+        histogram.record(1000L);
+
+        assertEquals(4L, histogram.getCount());
+        assertEquals(1L, histogram.getCount(0));
+        assertEquals(1L, histogram.getCount(2));
+        assertEquals(1L, histogram.getCount(3));
+        assertEquals(1L, histogram.getCount(10));
+        assertEquals(252L, histogram.getMean());
+        assertEquals(1000L, histogram.getMax());
+        assertEquals(0L, histogram.getPercentile(0.0));
+        assertEquals(3L, histogram.getPercentile(50.0));
+        assertEquals(7L, histogram.getPercentile(75.0));
+        assertEquals(1000L, histogram.getPercentile(100.0));
+        assertEquals("TickHistogram [count=4, mean=252, p50=3, p99=1000, max=1000]", histogram.toString());
+
+        histogram.reset();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getCount(10));
+        assertEquals(0L, histogram.getMax());
+    }
+
+    /**
+     * Test the invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        final TickHistogram histogram = new TickHistogram();
+
+        assertThrows(() -> histogram.getCount(-1), "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> histogram.getCount(TickHistogram.BUCKETS),
+                     "Invalid argument: 65 is not strictly inferior to 65");
+        assertThrows(() -> histogram.getPercentile(101.0), "Invalid argument: 101.0 is not inferior or equal to 100.0");
+    }
+}
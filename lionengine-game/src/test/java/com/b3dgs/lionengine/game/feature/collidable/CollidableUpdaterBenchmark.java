@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Origin;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Benchmark {@link CollidableUpdater} swept collision, logging checked pairs per second.
+ * <p>
+ * Not part of unit tests, run it from its main method.
+ * </p>
+ */
+public final class CollidableUpdaterBenchmark
+{
+    /** Checked pairs per run. */
+    private static final int PAIRS = 1_000_000;
+    /** Warm up runs. */
+    private static final int WARMUP = 3;
+    /** Measured runs. */
+    private static final int RUNS = 5;
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args The arguments (unused).
+     */
+    public static void main(String[] args)
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        final Media config = UtilSetup.createConfig();
+        try
+        {
+            final CollidableUpdaterBenchmark benchmark = new CollidableUpdaterBenchmark(config);
+            for (int i = 0; i < WARMUP; i++)
+            {
+                benchmark.run();
+            }
+            for (int i = 0; i < RUNS; i++)
+            {
+                final long start = System.nanoTime();
+                final int hits = benchmark.run();
+                final long elapsed = Math.max(1L, System.nanoTime() - start);
+                Verbose.info("Swept collision: ",
+                             String.valueOf(PAIRS * Constant.ONE_SECOND_IN_NANO / elapsed),
+                             " pairs/s (",
+                             String.valueOf(hits),
+                             " hits)");
+            }
+        }
+        finally
+        {
+            if (!config.getFile().delete())
+            {
+                Verbose.warning("Unable to delete: ", config.getPath());
+            }
+            Graphics.setFactoryGraphic(null);
+            Medias.setResourcesDirectory(null);
+        }
+    }
+
+    /** Moving featurable. */
+    private final Featurable featurable1;
+    /** Moving transformable. */
+    private final Transformable transformable1;
+    /** Other transformable. */
+    private final Transformable transformable2;
+    /** Other collidable. */
+    private final Collidable collidable2;
+    /** Moving collisions. */
+    private final List<Collision> collisions;
+    /** Accepted groups. */
+    private final Collection<Integer> accepted = Collections.singleton(Integer.valueOf(1));
+    /** Tested updater. */
+    private final CollidableUpdater updater = new CollidableUpdater();
+    /** Found collisions. */
+    private final List<Collision> found = new ArrayList<>();
+
+    /**
+     * Create benchmark.
+     * 
+     * @param config The featurable configuration.
+     */
+    private CollidableUpdaterBenchmark(Media config)
+    {
+        super();
+
+        final Services services = new Services();
+        services.add(new Camera());
+        featurable1 = CollidableModelTest.createFeaturable(config, services);
+        transformable1 = featurable1.getFeature(Transformable.class);
+        final Featurable featurable2 = CollidableModelTest.createFeaturable(config, services);
+        transformable2 = featurable2.getFeature(Transformable.class);
+        collidable2 = featurable2.getFeature(Collidable.class);
+        collidable2.setGroup(1);
+        collidable2.addCollision(new Collision("other", 1, 2, 4, 3, false));
+        collisions = Arrays.asList(new Collision("test", 0, 0, 3, 5, false));
+        updater.setEnabled(true);
+    }
+
+    /**
+     * Check random moving pairs, with the same seed on each run.
+     * 
+     * @return The number of pairs colliding.
+     */
+    private int run()
+    {
+        final Random random = new Random(42L);
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++)
+        {
+            transformable1.teleport(random.nextInt(40), random.nextInt(40));
+            transformable1.moveLocation(1.0, random.nextInt(21) - 10.0, random.nextInt(21) - 10.0);
+            transformable2.teleport(random.nextInt(40), random.nextInt(40));
+            updater.notifyTransformed(Origin.TOP_LEFT, featurable1, transformable1, collisions);
+            updater.collide(Origin.TOP_LEFT, featurable1, transformable1, collidable2, accepted, found);
+            if (!found.isEmpty())
+            {
+                hits++;
+                found.clear();
+            }
+        }
+        return hits;
+    }
+}
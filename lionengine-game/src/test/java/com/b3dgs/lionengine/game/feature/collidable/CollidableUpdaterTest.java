@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Origin;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.geom.Area;
+import com.b3dgs.lionengine.geom.Rectangle;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link CollidableUpdater}.
+ */
+public final class CollidableUpdaterTest
+{
+    /** Checked pairs. */
+    private static final int PAIRS = 20_000;
+    /** Margin used to detect edges contact. */
+    private static final double EPSILON = 0.000_001;
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Sweep rectangle one unit step at a time, as reference.
+     * 
+     * @param rectangle The collision rectangle.
+     * @param transformable The moved transformable.
+     * @param origin The origin used.
+     * @param other The other collidable.
+     * @param margin The margin added around other areas.
+     * @return <code>true</code> if collide, <code>false</code> else.
+     */
+    private static boolean sweep(Rectangle rectangle,
+                                 Transformable transformable,
+                                 Origin origin,
+                                 Collidable other,
+                                 double margin)
+    {
+        final Rectangle current = new Rectangle(rectangle.getX(),
+                                                rectangle.getY(),
+                                                rectangle.getWidthReal(),
+                                                rectangle.getHeightReal());
+        final double sh = origin.getX(transformable.getOldX(), current.getWidthReal());
+        final double sv = origin.getY(transformable.getOldY(), current.getHeightReal());
+        final double dh = origin.getX(transformable.getX(), current.getWidthReal()) - sh;
+        final double dv = origin.getY(transformable.getY(), current.getHeightReal()) - sv;
+        final double norm = Math.sqrt(dh * dh + dv * dv);
+        final double sx = Double.compare(norm, 0.0) == 0 ? 0.0 : dh / norm;
+        final double sy = Double.compare(norm, 0.0) == 0 ? 0.0 : dv / norm;
+
+        for (int count = 0; count <= norm; count++)
+        {
+            for (final Area area : other.getCollisionBounds())
+            {
+                if (current.intersects(new Rectangle(area.getX() - margin,
+                                                     area.getY() - margin,
+                                                     area.getWidthReal() + margin * 2.0,
+                                                     area.getHeightReal() + margin * 2.0)))
+                {
+                    return true;
+                }
+            }
+            current.translate(sx, sy);
+        }
+        return false;
+    }
+
+    /**
+     * Test the swept collision against the unit step sweep. Edges contact cases are skipped, as unit step sweep result
+     * depends on translations rounding.
+     */
+    @Test
+    public void testSweep()
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final Featurable featurable1 = CollidableModelTest.createFeaturable(config, services);
+        final Transformable transformable1 = featurable1.getFeature(Transformable.class);
+        final Featurable featurable2 = CollidableModelTest.createFeaturable(config, services);
+        final Transformable transformable2 = featurable2.getFeature(Transformable.class);
+        final Collidable collidable2 = featurable2.getFeature(Collidable.class);
+        collidable2.setGroup(1);
+        collidable2.addCollision(new Collision("other", 1, 2, 4, 3, false));
+
+        final Collision collision = new Collision("test", 0, 0, 3, 5, false);
+        final List<Collision> collisions = Arrays.asList(collision);
+        final Collection<Integer> accepted = Collections.singleton(Integer.valueOf(1));
+        final CollidableUpdater updater = new CollidableUpdater();
+        updater.setEnabled(true);
+
+        final Random random = new Random(42L);
+        final List<Collision> found = new ArrayList<>();
+        int hits = 0;
+        int contacts = 0;
+        for (int i = 0; i < PAIRS; i++)
+        {
+            transformable1.teleport(random.nextInt(40), random.nextInt(40));
+            transformable1.moveLocation(1.0, random.nextInt(21) - 10.0, random.nextInt(21) - 10.0);
+            transformable2.teleport(random.nextInt(40), random.nextInt(40));
+            updater.notifyTransformed(Origin.TOP_LEFT, featurable1, transformable1, collisions);
+
+            final Rectangle rectangle = (Rectangle) updater.getCollisionBounds().get(0);
+            final boolean inner = sweep(rectangle, transformable1, Origin.TOP_LEFT, collidable2, -EPSILON);
+            final boolean outer = sweep(rectangle, transformable1, Origin.TOP_LEFT, collidable2, EPSILON);
+
+            updater.collide(Origin.TOP_LEFT, featurable1, transformable1, collidable2, accepted, found);
+
+            if (inner == outer)
+            {
+                assertEquals(inner, !found.isEmpty());
+                if (inner)
+                {
+                    hits++;
+                }
+            }
+            else
+            {
+                contacts++;
+            }
+            found.clear();
+        }
+        assertTrue(hits > 0);
+        assertTrue(contacts < PAIRS / 10);
+    }
+}
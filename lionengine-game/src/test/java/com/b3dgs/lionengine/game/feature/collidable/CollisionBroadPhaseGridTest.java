@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link CollisionBroadPhaseGrid}.
+ */
+public final class CollisionBroadPhaseGridTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Services services = new Services();
+    @SuppressWarnings("unused") private final Camera camera = services.add(new Camera());
+    private final List<Collidable> checked = new ArrayList<>();
+
+    /**
+     * Create collidable.
+     * 
+     * @param group The collidable group.
+     * @param accept The accepted group.
+     * @param size The collision size.
+     * @return The created collidable.
+     */
+    private Collidable createCollidable(int group, int accept, int size)
+    {
+        final Featurable featurable = CollidableModelTest.createFeaturable(config, services);
+        final Collidable collidable = featurable.getFeature(Collidable.class);
+        collidable.setGroup(group);
+        collidable.addAccept(accept);
+        collidable.addCollision(new Collision("test", 0, 0, size, size, false));
+        featurable.getFeature(Transformable.class).teleport(0.0, 0.0);
+        return collidable;
+    }
+
+    /**
+     * Test constructor with invalid arguments.
+     */
+    @Test
+    public void testConstructorInvalid()
+    {
+        assertThrows(() -> new CollisionBroadPhaseGrid(0, 1, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new CollisionBroadPhaseGrid(1, 0, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new CollisionBroadPhaseGrid(1, 1, 0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test cells count and covered cells.
+     */
+    @Test
+    public void testCells()
+    {
+        final CollisionBroadPhaseGrid grid = new CollisionBroadPhaseGrid(100, 64, 32);
+
+        assertEquals(4, grid.getCellsX());
+        assertEquals(2, grid.getCellsY());
+
+        final Collidable collidable = createCollidable(0, 1, 4);
+        grid.add(collidable, 30.0, 30.0);
+
+        assertEquals(1, grid.getCount(0, 0));
+        assertEquals(1, grid.getCount(1, 0));
+        assertEquals(1, grid.getCount(0, 1));
+        assertEquals(1, grid.getCount(1, 1));
+        assertEquals(0, grid.getCount(2, 0));
+
+        grid.remove(collidable, 30.0, 30.0);
+
+        assertEquals(0, grid.getCount(0, 0));
+        assertEquals(0, grid.getCount(1, 1));
+
+        grid.add(collidable, -50.0, 500.0);
+
+        assertEquals(1, grid.getCount(0, 1));
+
+        grid.remove(collidable, -50.0, 500.0);
+
+        assertEquals(0, grid.getCount(0, 1));
+    }
+
+    /**
+     * Test pairs are checked once, only for accepted groups.
+     */
+    @Test
+    public void testCheck()
+    {
+        final CollisionBroadPhaseGrid grid = new CollisionBroadPhaseGrid(256, 256, 16);
+        final Collidable collidable1 = createCollidable(1, 0, 40);
+        final Collidable collidable2 = createCollidable(0, 2, 40);
+        final Collidable collidable3 = createCollidable(2, 3, 40);
+
+        grid.add(collidable1, 10.0, 10.0);
+        grid.add(collidable2, 20.0, 20.0);
+        grid.add(collidable3, 200.0, 200.0);
+        grid.check((a, b) ->
+        {
+            checked.add(a);
+            checked.add(b);
+        });
+
+        assertEquals(2, checked.size());
+        assertEquals(collidable1, checked.get(0));
+        assertEquals(collidable2, checked.get(1));
+
+        checked.clear();
+        grid.remove(collidable3, 200.0, 200.0);
+        grid.add(collidable3, 30.0, 30.0);
+        grid.check((a, b) ->
+        {
+            checked.add(a);
+            checked.add(b);
+        });
+
+        assertEquals(4, checked.size());
+        assertTrue(checked.contains(collidable3));
+
+        checked.clear();
+        grid.remove(collidable1, 10.0, 10.0);
+        grid.remove(collidable2, 20.0, 20.0);
+        grid.remove(collidable3, 30.0, 30.0);
+        grid.check((a, b) -> checked.add(a));
+
+        assertTrue(checked.isEmpty());
+    }
+}
@@ -245,4 +245,36 @@ public final class ComponentCollisionTest
         assertNull(collide.get());
         assertNull(featurable1.called.get());
     }
+
+    /**
+     * Test collidable with grid broad phase.
+     */
+    @Test
+    public void testGrid()
+    {
+        final Handler handlerGrid = new Handler(services);
+        handlerGrid.addComponent(new ComponentCollision(new CollisionBroadPhaseGrid(512, 512, 32)));
+        handler.removeAll();
+        handler.update(1.0);
+        handlerGrid.add(featurable1);
+        handlerGrid.add(featurable2);
+        handlerGrid.update(1.0);
+
+        transformable1.teleport(31.0, 31.0);
+        transformable2.teleport(32.0, 32.0);
+
+        handlerGrid.update(1.0);
+
+        assertEquals(collidable1, collide.get());
+        assertEquals(collidable2, featurable1.called.get());
+
+        collide.set(null);
+        featurable1.called.set(null);
+        transformable1.teleport(64.0, 64.0);
+
+        handlerGrid.update(1.0);
+
+        assertNull(collide.get());
+        assertNull(featurable1.called.get());
+    }
 }
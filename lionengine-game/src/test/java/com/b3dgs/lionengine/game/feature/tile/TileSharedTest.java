@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertHashEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.tile.map.collision.TileCollision;
+import com.b3dgs.lionengine.game.feature.tile.map.collision.TileCollisionModel;
+
+/**
+ * Test {@link TileShared}.
+ */
+public final class TileSharedTest
+{
+    /**
+     * Test constructor with null features.
+     */
+    @Test
+    public void testConstructorNullFeatures()
+    {
+        assertThrows(() -> new TileShared(Integer.valueOf(0), 0, 0, 0, 1, 1, null), "Unexpected null argument !");
+    }
+
+    /**
+     * Test constructor with negative number.
+     */
+    @Test
+    public void testConstructorNegativeNumber()
+    {
+        assertThrows(() -> new TileShared(Integer.valueOf(0), -1, 0, 0, 1, 1, new FeaturableModel()),
+                     "Invalid argument: -1 is not superior or equal to 0");
+    }
+
+    /**
+     * Test the getters and shared features.
+     */
+    @Test
+    public void testShared()
+    {
+        final Featurable features = new FeaturableModel();
+        final TileShared tile = new TileShared(Integer.valueOf(0), 1, 16, 25, 4, 5, features);
+        final TileShared other = new TileShared(Integer.valueOf(0), 1, 32, 30, 4, 5, features);
+        tile.addFeature(new TileCollisionModel(tile));
+
+        assertEquals(Integer.valueOf(0), tile.getSheet());
+        assertEquals(1, tile.getNumber());
+        assertEquals(16, tile.getX());
+        assertEquals(25, tile.getY());
+        assertEquals(4, tile.getInTileX());
+        assertEquals(5, tile.getInTileY());
+        assertEquals(4, tile.getWidth());
+        assertEquals(5, tile.getHeight());
+        assertEquals(1, tile.getInTileWidth());
+        assertEquals(1, tile.getInTileHeight());
+
+        assertTrue(other.hasFeature(TileCollision.class));
+        assertEquals(tile.getFeature(TileCollision.class), other.getFeature(TileCollision.class));
+
+        final TileShared alone = new TileShared(Integer.valueOf(0), 1, 0, 0, 4, 5, new FeaturableModel());
+
+        assertFalse(alone.hasFeature(TileCollision.class));
+    }
+
+    /**
+     * Test the equals and hash code.
+     */
+    @Test
+    public void testEquals()
+    {
+        final TileShared tile = new TileShared(Integer.valueOf(0), 1, 16, 25, 4, 5, new FeaturableModel());
+        final TileShared same = new TileShared(Integer.valueOf(0), 1, 16, 25, 4, 5, new FeaturableModel());
+
+        assertEquals(tile, same);
+        assertHashEquals(tile, same);
+        assertNotEquals(tile, new TileGame(Integer.valueOf(0), 1, 16, 25, 4, 5));
+
+        assertNotEquals(tile, null);
+        assertNotEquals(tile, new TileShared(Integer.valueOf(0), 1, 0, 25, 4, 5, new FeaturableModel()));
+        assertNotEquals(tile, new TileShared(Integer.valueOf(1), 1, 16, 25, 4, 5, new FeaturableModel()));
+    }
+
+    /**
+     * Test the to string.
+     */
+    @Test
+    public void testToString()
+    {
+        assertEquals("sheet = 0 | number = 1 | tx = 2 | ty = 3",
+                     new TileShared(Integer.valueOf(0), 1, 32, 48, 16, 16, new FeaturableModel()).toString());
+    }
+}
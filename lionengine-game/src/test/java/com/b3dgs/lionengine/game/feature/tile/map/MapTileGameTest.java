@@ -30,6 +30,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,9 @@ import org.junit.jupiter.api.Test;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileShared;
+import com.b3dgs.lionengine.game.feature.tile.map.collision.TileCollision;
+import com.b3dgs.lionengine.game.feature.tile.map.collision.TileCollisionModel;
 import com.b3dgs.lionengine.geom.Geom;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphics;
@@ -277,19 +281,101 @@ public final class MapTileGameTest
         map.create(16, 16, 3, 3);
 
         final AtomicReference<Tile> set = new AtomicReference<>();
-        final TileSetListener listener = tile -> set.set(tile);
+        final AtomicInteger removed = new AtomicInteger();
+        final TileSetListener listener = new TileSetListener()
+        {
+            @Override
+            public void onTileSet(Tile tile)
+            {
+                set.set(tile);
+            }
+
+            @Override
+            public void onTileRemoved(int tx, int ty)
+            {
+                removed.set(tx * 10 + ty + 1);
+            }
+        };
         map.addListener(listener);
 
-        final Tile tile = map.createTile(Integer.valueOf(0), 0, 0.0, 0.0);
+        final Tile tile = map.createTile(Integer.valueOf(0), 0, 16.0, 32.0);
         map.setTile(tile);
 
         assertEquals(tile, set.get());
 
+        map.removeTile(0, 0);
+
+        assertEquals(0, removed.get());
+
+        map.removeTile(1, 2);
+
+        assertEquals(13, removed.get());
+
         set.set(null);
+        removed.set(0);
         map.removeListener(listener);
 
         map.setTile(tile);
+        map.removeTile(1, 2);
 
         assertNull(set.get());
+        assertEquals(0, removed.get());
+    }
+
+    /**
+     * Test compact storage, with shared tiles cached on access and other tiles kept.
+     */
+    @Test
+    public void testCompact()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        compact.create(16, 16, 3, 3);
+        compact.setTile(compact.createTile(Integer.valueOf(2), 5, 16.0, 32.0));
+
+        assertEquals(1, compact.getTilesNumber());
+        assertNull(compact.getTile(0, 0));
+
+        final Tile tile = compact.getTile(1, 2);
+
+        assertEquals(2, tile.getSheet().intValue());
+        assertEquals(5, tile.getNumber());
+        assertEquals(16.0, tile.getX());
+        assertEquals(32.0, tile.getY());
+        assertEquals(tile, compact.getTile(1, 2));
+        assertTrue(tile == compact.getTile(1, 2));
+        assertTrue(tile instanceof TileShared);
+
+        final Tile same = compact.createTile(Integer.valueOf(2), 5, 0.0, 0.0);
+        same.addFeature(new TileCollisionModel(same));
+
+        assertTrue(tile.hasFeature(TileCollision.class));
+
+        compact.resize(4, 4);
+
+        assertEquals(tile, compact.getTile(1, 2));
+        assertEquals(1, compact.getTilesNumber());
+
+        final AtomicReference<Tile> set = new AtomicReference<>();
+        compact.addListener(set::set);
+        final Tile kept = compact.createTile(Integer.valueOf(0), 1, 48.0, 48.0);
+        compact.setTile(kept);
+
+        assertEquals(kept, set.get());
+        assertEquals(kept, compact.getTile(3, 3));
+        assertThrows(() -> compact.setTile(compact.createTile(Integer.valueOf(0), 1 << 16, 0.0, 0.0)),
+                     "Invalid argument: 65536 is not inferior or equal to 65535");
+
+        compact.setTile(compact.createTile(Integer.valueOf(2), 6, 16.0, 32.0));
+
+        assertEquals(6, compact.getTile(1, 2).getNumber());
+        assertFalse(compact.getTile(1, 2).hasFeature(TileCollision.class));
+
+        compact.removeTile(1, 2);
+
+        assertNull(compact.getTile(1, 2));
+
+        compact.clear();
+
+        assertEquals(0, compact.getInTileWidth());
     }
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link FlowFields} and {@link FlowField}.
+ */
+public final class FlowFieldsTest
+{
+    /** Map size in tile. */
+    private static final int SIZE = 8;
+    /** Wall location. */
+    private static final int WALL = 3;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /** The services reference. */
+    private final Services services = new Services();
+    /** Map. */
+    private final MapTile map = services.create(MapTileGame.class);
+    /** Pathfindable configuration. */
+    private Media config;
+    /** Pathfinding configuration. */
+    private Media pathfinding;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void prepare()
+    {
+        services.add(new Camera());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, SIZE, SIZE);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+        for (int ty = 0; ty < SIZE - 1; ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, WALL, ty));
+        }
+
+        config = PathFinderImplTest.createPathfindable();
+        pathfinding = PathFinderImplTest.createPathfinding();
+
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel(services));
+        mapPath.loadPathfinding(pathfinding);
+    }
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    public void clean()
+    {
+        assertTrue(config.getFile().delete());
+        assertTrue(pathfinding.getFile().delete());
+    }
+
+    /**
+     * Create the mover located at tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The mover.
+     */
+    private Pathfindable createMover(int tx, int ty)
+    {
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel();
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+        transformable.setSize(1, 1);
+        transformable.teleport(tx, ty);
+
+        return object.addFeatureAndGet(new PathfindableModel(services, setup));
+    }
+
+    /**
+     * Test field generation and following.
+     */
+    @Test
+    public void testField()
+    {
+        final FlowFields fields = new FlowFields(services);
+        final Pathfindable mover = createMover(0, 0);
+        final FlowField field = fields.get(mover, 6, 0);
+
+        assertEquals(6, field.getDestinationX());
+        assertEquals(0, field.getDestinationY());
+        assertTrue(field.isReachable(0, 0));
+        assertFalse(field.isReachable(WALL, 0));
+        assertFalse(field.isReachable(-1, 0));
+        assertEquals(0.0, field.getCost(6, 0));
+        assertEquals(Double.POSITIVE_INFINITY, field.getCost(WALL, 0));
+        assertEquals(MovementTile.NONE, field.getMovement(6, 0));
+        assertNotEquals(MovementTile.NONE, field.getMovement(0, 0));
+
+        final Path path = new Path();
+        path.appendStep(0, 0);
+        path.setRefiner(field.follow(0, 0));
+        int i = 1;
+        while (i < path.getLength())
+        {
+            assertTrue(path.getX(i) != WALL || path.getY(i) == SIZE - 1);
+            assertTrue(field.getCost(path.getX(i), path.getY(i)) < field.getCost(path.getX(i - 1), path.getY(i - 1)));
+            i++;
+        }
+        assertEquals(6, path.getX(path.getLength() - 1));
+        assertEquals(0, path.getY(path.getLength() - 1));
+
+        assertTrue(mover.setDestination(field));
+        assertFalse(mover.isDestinationReached());
+    }
+
+    /**
+     * Test cache sharing, eviction and invalidation.
+     */
+    @Test
+    public void testCache()
+    {
+        final FlowFields fields = new FlowFields(services, 1);
+        final Pathfindable mover1 = createMover(0, 0);
+        final Pathfindable mover2 = createMover(1, 1);
+        final FlowField field = fields.get(mover1, 6, 0);
+
+        assertEquals(field, fields.get(mover2, 6, 0));
+        assertEquals(1, fields.getGenerated());
+
+        assertNotNull(fields.get(mover1, 5, 0));
+        assertEquals(1, fields.getSize());
+        assertNotEquals(field, fields.get(mover1, 6, 0));
+        assertEquals(3, fields.getGenerated());
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, WALL, SIZE - 1));
+
+        assertEquals(0, fields.getSize());
+        assertFalse(fields.get(mover1, 6, 0).isReachable(0, 0));
+
+        assertNotNull(fields.get(mover1, 6, 0));
+        assertEquals(1, fields.getSize());
+
+        map.removeTile(WALL, SIZE - 1);
+
+        assertEquals(0, fields.getSize());
+
+        fields.clear();
+
+        assertEquals(0, fields.getSize());
+    }
+
+    /**
+     * Test dispose stops listening to map tiles.
+     */
+    @Test
+    public void testDispose()
+    {
+        final FlowFields fields = new FlowFields(services);
+        final Pathfindable mover = createMover(0, 0);
+
+        assertNotNull(fields.get(mover, 6, 0));
+
+        fields.dispose();
+
+        assertEquals(0, fields.getSize());
+
+        assertNotNull(fields.get(mover, 6, 0));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, WALL, SIZE - 1));
+        map.removeTile(WALL, SIZE - 1);
+
+        assertEquals(1, fields.getSize());
+    }
+}
@@ -18,8 +18,12 @@
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.Arrays;
+import java.util.HashSet;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -130,6 +134,36 @@ public final class MapTilePathModelTest
         assertEquals(2, coord.getY());
     }
 
+    /**
+     * Test the objects id by tile location.
+     */
+    @Test
+    public void testObjectsId()
+    {
+        final Integer id1 = Integer.valueOf(1);
+        final Integer id2 = Integer.valueOf(2);
+        mapPath.addObjectId(1, 2, id1);
+        mapPath.addObjectId(1, 2, id2);
+        mapPath.addObjectId(5, 5, id1);
+
+        assertEquals(new HashSet<>(Arrays.asList(id1, id2)), new HashSet<>(mapPath.getObjectsId(1, 2)));
+        assertTrue(mapPath.getObjectsId(2, 1).isEmpty());
+        assertTrue(mapPath.getObjectsId(5, 5).isEmpty());
+        assertTrue(mapPath.getObjectsId(-1, 0).isEmpty());
+
+        final Pathfindable pathfindable = createObject();
+
+        assertTrue(mapPath.isBlocked(pathfindable, 1, 2, false));
+        assertFalse(mapPath.isBlocked(pathfindable, 1, 2, true));
+
+        mapPath.removeObjectId(1, 2, id1);
+        mapPath.removeObjectId(1, 2, id2);
+        mapPath.removeObjectId(5, 5, id1);
+
+        assertTrue(mapPath.getObjectsId(1, 2).isEmpty());
+        assertFalse(mapPath.isBlocked(pathfindable, 1, 2, false));
+    }
+
     /**
      * Create object test.
      * 
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderHierarchical}.
+ */
+public final class PathFinderHierarchicalTest
+{
+    /** Map size in tile. */
+    private static final int SIZE = 32;
+    /** Cluster size in tile. */
+    private static final int CLUSTER = 8;
+    /** Wall location. */
+    private static final int WALL = 12;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /** The services reference. */
+    private final Services services = new Services();
+    /** Map. */
+    private final MapTile map = services.create(MapTileGame.class);
+    /** Pathfindable configuration. */
+    private Media config;
+    /** Pathfinding configuration. */
+    private Media pathfinding;
+    /** Path finder tested. */
+    private PathFinder finder;
+    /** Mover tested. */
+    private Pathfindable mover;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void prepare()
+    {
+        services.add(new Camera());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, SIZE, SIZE);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+        setWall(0, SIZE - 2);
+
+        config = PathFinderImplTest.createPathfindable();
+        pathfinding = PathFinderImplTest.createPathfinding();
+        final Xml root = new Xml(pathfinding);
+        root.writeString(PathfindingConfig.FINDER, PathFinderType.HIERARCHICAL.name());
+        root.writeInteger(PathfindingConfig.CLUSTER, CLUSTER);
+        root.save(pathfinding);
+
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel(services));
+        mapPath.loadPathfinding(pathfinding);
+        finder = mapPath.createPathFinder(SIZE * SIZE);
+
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel();
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+        transformable.setSize(1, 1);
+        transformable.teleport(0, 0);
+        mover = object.addFeatureAndGet(new PathfindableModel(services, setup));
+    }
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    public void clean()
+    {
+        assertTrue(config.getFile().delete());
+        assertTrue(pathfinding.getFile().delete());
+    }
+
+    /**
+     * Set tiles of the vertical wall.
+     * 
+     * @param from The first vertical tile.
+     * @param to The last vertical tile excluded.
+     */
+    private void setWall(int from, int to)
+    {
+        for (int ty = from; ty < to; ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, WALL, ty));
+        }
+    }
+
+    /**
+     * Check path is continuous, avoids wall, and ends at destination.
+     * 
+     * @param path The path to check.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @param gap The wall gap location.
+     */
+    private static void assertPath(Path path, int dtx, int dty, int gap)
+    {
+        assertEquals(0, path.getX(0));
+        assertEquals(0, path.getY(0));
+
+        int i = 1;
+        while (i < path.getLength())
+        {
+            assertTrue(Math.abs(path.getX(i) - path.getX(i - 1)) <= 1);
+            assertTrue(Math.abs(path.getY(i) - path.getY(i - 1)) <= 1);
+            assertTrue(path.getX(i) != WALL || path.getY(i) == gap);
+            i++;
+        }
+        assertEquals(dtx, path.getX(path.getLength() - 1));
+        assertEquals(dty, path.getY(path.getLength() - 1));
+    }
+
+    /**
+     * Test path through the wall gap, refined lazily.
+     */
+    @Test
+    public void testPath()
+    {
+        final Path path = finder.findPath(mover, SIZE - 2, 0, false);
+
+        assertNotNull(path);
+        assertTrue(path.getLength() < SIZE);
+
+        assertPath(path, SIZE - 2, 0, SIZE - 2);
+    }
+
+    /**
+     * Test destination in starting cluster.
+     */
+    @Test
+    public void testSameCluster()
+    {
+        final Path path = finder.findPath(mover, 5, 5, false);
+
+        assertNotNull(path);
+        assertPath(path, 5, 5, -1);
+    }
+
+    /**
+     * Test clusters updated on tile set.
+     */
+    @Test
+    public void testTileSet()
+    {
+        assertNotNull(finder.findPath(mover, SIZE - 2, 0, false));
+
+        setWall(SIZE - 2, SIZE);
+
+        assertNull(finder.findPath(mover, SIZE - 2, 0, false));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, WALL, 3));
+        final Path path = finder.findPath(mover, SIZE - 2, 0, false);
+
+        assertNotNull(path);
+        assertPath(path, SIZE - 2, 0, 3);
+    }
+
+    /**
+     * Test clusters updated on tile removed.
+     */
+    @Test
+    public void testTileRemoved()
+    {
+        assertNotNull(finder.findPath(mover, SIZE - 2, 0, false));
+
+        map.removeTile(WALL, SIZE - 2);
+        map.removeTile(WALL, SIZE - 1);
+
+        assertNull(finder.findPath(mover, SIZE - 2, 0, false));
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableConfig;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderImpl}.
+ */
+public final class PathFinderImplTest
+{
+    /** Map size in tile. */
+    private static final int SIZE = 8;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Create the pathfinding configuration, with walkable ground and blocking trees.
+     * 
+     * @return The pathfinding configuration.
+     */
+    static Media createPathfinding()
+    {
+        final Xml root = new Xml(PathfindingConfig.PATHFINDING);
+        final Xml ground = root.createChild(PathfindingConfig.TILE_PATH);
+        ground.writeString(PathfindingConfig.CATEGORY, UtilMap.GROUND);
+        ground.createChild(TileGroupsConfig.NODE_GROUP).setText(UtilMap.GROUND);
+
+        final Xml tree = root.createChild(PathfindingConfig.TILE_PATH);
+        tree.writeString(PathfindingConfig.CATEGORY, UtilMap.TREE);
+        tree.createChild(TileGroupsConfig.NODE_GROUP).setText(UtilMap.TREE);
+
+        final Media media = Medias.create(PathfindingConfig.FILENAME);
+        root.save(media);
+
+        return media;
+    }
+
+    /**
+     * Create the pathfindable configuration.
+     * 
+     * @return The pathfindable configuration.
+     */
+    static Media createPathfindable()
+    {
+        final Map<String, PathData> data = new HashMap<>();
+        data.put(UtilMap.GROUND, new PathData(UtilMap.GROUND, 1.0, false, EnumSet.allOf(MovementTile.class)));
+        data.put(UtilMap.TREE, new PathData(UtilMap.TREE, 1.0, true, EnumSet.allOf(MovementTile.class)));
+
+        final Xml root = new Xml("test");
+        root.add(FeaturableConfig.exportClass("class"));
+        root.add(FeaturableConfig.exportSetup("setup"));
+        root.add(PathfindableConfig.exports(data));
+
+        final Media media = Medias.create("pathfindable.xml");
+        root.save(media);
+
+        return media;
+    }
+
+    /** The services reference. */
+    private final Services services = new Services();
+    /** Map. */
+    private final MapTile map = services.create(MapTileGame.class);
+    /** Pathfindable configuration. */
+    private Media config;
+    /** Pathfinding configuration. */
+    private Media pathfinding;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void prepare()
+    {
+        services.add(new Camera());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, SIZE, SIZE);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+
+        config = createPathfindable();
+        pathfinding = createPathfinding();
+    }
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    public void clean()
+    {
+        assertTrue(config.getFile().delete());
+        assertTrue(pathfinding.getFile().delete());
+    }
+
+    /**
+     * Create pathfinding and the mover located at tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The mover.
+     */
+    private Pathfindable createMover(int tx, int ty)
+    {
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel(services));
+        mapPath.loadPathfinding(pathfinding);
+
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel();
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+        transformable.setSize(1, 1);
+        transformable.teleport(tx, ty);
+
+        return object.addFeatureAndGet(new PathfindableModel(services, setup));
+    }
+
+    /**
+     * Set a vertical wall of trees.
+     * 
+     * @param tx The horizontal wall location.
+     * @param height The wall height, starting from bottom.
+     */
+    private void setWall(int tx, int height)
+    {
+        for (int ty = 0; ty < height; ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tx, ty));
+        }
+    }
+
+    /**
+     * Test path in straight line.
+     */
+    @Test
+    public void testStraight()
+    {
+        final Pathfindable mover = createMover(0, 0);
+        final PathFinder finder = new PathFinderImpl(new PathSourceMap(map), SIZE * 2, new HeuristicClosest());
+        final Path path = finder.findPath(mover, 5, 0, false);
+
+        assertNotNull(path);
+        assertEquals(6, path.getLength());
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            assertEquals(i, path.getX(i));
+            assertEquals(0, path.getY(i));
+        }
+    }
+
+    /**
+     * Test path around a wall, with searches reusing the same finder.
+     */
+    @Test
+    public void testAroundWall()
+    {
+        setWall(3, SIZE - 1);
+
+        final Pathfindable mover = createMover(0, 0);
+        final PathFinder finder = new PathFinderImpl(new PathSourceMap(map), SIZE * 4, new HeuristicClosest());
+
+        for (int i = 0; i < 3; i++)
+        {
+            final Path path = finder.findPath(mover, 6, 0, false);
+
+            assertNotNull(path);
+            assertEquals(0, path.getX(0));
+            assertEquals(0, path.getY(0));
+            assertEquals(6, path.getX(path.getLength() - 1));
+            assertEquals(0, path.getY(path.getLength() - 1));
+
+            boolean crossed = false;
+            for (int step = 0; step < path.getLength(); step++)
+            {
+                assertTrue(path.getX(step) != 3 || path.getY(step) == SIZE - 1);
+                crossed |= path.getX(step) == 3;
+            }
+            assertTrue(crossed);
+        }
+    }
+
+    /**
+     * Test no path when destination is enclosed.
+     */
+    @Test
+    public void testNoPath()
+    {
+        setWall(3, SIZE);
+
+        final Pathfindable mover = createMover(0, 0);
+        final PathFinder finder = new PathFinderImpl(new PathSourceMap(map), SIZE * 4, new HeuristicClosest());
+
+        assertNull(finder.findPath(mover, 6, 0, false));
+        assertNotNull(finder.findPath(mover, 2, 5, false));
+        assertNull(finder.findPath(mover, 0, 0, false));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link PathSearchWorkspace}.
+ */
+public final class PathSearchWorkspaceTest
+{
+    /**
+     * Test lease and release reuse.
+     */
+    @Test
+    public void testLease()
+    {
+        final PathSearchWorkspace workspace = PathSearchWorkspace.lease(4, 4);
+        final PathSearchWorkspace other = PathSearchWorkspace.lease(4, 4);
+
+        assertNotEquals(workspace, other);
+
+        other.release();
+        workspace.release();
+
+        assertEquals(workspace, PathSearchWorkspace.lease(2, 2));
+        assertEquals(other, PathSearchWorkspace.lease(4, 4));
+
+        final PathSearchWorkspace bigger = PathSearchWorkspace.lease(8, 8);
+
+        assertNotEquals(workspace, bigger);
+        assertNotEquals(other, bigger);
+    }
+
+    /**
+     * Test open list ordering and node states.
+     */
+    @Test
+    public void testSearch()
+    {
+        final PathSearchWorkspace workspace = PathSearchWorkspace.lease(4, 4);
+
+        assertEquals(6, workspace.index(2, 1));
+        assertEquals(2, workspace.getX(6));
+        assertEquals(1, workspace.getY(6));
+
+        workspace.open(0);
+
+        assertEquals(0, workspace.close());
+        assertTrue(workspace.isOpenEmpty());
+
+        assertEquals(1, workspace.update(1, 0, 1.0, 5.0));
+        assertEquals(1, workspace.update(4, 0, 1.0, 3.0));
+        assertEquals(1, workspace.update(5, 0, 1.5, 4.0));
+        assertEquals(-1, workspace.update(5, 0, 2.0, 0.0));
+        assertEquals(4, workspace.peek());
+
+        assertEquals(1, workspace.update(1, 0, 0.5, 0.0));
+        assertEquals(4, workspace.close());
+        assertEquals(5, workspace.close());
+        assertEquals(1, workspace.close());
+        assertTrue(workspace.isOpenEmpty());
+
+        assertTrue(workspace.isReached(5));
+        assertEquals(0, workspace.getParent(5));
+        assertFalse(workspace.isReached(0));
+        assertFalse(workspace.isReached(15));
+
+        workspace.release();
+
+        final PathSearchWorkspace next = PathSearchWorkspace.lease(4, 4);
+
+        assertFalse(next.isReached(5));
+        assertEquals(1, next.update(5, 0, 1.0, 1.0));
+
+        next.release();
+    }
+}
@@ -42,4 +42,35 @@ public final class PathTest
         assertEquals(1, path.getX(0));
         assertEquals(2, path.getY(0));
     }
+
+    /**
+     * Test the refined length does not refine the path.
+     */
+    @Test
+    public void testRefinedLength()
+    {
+        final Path path = new Path();
+        path.prependStep(0, 0);
+        final int[] refined = new int[1];
+        path.setRefiner(p ->
+        {
+            refined[0]++;
+            p.appendStep(refined[0], 0);
+            return refined[0] < 10;
+        });
+
+        assertEquals(3, path.getLength());
+        assertEquals(1, path.getRefinedLength());
+
+        for (int i = 0; i < path.getRefinedLength(); i++)
+        {
+            path.getX(i);
+        }
+
+        assertEquals(3, path.getLength());
+
+        assertEquals(9, path.getX(9));
+        assertEquals(11, path.getLength());
+        assertEquals(11, path.getRefinedLength());
+    }
 }
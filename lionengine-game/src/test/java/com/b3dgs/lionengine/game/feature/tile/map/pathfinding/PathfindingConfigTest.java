@@ -17,13 +17,17 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
 
 /**
  * Test {@link PathfindingConfig}.
@@ -56,4 +60,27 @@ public final class PathfindingConfigTest
     {
         assertPrivateConstructor(PathfindingConfig.class);
     }
+
+    /**
+     * Test path finder type import.
+     */
+    @Test
+    public void testImportsFinder()
+    {
+        final Media media = Medias.create(PathfindingConfig.FILENAME);
+        final Xml root = new Xml(PathfindingConfig.PATHFINDING);
+        root.save(media);
+
+        assertEquals(PathFinderType.ASTAR, PathfindingConfig.importsFinder(media));
+        assertEquals(PathfindingConfig.DEFAULT_CLUSTER, PathfindingConfig.importsClusterSize(media));
+
+        root.writeString(PathfindingConfig.FINDER, PathFinderType.HIERARCHICAL.name());
+        root.writeInteger(PathfindingConfig.CLUSTER, 4);
+        root.save(media);
+
+        assertEquals(PathFinderType.HIERARCHICAL, PathfindingConfig.importsFinder(media));
+        assertEquals(4, PathfindingConfig.importsClusterSize(media));
+
+        assertTrue(media.getFile().delete());
+    }
 }
@@ -0,0 +1,457 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathfindingService}.
+ */
+public final class PathfindingServiceTest
+{
+    /** Map size in tile. */
+    private static final int SIZE = 8;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /** The services reference. */
+    private final Services services = new Services();
+    /** Map. */
+    private final MapTile map = services.create(MapTileGame.class);
+    /** Deferred searches. */
+    private final List<Runnable> tasks = new ArrayList<>();
+    /** Started moves count. */
+    private final AtomicInteger started = new AtomicInteger();
+    /** Pathfindable configuration. */
+    private Media config;
+    /** Pathfinding configuration. */
+    private Media pathfinding;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void prepare()
+    {
+        services.add(new Camera());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, SIZE, SIZE);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+
+        config = PathFinderImplTest.createPathfindable();
+        pathfinding = PathFinderImplTest.createPathfinding();
+
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel(services));
+        mapPath.loadPathfinding(pathfinding);
+    }
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    public void clean()
+    {
+        assertTrue(config.getFile().delete());
+        assertTrue(pathfinding.getFile().delete());
+    }
+
+    /**
+     * Create the mover located at tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The mover.
+     */
+    private Pathfindable createMover(int tx, int ty)
+    {
+        return createMover(tx, ty, null);
+    }
+
+    /**
+     * Create the mover located at tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param heuristic The search heuristic (<code>null</code> for default).
+     * @return The mover.
+     */
+    private Pathfindable createMover(int tx, int ty, Heuristic heuristic)
+    {
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel();
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+        transformable.setSize(1, 1);
+        transformable.teleport(tx, ty);
+
+        final Pathfindable pathfindable = object.addFeatureAndGet(new Mover(services, setup, heuristic));
+        pathfindable.addListener(new PathfindableListener()
+        {
+            @Override
+            public void notifyStartMove()
+            {
+                started.incrementAndGet();
+            }
+
+            @Override
+            public void notifyMoving()
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public void notifyArrived()
+            {
+                // Nothing to do
+            }
+        });
+        return pathfindable;
+    }
+
+    /**
+     * Run deferred searches.
+     */
+    private void runTasks()
+    {
+        for (final Runnable task : tasks)
+        {
+            task.run();
+        }
+        tasks.clear();
+    }
+
+    /**
+     * Test requests grouped by destination are searched off update, and applied on next update.
+     */
+    @Test
+    public void testRequest()
+    {
+        final PathfindingService service = new PathfindingService(services, tasks::add);
+        final Pathfindable mover1 = createMover(0, 0);
+        final Pathfindable mover2 = createMover(1, 0);
+        final Pathfindable mover3 = createMover(0, 5);
+
+        service.request(mover1, 6, 0);
+        service.request(mover2, 6, 0);
+        service.request(mover3, 6, 0, false);
+
+        assertEquals(3, service.getWaiting());
+
+        service.update(1.0, null);
+
+        assertEquals(2, tasks.size());
+        assertEquals(3, service.getWaiting());
+        assertEquals(0, started.get());
+
+        runTasks();
+        service.update(1.0, null);
+
+        assertEquals(0, service.getWaiting());
+        assertEquals(3, started.get());
+        assertFalse(mover1.isDestinationReached());
+        assertFalse(mover2.isDestinationReached());
+        assertFalse(mover3.isDestinationReached());
+    }
+
+    /**
+     * Test only latest request of a mover is applied.
+     */
+    @Test
+    public void testLatestRequest()
+    {
+        final PathfindingService service = new PathfindingService(services, tasks::add);
+        final Pathfindable mover = createMover(0, 0);
+
+        service.request(mover, 6, 0);
+        service.update(1.0, null);
+        service.request(mover, 3, 3);
+        runTasks();
+        service.update(1.0, null);
+
+        assertEquals(0, started.get());
+        assertEquals(1, service.getWaiting());
+
+        runTasks();
+        service.update(1.0, null);
+
+        assertEquals(1, started.get());
+        assertEquals(0, service.getWaiting());
+    }
+
+    /**
+     * Test search uses the mover heuristic, and a failed search releases its request.
+     */
+    @Test
+    public void testSearchFailure()
+    {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger(1);
+        final Heuristic heuristic = (sx, sy, dx, dy) ->
+        {
+            calls.incrementAndGet();
+            if (failures.getAndDecrement() > 0)
+            {
+                throw new IllegalStateException();
+            }
+            return Math.abs(dx - sx) + (double) Math.abs(dy - sy);
+        };
+        final PathfindingService service = new PathfindingService(services, tasks::add);
+        final Pathfindable mover = createMover(0, 0, heuristic);
+
+        Verbose.info("*********************************** EXPECTED VERBOSE ***********************************");
+        service.request(mover, 6, 0);
+        service.update(1.0, null);
+        runTasks();
+        service.update(1.0, null);
+        Verbose.info("****************************************************************************************");
+
+        assertEquals(0, service.getWaiting());
+        assertEquals(0, started.get());
+
+        service.request(mover, 6, 0);
+        service.update(1.0, null);
+        runTasks();
+        service.update(1.0, null);
+
+        assertEquals(0, service.getWaiting());
+        assertEquals(1, started.get());
+        assertTrue(calls.get() > 1);
+    }
+
+    /**
+     * Test a path found while moving is followed from next step point, instead of being searched again.
+     */
+    @Test
+    public void testApplyWhileMoving()
+    {
+        final PathfindingService service = new PathfindingService(services, Runnable::run);
+        final Pathfindable mover = createMover(0, 0);
+
+        service.request(mover, 6, 0);
+        service.update(1.0, null);
+        service.update(1.0, null);
+        mover.update(1.0);
+
+        assertTrue(mover.isMoving());
+
+        final Path detour = new Path();
+        detour.prependStep(1, 4);
+        detour.prependStep(2, 3);
+        detour.prependStep(3, 2);
+        detour.prependStep(2, 1);
+        detour.prependStep(1, 0);
+        detour.prependStep(0, 0);
+
+        assertFalse(mover.setDestination(detour, 1, 4));
+
+        boolean visited = false;
+        for (int i = 0; i < 100 && !mover.isDestinationReached(); i++)
+        {
+            mover.update(1.0);
+            visited |= mover.getInTileX() == 3 && mover.getInTileY() == 2;
+        }
+
+        assertTrue(visited);
+        assertTrue(mover.isDestinationReached());
+        assertEquals(1, mover.getInTileX());
+        assertEquals(4, mover.getInTileY());
+    }
+
+    /**
+     * Test a path supplied while moving, which does not contain mover location, is searched again from location.
+     */
+    @Test
+    public void testLeftPath()
+    {
+        final Pathfindable mover = createMover(0, 0);
+
+        assertTrue(mover.setDestination(3, 0));
+
+        mover.update(1.0);
+
+        assertTrue(mover.isMoving());
+
+        final Path far = new Path();
+        far.prependStep(1, 6);
+        far.prependStep(0, 6);
+
+        assertFalse(mover.setDestination(far, 1, 6));
+
+        boolean visited = false;
+        for (int i = 0; i < 100 && !mover.isDestinationReached(); i++)
+        {
+            mover.update(1.0);
+            visited |= mover.getInTileX() == 0 && mover.getInTileY() == 6;
+        }
+
+        assertFalse(visited);
+        assertTrue(mover.isDestinationReached());
+        assertEquals(1, mover.getInTileX());
+        assertEquals(6, mover.getInTileY());
+    }
+
+    /**
+     * Test requests are grouped only with equal heuristic.
+     */
+    @Test
+    public void testHeuristicGroup()
+    {
+        final PathfindingService service = new PathfindingService(services, tasks::add);
+
+        service.request(createMover(0, 0, new HeuristicManhattan(1)), 6, 0);
+        service.request(createMover(1, 0, new HeuristicManhattan(1)), 6, 0);
+        service.request(createMover(0, 1, new HeuristicManhattan(2)), 6, 0);
+        service.update(1.0, null);
+
+        assertEquals(2, tasks.size());
+
+        runTasks();
+        service.update(1.0, null);
+
+        assertEquals(3, started.get());
+    }
+
+    /**
+     * Test tiles snapshot is captured again after a tile change.
+     */
+    @Test
+    public void testTileChanged()
+    {
+        final PathfindingService service = new PathfindingService(services, Runnable::run);
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 4, ty));
+        }
+        final Pathfindable mover = createMover(0, 2);
+        service.request(mover, 6, 2);
+        service.update(1.0, null);
+        service.update(1.0, null);
+        for (int i = 0; i < 100; i++)
+        {
+            mover.update(1.0);
+        }
+
+        assertTrue(mover.getInTileX() < 4);
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 4, 2));
+        service.request(mover, 6, 2);
+        service.update(1.0, null);
+        service.update(1.0, null);
+        for (int i = 0; i < 100 && !mover.isDestinationReached(); i++)
+        {
+            mover.update(1.0);
+        }
+
+        assertEquals(6, mover.getInTileX());
+        assertEquals(2, mover.getInTileY());
+
+        service.dispose();
+    }
+
+    /**
+     * Test with same thread executor.
+     */
+    @Test
+    public void testSameThread()
+    {
+        final PathfindingService service = new PathfindingService(services, Runnable::run);
+        final Pathfindable mover = createMover(0, 0);
+
+        service.request(mover, 0, 0);
+        service.update(1.0, null);
+        service.update(1.0, null);
+
+        assertEquals(0, service.getWaiting());
+        assertEquals(0, started.get());
+    }
+
+    /**
+     * Mover with custom search heuristic.
+     */
+    private static final class Mover extends PathfindableModel implements Pathfindable
+    {
+        /** Search heuristic (<code>null</code> for default). */
+        private final Heuristic heuristic;
+
+        /**
+         * Create mover.
+         * 
+         * @param services The services reference.
+         * @param setup The setup reference.
+         * @param heuristic The search heuristic (<code>null</code> for default).
+         */
+        Mover(Services services, Setup setup, Heuristic heuristic)
+        {
+            super(services, setup);
+
+            this.heuristic = heuristic;
+        }
+
+        @Override
+        public Heuristic getHeuristic()
+        {
+            if (heuristic != null)
+            {
+                return heuristic;
+            }
+            return super.getHeuristic();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 
 import org.junit.jupiter.api.AfterAll;
@@ -37,6 +38,8 @@ import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.TileSheetsConfig;
+import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
+import com.b3dgs.lionengine.io.FileWriting;
 
 /**
  * Test {@link MapTilePersisterModel}.
@@ -106,6 +109,179 @@ public final class MapTilePersisterModelTest
         assertTrue(level.getFile().delete());
     }
 
+    /**
+     * Test the save as regions and load map from file.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveRegionsLoad() throws IOException
+    {
+        final MapTile map = UtilMapTilePersister.createMap();
+        final Media level = Medias.create("level");
+        try (FileWriting output = new FileWriting(level))
+        {
+            map.getFeature(MapTilePersister.class).saveRegions(output, 2);
+        }
+        final MapTile mapLoaded = UtilMapTilePersister.loadMap(level);
+
+        assertEquals(map.getInTileWidth(), mapLoaded.getInTileWidth());
+        assertEquals(map.getInTileHeight(), mapLoaded.getInTileHeight());
+        for (int x = 0; x < mapLoaded.getInTileWidth(); x++)
+        {
+            for (int y = 0; y < mapLoaded.getInTileHeight(); y++)
+            {
+                final Tile tile = mapLoaded.getTile(x, y);
+                if (y == 0)
+                {
+                    assertNull(tile);
+                }
+                else
+                {
+                    assertEquals(x * y, tile.getNumber());
+                    assertEquals(x * mapLoaded.getTileWidth(), tile.getX());
+                    assertEquals(y * mapLoaded.getTileHeight(), tile.getY());
+                }
+            }
+        }
+        assertEquals(map.getTilesNumber(), mapLoaded.getTilesNumber());
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Save map with compact format.
+     * 
+     * @param map The map to save.
+     * @param level The level media.
+     * @param compress <code>true</code> to deflate.
+     * @throws IOException If error.
+     */
+    private static void saveCompact(MapTile map, Media level, boolean compress) throws IOException
+    {
+        try (FileWriting output = new FileWriting(level))
+        {
+            map.getFeature(MapTilePersister.class).saveCompact(output, compress);
+        }
+    }
+
+    /**
+     * Test the save as compact, with and without compression, and load map from file.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveCompactLoad() throws IOException
+    {
+        final MapTile map = UtilMapTilePersister.createMap();
+        final Media level = Medias.create("level");
+
+        for (final boolean compress : new boolean[]
+        {
+            false, true
+        })
+        {
+            saveCompact(map, level, compress);
+            final MapTile mapLoaded = UtilMapTilePersister.loadMap(level);
+
+            assertEquals(map.getTileWidth(), mapLoaded.getTileWidth());
+            assertEquals(map.getTileHeight(), mapLoaded.getTileHeight());
+            assertEquals(map.getInTileWidth(), mapLoaded.getInTileWidth());
+            assertEquals(map.getInTileHeight(), mapLoaded.getInTileHeight());
+            for (int x = 0; x < mapLoaded.getInTileWidth(); x++)
+            {
+                for (int y = 0; y < mapLoaded.getInTileHeight(); y++)
+                {
+                    final Tile tile = mapLoaded.getTile(x, y);
+                    if (y == 0)
+                    {
+                        assertNull(tile);
+                    }
+                    else
+                    {
+                        assertEquals(0, tile.getSheet().intValue());
+                        assertEquals(x * y, tile.getNumber());
+                        assertEquals(x * mapLoaded.getTileWidth(), tile.getX());
+                        assertEquals(y * mapLoaded.getTileHeight(), tile.getY());
+                    }
+                }
+            }
+            assertEquals(map.getTilesNumber(), mapLoaded.getTilesNumber());
+        }
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test the compact format size against blocs format on a large uniform map.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testCompactSize() throws IOException
+    {
+        final Services services = new Services();
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTilePersisterModel(services));
+        map.create(16, 16, 300, 200);
+        map.loadSheets(new ArrayList<SpriteTiled>());
+        for (int tx = 0; tx < map.getInTileWidth(); tx++)
+        {
+            for (int ty = 0; ty < map.getInTileHeight(); ty++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), tx % 4, tx * 16.0, ty * 16.0));
+            }
+        }
+
+        final Media blocs = Medias.create("blocs");
+        final Media compact = Medias.create("compact");
+        UtilMapTilePersister.saveMap(map, blocs);
+        saveCompact(map, compact, true);
+
+        assertTrue(compact.getFile().length() * 50 < blocs.getFile().length());
+
+        final MapTile mapLoaded = UtilMapTilePersister.loadMap(compact);
+
+        assertEquals(map.getTilesNumber(), mapLoaded.getTilesNumber());
+        assertEquals(3, mapLoaded.getTile(299, 199).getNumber());
+        assertTrue(blocs.getFile().delete());
+        assertTrue(compact.getFile().delete());
+    }
+
+    /**
+     * Test the compact format with corrupted data.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testCompactCorrupted() throws IOException
+    {
+        final Media level = Medias.create("level");
+        saveCompact(UtilMapTilePersister.createMap(), level, false);
+
+        final byte[] data = Files.readAllBytes(level.getFile().toPath());
+        data[data.length - 1]++;
+        Files.write(level.getFile().toPath(), data);
+
+        assertThrowsIo(() -> UtilMapTilePersister.loadMap(level), "Invalid map checksum");
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test the compact format with invalid tile sheet number.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testCompactInvalidSheet() throws IOException
+    {
+        final MapTile map = UtilMapTilePersister.createMap();
+        final Media level = Medias.create("level");
+        map.setTile(map.createTile(Integer.valueOf(Integer.MAX_VALUE), 0, 0, 0));
+        saveCompact(map, level, true);
+
+        assertThrowsIo(() -> UtilMapTilePersister.loadMap(level), "Sheet missing");
+        assertTrue(level.getFile().delete());
+    }
+
     /**
      * Test the save and load map from file with sheet config.
      * 
@@ -150,6 +326,40 @@ public final class MapTilePersisterModelTest
         assertTrue(level.getFile().delete());
     }
 
+    /**
+     * Test the save with more tiles in a bloc than format supports.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveBlocOverflow() throws IOException
+    {
+        final Services services = new Services();
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTilePersisterModel(services));
+        map.create(1, 1, 1, 65536);
+        map.loadSheets(new ArrayList<SpriteTiled>());
+
+        final Integer sheet = Integer.valueOf(0);
+        for (int y = 0; y < map.getInTileHeight(); y++)
+        {
+            map.setTile(map.createTile(sheet, 0, 0.0, y));
+        }
+
+        final Media level = Medias.create("level");
+        assertThrowsIo(() -> UtilMapTilePersister.saveMap(map, level),
+                       "Too many tiles for blocs format, use regions or compact: 65536");
+
+        assertEquals(0L, Files.size(level.getFile().toPath()));
+        assertTrue(level.getFile().delete());
+
+        map.removeTile(0, 0);
+        UtilMapTilePersister.saveMap(map, level);
+
+        assertEquals(65535, UtilMapTilePersister.loadMap(level).getTilesNumber());
+        assertTrue(level.getFile().delete());
+    }
+
     /**
      * Test the constructor with services with map.
      */
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
+import com.b3dgs.lionengine.io.FileWriting;
+
+/**
+ * Test {@link MapTileRegions}.
+ */
+public final class MapTileRegionsTest
+{
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Save a full 40x40 map as 10x10 regions.
+     * 
+     * @param level The level media.
+     * @throws IOException If error.
+     */
+    private static void saveRegions(Media level) throws IOException
+    {
+        final Services services = new Services();
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTilePersisterModel(services));
+        map.create(1, 1, 40, 40);
+        map.loadSheets(new ArrayList<SpriteTiled>());
+        for (int tx = 0; tx < map.getInTileWidth(); tx++)
+        {
+            for (int ty = 0; ty < map.getInTileHeight(); ty++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), tx + ty, tx, ty));
+            }
+        }
+        try (FileWriting output = new FileWriting(level))
+        {
+            map.getFeature(MapTilePersister.class).saveRegions(output, 10);
+        }
+    }
+
+    /**
+     * Test regions loaded and evicted around camera.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testStreaming() throws IOException
+    {
+        final Media level = Medias.create("regions");
+        saveRegions(level);
+
+        final Services services = new Services();
+        final MapTile map = services.add(new MapTileGame(true));
+        final Camera camera = services.add(new Camera());
+        camera.setView(0, 0, 10, 10, 10);
+
+        try (MapTileRegions regions = new MapTileRegions(services))
+        {
+            regions.open(level);
+            regions.setMargin(0);
+
+            assertEquals(40, map.getInTileWidth());
+            assertEquals(10, regions.getRegionSize());
+            assertEquals(16, regions.getRegionsNumber());
+            assertEquals(0, regions.getLoaded());
+            assertEquals(0, map.getTilesNumber());
+
+            regions.update(1.0);
+
+            assertEquals(4, regions.getLoaded());
+            assertTrue(regions.isLoaded(1, 1));
+            assertEquals(400, map.getTilesNumber());
+            assertEquals(12, map.getTile(5, 7).getNumber());
+
+            camera.teleport(30.0, 30.0);
+            regions.update(1.0);
+
+            assertEquals(1, regions.getLoaded());
+            assertFalse(regions.isLoaded(0, 0));
+            assertTrue(regions.isLoaded(3, 3));
+            assertNull(map.getTile(5, 7));
+            assertNotNull(map.getTile(35, 37));
+            assertEquals(72, map.getTile(35, 37).getNumber());
+            assertEquals(100, map.getTilesNumber());
+        }
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test open with the blocs format.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalidFormat() throws IOException
+    {
+        final Media level = Medias.create("level");
+        UtilMapTilePersister.saveMap(UtilMapTilePersister.createMap(), level);
+
+        final Services services = new Services();
+        services.add(new MapTileGame());
+        services.add(new Camera());
+        try (MapTileRegions regions = new MapTileRegions(services))
+        {
+            assertThrowsIo(() -> regions.open(level), "Not a regions map: " + level.getPath());
+        }
+        assertTrue(level.getFile().delete());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+
+/**
+ * Bit packed data reader, reading data written by {@link BitWriter}.
+ */
+final class BitReader
+{
+    /** Overflow error. */
+    private static final String ERROR_OVERFLOW = "Bit data overflow: ";
+
+    /** Read data. */
+    private byte[] data = new byte[0];
+    /** Data length in bits. */
+    private int length;
+    /** Current position in bits. */
+    private int position;
+
+    /**
+     * Create reader.
+     */
+    BitReader()
+    {
+        super();
+    }
+
+    /**
+     * Set data to read from start.
+     * 
+     * @param data The data to read.
+     */
+    public void reset(byte[] data)
+    {
+        this.data = data;
+        length = data.length * BitWriter.BYTE;
+        position = 0;
+    }
+
+    /**
+     * Read bits as an unsigned value.
+     * 
+     * @param count The number of bits to read (from 0 to {@link BitWriter#INT}).
+     * @return The read value.
+     * @throws IOException If not enough data.
+     */
+    public int read(int count) throws IOException
+    {
+        if (count > length - position)
+        {
+            throw new IOException(ERROR_OVERFLOW + String.valueOf(position + count));
+        }
+        int value = 0;
+        int remaining = count;
+        while (remaining > 0)
+        {
+            final int available = BitWriter.BYTE - (position & BitWriter.BYTE - 1);
+            final int bits = Math.min(available, remaining);
+            final int chunk = data[position >>> 3] >>> available - bits & (1 << bits) - 1;
+            value = value << bits | chunk;
+            position += bits;
+            remaining -= bits;
+        }
+        return value;
+    }
+
+    /**
+     * Get the number of bits remaining.
+     * 
+     * @return The remaining bits.
+     */
+    public int getRemaining()
+    {
+        return length - position;
+    }
+
+    /**
+     * Read a flag on one bit.
+     * 
+     * @return The read flag.
+     * @throws IOException If not enough data.
+     */
+    public boolean readBoolean() throws IOException
+    {
+        return read(1) == 1;
+    }
+
+    /**
+     * Read an unsigned value with its bit length.
+     * 
+     * @return The read value, to be considered as unsigned.
+     * @throws IOException If not enough data or invalid length.
+     */
+    public int readUnsigned() throws IOException
+    {
+        final int bits = read(BitWriter.LENGTH);
+        if (bits > BitWriter.INT)
+        {
+            throw new IOException(ERROR_OVERFLOW + String.valueOf(bits));
+        }
+        if (bits == 0)
+        {
+            return 0;
+        }
+        return 1 << bits - 1 | read(bits - 1);
+    }
+
+    /**
+     * Read a signed value with its bit length.
+     * 
+     * @return The read value.
+     * @throws IOException If not enough data or invalid length.
+     */
+    public int readSigned() throws IOException
+    {
+        final int value = readUnsigned();
+        return value >>> 1 ^ -(value & 1);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+
+/**
+ * Bit packed data writer, values being written most significant bit first.
+ * <p>
+ * Unsigned values are stored with their bit length followed by their bits (leading one excluded), so small values
+ * take only a few bits. Signed values are zig-zag mapped to unsigned before.
+ * </p>
+ * 
+ * @see BitReader
+ */
+final class BitWriter
+{
+    /** Bits per byte. */
+    static final int BYTE = 8;
+    /** Bits per integer. */
+    static final int INT = 32;
+    /** Bits used to store a value bit length. */
+    static final int LENGTH = 6;
+    /** Initial capacity in bytes. */
+    private static final int CAPACITY = 256;
+
+    /** Written data. */
+    private byte[] data = new byte[CAPACITY];
+    /** Current position in bits. */
+    private int position;
+
+    /**
+     * Create writer.
+     */
+    BitWriter()
+    {
+        super();
+    }
+
+    /**
+     * Clear written data.
+     */
+    public void clear()
+    {
+        Arrays.fill(data, 0, getSize(), (byte) 0);
+        position = 0;
+    }
+
+    /**
+     * Write the lowest bits of value.
+     * 
+     * @param value The value to write.
+     * @param count The number of bits to write (from 0 to {@link #INT}).
+     */
+    public void write(int value, int count)
+    {
+        ensure(count);
+        int remaining = count;
+        while (remaining > 0)
+        {
+            final int free = BYTE - (position & BYTE - 1);
+            final int bits = Math.min(free, remaining);
+            final int chunk = value >>> remaining - bits & (1 << bits) - 1;
+            data[position >>> 3] |= chunk << free - bits;
+            position += bits;
+            remaining -= bits;
+        }
+    }
+
+    /**
+     * Write a flag on one bit.
+     * 
+     * @param value The flag to write.
+     */
+    public void writeBoolean(boolean value)
+    {
+        write(value ? 1 : 0, 1);
+    }
+
+    /**
+     * Write an unsigned value with its bit length.
+     * 
+     * @param value The value to write, considered as unsigned.
+     */
+    public void writeUnsigned(int value)
+    {
+        final int length = INT - Integer.numberOfLeadingZeros(value);
+        write(length, LENGTH);
+        if (length > 1)
+        {
+            write(value, length - 1);
+        }
+    }
+
+    /**
+     * Write a signed value with its bit length.
+     * 
+     * @param value The value to write.
+     */
+    public void writeSigned(int value)
+    {
+        writeUnsigned(value << 1 ^ value >> INT - 1);
+    }
+
+    /**
+     * Get the number of written bytes, last one being padded.
+     * 
+     * @return The written bytes number.
+     */
+    public int getSize()
+    {
+        return (position + BYTE - 1) / BYTE;
+    }
+
+    /**
+     * Get a copy of written data.
+     * 
+     * @return The written data.
+     */
+    public byte[] toByteArray()
+    {
+        return Arrays.copyOf(data, getSize());
+    }
+
+    /**
+     * Ensure capacity for the bits to write.
+     * 
+     * @param count The number of bits to write.
+     */
+    private void ensure(int count)
+    {
+        final int size = (position + count + BYTE - 1) / BYTE;
+        if (size > data.length)
+        {
+            data = Arrays.copyOf(data, Math.max(size, data.length * 2));
+        }
+    }
+}
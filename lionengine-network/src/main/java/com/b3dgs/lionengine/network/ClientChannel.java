@@ -0,0 +1,499 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.List;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Client channel (bridge between server and client), using a non blocking channel.
+ * <p>
+ * Data are exchanged with direct buffers, filled and drained by the selector without blocking. Received data are
+ * framed as object stream block data (tag and length prefix), the format written by client object stream, and only
+ * complete blocks content is appended to decoder, partial ones being kept until next read. Sent data are framed the
+ * same way by an
+ * {@link ObjectOutputStream}, and written to channel on flush; what the channel could not accept is written when it
+ * becomes writable.
+ * </p>
+ * <p>
+ * Queued frames are not copied: each one is prefixed by its own block data header and written with pending data in a
+ * single gathering write. Only what the channel could not accept is copied to write buffer.
+ * </p>
+ * <p>
+ * Once {@link NetworkProtocol#VERSION_FRAMED} is negotiated, data are exchanged as is: received data are appended to
+ * decoder, and queued frames are written without header. Until negotiation, legacy blocks are extracted only once
+ * previous one is decoded, so data following the connection answer are read with the negotiated version.
+ * </p>
+ * 
+ * @see ServerTransport#SELECTOR
+ */
+final class ClientChannel extends ClientConnection
+{
+    /** Initial buffers capacity. */
+    private static final int CAPACITY = 16 * 1024;
+    /** Maximum buffers capacity, client is considered as stalled above. */
+    private static final int CAPACITY_MAX = 1024 * 1024;
+    /** Stream header size. */
+    private static final int HEADER = 4;
+    /** Long block data length size. */
+    private static final int LENGTH_LONG = 4;
+    /** Long block data header size. */
+    private static final int BLOCK_LONG = 1 + LENGTH_LONG;
+    /** Overflow error. */
+    private static final String ERROR_OVERFLOW = "Client buffer overflow: ";
+    /** Invalid stream error. */
+    private static final String ERROR_STREAM = "Invalid client stream: ";
+
+    /**
+     * Get a direct buffer with enough capacity, keeping current content.
+     * 
+     * @param buffer The current buffer, in fill mode.
+     * @param required The required remaining space.
+     * @return The buffer with enough remaining space, in fill mode.
+     * @throws IOException If required capacity is too large.
+     */
+    private static ByteBuffer ensure(ByteBuffer buffer, int required) throws IOException
+    {
+        if (buffer.remaining() >= required)
+        {
+            return buffer;
+        }
+        final int needed = buffer.position() + required;
+        if (needed > CAPACITY_MAX)
+        {
+            throw new IOException(ERROR_OVERFLOW + needed);
+        }
+        final ByteBuffer grown = ByteBuffer.allocateDirect(Math.min(CAPACITY_MAX,
+                                                                    Math.max(needed, buffer.capacity() * 2)));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    /** Channel reference. */
+    private final SocketChannel channel;
+    /** Selection key. */
+    private final SelectionKey key;
+    /** Channel output stream. */
+    private final OutputStream channelOut;
+    /** Legacy output stream. */
+    private final ObjectOutputStream out;
+    /** Read buffer, in fill mode. */
+    private ByteBuffer input = ByteBuffer.allocateDirect(CAPACITY);
+    /** Write buffer, in fill mode. */
+    private ByteBuffer output = ByteBuffer.allocateDirect(CAPACITY);
+    /** Gathering write buffers, reused. */
+    private ByteBuffer[] gather = new ByteBuffer[1];
+    /** Frames headers, reused. */
+    private ByteBuffer headers = ByteBuffer.allocate(0);
+    /** Stream header read flag. */
+    private boolean header;
+    /** Protocol version negotiated flag. */
+    private boolean negotiated;
+    /** Closed by client flag. */
+    private boolean closed;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param id The client id.
+     * @param channel The accepted channel.
+     * @param selector The selector to register to.
+     * @throws LionEngineException If error on client channel.
+     */
+    ClientChannel(byte id, SocketChannel channel, Selector selector)
+    {
+        super(id);
+
+        this.channel = channel;
+        try
+        {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            key = channel.register(selector, SelectionKey.OP_READ, this);
+            channelOut = new ChannelOutput();
+            out = new ObjectOutputStream(channelOut);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, "Cannot create client");
+        }
+    }
+
+    /**
+     * Read available data from channel, and extract complete data to decoder. Connection is marked as closed if end
+     * of stream is reached.
+     * 
+     * @throws IOException If error on reading or invalid data.
+     */
+    void read() throws IOException
+    {
+        int read;
+        do
+        {
+            input = ensure(input, 1);
+            read = channel.read(input);
+            if (read > 0)
+            {
+                input.flip();
+                extract();
+                input.compact();
+            }
+        }
+        while (read > 0);
+
+        if (read < 0)
+        {
+            closed = true;
+            key.cancel();
+        }
+    }
+
+    /**
+     * Write pending data to channel, and listen for writable channel if not fully written.
+     * 
+     * @throws IOException If error on writing.
+     */
+    void write() throws IOException
+    {
+        output.flip();
+        try
+        {
+            channel.write(output);
+        }
+        finally
+        {
+            output.compact();
+        }
+        updateInterest();
+    }
+
+    /**
+     * Update channel interest, listening for writable channel if pending data remain.
+     */
+    private void updateInterest()
+    {
+        if (key.isValid())
+        {
+            if (output.position() > 0)
+            {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+            else
+            {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    /**
+     * Reserve space in write buffer, writing pending data to channel first if needed.
+     * 
+     * @param length The space to reserve.
+     * @throws IOException If error on writing or client stalled.
+     */
+    private void reserve(int length) throws IOException
+    {
+        if (output.remaining() < length)
+        {
+            write();
+        }
+        output = ensure(output, length);
+    }
+
+    /**
+     * Extract complete data from remaining data of read buffer.
+     * 
+     * @throws IOException If invalid data.
+     */
+    private void extractRemaining() throws IOException
+    {
+        input.flip();
+        try
+        {
+            extract();
+        }
+        finally
+        {
+            input.compact();
+        }
+    }
+
+    /**
+     * Extract complete data from read buffer to decoder, in read mode. Partial data are left in buffer.
+     * 
+     * @throws IOException If invalid data.
+     */
+    private void extract() throws IOException
+    {
+        if (getVersion() >= NetworkProtocol.VERSION_FRAMED)
+        {
+            getDecoder().put(input, input.remaining());
+        }
+        else
+        {
+            extractBlocks();
+        }
+    }
+
+    /**
+     * Extract complete block data from read buffer to decoder, in read mode. Partial block is left in buffer, and until
+     * version is negotiated, a block is extracted only if decoder is empty.
+     * 
+     * @throws IOException If invalid data.
+     */
+    private void extractBlocks() throws IOException
+    {
+        if (!header)
+        {
+            if (input.remaining() < HEADER)
+            {
+                return;
+            }
+            if (input.getShort() != ObjectStreamConstants.STREAM_MAGIC
+                || input.getShort() != ObjectStreamConstants.STREAM_VERSION)
+            {
+                throw new IOException(ERROR_STREAM + getId());
+            }
+            header = true;
+        }
+        while (input.hasRemaining() && (negotiated || getDecoder().isEmpty()))
+        {
+            final int start = input.position();
+            final int length = readLength();
+            if (length < 0 || input.remaining() < length)
+            {
+                input.position(start);
+                return;
+            }
+            getDecoder().put(input, length);
+        }
+    }
+
+    /**
+     * Read next frame length.
+     * 
+     * @return The frame length, <code>-1</code> if not yet fully received.
+     * @throws IOException If invalid data.
+     */
+    private int readLength() throws IOException
+    {
+        final byte tag = input.get();
+        if (tag == ObjectStreamConstants.TC_BLOCKDATA)
+        {
+            if (input.hasRemaining())
+            {
+                return input.get() & 0xFF;
+            }
+        }
+        else if (tag == ObjectStreamConstants.TC_BLOCKDATALONG)
+        {
+            if (input.remaining() >= LENGTH_LONG)
+            {
+                return input.getInt();
+            }
+        }
+        else if (tag == ObjectStreamConstants.TC_RESET)
+        {
+            return 0;
+        }
+        else
+        {
+            throw new IOException(ERROR_STREAM + getId());
+        }
+        return -1;
+    }
+
+    /*
+     * ClientConnection
+     */
+
+    @Override
+    public void setVersion(int version)
+    {
+        super.setVersion(version);
+
+        negotiated = true;
+        try
+        {
+            extractRemaining();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+            closed = true;
+        }
+    }
+
+    @Override
+    protected void writeFrames(List<byte[]> queued) throws IOException
+    {
+        getOut().flush();
+
+        final int count = queued.size();
+        final boolean framed = getVersion() >= NetworkProtocol.VERSION_FRAMED;
+        final int step = framed ? 1 : 2;
+        final int length = 1 + count * step;
+        if (gather.length < length)
+        {
+            gather = new ByteBuffer[length];
+        }
+        if (!framed && headers.capacity() < count * BLOCK_LONG)
+        {
+            headers = ByteBuffer.allocate(count * BLOCK_LONG);
+        }
+        headers.clear();
+        output.flip();
+        gather[0] = output;
+        for (int i = 0; i < count; i++)
+        {
+            final byte[] frame = queued.get(i);
+            if (!framed)
+            {
+                final int start = headers.position();
+                headers.put(ObjectStreamConstants.TC_BLOCKDATALONG).putInt(frame.length);
+
+                final ByteBuffer prefix = headers.duplicate();
+                prefix.position(start);
+                prefix.limit(headers.position());
+                gather[1 + i * 2] = prefix;
+            }
+            gather[step + i * step] = ByteBuffer.wrap(frame);
+        }
+        try
+        {
+            channel.write(gather, 0, length);
+        }
+        finally
+        {
+            output.compact();
+            for (int i = 1; i < length; i++)
+            {
+                final ByteBuffer remaining = gather[i];
+                output = ensure(output, remaining.remaining());
+                output.put(remaining);
+            }
+            Arrays.fill(gather, null);
+            updateInterest();
+        }
+    }
+
+    @Override
+    public void terminate()
+    {
+        try
+        {
+            if (channel.isOpen())
+            {
+                write();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        key.cancel();
+        try
+        {
+            channel.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        setState(StateConnection.DISCONNECTED);
+    }
+
+    @Override
+    public void receiveMessages()
+    {
+        if (!negotiated && getDecoder().isEmpty())
+        {
+            try
+            {
+                extractRemaining();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                closed = true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    @Override
+    public OutputStream getOut()
+    {
+        if (getVersion() >= NetworkProtocol.VERSION_FRAMED)
+        {
+            return channelOut;
+        }
+        return out;
+    }
+
+    /**
+     * Stream writing to channel buffer, written to channel on flush.
+     */
+    private final class ChannelOutput extends OutputStream
+    {
+        /**
+         * Create output.
+         */
+        ChannelOutput()
+        {
+            super();
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            reserve(1);
+            output.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            reserve(len);
+            output.put(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException
+        {
+            ClientChannel.this.write();
+        }
+    }
+}
@@ -24,7 +24,7 @@ import java.net.SocketException;
 import com.b3dgs.lionengine.Verbose;
 
 /**
- * Client connection listener thread.
+ * Client connection listener thread. Accepted sockets are given to server, which adds them on its next receive.
  */
 final class ClientConnecter extends Thread
 {
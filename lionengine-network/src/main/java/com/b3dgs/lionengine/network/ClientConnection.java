@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client connection (bridge between server and client), independent from transport.
+ * <p>
+ * Frames are shared between connections and must not be modified once queued. They are sent together on
+ * {@link #sendFrames()}, and counted with received data.
+ * </p>
+ * <p>
+ * Connection starts with {@link NetworkProtocol#VERSION_LEGACY}, and switches its streams when the version negotiated
+ * during connection is set.
+ * </p>
+ */
+abstract class ClientConnection
+{
+    /** Frames to send. */
+    private final List<byte[]> frames = new ArrayList<>();
+    /** Received data decoder. */
+    private final FrameDecoder decoder = new FrameDecoder();
+    /** Client id. */
+    private final byte clientId;
+    /** Sent bytes. */
+    private long sentBytes;
+    /** Sent frames. */
+    private long sentFrames;
+    /** Received bytes. */
+    private long receivedBytes;
+    /** Received frames. */
+    private long receivedFrames;
+    /** State. */
+    private StateConnection state;
+    /** Name. */
+    private String name;
+    /** Protocol version. */
+    private int version = NetworkProtocol.VERSION_LEGACY;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param id The client id.
+     */
+    ClientConnection(byte id)
+    {
+        super();
+
+        clientId = id;
+    }
+
+    /**
+     * Terminate client.
+     */
+    public abstract void terminate();
+
+    /**
+     * Receive available data from the client, appended to {@link #getDecoder()}. Connection is closed on error.
+     */
+    public abstract void receiveMessages();
+
+    /**
+     * Check if connection has been closed by client.
+     * 
+     * @return <code>true</code> if closed, <code>false</code> else.
+     */
+    public abstract boolean isClosed();
+
+    /**
+     * Get the output stream of current protocol version. Data are sent on flush.
+     * 
+     * @return The output stream.
+     */
+    public abstract OutputStream getOut();
+
+    /**
+     * Write frames to the client, in one send if possible. Frames are encoded with current protocol version. Default
+     * implementation writes them to {@link #getOut()} and flushes once.
+     * 
+     * @param queued The frames to write.
+     * @throws IOException If error on writing.
+     */
+    protected void writeFrames(List<byte[]> queued) throws IOException
+    {
+        final int count = queued.size();
+        for (int i = 0; i < count; i++)
+        {
+            getOut().write(queued.get(i));
+        }
+        getOut().flush();
+    }
+
+    /**
+     * Write a message with current protocol version, sent on {@link #flush()}.
+     * 
+     * @param system The message system id.
+     * @param from The source id.
+     * @param dest The destination id.
+     * @param type The message type.
+     * @param body The message body.
+     * @param size The message body size.
+     * @throws IOException If error on writing.
+     */
+    public void send(byte system, byte from, byte dest, byte type, byte[] body, int size) throws IOException
+    {
+        sentBytes += NetworkProtocol.write(getOut(), version, true, system, from, dest, type, body, size);
+        sentFrames++;
+    }
+
+    /**
+     * Send written messages.
+     * 
+     * @throws IOException If error on sending.
+     */
+    public void flush() throws IOException
+    {
+        getOut().flush();
+    }
+
+    /**
+     * Set the protocol version negotiated with client. Input data received after are read with this version, and
+     * output data are written with it.
+     * 
+     * @param version The protocol version.
+     */
+    public void setVersion(int version)
+    {
+        this.version = version;
+    }
+
+    /**
+     * Get the protocol version.
+     * 
+     * @return The protocol version.
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Queue a frame, sent on next {@link #sendFrames()}.
+     * 
+     * @param frame The frame to queue (must not be modified after).
+     */
+    public void queue(byte[] frame)
+    {
+        frames.add(frame);
+    }
+
+    /**
+     * Send queued frames.
+     * 
+     * @throws IOException If error on sending, queued frames are discarded.
+     */
+    public void sendFrames() throws IOException
+    {
+        if (frames.isEmpty())
+        {
+            return;
+        }
+        try
+        {
+            writeFrames(frames);
+
+            final int count = frames.size();
+            for (int i = 0; i < count; i++)
+            {
+                sentBytes += frames.get(i).length;
+            }
+            sentFrames += count;
+        }
+        finally
+        {
+            frames.clear();
+        }
+    }
+
+    /**
+     * Count received data.
+     * 
+     * @param bytes The received bytes.
+     * @param count The received frames.
+     */
+    public void countReceived(int bytes, int count)
+    {
+        receivedBytes += bytes;
+        receivedFrames += count;
+    }
+
+    /**
+     * Get the received data decoder.
+     * 
+     * @return The decoder.
+     */
+    public FrameDecoder getDecoder()
+    {
+        return decoder;
+    }
+
+    /**
+     * Get the number of sent bytes.
+     * 
+     * @return The sent bytes.
+     */
+    public long getSentBytes()
+    {
+        return sentBytes;
+    }
+
+    /**
+     * Get the number of sent frames.
+     * 
+     * @return The sent frames.
+     */
+    public long getSentFrames()
+    {
+        return sentFrames;
+    }
+
+    /**
+     * Get the number of received bytes.
+     * 
+     * @return The received bytes.
+     */
+    public long getReceivedBytes()
+    {
+        return receivedBytes;
+    }
+
+    /**
+     * Get the number of received frames.
+     * 
+     * @return The received frames.
+     */
+    public long getReceivedFrames()
+    {
+        return receivedFrames;
+    }
+
+    /**
+     * Set the connection state.
+     * 
+     * @param state The connection state.
+     */
+    public void setState(StateConnection state)
+    {
+        this.state = state;
+    }
+
+    /**
+     * Get the current connection state.
+     * 
+     * @return The connection state.
+     */
+    public StateConnection getState()
+    {
+        return state;
+    }
+
+    /**
+     * Set the client name.
+     * 
+     * @param name The client name.
+     */
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Get the client name.
+     * 
+     * @return The client name.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Get the client id.
+     * 
+     * @return The client id.
+     */
+    public byte getId()
+    {
+        return clientId;
+    }
+}
@@ -17,15 +17,20 @@
  */
 package com.b3dgs.lionengine.network;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.ByteBuffer;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
@@ -37,21 +42,36 @@ import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 
 /**
  * Client implementation.
+ * <p>
+ * Object streams are used until the server announces a {@link NetworkProtocol} version supporting frames during
+ * connection, then buffered raw streams are used, and all complete frames are read on receive.
+ * </p>
  */
 final class ClientImpl extends NetworkModel<ConnectionListener> implements Client
 {
+    /** Empty body. */
+    private static final byte[] EMPTY = new byte[0];
+
     /** Ping timer. */
     private final Timing pingTimer;
     /** Ping request timer. */
     private final Timing pingRequestTimer;
     /** Average bandwidth. */
     private final Timing bandwidthTimer;
+    /** Received message header. */
+    private final FrameHeader header = new FrameHeader();
     /** Socket. */
     private Socket socket;
     /** Output stream. */
-    private ObjectOutputStream out;
+    private OutputStream out;
     /** Input stream. */
-    private ObjectInputStream in;
+    private DataInputStream in;
+    /** Protocol version. */
+    private int version;
+    /** Legacy system id read while expecting server version, <code>0</code> if none. */
+    private byte pending;
+    /** Connection established flag. */
+    private boolean established;
     /** Client id. */
     private byte clientId;
     /** Client name. */
@@ -123,22 +143,24 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         }
         listeners.clear();
         connected = false;
+        established = false;
         Verbose.info("Disconnected from the server !");
     }
 
     /**
      * Get the name value read from the stream.
      * 
+     * @param buffer The input data.
      * @return The name string.
      * @throws IOException In case of error.
      */
-    private String readString() throws IOException
+    private static String readString(DataInputStream buffer) throws IOException
     {
-        final int size = in.readByte();
+        final int size = buffer.readByte();
         if (size > 0)
         {
             final byte[] name = new byte[size];
-            if (in.read(name) != -1)
+            if (buffer.read(name) != -1)
             {
                 return new String(name, NetworkMessage.CHARSET);
             }
@@ -147,20 +169,111 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     }
 
     /**
-     * Update the message from its id.
+     * Send a message with current protocol version, without flushing.
+     * 
+     * @param system The message system id.
+     * @param dest The destination id.
+     * @param type The message type.
+     * @param body The message body.
+     * @throws IOException If error when writing data.
+     */
+    private void send(byte system, byte dest, byte type, byte[] body) throws IOException
+    {
+        bandwidth += NetworkProtocol.write(out, version, false, system, clientId, dest, type, body, body.length);
+    }
+
+    /**
+     * Send a message without body with current protocol version, and flush.
      * 
-     * @param messageSystemId The message system ID.
+     * @param system The message system id.
      * @throws IOException If error when writing data.
      */
-    private void updateMessage(byte messageSystemId) throws IOException
+    private void send(byte system) throws IOException
+    {
+        send(system, NetworkProtocol.SERVER, (byte) 0, EMPTY);
+        out.flush();
+    }
+
+    /**
+     * Read next legacy message.
+     * 
+     * @throws IOException If error when reading data.
+     */
+    private void receiveLegacy() throws IOException
+    {
+        final byte system;
+        if (pending != 0)
+        {
+            system = pending;
+            pending = 0;
+        }
+        else if (in.available() > 0)
+        {
+            system = in.readByte();
+        }
+        else
+        {
+            return;
+        }
+        header.readLegacy(system, in, true);
+        updateMessage(in);
+    }
+
+    /**
+     * Read all complete frames.
+     * 
+     * @throws IOException If error when reading data.
+     */
+    private void receiveFrames() throws IOException
     {
-        switch (messageSystemId)
+        while (connected && in.available() >= NetworkProtocol.LENGTH)
+        {
+            in.mark(NetworkProtocol.LENGTH);
+            final int length = in.readInt();
+            if (length < NetworkProtocol.HEADER || length > NetworkProtocol.FRAME_MAX)
+            {
+                throw new IOException("Invalid server frame length: " + length);
+            }
+            if (in.available() < length)
+            {
+                in.reset();
+                return;
+            }
+            final ByteBuffer frame = NetworkProtocol.acquire(length);
+            try
+            {
+                in.readFully(frame.array(), frame.arrayOffset(), length);
+                bandwidth += NetworkProtocol.LENGTH + length;
+                try (DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(frame.array(),
+                                                                                           frame.arrayOffset(),
+                                                                                           length)))
+                {
+                    header.read(buffer, length);
+                    updateMessage(buffer);
+                }
+            }
+            finally
+            {
+                NetworkProtocol.release(frame);
+            }
+        }
+    }
+
+    /**
+     * Update the message from its header.
+     * 
+     * @param buffer The message body.
+     * @throws IOException If error when writing data.
+     */
+    private void updateMessage(DataInputStream buffer) throws IOException
+    {
+        switch (header.getSystem())
         {
             case NetworkMessageSystemId.CONNECTING:
-                updateConnecting();
+                updateConnecting(buffer);
                 break;
             case NetworkMessageSystemId.CONNECTED:
-                updateConnected();
+                updateConnected(buffer);
                 break;
             case NetworkMessageSystemId.PING:
                 ping = (int) pingTimer.elapsed();
@@ -169,16 +282,16 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
                 kick();
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_CONNECTED:
-                updateOtherClientConnected();
+                updateOtherClientConnected(buffer);
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
-                updateOtherClientDisconnected();
+                updateOtherClientDisconnected(buffer);
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_RENAMED:
-                updateOtherClientRenamed();
+                updateOtherClientRenamed(buffer);
                 break;
             case NetworkMessageSystemId.USER_MESSAGE:
-                updateUserMessage();
+                updateUserMessage(buffer);
                 break;
             default:
                 break;
@@ -186,23 +299,51 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     }
 
     /**
-     * Update the connecting case.
+     * Update the connecting case. Server version is read if announced, and protocol switched after answer if frames
+     * are supported.
      * 
+     * @param buffer The message body.
      * @throws IOException If error when writing data.
      */
-    private void updateConnecting() throws IOException
+    private void updateConnecting(DataInputStream buffer) throws IOException
     {
         if (clientId == -1)
         {
-            // Receive id
-            clientId = in.readByte();
-            // Send the name
-            out.writeByte(NetworkMessageSystemId.CONNECTING);
-            out.writeByte(clientId);
-            final byte[] data = clientName.getBytes(NetworkMessage.CHARSET);
-            out.writeByte(data.length);
-            out.write(data);
+            // Receive id and server version
+            clientId = header.getDest();
+            byte server = NetworkProtocol.VERSION_LEGACY;
+            if (buffer.available() > 0)
+            {
+                // Older servers do not send their version, but may already send next message
+                final byte next = buffer.readByte();
+                if (next > 0)
+                {
+                    server = next;
+                }
+                else
+                {
+                    pending = next;
+                }
+            }
+            // Send the name with supported version
+            final ByteArrayOutputStream data = new ByteArrayOutputStream();
+            try (DataOutputStream body = new DataOutputStream(data))
+            {
+                final byte[] name = clientName.getBytes(NetworkMessage.CHARSET);
+                body.writeByte(name.length);
+                body.write(name);
+                body.writeByte(NetworkProtocol.VERSION);
+            }
+            send(NetworkMessageSystemId.CONNECTING, NetworkProtocol.SERVER, (byte) 0, data.toByteArray());
             out.flush();
+
+            if (server >= NetworkProtocol.VERSION_FRAMED)
+            {
+                // Nothing is buffered by object streams beyond last block read
+                version = Math.min(server, NetworkProtocol.VERSION);
+                out = new BufferedOutputStream(socket.getOutputStream());
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            }
             Verbose.info("Client: Performing connection to the server...");
         }
     }
@@ -210,13 +351,13 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     /**
      * Update the connected case.
      *
+     * @param buffer The message body.
      * @throws IOException If error when writing data.
      */
-    private void updateConnected() throws IOException
+    private void updateConnected(DataInputStream buffer) throws IOException
     {
-        byte cid = in.readByte();
         // Ensure the client id is the same
-        if (cid != clientId)
+        if (header.getDest() != clientId)
         {
             return;
         }
@@ -225,41 +366,41 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
             listener.notifyConnectionEstablished(Byte.valueOf(clientId), clientName);
         }
         // Read the client list
-        final int clientsNumber = in.readByte();
+        final int clientsNumber = buffer.readByte();
         for (int i = 0; i < clientsNumber; i++)
         {
-            cid = in.readByte();
-            final String cname = readString();
+            final byte cid = buffer.readByte();
+            final String cname = readString(buffer);
             for (final ConnectionListener listener : listeners)
             {
                 listener.notifyClientConnected(Byte.valueOf(cid), cname);
             }
         }
         // Message of the day if has
-        if (in.available() > 0)
+        if (buffer.available() > 0)
         {
-            final String motd = readString();
+            final String motd = readString(buffer);
             for (final ConnectionListener listener : listeners)
             {
                 listener.notifyMessageOfTheDay(motd);
             }
         }
         // Send the last answer
-        out.write(NetworkMessageSystemId.CONNECTED);
-        out.write(clientId);
-        out.flush();
+        send(NetworkMessageSystemId.CONNECTED);
+        established = true;
         Verbose.info("Client: Connected to the server !");
     }
 
     /**
      * Update the other client connected case.
      * 
+     * @param buffer The message body.
      * @throws IOException If error when writing data.
      */
-    private void updateOtherClientConnected() throws IOException
+    private void updateOtherClientConnected(DataInputStream buffer) throws IOException
     {
-        final byte cid = in.readByte();
-        final String cname = readString();
+        final byte cid = header.getFrom();
+        final String cname = readString(buffer);
         for (final ConnectionListener listener : listeners)
         {
             listener.notifyClientConnected(Byte.valueOf(cid), cname);
@@ -269,12 +410,13 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     /**
      * Update the other client disconnected case.
      * 
+     * @param buffer The message body.
      * @throws IOException If error when writing data.
      */
-    private void updateOtherClientDisconnected() throws IOException
+    private void updateOtherClientDisconnected(DataInputStream buffer) throws IOException
     {
-        final byte cid = in.readByte();
-        final String cname = readString();
+        final byte cid = header.getFrom();
+        final String cname = readString(buffer);
         for (final ConnectionListener listener : listeners)
         {
             listener.notifyClientDisconnected(Byte.valueOf(cid), cname);
@@ -284,12 +426,13 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     /**
      * Update the other client renamed case.
      * 
+     * @param buffer The message body.
      * @throws IOException If error when writing data.
      */
-    private void updateOtherClientRenamed() throws IOException
+    private void updateOtherClientRenamed(DataInputStream buffer) throws IOException
     {
-        final byte cid = in.readByte();
-        final String cname = readString();
+        final byte cid = header.getFrom();
+        final String cname = readString(buffer);
         for (final ConnectionListener listener : listeners)
         {
             listener.notifyClientNameChanged(Byte.valueOf(cid), cname);
@@ -297,29 +440,32 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     }
 
     /**
-     * Update the other client renamed case.
+     * Update the user message case.
      * 
+     * @param buffer The message body.
      * @throws IOException If error when writing data.
      */
-    private void updateUserMessage() throws IOException
+    private void updateUserMessage(DataInputStream buffer) throws IOException
     {
-        final byte from = in.readByte();
-        final byte dest = in.readByte();
-        final byte type = in.readByte();
-        final int size = in.readInt();
+        final byte from = header.getFrom();
+        final byte dest = header.getDest();
+        final byte type = header.getType();
+        final int size = header.getSize();
         if (size > 0)
         {
             final byte[] data = new byte[size];
-            if (in.read(data) != -1)
+            if (buffer.read(data) != -1)
             {
-                try (DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(data)))
+                try (DataInputStream message = new DataInputStream(new ByteArrayInputStream(data)))
                 {
-                    decodeMessage(type, from, dest, buffer);
+                    decodeMessage(type, from, dest, message);
                 }
             }
         }
-        final int headerSize = 4;
-        bandwidth += headerSize + size;
+        if (version < NetworkProtocol.VERSION_FRAMED)
+        {
+            bandwidth += NetworkProtocol.getSize(version, true, NetworkMessageSystemId.USER_MESSAGE, size);
+        }
     }
 
     /**
@@ -332,18 +478,15 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         try (ByteArrayOutputStream encode = message.encode())
         {
             final byte[] encoded = encode.toByteArray();
-            // Message header
-            out.writeByte(NetworkMessageSystemId.USER_MESSAGE);
-            out.writeByte(message.getClientId());
-            out.writeByte(message.getClientDestId());
-            out.writeByte(message.getType());
-            // Message content
-            out.writeInt(encoded.length);
-            out.write(encoded);
-            out.flush();
-
-            final int headerSize = 8;
-            bandwidth += headerSize + encoded.length;
+            bandwidth += NetworkProtocol.write(out,
+                                               version,
+                                               false,
+                                               NetworkMessageSystemId.USER_MESSAGE,
+                                               message.getClientId(),
+                                               message.getClientDestId(),
+                                               message.getType(),
+                                               encoded,
+                                               encoded.length);
         }
         catch (final IOException exception)
         {
@@ -366,8 +509,11 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         {
             socket = new Socket(InetAddress.getByName(ip), port);
             out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
+            in = new DataInputStream(new ObjectInputStream(socket.getInputStream()));
+            version = NetworkProtocol.VERSION_LEGACY;
+            pending = 0;
             connected = true;
+            established = false;
             clientId = -1;
             pingRequestTimer.start();
             bandwidthTimer.start();
@@ -388,17 +534,17 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     public void setName(String name)
     {
         clientName = name;
-        if (!connected)
+        if (!established)
         {
             return;
         }
         try
         {
-            out.write(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
-            out.write(clientId);
             final byte[] data = clientName.getBytes(NetworkMessage.CHARSET);
-            out.writeByte(data.length);
-            out.write(data);
+            final byte[] body = new byte[data.length + 1];
+            body[0] = (byte) data.length;
+            System.arraycopy(data, 0, body, 1, data.length);
+            send(NetworkMessageSystemId.OTHER_CLIENT_RENAMED, NetworkProtocol.SERVER, (byte) 0, body);
             out.flush();
         }
         catch (final IOException exception)
@@ -440,9 +586,7 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     {
         try
         {
-            out.write(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
-            out.write(clientId);
-            out.flush();
+            send(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
             kick();
         }
         catch (final SocketException exception)
@@ -464,18 +608,15 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         {
             return;
         }
-        // Ping
+        // Ping, once connection is established
         final long pingMilli = 1000L;
-        if (pingRequestTimer.elapsed(pingMilli))
+        if (established && pingRequestTimer.elapsed(pingMilli))
         {
             try
             {
-                out.writeByte(NetworkMessageSystemId.PING);
-                out.writeByte(clientId);
-                out.flush();
+                send(NetworkMessageSystemId.PING);
                 pingTimer.restart();
                 pingRequestTimer.restart();
-                bandwidth += 2;
             }
             catch (final IOException exception)
             {
@@ -487,6 +628,14 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         {
             sendMessage(message);
         }
+        try
+        {
+            out.flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to send the messages for client: ", String.valueOf(clientId));
+        }
         final long bandwidthMilli = 1000L;
         if (bandwidthTimer.elapsed(bandwidthMilli))
         {
@@ -508,12 +657,14 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         messagesIn.clear();
         try
         {
-            if (in.available() == 0)
+            if (version >= NetworkProtocol.VERSION_FRAMED)
             {
-                return;
+                receiveFrames();
+            }
+            else
+            {
+                receiveLegacy();
             }
-            final byte messageSystemId = in.readByte();
-            updateMessage(messageSystemId);
         }
         catch (final IOException exception)
         {
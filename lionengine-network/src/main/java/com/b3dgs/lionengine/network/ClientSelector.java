@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Client connections selector. Accepts new clients and reads their data without blocking, each time it is polled.
+ * 
+ * @see ServerTransport#SELECTOR
+ */
+final class ClientSelector
+{
+    /** Server channel. */
+    private final ServerSocketChannel serverChannel;
+    /** Selector reference. */
+    private final Selector selector;
+    /** Server reference. */
+    private final ServerImpl server;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param port The port to listen.
+     * @param server The server reference.
+     * @throws IOException If unable to listen port.
+     */
+    ClientSelector(int port, ServerImpl server) throws IOException
+    {
+        super();
+
+        this.server = server;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try
+        {
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch (final IOException exception)
+        {
+            terminate();
+            throw exception;
+        }
+    }
+
+    /**
+     * Accept pending connections, read available data and write pending data, without blocking.
+     */
+    public void poll()
+    {
+        try
+        {
+            if (selector.selectNow() == 0)
+            {
+                return;
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+            return;
+        }
+        final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext())
+        {
+            final SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid())
+            {
+                continue;
+            }
+            if (key.isAcceptable())
+            {
+                accept();
+            }
+            else
+            {
+                update(key, (ClientChannel) key.attachment());
+            }
+        }
+    }
+
+    /**
+     * Terminate selector and close server channel. Clients must be terminated separately.
+     */
+    public void terminate()
+    {
+        try
+        {
+            selector.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        try
+        {
+            serverChannel.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on closing server");
+        }
+    }
+
+    /**
+     * Accept all pending connections.
+     */
+    private void accept()
+    {
+        try
+        {
+            SocketChannel channel = serverChannel.accept();
+            while (channel != null)
+            {
+                server.notifyNewClientConnected(channel, selector);
+                channel = serverChannel.accept();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    /**
+     * Read and write client data depending of channel readiness. Client is removed on error.
+     * 
+     * @param key The client key.
+     * @param client The client channel.
+     */
+    private void update(SelectionKey key, ClientChannel client)
+    {
+        try
+        {
+            if (key.isReadable())
+            {
+                client.read();
+            }
+            if (key.isValid() && key.isWritable())
+            {
+                client.write();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+            server.removeClient(client);
+        }
+    }
+}
@@ -17,31 +17,41 @@
  */
 package com.b3dgs.lionengine.network;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.Socket;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Verbose;
 
 /**
- * Client socket (bridge between server and client).
+ * Client socket (bridge between server and client), using blocking streams.
+ * <p>
+ * Object streams are used until {@link NetworkProtocol#VERSION_FRAMED} is negotiated, then raw streams are used. In
+ * both cases, available data are read to decoder on receive.
+ * </p>
+ * 
+ * @see ServerTransport#SOCKET
  */
-final class ClientSocket
+final class ClientSocket extends ClientConnection
 {
+    /** Object stream header size. */
+    private static final int HEADER = 4;
+
     /** Client socket. */
     private final Socket socket;
-    /** Output stream. */
+    /** Legacy output stream. */
     private final ObjectOutputStream out;
-    /** Input stream. */
-    private final ObjectInputStream in;
-    /** Client id. */
-    private final byte clientId;
-    /** State. */
-    private StateConnection state;
-    /** Name. */
-    private String name;
+    /** Legacy input stream, created once its header is received to not block. */
+    private ObjectInputStream in;
+    /** Frames output stream, <code>null</code> if legacy. */
+    private OutputStream framesOut;
+    /** Frames input stream, <code>null</code> if legacy. */
+    private InputStream framesIn;
 
     /**
      * Internal constructor.
@@ -52,13 +62,12 @@ final class ClientSocket
      */
     ClientSocket(final byte id, final Socket socket)
     {
-        clientId = id;
+        super(id);
+
         this.socket = socket;
-        name = null;
         try
         {
             out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
         }
         catch (final IOException exception)
         {
@@ -66,54 +75,43 @@ final class ClientSocket
         }
     }
 
-    /**
-     * Set the connection state.
-     * 
-     * @param state The connection state.
-     */
-    public void setState(StateConnection state)
-    {
-        this.state = state;
-    }
-
-    /**
-     * Get the current connection state.
-     * 
-     * @return The connection state.
+    /*
+     * ClientConnection
      */
-    public StateConnection getState()
-    {
-        return state;
-    }
 
-    /**
-     * Set the client name.
-     * 
-     * @param name The client name.
-     */
-    public void setName(String name)
+    @Override
+    public void setVersion(int version)
     {
-        this.name = name;
-    }
+        super.setVersion(version);
 
-    /**
-     * Get the client name.
-     * 
-     * @return The client name.
-     */
-    public String getName()
-    {
-        return name;
+        if (version >= NetworkProtocol.VERSION_FRAMED && framesIn == null)
+        {
+            try
+            {
+                // Nothing is buffered by object streams beyond last block read
+                framesOut = new BufferedOutputStream(socket.getOutputStream());
+                framesIn = socket.getInputStream();
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception, "Cannot switch client streams");
+            }
+        }
     }
 
-    /**
-     * Terminate client.
-     */
+    @Override
     public void terminate()
     {
         try
         {
-            in.close();
+            if (framesOut != null)
+            {
+                framesOut.flush();
+            }
+            if (in != null)
+            {
+                in.close();
+            }
         }
         catch (final IOException exception)
         {
@@ -135,101 +133,64 @@ final class ClientSocket
         {
             Verbose.exception(exception);
         }
-        state = StateConnection.DISCONNECTED;
+        setState(StateConnection.DISCONNECTED);
     }
 
-    /**
-     * Receive messages data from the client.
-     * 
-     * @return The messages data.
-     */
-    public byte[] receiveMessages()
+    @Override
+    public void receiveMessages()
     {
         try
         {
-            final byte[] data;
-            final int size = in.available();
-            if (size <= 0)
+            if (framesIn == null && in == null)
+            {
+                if (socket.getInputStream().available() < HEADER)
+                {
+                    return;
+                }
+                in = new ObjectInputStream(socket.getInputStream());
+            }
+            final InputStream input;
+            if (framesIn != null)
             {
-                data = null;
+                input = framesIn;
             }
             else
             {
-                data = new byte[size];
-                in.readFully(data);
+                input = in;
+            }
+            final int size = input.available();
+            if (size > 0)
+            {
+                getDecoder().read(input, size);
             }
-            return data;
         }
         catch (final IOException exception)
         {
             Verbose.exception(exception);
-            return new byte[0];
+            try
+            {
+                socket.close();
+            }
+            catch (final IOException exception2)
+            {
+                Verbose.exception(exception2);
+            }
         }
     }
 
-    /**
-     * Send message to the client.
-     * 
-     * @param data The messages data.
-     */
-    public void sendMessage(byte data)
+    @Override
+    public boolean isClosed()
     {
-        try
-        {
-            out.write(data);
-            out.flush();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception);
-        }
+        return socket.isClosed();
     }
 
-    /**
-     * Send message to the client.
-     * 
-     * @param data The messages data.
-     */
-    public void sendMessages(byte[] data)
+    @Override
+    public OutputStream getOut()
     {
-        try
-        {
-            out.write(data);
-            out.flush();
-        }
-        catch (final IOException exception)
+        if (framesOut != null)
         {
-            Verbose.exception(exception);
+            return framesOut;
         }
-    }
-
-    /**
-     * Get the output stream.
-     * 
-     * @return The output stream.
-     */
-    public ObjectOutputStream getOut()
-    {
         return out;
     }
-
-    /**
-     * Get the input stream.
-     * 
-     * @return The input stream.
-     */
-    public ObjectInputStream getIn()
-    {
-        return in;
-    }
-
-    /**
-     * Get the client id.
-     * 
-     * @return The client id.
-     */
-    public byte getId()
-    {
-        return clientId;
-    }
 }
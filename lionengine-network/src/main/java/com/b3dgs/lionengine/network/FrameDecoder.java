@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Streaming decoder of messages received from a client, for any {@link NetworkProtocol} version.
+ * <p>
+ * Received data are appended to an internal buffer, from which each complete message is decoded in turn by
+ * {@link #next(int, FrameHeader)}, its body being read from {@link #getBody()}. Incomplete tail is kept until more
+ * data are received. Data may be appended while decoding, buffer being compacted only on {@link #compact()}.
+ * </p>
+ * <p>
+ * {@link NetworkProtocol#VERSION_FRAMED} messages are delimited by their length. {@link NetworkProtocol#VERSION_LEGACY}
+ * messages are delimited from their system id, the version optionally following the name of
+ * {@link NetworkMessageSystemId#CONNECTING} being recognized as positive, where system ids are negative. When data end
+ * right after the name, decoding waits for one more byte, or for a receive without new data, as clients not sending
+ * the version wait for the server answer.
+ * </p>
+ */
+final class FrameDecoder
+{
+    /** Initial buffer capacity. */
+    private static final int CAPACITY = 4 * 1024;
+    /** Maximum buffer capacity, client is considered as stalled above. */
+    private static final int CAPACITY_MAX = 1024 * 1024;
+    /** Legacy header size (system id and source). */
+    private static final int LEGACY_HEADER = 2;
+    /** Legacy user message header size (system id, source, destination, type and size). */
+    private static final int LEGACY_USER_HEADER = 8;
+    /** Invalid data error. */
+    private static final String ERROR_DATA = "Invalid client data: ";
+    /** Overflow error. */
+    private static final String ERROR_OVERFLOW = "Client buffer overflow: ";
+
+    /** Current message body stream. */
+    private final DataInputStream body = new DataInputStream(new BodyInput());
+    /** Received data. */
+    private byte[] data = new byte[CAPACITY];
+    /** Next message start. */
+    private int start;
+    /** Received data end. */
+    private int end;
+    /** Current message body position. */
+    private int bodyPosition;
+    /** Current message end. */
+    private int bodyEnd;
+    /** Data end when a connecting name ended data, <code>-1</code> if not waiting for version. */
+    private int waitingEnd = -1;
+
+    /**
+     * Create decoder.
+     */
+    FrameDecoder()
+    {
+        super();
+    }
+
+    /**
+     * Append data read from stream.
+     * 
+     * @param in The input stream.
+     * @param length The number of bytes to read.
+     * @throws IOException If error on reading or too much pending data.
+     */
+    public void read(InputStream in, int length) throws IOException
+    {
+        ensure(length);
+        int remaining = length;
+        while (remaining > 0)
+        {
+            final int read = in.read(data, end, remaining);
+            if (read < 0)
+            {
+                throw new IOException(ERROR_DATA + "end of stream");
+            }
+            end += read;
+            remaining -= read;
+        }
+    }
+
+    /**
+     * Append data from buffer.
+     * 
+     * @param buffer The buffer to read from, in read mode.
+     * @param length The number of bytes to read.
+     * @throws IOException If too much pending data.
+     */
+    public void put(ByteBuffer buffer, int length) throws IOException
+    {
+        ensure(length);
+        buffer.get(data, end, length);
+        end += length;
+    }
+
+    /**
+     * Decode next complete message. Its header is read, and its body is available with {@link #getBody()} until next
+     * call.
+     * 
+     * @param version The protocol version.
+     * @param header The header to fill.
+     * @return <code>true</code> if decoded, <code>false</code> if no complete message remains.
+     * @throws IOException If invalid data, pending data must be discarded with {@link #clear()}.
+     */
+    public boolean next(int version, FrameHeader header) throws IOException
+    {
+        final int length;
+        if (version >= NetworkProtocol.VERSION_FRAMED)
+        {
+            length = getFrameLength();
+        }
+        else
+        {
+            length = getLegacyLength();
+        }
+        if (length < 0)
+        {
+            return false;
+        }
+        bodyPosition = start;
+        bodyEnd = start + length;
+        start = bodyEnd;
+        if (version >= NetworkProtocol.VERSION_FRAMED)
+        {
+            bodyPosition += NetworkProtocol.LENGTH;
+            header.read(body, length - NetworkProtocol.LENGTH);
+        }
+        else
+        {
+            header.readLegacy(body.readByte(), body, false);
+        }
+        return true;
+    }
+
+    /**
+     * Get the current message body, following its header.
+     * 
+     * @return The message body.
+     */
+    public DataInputStream getBody()
+    {
+        return body;
+    }
+
+    /**
+     * Check if no data are pending.
+     * 
+     * @return <code>true</code> if empty, <code>false</code> else.
+     */
+    public boolean isEmpty()
+    {
+        return start == end;
+    }
+
+    /**
+     * Discard pending data.
+     * 
+     * @return The discarded bytes.
+     */
+    public int clear()
+    {
+        final int discarded = end - start;
+        start = 0;
+        end = 0;
+        bodyPosition = 0;
+        bodyEnd = 0;
+        waitingEnd = -1;
+        return discarded;
+    }
+
+    /**
+     * Discard decoded messages, keeping incomplete tail at buffer start. Current body is not available after.
+     * 
+     * @return The discarded bytes.
+     */
+    public int compact()
+    {
+        final int discarded = start;
+        if (start > 0)
+        {
+            System.arraycopy(data, start, data, 0, end - start);
+            end -= start;
+            if (waitingEnd > -1)
+            {
+                waitingEnd -= start;
+            }
+            start = 0;
+        }
+        bodyPosition = 0;
+        bodyEnd = 0;
+        return discarded;
+    }
+
+    /**
+     * Ensure space for appended data, keeping current content at same position.
+     * 
+     * @param length The required space.
+     * @throws IOException If too much pending data.
+     */
+    private void ensure(int length) throws IOException
+    {
+        final int needed = end + length;
+        if (needed > data.length)
+        {
+            if (needed - start > CAPACITY_MAX)
+            {
+                throw new IOException(ERROR_OVERFLOW + needed);
+            }
+            data = Arrays.copyOf(data, Math.max(needed, data.length * 2));
+        }
+    }
+
+    /**
+     * Get the next framed message length, length prefix included.
+     * 
+     * @return The message length, <code>-1</code> if not complete.
+     * @throws IOException If invalid length.
+     */
+    private int getFrameLength() throws IOException
+    {
+        if (end - start < NetworkProtocol.LENGTH)
+        {
+            return -1;
+        }
+        final int length = getInt(start);
+        if (length < NetworkProtocol.HEADER || length > NetworkProtocol.FRAME_MAX)
+        {
+            throw new IOException(ERROR_DATA + length);
+        }
+        if (end - start < NetworkProtocol.LENGTH + length)
+        {
+            return -1;
+        }
+        return NetworkProtocol.LENGTH + length;
+    }
+
+    /**
+     * Get the next legacy message length.
+     * 
+     * @return The message length, <code>-1</code> if not complete.
+     * @throws IOException If unknown message.
+     */
+    private int getLegacyLength() throws IOException
+    {
+        final int available = end - start;
+        if (available < LEGACY_HEADER)
+        {
+            return -1;
+        }
+        final byte system = data[start];
+        final int length;
+        switch (system)
+        {
+            case NetworkMessageSystemId.CONNECTED:
+            case NetworkMessageSystemId.PING:
+            case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
+                length = LEGACY_HEADER;
+                break;
+            case NetworkMessageSystemId.CONNECTING:
+                length = getLegacyNameLength(available, true);
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_RENAMED:
+                length = getLegacyNameLength(available, false);
+                break;
+            case NetworkMessageSystemId.USER_MESSAGE:
+                length = getLegacyUserLength(available);
+                break;
+            default:
+                throw new IOException(ERROR_DATA + system);
+        }
+        if (length > available)
+        {
+            return -1;
+        }
+        return length;
+    }
+
+    /**
+     * Get the legacy message length with a name. If it may be followed by version and data end right after the name,
+     * message is considered as not complete until more data are received, or until a call without new data.
+     * 
+     * @param available The available bytes.
+     * @param version <code>true</code> if may be followed by version, <code>false</code> else.
+     * @return The message length, greater than available if not complete.
+     * @throws IOException If invalid name size.
+     */
+    private int getLegacyNameLength(int available, boolean version) throws IOException
+    {
+        if (available <= LEGACY_HEADER)
+        {
+            return LEGACY_HEADER + 1;
+        }
+        final byte size = data[start + LEGACY_HEADER];
+        if (size < 0)
+        {
+            throw new IOException(ERROR_DATA + size);
+        }
+        final int length = LEGACY_HEADER + 1 + size;
+        if (version)
+        {
+            if (length == available && waitingEnd != end)
+            {
+                waitingEnd = end;
+                return length + 1;
+            }
+            waitingEnd = -1;
+            if (length < available && data[start + length] > 0)
+            {
+                return length + 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Get the legacy user message length.
+     * 
+     * @param available The available bytes.
+     * @return The message length, greater than available if not complete.
+     * @throws IOException If invalid size.
+     */
+    private int getLegacyUserLength(int available) throws IOException
+    {
+        if (available < LEGACY_USER_HEADER)
+        {
+            return LEGACY_USER_HEADER;
+        }
+        final int size = getInt(start + LEGACY_USER_HEADER - NetworkProtocol.LENGTH);
+        if (size < 0 || size > NetworkProtocol.FRAME_MAX)
+        {
+            throw new IOException(ERROR_DATA + size);
+        }
+        return LEGACY_USER_HEADER + size;
+    }
+
+    /**
+     * Get an int value.
+     * 
+     * @param index The value index.
+     * @return The int value.
+     */
+    private int getInt(int index)
+    {
+        final int mask = 0xFF;
+        final int shift = Byte.SIZE;
+        return (data[index] & mask) << shift * 3
+               | (data[index + 1] & mask) << shift * 2
+               | (data[index + 2] & mask) << shift
+               | data[index + 3] & mask;
+    }
+
+    /**
+     * Stream reading current message body from buffer.
+     */
+    private final class BodyInput extends InputStream
+    {
+        /**
+         * Create input.
+         */
+        BodyInput()
+        {
+            super();
+        }
+
+        @Override
+        public int read()
+        {
+            if (bodyPosition >= bodyEnd)
+            {
+                return -1;
+            }
+            return data[bodyPosition++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+            final int count = Math.min(len, bodyEnd - bodyPosition);
+            if (count <= 0)
+            {
+                return -1;
+            }
+            System.arraycopy(data, bodyPosition, b, off, count);
+            bodyPosition += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n)
+        {
+            final int count = (int) Math.max(0L, Math.min(n, bodyEnd - bodyPosition));
+            bodyPosition += count;
+            return count;
+        }
+
+        @Override
+        public int available()
+        {
+            return bodyEnd - bodyPosition;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Received message header, read from any {@link NetworkProtocol} version and reused between messages.
+ */
+final class FrameHeader
+{
+    /** Message system id. */
+    private byte system;
+    /** Source id. */
+    private byte from;
+    /** Destination id. */
+    private byte dest;
+    /** Message type. */
+    private byte type;
+    /** Body size, <code>-1</code> if unknown (remaining data). */
+    private int size;
+
+    /**
+     * Create header.
+     */
+    FrameHeader()
+    {
+        super();
+    }
+
+    /**
+     * Read header of a {@link NetworkProtocol#VERSION_FRAMED} frame, without its length.
+     * 
+     * @param in The frame data.
+     * @param length The frame length.
+     * @throws IOException If error on reading.
+     */
+    public void read(DataInput in, int length) throws IOException
+    {
+        system = in.readByte();
+        from = in.readByte();
+        dest = in.readByte();
+        type = in.readByte();
+        size = length - NetworkProtocol.HEADER;
+    }
+
+    /**
+     * Read header of a {@link NetworkProtocol#VERSION_LEGACY} message, following its system id. Fields not sent are
+     * set to {@link NetworkProtocol#SERVER}.
+     * 
+     * @param system The message system id, already read.
+     * @param in The message data.
+     * @param server <code>true</code> if sent by server, <code>false</code> if sent by client.
+     * @throws IOException If error on reading.
+     */
+    public void readLegacy(byte system, DataInput in, boolean server) throws IOException
+    {
+        this.system = system;
+        from = NetworkProtocol.SERVER;
+        dest = NetworkProtocol.SERVER;
+        type = 0;
+        size = -1;
+        if (NetworkMessageSystemId.USER_MESSAGE == system)
+        {
+            from = in.readByte();
+            dest = in.readByte();
+            type = in.readByte();
+            size = in.readInt();
+        }
+        else if (!server || NetworkProtocol.hasSource(system))
+        {
+            from = in.readByte();
+        }
+        else if (NetworkProtocol.hasDestination(system))
+        {
+            dest = in.readByte();
+        }
+    }
+
+    /**
+     * Get the message system id.
+     * 
+     * @return The message system id.
+     */
+    public byte getSystem()
+    {
+        return system;
+    }
+
+    /**
+     * Get the source id.
+     * 
+     * @return The source id.
+     */
+    public byte getFrom()
+    {
+        return from;
+    }
+
+    /**
+     * Get the destination id.
+     * 
+     * @return The destination id.
+     */
+    public byte getDest()
+    {
+        return dest;
+    }
+
+    /**
+     * Get the message type.
+     * 
+     * @return The message type.
+     */
+    public byte getType()
+    {
+        return type;
+    }
+
+    /**
+     * Get the body size.
+     * 
+     * @return The body size, <code>-1</code> if unknown (remaining data).
+     */
+    public int getSize()
+    {
+        return size;
+    }
+}
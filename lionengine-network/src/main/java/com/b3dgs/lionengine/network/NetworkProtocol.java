@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Network protocol versions, messages header format and shared buffers.
+ * <p>
+ * Each peer starts with {@link #VERSION_LEGACY}, where messages are exchanged through object streams. The server
+ * appends its version to the {@link NetworkMessageSystemId#CONNECTING} message, and the client appends its own one to
+ * its answer. Both peers then switch to the lowest version, so old peers ignoring the appended version stay in
+ * {@link #VERSION_LEGACY}.
+ * </p>
+ * <p>
+ * In {@link #VERSION_FRAMED}, each message is a frame written to the raw stream, prefixed by its length:
+ * </p>
+ * <ul>
+ * <li>length (int): header and body size</li>
+ * <li>system id, from, dest, type (bytes): the header</li>
+ * <li>body: the message data</li>
+ * </ul>
+ * <p>
+ * In {@link #VERSION_LEGACY}, only the header fields used by the message are written, and the size prefixes user
+ * messages body only.
+ * </p>
+ */
+final class NetworkProtocol
+{
+    /** Object streams protocol version. */
+    public static final byte VERSION_LEGACY = 1;
+    /** Length prefixed frames protocol version. */
+    public static final byte VERSION_FRAMED = 2;
+    /** Current protocol version. */
+    public static final byte VERSION = VERSION_FRAMED;
+    /** Frame length size. */
+    public static final int LENGTH = 4;
+    /** Frame header size (system id, from, dest, type). */
+    public static final int HEADER = 4;
+    /** Maximum frame length. */
+    public static final int FRAME_MAX = 512 * 1024;
+    /** Server id, used as source of server messages. */
+    public static final byte SERVER = -1;
+    /** Pooled buffers minimum capacity. */
+    private static final int POOL_CAPACITY = 4 * 1024;
+    /** Pooled buffers maximum capacity, larger ones are not kept. */
+    private static final int POOL_CAPACITY_MAX = 64 * 1024;
+    /** Maximum number of pooled buffers. */
+    private static final int POOL_SIZE = 64;
+    /** Pooled buffers. */
+    private static final Queue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+    /** Pooled buffers count. */
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    /**
+     * Get a buffer from pool, allocated if none large enough. Must be released after use.
+     * 
+     * @param capacity The minimum capacity.
+     * @return The cleared buffer.
+     */
+    public static ByteBuffer acquire(int capacity)
+    {
+        final ByteBuffer buffer = POOL.poll();
+        if (buffer == null)
+        {
+            return ByteBuffer.allocate(Math.max(POOL_CAPACITY, capacity));
+        }
+        POOLED.decrementAndGet();
+        if (buffer.capacity() < capacity)
+        {
+            return ByteBuffer.allocate(capacity);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Give back a buffer to pool. Buffer must not be used after. Buffers larger than pool maximum capacity, or
+     * released while pool is full, are dropped.
+     * 
+     * @param buffer The buffer to release.
+     */
+    public static void release(ByteBuffer buffer)
+    {
+        if (buffer.capacity() <= POOL_CAPACITY_MAX)
+        {
+            if (POOLED.incrementAndGet() <= POOL_SIZE)
+            {
+                POOL.offer(buffer);
+            }
+            else
+            {
+                POOLED.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Get the message size, header included.
+     * 
+     * @param version The protocol version.
+     * @param server <code>true</code> if sent by server, <code>false</code> if sent by client.
+     * @param system The message system id.
+     * @param size The message body size.
+     * @return The message size.
+     */
+    public static int getSize(int version, boolean server, byte system, int size)
+    {
+        if (version >= VERSION_FRAMED)
+        {
+            return LENGTH + HEADER + size;
+        }
+        if (NetworkMessageSystemId.USER_MESSAGE == system)
+        {
+            return HEADER + LENGTH + size;
+        }
+        if (server && !hasSource(system) && !hasDestination(system))
+        {
+            return 1 + size;
+        }
+        return 2 + size;
+    }
+
+    /**
+     * Put the message header.
+     * 
+     * @param buffer The buffer to write to.
+     * @param version The protocol version.
+     * @param server <code>true</code> if sent by server, <code>false</code> if sent by client.
+     * @param system The message system id.
+     * @param from The source id.
+     * @param dest The destination id.
+     * @param type The message type.
+     * @param size The message body size.
+     */
+    public static void putHeader(ByteBuffer buffer,
+                                 int version,
+                                 boolean server,
+                                 byte system,
+                                 byte from,
+                                 byte dest,
+                                 byte type,
+                                 int size)
+    {
+        if (version >= VERSION_FRAMED)
+        {
+            buffer.putInt(HEADER + size).put(system).put(from).put(dest).put(type);
+        }
+        else if (NetworkMessageSystemId.USER_MESSAGE == system)
+        {
+            buffer.put(system).put(from).put(dest).put(type).putInt(size);
+        }
+        else
+        {
+            buffer.put(system);
+            if (!server || hasSource(system))
+            {
+                buffer.put(from);
+            }
+            else if (hasDestination(system))
+            {
+                buffer.put(dest);
+            }
+        }
+    }
+
+    /**
+     * Write a message, without flushing.
+     * 
+     * @param out The output stream.
+     * @param version The protocol version.
+     * @param server <code>true</code> if sent by server, <code>false</code> if sent by client.
+     * @param system The message system id.
+     * @param from The source id.
+     * @param dest The destination id.
+     * @param type The message type.
+     * @param body The message body.
+     * @param size The message body size.
+     * @return The written bytes.
+     * @throws IOException If error on writing.
+     */
+    // CHECKSTYLE IGNORE LINE: ParameterNumber
+    public static int write(OutputStream out,
+                            int version,
+                            boolean server,
+                            byte system,
+                            byte from,
+                            byte dest,
+                            byte type,
+                            byte[] body,
+                            int size) throws IOException
+    {
+        final ByteBuffer buffer = acquire(getSize(version, server, system, size));
+        try
+        {
+            putHeader(buffer, version, server, system, from, dest, type, size);
+            buffer.put(body, 0, size);
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+            return buffer.position();
+        }
+        finally
+        {
+            release(buffer);
+        }
+    }
+
+    /**
+     * Encode a message as a frame, ready to be written as is.
+     * 
+     * @param version The protocol version.
+     * @param server <code>true</code> if sent by server, <code>false</code> if sent by client.
+     * @param system The message system id.
+     * @param from The source id.
+     * @param dest The destination id.
+     * @param type The message type.
+     * @param body The message body.
+     * @return The encoded frame.
+     */
+    public static byte[] encode(int version, boolean server, byte system, byte from, byte dest, byte type, byte[] body)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(getSize(version, server, system, body.length));
+        putHeader(buffer, version, server, system, from, dest, type, body.length);
+        return buffer.put(body).array();
+    }
+
+    /**
+     * Check if legacy server message starts with its source id (the client concerned by the message).
+     * 
+     * @param system The message system id.
+     * @return <code>true</code> if has source, <code>false</code> else.
+     */
+    static boolean hasSource(byte system)
+    {
+        return NetworkMessageSystemId.OTHER_CLIENT_CONNECTED == system
+               || NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED == system
+               || NetworkMessageSystemId.OTHER_CLIENT_RENAMED == system;
+    }
+
+    /**
+     * Check if legacy server message starts with its destination id (the client receiving the message).
+     * 
+     * @param system The message system id.
+     * @return <code>true</code> if has destination, <code>false</code> else.
+     */
+    static boolean hasDestination(byte system)
+    {
+        return NetworkMessageSystemId.CONNECTING == system || NetworkMessageSystemId.CONNECTED == system;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private NetworkProtocol()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
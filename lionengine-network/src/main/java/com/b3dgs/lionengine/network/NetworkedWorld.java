@@ -19,8 +19,10 @@ package com.b3dgs.lionengine.network;
 
 import java.util.Collection;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.purview.Networkable;
+import com.b3dgs.lionengine.network.purview.Replicable;
 
 /**
  * Networkable world interface.
@@ -46,6 +48,23 @@ public interface NetworkedWorld extends ClientListener
      */
     void removeNetworkable(Networkable networkable);
 
+    /**
+     * Add a replicated entity state, recorded by server and applied by client from delta snapshots. Replaces the
+     * existing one with the same id.
+     * 
+     * @param id The entity id, same on server and client (must be superior or equal to 0).
+     * @param replicable The entity state (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    void addReplicable(int id, Replicable replicable);
+
+    /**
+     * Remove a replicated entity state.
+     * 
+     * @param id The entity id.
+     */
+    void removeReplicable(int id);
+
     /**
      * Add a network message.
      * 
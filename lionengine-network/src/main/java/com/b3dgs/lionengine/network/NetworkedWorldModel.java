@@ -20,8 +20,12 @@ package com.b3dgs.lionengine.network;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 
 import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshotAck;
 import com.b3dgs.lionengine.network.purview.Networkable;
 
 /**
@@ -32,6 +36,28 @@ import com.b3dgs.lionengine.network.purview.Networkable;
  */
 abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkModel<L>> implements NetworkedWorld
 {
+    /**
+     * Get a decoder of the reserved snapshot messages, delegating other types.
+     * 
+     * @param decoder The user messages decoder.
+     * @return The decoder.
+     */
+    static NetworkMessageDecoder getDecoder(NetworkMessageDecoder decoder)
+    {
+        return type ->
+        {
+            if (type == NetworkMessageSnapshot.TYPE)
+            {
+                return new NetworkMessageSnapshot();
+            }
+            if (type == NetworkMessageSnapshotAck.TYPE)
+            {
+                return new NetworkMessageSnapshotAck();
+            }
+            return decoder.getNetworkMessageFromType(type);
+        };
+    }
+
     /** List of networkable objects. */
     protected final Collection<Networkable> networkables;
     /** List of networkable objects. */
@@ -77,6 +103,17 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
         listeners.remove(listener);
     }
 
+    /**
+     * Consume a received message before networkables. Consumed message is not applied nor relayed.
+     * 
+     * @param message The received message.
+     * @return <code>true</code> if consumed, <code>false</code> else.
+     */
+    protected boolean consume(NetworkMessage message)
+    {
+        return false;
+    }
+
     /*
      * NetworkedWorld
      */
@@ -141,8 +178,15 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
             willAdd = false;
         }
         network.receiveMessages();
-        for (final NetworkMessage message : network.getMessages())
+        final Iterator<NetworkMessage> iterator = network.getMessages().iterator();
+        while (iterator.hasNext())
         {
+            final NetworkMessage message = iterator.next();
+            if (consume(message))
+            {
+                iterator.remove();
+                continue;
+            }
             for (final Networkable networkable : networkables)
             {
                 networkable.applyMessage(message);
@@ -17,14 +17,29 @@
  */
 package com.b3dgs.lionengine.network;
 
+import java.io.IOException;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshotAck;
+import com.b3dgs.lionengine.network.purview.Replicable;
 
 /**
  * Networkable world implementation client side.
+ * <p>
+ * Snapshots are requested once connected. Received ones are applied to replicated entities on
+ * {@link #receiveMessages()}, and acknowledged on next {@link #sendMessages()}.
+ * </p>
  */
 public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionListener, ClientImpl>
                                        implements NetworkedWorldClient
 {
+    /** Replicated entities snapshots. */
+    private final SnapshotClient snapshots = new SnapshotClient();
+
     /**
      * Constructor.
      * 
@@ -32,7 +47,33 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
      */
     public NetworkedWorldModelClient(NetworkMessageDecoder decoder)
     {
-        super(new ClientImpl(decoder));
+        super(new ClientImpl(getDecoder(decoder)));
+    }
+
+    /*
+     * NetworkedWorldModel
+     */
+
+    @Override
+    protected boolean consume(NetworkMessage message)
+    {
+        if (message instanceof NetworkMessageSnapshot)
+        {
+            try
+            {
+                final int sequence = snapshots.decode(((NetworkMessageSnapshot) message).getData());
+                if (sequence != Snapshot.NONE)
+                {
+                    network.addMessage(new NetworkMessageSnapshotAck(network.getId(), sequence));
+                }
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Invalid snapshot");
+            }
+            return true;
+        }
+        return false;
     }
 
     /*
@@ -57,6 +98,21 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
         network.removeListener(this);
     }
 
+    @Override
+    public void addReplicable(int id, Replicable replicable)
+    {
+        Check.superiorOrEqual(id, 0);
+        Check.notNull(replicable);
+
+        snapshots.put(id, replicable);
+    }
+
+    @Override
+    public void removeReplicable(int id)
+    {
+        snapshots.remove(id);
+    }
+
     @Override
     public void setName(String name)
     {
@@ -88,7 +144,7 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
     @Override
     public void notifyConnectionEstablished(Byte id, String name)
     {
-        // Nothing to do
+        network.addMessage(new NetworkMessageSnapshotAck(id.byteValue(), Snapshot.NONE));
     }
 
     @Override
@@ -17,14 +17,25 @@
  */
 package com.b3dgs.lionengine.network;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshotAck;
+import com.b3dgs.lionengine.network.purview.Replicable;
 
 /**
  * Networkable world implementation server side.
+ * <p>
+ * Replicated entities state is recorded on each {@link #sendMessages()}, and sent to each client having requested
+ * snapshots as a delta from the last state it acknowledged.
+ * </p>
  */
 public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListener, ServerImpl>
                                        implements NetworkedWorldServer
 {
+    /** Replicated entities snapshots. */
+    private final SnapshotServer snapshots = new SnapshotServer();
+
     /**
      * Constructor.
      * 
@@ -32,7 +43,23 @@ public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListene
      */
     public NetworkedWorldModelServer(NetworkMessageDecoder decoder)
     {
-        super(new ServerImpl(decoder));
+        super(new ServerImpl(getDecoder(decoder)));
+    }
+
+    /*
+     * NetworkedWorldModel
+     */
+
+    @Override
+    protected boolean consume(NetworkMessage message)
+    {
+        if (message instanceof NetworkMessageSnapshotAck)
+        {
+            final NetworkMessageSnapshotAck ack = (NetworkMessageSnapshotAck) message;
+            snapshots.acknowledge(ack.getClientId(), ack.getSequence());
+            return true;
+        }
+        return false;
     }
 
     /*
@@ -41,6 +68,12 @@ public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListene
 
     @Override
     public void startServer(String name, int port, String messageOfTheDay)
+    {
+        startServer(name, port, messageOfTheDay, ServerTransport.SOCKET);
+    }
+
+    @Override
+    public void startServer(String name, int port, String messageOfTheDay, ServerTransport transport)
     {
         for (final ClientListener listener : listeners)
         {
@@ -48,7 +81,7 @@ public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListene
         }
         network.addListener(this);
         network.setMessageOfTheDay(messageOfTheDay);
-        network.start(name, port);
+        network.start(name, port, transport);
     }
 
     @Override
@@ -57,4 +90,39 @@ public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListene
         super.disconnect();
         network.removeListener(this);
     }
+
+    @Override
+    public void addReplicable(int id, Replicable replicable)
+    {
+        Check.superiorOrEqual(id, 0);
+        Check.notNull(replicable);
+
+        snapshots.put(id, replicable);
+    }
+
+    @Override
+    public void removeReplicable(int id)
+    {
+        snapshots.remove(id);
+    }
+
+    @Override
+    public void sendMessages()
+    {
+        snapshots.record();
+        snapshots.send(network);
+        super.sendMessages();
+    }
+
+    @Override
+    public void notifyClientConnected(Byte id, String name)
+    {
+        snapshots.addClient(id.byteValue());
+    }
+
+    @Override
+    public void notifyClientDisconnected(Byte id, String name)
+    {
+        snapshots.removeClient(id.byteValue());
+    }
 }
@@ -33,4 +33,15 @@ public interface NetworkedWorldServer extends NetworkedWorld
      * @throws LionEngineException If unable to start server.
      */
     void startServer(String name, int port, String messageOfTheDay);
+
+    /**
+     * Start the server.
+     * 
+     * @param name The server name.
+     * @param port The port number.
+     * @param messageOfTheDay The message of the day.
+     * @param transport The transport used.
+     * @throws LionEngineException If unable to start server.
+     */
+    void startServer(String name, int port, String messageOfTheDay, ServerTransport transport);
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.network.purview.Replicable;
+
+/**
+ * Replicable entities sorted by id.
+ */
+final class Replicables
+{
+    /** Initial capacity. */
+    private static final int CAPACITY = 16;
+
+    /** Entities id, sorted. */
+    private int[] ids = new int[CAPACITY];
+    /** Entities state. */
+    private Replicable[] replicables = new Replicable[CAPACITY];
+    /** Number of entities. */
+    private int size;
+
+    /**
+     * Create replicables.
+     */
+    Replicables()
+    {
+        super();
+    }
+
+    /**
+     * Add an entity, replacing the existing one with the same id.
+     * 
+     * @param id The entity id.
+     * @param replicable The entity state.
+     */
+    public void put(int id, Replicable replicable)
+    {
+        final int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0)
+        {
+            replicables[index] = replicable;
+            return;
+        }
+        final int insert = -index - 1;
+        if (size == ids.length)
+        {
+            ids = Arrays.copyOf(ids, size * 2);
+            replicables = Arrays.copyOf(replicables, size * 2);
+        }
+        System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+        System.arraycopy(replicables, insert, replicables, insert + 1, size - insert);
+        ids[insert] = id;
+        replicables[insert] = replicable;
+        size++;
+    }
+
+    /**
+     * Remove an entity.
+     * 
+     * @param id The entity id.
+     */
+    public void remove(int id)
+    {
+        final int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0)
+        {
+            size--;
+            System.arraycopy(ids, index + 1, ids, index, size - index);
+            System.arraycopy(replicables, index + 1, replicables, index, size - index);
+            replicables[size] = null;
+        }
+    }
+
+    /**
+     * Get an entity from its id.
+     * 
+     * @param id The entity id.
+     * @return The entity state, <code>null</code> if none.
+     */
+    public Replicable find(int id)
+    {
+        final int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0)
+        {
+            return replicables[index];
+        }
+        return null;
+    }
+
+    /**
+     * Get the entity id.
+     * 
+     * @param index The entity index.
+     * @return The entity id.
+     */
+    public int getId(int index)
+    {
+        return ids[index];
+    }
+
+    /**
+     * Get the entity state.
+     * 
+     * @param index The entity index.
+     * @return The entity state.
+     */
+    public Replicable get(int index)
+    {
+        return replicables[index];
+    }
+
+    /**
+     * Get the number of entities.
+     * 
+     * @return The number of entities.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+}
@@ -32,7 +32,7 @@ interface Server extends Networker<ClientListener>
     void setMessageOfTheDay(String message);
 
     /**
-     * Start the server and listen to client connection.
+     * Start the server and listen to client connection, with {@link ServerTransport#SOCKET}.
      * 
      * @param name The server name.
      * @param port The port number.
@@ -40,6 +40,16 @@ interface Server extends Networker<ClientListener>
      */
     void start(String name, int port);
 
+    /**
+     * Start the server and listen to client connection.
+     * 
+     * @param name The server name.
+     * @param port The port number.
+     * @param transport The transport used.
+     * @throws LionEngineException If unable to start server.
+     */
+    void start(String name, int port, ServerTransport transport);
+
     /**
      * Remove a client from its id.
      * 
@@ -60,4 +70,57 @@ interface Server extends Networker<ClientListener>
      * @return The server port.
      */
     int getPort();
+
+    /**
+     * Get the server transport.
+     * 
+     * @return The server transport, <code>null</code> if not started.
+     */
+    ServerTransport getTransport();
+
+    /**
+     * Get the number of bytes sent to a client.
+     * 
+     * @param clientId The client id.
+     * @return The sent bytes, <code>0</code> if unknown client.
+     */
+    long getSentBytes(Byte clientId);
+
+    /**
+     * Get the number of frames sent to a client.
+     * 
+     * @param clientId The client id.
+     * @return The sent frames, <code>0</code> if unknown client.
+     */
+    long getSentFrames(Byte clientId);
+
+    /**
+     * Get the number of bytes received from a client.
+     * 
+     * @param clientId The client id.
+     * @return The received bytes, <code>0</code> if unknown client.
+     */
+    long getReceivedBytes(Byte clientId);
+
+    /**
+     * Get the number of frames received from a client.
+     * 
+     * @param clientId The client id.
+     * @return The received frames, <code>0</code> if unknown client.
+     */
+    long getReceivedFrames(Byte clientId);
+
+    /**
+     * Get the number of frames decoded and handled during last receive, for all clients.
+     * 
+     * @return The decoded frames.
+     */
+    int getDecodedFrames();
+
+    /**
+     * Get the number of frames dropped during last receive, for all clients (invalid source, content or data).
+     * 
+     * @return The dropped frames.
+     */
+    int getDroppedFrames();
 }
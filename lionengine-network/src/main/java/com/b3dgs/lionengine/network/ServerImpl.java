@@ -20,14 +20,21 @@ package com.b3dgs.lionengine.network;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.ToLongFunction;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Timing;
@@ -36,30 +43,92 @@ import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 
 /**
- * Server implementation.
+ * Server implementation, accepting clients with the selected {@link ServerTransport}.
  */
 // CHECKSTYLE IGNORE LINE: ClassDataAbstractionCoupling
 final class ServerImpl extends NetworkModel<ClientListener> implements Server
 {
+    /** Error no free client id. */
+    static final String ERROR_CLIENTS_FULL = "No free client id, connection refused";
     /** Server name log. */
     private static final String SERVER = "Server: ";
+    /** Maximum client id, ids are from 0 to this value. */
+    private static final int ID_MAX = Byte.MAX_VALUE;
+    /** Empty body. */
+    private static final byte[] EMPTY = new byte[0];
+    /** Ping frame, shared ({@link NetworkProtocol#VERSION_LEGACY}). */
+    private static final byte[] PING_LEGACY = encodePing(NetworkProtocol.VERSION_LEGACY);
+    /** Ping frame, shared ({@link NetworkProtocol#VERSION_FRAMED}). */
+    private static final byte[] PING_FRAMED = encodePing(NetworkProtocol.VERSION_FRAMED);
 
     /**
-     * Send the id and the name to the client.
+     * Encode the ping answer.
      * 
-     * @param client The client to send to.
-     * @param id The id to send.
-     * @param name The name to send.
+     * @param version The protocol version.
+     * @return The encoded frame.
+     */
+    private static byte[] encodePing(int version)
+    {
+        return NetworkProtocol.encode(version,
+                                      true,
+                                      NetworkMessageSystemId.PING,
+                                      NetworkProtocol.SERVER,
+                                      NetworkProtocol.SERVER,
+                                      (byte) 0,
+                                      EMPTY);
+    }
+
+    /**
+     * Encode a user message as a frame, ready to be sent to any client using the same protocol version.
+     * 
+     * @param message The message to encode.
+     * @param version The protocol version.
+     * @return The encoded frame.
+     * @throws IOException If error on encoding.
+     */
+    private static byte[] encode(NetworkMessage message, int version) throws IOException
+    {
+        try (ByteArrayOutputStream encode = message.encode())
+        {
+            return NetworkProtocol.encode(version,
+                                          true,
+                                          NetworkMessageSystemId.USER_MESSAGE,
+                                          message.getClientId(),
+                                          message.getClientDestId(),
+                                          message.getType(),
+                                          encode.toByteArray());
+        }
+    }
+
+    /**
+     * Write the name.
+     * 
+     * @param out The output data.
+     * @param name The name to write.
      * @throws IOException In case of error.
      */
-    private static void writeIdAndName(ClientSocket client, int id, String name) throws IOException
+    private static void writeName(DataOutputStream out, String name) throws IOException
     {
-        // New client id
-        client.getOut().writeByte(id);
-        // New client name
         final byte[] data = name.getBytes(NetworkMessage.CHARSET);
-        client.getOut().writeByte(data.length);
-        client.getOut().write(data);
+        out.writeByte(data.length);
+        out.write(data);
+    }
+
+    /**
+     * Encode the name as message body.
+     * 
+     * @param name The name to encode.
+     * @return The encoded name.
+     * @throws IOException In case of error.
+     */
+    private static byte[] encodeName(String name) throws IOException
+    {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(data))
+        {
+            writeName(out, name);
+        }
+        return data.toByteArray();
     }
 
     /**
@@ -70,21 +139,29 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @return <code>true</code> if valid, <code>false</code> else.
      */
-    private static boolean checkValidity(ClientSocket client, byte from, StateConnection expected)
+    private static boolean checkValidity(ClientConnection client, byte from, StateConnection expected)
     {
         return from >= 0 && client.getState() == expected;
     }
 
     /** Client list. */
-    private final Map<Byte, ClientSocket> clients;
+    private final Map<Byte, ClientConnection> clients;
     /** Remove list. */
-    private final Collection<ClientSocket> toRemove;
+    private final Collection<ClientConnection> toRemove;
     /** Average bandwidth. */
     private final Timing bandwidthTimer;
-    /** Connection listener. */
+    /** Received message header. */
+    private final FrameHeader header = new FrameHeader();
+    /** Accepted sockets, added on receive ({@link ServerTransport#SOCKET} only). */
+    private final Queue<Socket> accepted = new ConcurrentLinkedQueue<>();
+    /** Connection listener ({@link ServerTransport#SOCKET} only). */
     private ClientConnecter clientConnectionListener;
-    /** Server socket. */
+    /** Server socket ({@link ServerTransport#SOCKET} only). */
     private ServerSocket serverSocket;
+    /** Connections selector ({@link ServerTransport#SELECTOR} only). */
+    private ClientSelector clientSelector;
+    /** Current transport. */
+    private ServerTransport transport;
     /** Current port. */
     private int port;
     /** Message of the day. */
@@ -97,10 +174,16 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     private byte lastId;
     /** Will remove a client. */
     private boolean willRemove;
-    /** Bandwidth size. */
-    private int bandwidth;
+    /** Bytes sent to removed clients. */
+    private long transferredRemoved;
+    /** Bytes sent at last bandwidth computation. */
+    private long transferredLast;
     /** Bandwidth per second. */
     private int bandwidthPerSecond;
+    /** Frames decoded during last receive. */
+    private int decodedFrames;
+    /** Frames dropped during last receive. */
+    private int droppedFrames;
 
     /**
      * Internal constructor.
@@ -118,80 +201,293 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         messageOfTheDay = null;
         port = -1;
         started = false;
-        bandwidth = 0;
         lastId = 0;
     }
 
     /**
-     * Add a client.
+     * Add a client on next receive. Can be called from any thread.
      * 
      * @param socket The socket to add.
      */
     void notifyNewClientConnected(Socket socket)
     {
+        accepted.add(socket);
+    }
+
+    /**
+     * Add a client.
+     * 
+     * @param channel The channel to add.
+     * @param selector The selector used.
+     */
+    void notifyNewClientConnected(SocketChannel channel, Selector selector)
+    {
+        ClientConnection client = null;
         try
         {
-            int secure = 0;
-            while (clients.containsKey(Byte.valueOf(lastId)))
-            {
-                lastId++;
-                secure++;
-                final int max = 127;
-                if (secure > max)
-                {
-                    break;
-                }
-            }
-            // Prepare first data
-            final ClientSocket client = new ClientSocket(lastId, socket);
-            client.setState(StateConnection.CONNECTING);
-            client.getOut().writeByte(NetworkMessageSystemId.CONNECTING);
-            client.getOut().writeByte(client.getId());
-            client.getOut().flush();
-
-            // Update list
-            clients.put(Byte.valueOf(client.getId()), client);
-            clientsNumber++;
+            client = new ClientChannel(nextId(), channel, selector);
+            addClient(client);
         }
         catch (final IOException exception)
         {
-            errorNewClientConnected(exception);
+            errorNewClientConnected(client, channel, exception);
         }
         catch (final LionEngineException exception)
         {
-            errorNewClientConnected(exception);
+            errorNewClientConnected(client, channel, exception);
         }
     }
 
     /**
-     * Remove a client from the server.
+     * Remove a client from the server. Does nothing if already removed.
+     * Listeners and other clients are notified if the client was connected.
      * 
      * @param client The client to remove.
      */
-    void removeClient(ClientSocket client)
+    void removeClient(ClientConnection client)
     {
-        if (client != null)
+        if (client != null && toRemove.add(client))
         {
-            toRemove.add(client);
+            final boolean connected = client.getState() == StateConnection.CONNECTED;
+            client.setState(StateConnection.DISCONNECTED);
             client.terminate();
             clientsNumber--;
             willRemove = true;
             Verbose.info(SERVER, client.getName(), " disconnected");
+
+            if (connected)
+            {
+                notifyDisconnected(client);
+            }
+        }
+    }
+
+    /**
+     * Get the next free client id, starting from the last one given.
+     * 
+     * @return The client id.
+     * @throws LionEngineException If all ids are used.
+     */
+    private byte nextId()
+    {
+        for (int i = 0; i <= ID_MAX; i++)
+        {
+            final byte id = (byte) ((lastId + i) % (ID_MAX + 1));
+            if (!clients.containsKey(Byte.valueOf(id)))
+            {
+                lastId = id;
+                return id;
+            }
         }
+        throw new LionEngineException(ERROR_CLIENTS_FULL);
     }
 
     /**
-     * Error on new client connection.
+     * Add a new client, and send first connection data.
      * 
+     * @param client The client to add.
+     * @throws IOException If error on sending.
+     */
+    private void addClient(ClientConnection client) throws IOException
+    {
+        // Prepare first data, with supported version
+        client.setState(StateConnection.CONNECTING);
+        final byte[] version =
+        {
+            NetworkProtocol.VERSION
+        };
+        client.send(NetworkMessageSystemId.CONNECTING,
+                    NetworkProtocol.SERVER,
+                    client.getId(),
+                    (byte) 0,
+                    version,
+                    version.length);
+        client.flush();
+
+        // Update list
+        clients.put(Byte.valueOf(client.getId()), client);
+        clientsNumber++;
+    }
+
+    /**
+     * Add accepted sockets.
+     */
+    private void addAccepted()
+    {
+        Socket socket = accepted.poll();
+        while (socket != null)
+        {
+            ClientConnection client = null;
+            try
+            {
+                client = new ClientSocket(nextId(), socket);
+                addClient(client);
+            }
+            catch (final IOException exception)
+            {
+                errorNewClientConnected(client, socket, exception);
+            }
+            catch (final LionEngineException exception)
+            {
+                errorNewClientConnected(client, socket, exception);
+            }
+            socket = accepted.poll();
+        }
+    }
+
+    /**
+     * Error on new client connection, connection is refused and closed.
+     * 
+     * @param client The client created (<code>null</code> if not created).
+     * @param connection The client connection.
      * @param exception The associated exception.
      */
-    private void errorNewClientConnected(Exception exception)
+    private void errorNewClientConnected(ClientConnection client, Closeable connection, Exception exception)
     {
         Verbose.warning(Server.class, "addClient", "Error on adding client: ", exception.getMessage());
-        if (clients.remove(Byte.valueOf(lastId)) != null)
+        if (client != null && clients.remove(Byte.valueOf(client.getId()), client))
         {
             clientsNumber--;
         }
+        try
+        {
+            connection.close();
+        }
+        catch (final IOException exceptionClose)
+        {
+            Verbose.exception(exceptionClose);
+        }
+    }
+
+    /**
+     * Remove client if its connection has been closed.
+     * 
+     * @param client The client to check.
+     */
+    private void removeClosed(ClientConnection client)
+    {
+        if (client.isClosed())
+        {
+            removeClient(client);
+        }
+    }
+
+    /**
+     * Decode and update all complete messages received from client. Incomplete tail is kept for next receive.
+     * Messages with invalid source or content are dropped, and remaining data are dropped if invalid.
+     * 
+     * @param client The client to decode.
+     */
+    private void decode(ClientConnection client)
+    {
+        final FrameDecoder decoder = client.getDecoder();
+        int count = 0;
+        try
+        {
+            while (client.getState() != StateConnection.DISCONNECTED && decoder.next(client.getVersion(), header))
+            {
+                count++;
+                final byte from = header.getFrom();
+
+                // Check id
+                if (from != client.getId())
+                {
+                    droppedFrames++;
+                    continue;
+                }
+                // Check message header type
+                try
+                {
+                    updateMessage(client, decoder.getBody(), header.getSystem(), from);
+                    decodedFrames++;
+                }
+                catch (final IOException exception)
+                {
+                    Verbose.exception(exception, "Error on updating server");
+                    droppedFrames++;
+                }
+            }
+            client.countReceived(decoder.compact(), count);
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Invalid data from client: ", String.valueOf(client.getId()));
+            droppedFrames++;
+            client.countReceived(decoder.compact() + decoder.clear(), count);
+            // Frames cannot be delimited anymore
+            if (client.getVersion() >= NetworkProtocol.VERSION_FRAMED)
+            {
+                removeClient(client);
+            }
+        }
+    }
+
+    /**
+     * Get a client counter.
+     * 
+     * @param clientId The client id.
+     * @param counter The counter getter.
+     * @return The counter value, <code>0</code> if no client.
+     */
+    private long getCounter(Byte clientId, ToLongFunction<ClientConnection> counter)
+    {
+        final ClientConnection client = clients.get(clientId);
+        if (client == null)
+        {
+            return 0L;
+        }
+        return counter.applyAsLong(client);
+    }
+
+    /**
+     * Notify listeners and other connected clients that a client has been disconnected.
+     * 
+     * @param client The disconnected client.
+     */
+    private void notifyDisconnected(ClientConnection client)
+    {
+        for (final ClientListener listener : listeners)
+        {
+            listener.notifyClientDisconnected(Byte.valueOf(client.getId()), client.getName());
+        }
+        try
+        {
+            notifyClients(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED, client, client.getId());
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    /**
+     * Send a message concerning a client to connected clients. Clients which cannot be reached are removed.
+     * 
+     * @param system The message system id.
+     * @param client The client concerned.
+     * @param except The client id to not send to.
+     * @throws IOException In case of error on encoding.
+     */
+    private void notifyClients(byte system, ClientConnection client, byte except) throws IOException
+    {
+        final byte[] name = encodeName(client.getName());
+        for (final ClientConnection other : clients.values())
+        {
+            if (other.getId() == except || other.getState() != StateConnection.CONNECTED)
+            {
+                continue;
+            }
+            try
+            {
+                other.send(system, client.getId(), NetworkProtocol.SERVER, (byte) 0, name, name.length);
+                other.flush();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                removeClient(other);
+            }
+        }
     }
 
     /**
@@ -203,7 +499,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveConnecting(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
+    private void receiveConnecting(ClientConnection client, DataInputStream buffer, byte from, StateConnection expected)
             throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
@@ -216,29 +512,44 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             }
             client.setName(new String(name, NetworkMessage.CHARSET));
 
+            // Receive the client version if supported, answer with the lowest one
+            byte version = NetworkProtocol.VERSION_LEGACY;
+            if (buffer.available() > 0)
+            {
+                version = buffer.readByte();
+            }
+            client.setVersion(Math.max(NetworkProtocol.VERSION_LEGACY, Math.min(version, NetworkProtocol.VERSION)));
+
             // Send new state
             client.setState(StateConnection.CONNECTED);
-            client.getOut().writeByte(NetworkMessageSystemId.CONNECTED);
-            client.getOut().writeByte(client.getId());
-            client.getOut().writeByte(clientsNumber - 1);
 
-            // Send the list of other clients
-            for (final ClientSocket other : clients.values())
+            // Send the list of other clients, ignoring the ones still connecting
+            final Collection<ClientConnection> others = new ArrayList<>(clients.size());
+            for (final ClientConnection other : clients.values())
             {
-                if (other.getId() != from)
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
                 {
-                    ServerImpl.writeIdAndName(client, other.getId(), other.getName());
+                    others.add(other);
                 }
             }
-            // Send message of the day if has
-            if (messageOfTheDay != null)
+            final ByteArrayOutputStream data = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(data))
             {
-                final byte[] motd = messageOfTheDay.getBytes(NetworkMessage.CHARSET);
-                client.getOut().writeByte(motd.length);
-                client.getOut().write(motd);
+                out.writeByte(others.size());
+                for (final ClientConnection other : others)
+                {
+                    out.writeByte(other.getId());
+                    ServerImpl.writeName(out, other.getName());
+                }
+                // Send message of the day if has
+                if (messageOfTheDay != null)
+                {
+                    ServerImpl.writeName(out, messageOfTheDay);
+                }
             }
-            // Send
-            client.getOut().flush();
+            final byte[] body = data.toByteArray();
+            client.send(NetworkMessageSystemId.CONNECTED, NetworkProtocol.SERVER, from, (byte) 0, body, body.length);
+            client.flush();
         }
     }
 
@@ -250,7 +561,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveConnected(ClientSocket client, byte from, StateConnection expected) throws IOException
+    private void receiveConnected(ClientConnection client, byte from, StateConnection expected) throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
@@ -262,17 +573,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             }
 
             // Notify other clients
-            for (final ClientSocket other : clients.values())
-            {
-                if (other.getId() == from)
-                {
-                    continue;
-                }
-                other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_CONNECTED);
-                ServerImpl.writeIdAndName(other, client.getId(), client.getName());
-                // Send
-                other.getOut().flush();
-            }
+            notifyClients(NetworkMessageSystemId.OTHER_CLIENT_CONNECTED, client, from);
         }
     }
 
@@ -282,30 +583,13 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param client The current client.
      * @param from The id from.
      * @param expected The expected client state.
-     * @throws IOException If error.
      */
-    private void receiveDisconnected(ClientSocket client, byte from, StateConnection expected) throws IOException
+    private void receiveDisconnected(ClientConnection client, byte from, StateConnection expected)
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
-            // Notify other clients
-            client.setState(StateConnection.DISCONNECTED);
-            for (final ClientListener listener : listeners)
-            {
-                listener.notifyClientDisconnected(Byte.valueOf(client.getId()), client.getName());
-            }
-            for (final ClientSocket other : clients.values())
-            {
-                if (other.getId() == from || other.getState() != StateConnection.CONNECTED)
-                {
-                    continue;
-                }
-                other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
-                ServerImpl.writeIdAndName(other, client.getId(), client.getName());
-                // Send
-                other.getOut().flush();
-            }
-            removeClient(Byte.valueOf(from));
+            // Notify listeners and other clients
+            removeClient(client);
         }
     }
 
@@ -318,7 +602,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveRenamed(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
+    private void receiveRenamed(ClientConnection client, DataInputStream buffer, byte from, StateConnection expected)
             throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
@@ -339,12 +623,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             }
 
             // Notify all clients
-            for (final ClientSocket other : clients.values())
-            {
-                other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
-                ServerImpl.writeIdAndName(other, client.getId(), client.getName());
-                other.getOut().flush();
-            }
+            notifyClients(NetworkMessageSystemId.OTHER_CLIENT_RENAMED, client, NetworkProtocol.SERVER);
         }
     }
 
@@ -357,14 +636,14 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveMessage(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
+    private void receiveMessage(ClientConnection client, DataInputStream buffer, byte from, StateConnection expected)
             throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
-            final byte dest = buffer.readByte();
-            final byte type = buffer.readByte();
-            final int size = buffer.readInt();
+            final byte dest = header.getDest();
+            final byte type = header.getType();
+            final int size = header.getSize();
             if (size > 0)
             {
                 final byte[] clientData = new byte[size];
@@ -374,8 +653,6 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
                     decodeMessage(type, from, dest, clientBuffer);
                 }
             }
-            final int headerSize = 4;
-            bandwidth += headerSize + size;
         }
     }
 
@@ -388,7 +665,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param from The source ID.
      * @throws IOException If error when reading.
      */
-    private void updateMessage(ClientSocket client, DataInputStream buffer, byte messageSystemId, byte from)
+    private void updateMessage(ClientConnection client, DataInputStream buffer, byte messageSystemId, byte from)
             throws IOException
     {
         switch (messageSystemId)
@@ -400,9 +677,14 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
                 receiveConnected(client, from, StateConnection.CONNECTED);
                 break;
             case NetworkMessageSystemId.PING:
-                client.getOut().writeByte(NetworkMessageSystemId.PING);
-                client.getOut().flush();
-                bandwidth += 1;
+                if (client.getVersion() >= NetworkProtocol.VERSION_FRAMED)
+                {
+                    client.queue(PING_FRAMED);
+                }
+                else
+                {
+                    client.queue(PING_LEGACY);
+                }
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
                 receiveDisconnected(client, from, StateConnection.CONNECTED);
@@ -430,14 +712,28 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
 
     @Override
     public void start(String name, int port)
+    {
+        start(name, port, ServerTransport.SOCKET);
+    }
+
+    @Override
+    public void start(String name, int port, ServerTransport transport)
     {
         if (!started)
         {
             try
             {
-                serverSocket = new ServerSocket(port);
-                clientConnectionListener = new ClientConnecter(serverSocket, this);
-                clientConnectionListener.start();
+                if (ServerTransport.SELECTOR == transport)
+                {
+                    clientSelector = new ClientSelector(port, this);
+                }
+                else
+                {
+                    serverSocket = new ServerSocket(port);
+                    clientConnectionListener = new ClientConnecter(serverSocket, this);
+                    clientConnectionListener.start();
+                }
+                this.transport = transport;
                 this.port = port;
                 bandwidthTimer.start();
                 started = true;
@@ -473,6 +769,48 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         return port;
     }
 
+    @Override
+    public ServerTransport getTransport()
+    {
+        return transport;
+    }
+
+    @Override
+    public long getSentBytes(Byte clientId)
+    {
+        return getCounter(clientId, ClientConnection::getSentBytes);
+    }
+
+    @Override
+    public long getSentFrames(Byte clientId)
+    {
+        return getCounter(clientId, ClientConnection::getSentFrames);
+    }
+
+    @Override
+    public long getReceivedBytes(Byte clientId)
+    {
+        return getCounter(clientId, ClientConnection::getReceivedBytes);
+    }
+
+    @Override
+    public long getReceivedFrames(Byte clientId)
+    {
+        return getCounter(clientId, ClientConnection::getReceivedFrames);
+    }
+
+    @Override
+    public int getDecodedFrames()
+    {
+        return decodedFrames;
+    }
+
+    @Override
+    public int getDroppedFrames()
+    {
+        return droppedFrames;
+    }
+
     /*
      * Networker
      */
@@ -485,45 +823,58 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             return;
         }
         receiveMessages();
-        clientConnectionListener.terminate();
+        if (clientConnectionListener != null)
+        {
+            clientConnectionListener.terminate();
+        }
 
         // Disconnect all clients
-        final Collection<ClientSocket> delete = new ArrayList<>(clients.size());
-        for (final ClientSocket client : clients.values())
+        final Collection<ClientConnection> delete = new ArrayList<>(clients.size());
+        for (final ClientConnection client : clients.values())
         {
-            for (final ClientSocket other : clients.values())
+            try
             {
-                if (other.getId() == client.getId())
-                {
-                    continue;
-                }
-                try
-                {
-                    other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
-                    ServerImpl.writeIdAndName(other, client.getId(), client.getName());
-                    other.getOut().flush();
-                }
-                catch (final IOException exception)
-                {
-                    Verbose.exception(exception);
-                }
+                notifyClients(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED, client, client.getId());
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
             }
             delete.add(client);
         }
-        for (final ClientSocket client : delete)
+        for (final ClientConnection client : delete)
         {
-            client.sendMessage(NetworkMessageSystemId.KICKED);
+            try
+            {
+                client.send(NetworkMessageSystemId.KICKED, NetworkProtocol.SERVER, client.getId(), (byte) 0, EMPTY, 0);
+                client.flush();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+            // Other clients already notified
+            client.setState(StateConnection.DISCONNECTED);
             removeClient(client);
         }
         delete.clear();
         clients.clear();
-        try
+        if (clientSelector != null)
         {
-            serverSocket.close();
+            clientSelector.terminate();
+            clientSelector = null;
         }
-        catch (final IOException exception)
+        else
         {
-            Verbose.exception(exception, "Error on closing server");
+            try
+            {
+                serverSocket.close();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Error on closing server");
+            }
+            clientConnectionListener = null;
         }
         started = false;
     }
@@ -532,34 +883,27 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     public void receiveMessages()
     {
         messagesIn.clear();
-        for (final ClientSocket client : clients.values())
+        if (clientSelector != null)
         {
-            // Get client data from socket
-            final byte[] data = client.receiveMessages();
-            try (DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(data)))
-            {
-                final byte messageSystemId = buffer.readByte();
-                final byte from = buffer.readByte();
-
-                // Check id
-                if (from != client.getId())
-                {
-                    continue;
-                }
-                // Check message header type
-                updateMessage(client, buffer, messageSystemId, from);
-            }
-            catch (final IOException exception)
-            {
-                Verbose.exception(exception, "Error on updating server");
-            }
+            clientSelector.poll();
+        }
+        addAccepted();
+        decodedFrames = 0;
+        droppedFrames = 0;
+        for (final ClientConnection client : clients.values())
+        {
+            // Get client data from connection, and decode all complete messages
+            client.receiveMessages();
+            decode(client);
+            removeClosed(client);
         }
         // Remove deleted clients
         if (willRemove)
         {
-            for (final ClientSocket client : toRemove)
+            for (final ClientConnection client : toRemove)
             {
                 clients.remove(Byte.valueOf(client.getId()));
+                transferredRemoved += client.getSentBytes();
             }
             toRemove.clear();
             willRemove = false;
@@ -569,47 +913,69 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     @Override
     public void sendMessages()
     {
-        // Send messages
+        // Encode each message once per protocol version, shared by its recipients
         messagesOut.addAll(messagesIn);
         for (final NetworkMessage message : messagesOut)
         {
-            for (final ClientSocket client : clients.values())
+            final byte dest = message.getClientDestId();
+            byte[] legacy = null;
+            byte[] framed = null;
+            for (final ClientConnection client : clients.values())
             {
-                if (!(message.getClientDestId() == client.getId() || message.getClientDestId() == -1))
+                if (client.getState() != StateConnection.CONNECTED || dest != client.getId() && dest != -1)
                 {
                     continue;
                 }
-                try (ByteArrayOutputStream encode = message.encode())
+                try
                 {
-                    final byte[] encoded = encode.toByteArray();
-                    // Message header
-                    client.getOut().writeByte(NetworkMessageSystemId.USER_MESSAGE);
-                    client.getOut().writeByte(message.getClientId());
-                    client.getOut().writeByte(message.getClientDestId());
-                    client.getOut().writeByte(message.getType());
-                    // Message content
-                    client.getOut().writeInt(encoded.length);
-                    client.getOut().write(encoded);
-                    client.getOut().flush();
-
-                    final int headerSize = 4;
-                    bandwidth += headerSize + encoded.length;
+                    if (client.getVersion() >= NetworkProtocol.VERSION_FRAMED)
+                    {
+                        if (framed == null)
+                        {
+                            framed = encode(message, NetworkProtocol.VERSION_FRAMED);
+                        }
+                        client.queue(framed);
+                    }
+                    else
+                    {
+                        if (legacy == null)
+                        {
+                            legacy = encode(message, NetworkProtocol.VERSION_LEGACY);
+                        }
+                        client.queue(legacy);
+                    }
                 }
                 catch (final IOException exception)
                 {
-                    Verbose.exception(exception,
-                                      "Unable to send the messages for client: ",
-                                      String.valueOf(client.getId()));
+                    Verbose.exception(exception, "Unable to encode the message: ", String.valueOf(message.getType()));
+                    break;
                 }
             }
         }
+        messagesOut.clear();
+
+        // Send all frames of a client at once
+        long transferred = transferredRemoved;
+        for (final ClientConnection client : clients.values())
+        {
+            try
+            {
+                client.sendFrames();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception,
+                                  "Unable to send the messages for client: ",
+                                  String.valueOf(client.getId()));
+            }
+            transferred += client.getSentBytes();
+        }
         final long bandwidthMilli = 1000L;
         if (bandwidthTimer.elapsed(bandwidthMilli))
         {
-            bandwidthPerSecond = bandwidth;
-            bandwidth = 0;
+            bandwidthPerSecond = (int) (transferred - transferredLast);
+            transferredLast = transferred;
             bandwidthTimer.restart();
         }
-        messagesOut.clear();
     }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+/**
+ * List of server transports, handling client connections and data exchanges. Both are compatible with the same
+ * clients.
+ */
+public enum ServerTransport
+{
+    /** Blocking sockets, with a thread accepting connections and streams polled on each receive. */
+    SOCKET,
+    /**
+     * Non blocking channels, multiplexed by a single selector polled on each receive. Connections are accepted and
+     * read without dedicated thread, data are exchanged with per connection buffers.
+     */
+    SELECTOR;
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+
+/**
+ * Entities state at a sequence, stored in primitive buffers to be reused for each sequence.
+ * <p>
+ * Entities are sorted by id, each one owning a range of integer fields.
+ * </p>
+ */
+final class Snapshot
+{
+    /** No sequence. */
+    static final int NONE = -1;
+    /** Number of snapshots kept as possible delta baselines. */
+    static final int HISTORY = 32;
+    /** Initial entities capacity. */
+    private static final int CAPACITY = 16;
+
+    /** Entities id, sorted. */
+    private int[] ids = new int[CAPACITY];
+    /** Entities first field index. */
+    private int[] offsets = new int[CAPACITY];
+    /** Entities fields number. */
+    private int[] counts = new int[CAPACITY];
+    /** Entities fields. */
+    private int[] fields = new int[CAPACITY * 2];
+    /** Number of entities. */
+    private int size;
+    /** Number of used fields. */
+    private int length;
+    /** Snapshot sequence. */
+    private int sequence = NONE;
+
+    /**
+     * Create snapshot.
+     */
+    Snapshot()
+    {
+        super();
+    }
+
+    /**
+     * Remove all entities and set sequence.
+     * 
+     * @param sequence The new sequence.
+     */
+    public void clear(int sequence)
+    {
+        this.sequence = sequence;
+        size = 0;
+        length = 0;
+    }
+
+    /**
+     * Add an entity, with an id greater than the previous one.
+     * 
+     * @param id The entity id.
+     * @param count The entity fields number.
+     * @return The entity first field index in {@link #getFields()}.
+     */
+    public int add(int id, int count)
+    {
+        if (size == ids.length)
+        {
+            ids = Arrays.copyOf(ids, size * 2);
+            offsets = Arrays.copyOf(offsets, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        if (length + count > fields.length)
+        {
+            fields = Arrays.copyOf(fields, Math.max(length + count, fields.length * 2));
+        }
+        final int offset = length;
+        ids[size] = id;
+        offsets[size] = offset;
+        counts[size] = count;
+        size++;
+        length += count;
+        return offset;
+    }
+
+    /**
+     * Add an entity with the fields of another snapshot entity.
+     * 
+     * @param other The other snapshot.
+     * @param index The other entity index.
+     */
+    public void copy(Snapshot other, int index)
+    {
+        final int count = other.counts[index];
+        final int offset = add(other.ids[index], count);
+        System.arraycopy(other.fields, other.offsets[index], fields, offset, count);
+    }
+
+    /**
+     * Check if entity fields are the same in another snapshot entity.
+     * 
+     * @param index The entity index.
+     * @param other The other snapshot.
+     * @param otherIndex The other entity index.
+     * @return <code>true</code> if same fields, <code>false</code> else.
+     */
+    public boolean isSame(int index, Snapshot other, int otherIndex)
+    {
+        final int count = counts[index];
+        if (count != other.counts[otherIndex])
+        {
+            return false;
+        }
+        final int offset = offsets[index];
+        final int otherOffset = other.offsets[otherIndex];
+        for (int i = 0; i < count; i++)
+        {
+            if (fields[offset + i] != other.fields[otherOffset + i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the entity index.
+     * 
+     * @param id The entity id.
+     * @return The entity index, negative if none.
+     */
+    public int indexOf(int id)
+    {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    /**
+     * Get the snapshot sequence.
+     * 
+     * @return The snapshot sequence, {@link #NONE} if not recorded.
+     */
+    public int getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * Get the number of entities.
+     * 
+     * @return The number of entities.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the entity id.
+     * 
+     * @param index The entity index.
+     * @return The entity id.
+     */
+    public int getId(int index)
+    {
+        return ids[index];
+    }
+
+    /**
+     * Get the entity first field index in {@link #getFields()}.
+     * 
+     * @param index The entity index.
+     * @return The entity first field index.
+     */
+    public int getOffset(int index)
+    {
+        return offsets[index];
+    }
+
+    /**
+     * Get the entity fields number.
+     * 
+     * @param index The entity index.
+     * @return The entity fields number.
+     */
+    public int getCount(int index)
+    {
+        return counts[index];
+    }
+
+    /**
+     * Get the fields of all entities.
+     * 
+     * @return The fields buffer.
+     */
+    public int[] getFields()
+    {
+        return fields;
+    }
+}
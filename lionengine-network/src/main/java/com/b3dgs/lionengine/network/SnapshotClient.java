@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.network.purview.Replicable;
+
+/**
+ * Client side snapshots replication, decoding deltas encoded by {@link SnapshotServer}.
+ * <p>
+ * Each decoded snapshot is rebuilt from its baseline and kept in history, so it can be used as baseline of next
+ * deltas once acknowledged. Entities added or changed since the previous decoded snapshot are applied to their
+ * replicable, if any.
+ * </p>
+ */
+final class SnapshotClient
+{
+    /** Unknown baseline error. */
+    private static final String ERROR_BASELINE = "Unknown snapshot baseline: ";
+    /** Unknown entity error. */
+    private static final String ERROR_ENTITY = "Unknown snapshot entity: ";
+    /** Initial capacity of decoded ids. */
+    private static final int CAPACITY = 16;
+
+    /** Replicated entities. */
+    private final Replicables replicables = new Replicables();
+    /** Decoded snapshots. */
+    private final Snapshot[] history = new Snapshot[Snapshot.HISTORY];
+    /** Delta reader. */
+    private final BitReader reader = new BitReader();
+    /** Removed entities id of last delta. */
+    private int[] removed = new int[CAPACITY];
+    /** Last decoded snapshot. */
+    private Snapshot last;
+
+    /**
+     * Create client snapshots.
+     */
+    SnapshotClient()
+    {
+        super();
+
+        for (int i = 0; i < history.length; i++)
+        {
+            history[i] = new Snapshot();
+        }
+    }
+
+    /**
+     * Add a replicated entity, last received state being applied if any.
+     * 
+     * @param id The entity id.
+     * @param replicable The entity state.
+     */
+    public void put(int id, Replicable replicable)
+    {
+        replicables.put(id, replicable);
+        if (last != null)
+        {
+            final int index = last.indexOf(id);
+            if (index >= 0 && last.getCount(index) == replicable.getFields())
+            {
+                replicable.apply(last.getFields(), last.getOffset(index));
+            }
+        }
+    }
+
+    /**
+     * Remove a replicated entity.
+     * 
+     * @param id The entity id.
+     */
+    public void remove(int id)
+    {
+        replicables.remove(id);
+    }
+
+    /**
+     * Decode a snapshot delta and apply changes.
+     * 
+     * @param data The encoded delta.
+     * @return The decoded sequence to acknowledge, {@link Snapshot#NONE} if older than last one.
+     * @throws IOException If invalid data or unknown baseline.
+     */
+    public int decode(byte[] data) throws IOException
+    {
+        reader.reset(data);
+        final int sequence = reader.read(BitWriter.INT);
+        if (last != null && sequence <= last.getSequence())
+        {
+            return Snapshot.NONE;
+        }
+        Snapshot baseline = null;
+        if (reader.readBoolean())
+        {
+            final int distance = reader.readUnsigned();
+            final int received = sequence - distance;
+            baseline = history[Math.floorMod(received, Snapshot.HISTORY)];
+            if (distance <= 0 || distance >= Snapshot.HISTORY || baseline.getSequence() != received)
+            {
+                throw new IOException(ERROR_BASELINE + String.valueOf(received));
+            }
+        }
+        final Snapshot snapshot = history[Math.floorMod(sequence, Snapshot.HISTORY)];
+        final Snapshot previous = last != snapshot ? last : null;
+        last = null;
+        snapshot.clear(sequence);
+
+        final int removedCount = decodeRemoved();
+        decodeChanged(snapshot, baseline, removedCount);
+        apply(snapshot, previous);
+        last = snapshot;
+
+        return sequence;
+    }
+
+    /**
+     * Apply entities added or changed since previous snapshot.
+     * 
+     * @param snapshot The decoded snapshot.
+     * @param previous The previous decoded snapshot (<code>null</code> if none).
+     */
+    private void apply(Snapshot snapshot, Snapshot previous)
+    {
+        final int previousSize = previous != null ? previous.getSize() : 0;
+        final int[] fields = snapshot.getFields();
+        int index = 0;
+        for (int i = 0; i < snapshot.getSize(); i++)
+        {
+            final int id = snapshot.getId(i);
+            while (index < previousSize && previous.getId(index) < id)
+            {
+                index++;
+            }
+            if (index < previousSize && previous.getId(index) == id && snapshot.isSame(i, previous, index))
+            {
+                continue;
+            }
+            final Replicable replicable = replicables.find(id);
+            if (replicable != null && replicable.getFields() == snapshot.getCount(i))
+            {
+                replicable.apply(fields, snapshot.getOffset(i));
+            }
+        }
+    }
+
+    /**
+     * Decode removed entities id.
+     * 
+     * @return The number of removed entities.
+     * @throws IOException If invalid data.
+     */
+    private int decodeRemoved() throws IOException
+    {
+        int count = 0;
+        int id = 0;
+        while (reader.readBoolean())
+        {
+            id += reader.readUnsigned();
+            if (count == removed.length)
+            {
+                removed = Arrays.copyOf(removed, count * 2);
+            }
+            removed[count] = id;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Decode added or changed entities, and copy the other baseline entities not removed.
+     * 
+     * @param snapshot The snapshot to fill.
+     * @param baseline The delta baseline (<code>null</code> if full).
+     * @param removedCount The number of removed entities.
+     * @throws IOException If invalid data.
+     */
+    private void decodeChanged(Snapshot snapshot, Snapshot baseline, int removedCount) throws IOException
+    {
+        final int baseSize = baseline != null ? baseline.getSize() : 0;
+        int index = 0;
+        int removedIndex = 0;
+        int id = 0;
+        while (reader.readBoolean())
+        {
+            id += reader.readUnsigned();
+            while (index < baseSize && baseline.getId(index) < id)
+            {
+                removedIndex = copy(snapshot, baseline, index, removedIndex, removedCount);
+                index++;
+            }
+            final boolean known = index < baseSize && baseline.getId(index) == id;
+            if (reader.readBoolean())
+            {
+                decodeFull(snapshot, id);
+            }
+            else if (known)
+            {
+                decodeDelta(snapshot, baseline, index, id);
+            }
+            else
+            {
+                throw new IOException(ERROR_ENTITY + String.valueOf(id));
+            }
+            if (known)
+            {
+                index++;
+            }
+        }
+        while (index < baseSize)
+        {
+            removedIndex = copy(snapshot, baseline, index, removedIndex, removedCount);
+            index++;
+        }
+    }
+
+    /**
+     * Copy baseline entity to snapshot if not removed.
+     * 
+     * @param snapshot The snapshot to fill.
+     * @param baseline The delta baseline.
+     * @param index The baseline entity index.
+     * @param removedIndex The next removed entity index.
+     * @param removedCount The number of removed entities.
+     * @return The next removed entity index.
+     */
+    private int copy(Snapshot snapshot, Snapshot baseline, int index, int removedIndex, int removedCount)
+    {
+        final int id = baseline.getId(index);
+        int next = removedIndex;
+        while (next < removedCount && removed[next] < id)
+        {
+            next++;
+        }
+        if (next == removedCount || removed[next] != id)
+        {
+            snapshot.copy(baseline, index);
+        }
+        return next;
+    }
+
+    /**
+     * Decode all entity fields.
+     * 
+     * @param snapshot The snapshot to fill.
+     * @param id The entity id.
+     * @throws IOException If invalid data.
+     */
+    private void decodeFull(Snapshot snapshot, int id) throws IOException
+    {
+        final int count = reader.readUnsigned();
+        if (count < 0 || count > reader.getRemaining())
+        {
+            throw new IOException(ERROR_ENTITY + String.valueOf(id));
+        }
+        final int offset = snapshot.add(id, count);
+        final int[] fields = snapshot.getFields();
+        for (int i = 0; i < count; i++)
+        {
+            fields[offset + i] = reader.readSigned();
+        }
+    }
+
+    /**
+     * Decode entity fields changed since baseline.
+     * 
+     * @param snapshot The snapshot to fill.
+     * @param baseline The delta baseline.
+     * @param index The baseline entity index.
+     * @param id The entity id.
+     * @throws IOException If invalid data.
+     */
+    private void decodeDelta(Snapshot snapshot, Snapshot baseline, int index, int id) throws IOException
+    {
+        final int count = baseline.getCount(index);
+        final int offset = snapshot.add(id, count);
+        final int[] fields = snapshot.getFields();
+        final int[] base = baseline.getFields();
+        final int baseOffset = baseline.getOffset(index);
+        for (int i = 0; i < count; i++)
+        {
+            if (reader.readBoolean())
+            {
+                fields[offset + i] = base[baseOffset + i] + reader.readSigned();
+            }
+            else
+            {
+                fields[offset + i] = base[baseOffset + i];
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.purview.Replicable;
+
+/**
+ * Server side snapshots replication.
+ * <p>
+ * Entities state is recorded each sequence in a {@link Snapshot} history. Each client receives the delta between the
+ * current snapshot and the last one it acknowledged, or the full snapshot if none is available anymore:
+ * </p>
+ * <ul>
+ * <li>sequence, then baseline sequence distance if any</li>
+ * <li>removed entities id, each preceded by a set bit, ended by a cleared bit</li>
+ * <li>added or changed entities id, each preceded by a set bit, ended by a cleared bit, followed by a full flag, then
+ * fields number and values if full, else a changed flag per field followed by its difference if set</li>
+ * </ul>
+ * <p>
+ * Ids are stored as the difference with the previous one, and values with their bit length, so unchanged entities cost
+ * nothing and small moves a few bits.
+ * </p>
+ */
+final class SnapshotServer
+{
+    /** Client not connected. */
+    private static final int DISCONNECTED = Integer.MIN_VALUE;
+    /** Maximum number of clients. */
+    private static final int CLIENTS = 256;
+
+    /** Replicated entities. */
+    private final Replicables replicables = new Replicables();
+    /** Recorded snapshots. */
+    private final Snapshot[] history = new Snapshot[Snapshot.HISTORY];
+    /** Last sequence acknowledged by clients, indexed by client id. */
+    private final int[] acknowledged = new int[CLIENTS];
+    /** Connected clients, indexed by client id. */
+    private final boolean[] connected = new boolean[CLIENTS];
+    /** Delta writer. */
+    private final BitWriter writer = new BitWriter();
+    /** Current snapshot. */
+    private Snapshot current;
+    /** Current sequence. */
+    private int sequence = Snapshot.NONE;
+
+    /**
+     * Create server snapshots.
+     */
+    SnapshotServer()
+    {
+        super();
+
+        for (int i = 0; i < history.length; i++)
+        {
+            history[i] = new Snapshot();
+        }
+        Arrays.fill(acknowledged, DISCONNECTED);
+    }
+
+    /**
+     * Add a replicated entity.
+     * 
+     * @param id The entity id.
+     * @param replicable The entity state.
+     */
+    public void put(int id, Replicable replicable)
+    {
+        replicables.put(id, replicable);
+    }
+
+    /**
+     * Remove a replicated entity.
+     * 
+     * @param id The entity id.
+     */
+    public void remove(int id)
+    {
+        replicables.remove(id);
+    }
+
+    /**
+     * Add a connected client. Previous state of the same id is cleared, and client will not receive snapshots until
+     * its first acknowledge.
+     * 
+     * @param client The client id.
+     */
+    public void addClient(byte client)
+    {
+        final int index = client & 0xFF;
+        acknowledged[index] = DISCONNECTED;
+        connected[index] = true;
+    }
+
+    /**
+     * Remove a client. Its pending acknowledges are ignored.
+     * 
+     * @param client The client id.
+     */
+    public void removeClient(byte client)
+    {
+        final int index = client & 0xFF;
+        acknowledged[index] = DISCONNECTED;
+        connected[index] = false;
+    }
+
+    /**
+     * Acknowledge a sequence received by client. Older sequences are ignored, as well as clients not connected.
+     * Acknowledging {@link Snapshot#NONE} starts sending to the client, which will receive full snapshot until its next
+     * acknowledge.
+     * 
+     * @param client The client id.
+     * @param received The received sequence.
+     */
+    public void acknowledge(byte client, int received)
+    {
+        final int index = client & 0xFF;
+        if (!connected[index])
+        {
+            return;
+        }
+        if (received == Snapshot.NONE)
+        {
+            acknowledged[index] = Snapshot.NONE;
+        }
+        else if (acknowledged[index] != DISCONNECTED && received > acknowledged[index] && received <= sequence)
+        {
+            acknowledged[index] = received;
+        }
+    }
+
+    /**
+     * Record the entities state as the next sequence.
+     */
+    public void record()
+    {
+        sequence++;
+        current = history[sequence % Snapshot.HISTORY];
+        current.clear(sequence);
+        for (int i = 0; i < replicables.getSize(); i++)
+        {
+            final Replicable replicable = replicables.get(i);
+            final int offset = current.add(replicables.getId(i), replicable.getFields());
+            replicable.record(current.getFields(), offset);
+        }
+    }
+
+    /**
+     * Add to network the delta of the last recorded snapshot for each client.
+     * 
+     * @param network The network reference.
+     */
+    public void send(Networker<?> network)
+    {
+        if (current == null)
+        {
+            return;
+        }
+        for (int i = 0; i < CLIENTS; i++)
+        {
+            if (acknowledged[i] != DISCONNECTED)
+            {
+                final Snapshot baseline = getBaseline(acknowledged[i]);
+                network.addMessage(new NetworkMessageSnapshot((byte) i, encode(current, baseline)));
+            }
+        }
+    }
+
+    /**
+     * Get the snapshot of an acknowledged sequence.
+     * 
+     * @param received The acknowledged sequence.
+     * @return The snapshot, <code>null</code> if none or not available anymore.
+     */
+    private Snapshot getBaseline(int received)
+    {
+        if (received == Snapshot.NONE || sequence - received >= Snapshot.HISTORY)
+        {
+            return null;
+        }
+        final Snapshot baseline = history[received % Snapshot.HISTORY];
+        if (baseline.getSequence() == received)
+        {
+            return baseline;
+        }
+        return null;
+    }
+
+    /**
+     * Encode the delta between snapshots.
+     * 
+     * @param snapshot The snapshot to encode.
+     * @param baseline The snapshot known by client (<code>null</code> if full).
+     * @return The encoded delta.
+     */
+    private byte[] encode(Snapshot snapshot, Snapshot baseline)
+    {
+        writer.clear();
+        writer.write(snapshot.getSequence(), BitWriter.INT);
+        writer.writeBoolean(baseline != null);
+        if (baseline != null)
+        {
+            writer.writeUnsigned(snapshot.getSequence() - baseline.getSequence());
+            encodeRemoved(snapshot, baseline);
+        }
+        else
+        {
+            writer.writeBoolean(false);
+        }
+        encodeChanged(snapshot, baseline);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Encode the baseline entities missing in snapshot.
+     * 
+     * @param snapshot The snapshot to encode.
+     * @param baseline The snapshot known by client.
+     */
+    private void encodeRemoved(Snapshot snapshot, Snapshot baseline)
+    {
+        int previous = 0;
+        int index = 0;
+        for (int i = 0; i < baseline.getSize(); i++)
+        {
+            final int id = baseline.getId(i);
+            while (index < snapshot.getSize() && snapshot.getId(index) < id)
+            {
+                index++;
+            }
+            if (index == snapshot.getSize() || snapshot.getId(index) != id)
+            {
+                writer.writeBoolean(true);
+                writer.writeUnsigned(id - previous);
+                previous = id;
+            }
+        }
+        writer.writeBoolean(false);
+    }
+
+    /**
+     * Encode the snapshot entities added or changed since baseline.
+     * 
+     * @param snapshot The snapshot to encode.
+     * @param baseline The snapshot known by client (<code>null</code> if full).
+     */
+    private void encodeChanged(Snapshot snapshot, Snapshot baseline)
+    {
+        final int[] fields = snapshot.getFields();
+        int previous = 0;
+        int index = 0;
+        for (int i = 0; i < snapshot.getSize(); i++)
+        {
+            final int id = snapshot.getId(i);
+            final int count = snapshot.getCount(i);
+            final int offset = snapshot.getOffset(i);
+            if (baseline != null)
+            {
+                while (index < baseline.getSize() && baseline.getId(index) < id)
+                {
+                    index++;
+                }
+            }
+            final boolean known = baseline != null
+                                  && index < baseline.getSize()
+                                  && baseline.getId(index) == id
+                                  && baseline.getCount(index) == count;
+            if (known && snapshot.isSame(i, baseline, index))
+            {
+                continue;
+            }
+            writer.writeBoolean(true);
+            writer.writeUnsigned(id - previous);
+            previous = id;
+            writer.writeBoolean(!known);
+            if (known)
+            {
+                final int[] base = baseline.getFields();
+                final int baseOffset = baseline.getOffset(index);
+                for (int j = 0; j < count; j++)
+                {
+                    final int delta = fields[offset + j] - base[baseOffset + j];
+                    writer.writeBoolean(delta != 0);
+                    if (delta != 0)
+                    {
+                        writer.writeSigned(delta);
+                    }
+                }
+            }
+            else
+            {
+                writer.writeUnsigned(count);
+                for (int j = 0; j < count; j++)
+                {
+                    writer.writeSigned(fields[offset + j]);
+                }
+            }
+        }
+        writer.writeBoolean(false);
+    }
+}
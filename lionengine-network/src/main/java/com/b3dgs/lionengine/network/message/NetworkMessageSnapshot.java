@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Entities state snapshot sent by server to a client, as a bit packed delta from the last snapshot acknowledged by the
+ * client with {@link NetworkMessageSnapshotAck}.
+ * <p>
+ * Its type is reserved, decoded by networked world before the {@link NetworkMessageDecoder}.
+ * </p>
+ */
+public class NetworkMessageSnapshot extends NetworkMessage
+{
+    /** Reserved message type. */
+    public static final byte TYPE = Byte.MIN_VALUE;
+
+    /** The encoded delta. */
+    private byte[] data;
+
+    /**
+     * Constructor.
+     */
+    public NetworkMessageSnapshot()
+    {
+        super();
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param clientDestId The client destination.
+     * @param data The encoded delta.
+     */
+    public NetworkMessageSnapshot(byte clientDestId, byte[] data)
+    {
+        super(TYPE, (byte) -1, clientDestId);
+        this.data = data;
+    }
+
+    /**
+     * Get the encoded delta.
+     * 
+     * @return The encoded delta.
+     */
+    public byte[] getData()
+    {
+        return data;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    @Override
+    protected void encode(ByteArrayOutputStream buffer) throws IOException
+    {
+        buffer.write(data);
+    }
+
+    @Override
+    protected void decode(DataInputStream buffer) throws IOException
+    {
+        data = new byte[buffer.available()];
+        buffer.readFully(data);
+    }
+}
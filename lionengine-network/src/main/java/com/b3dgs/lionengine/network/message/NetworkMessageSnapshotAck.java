@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import com.b3dgs.lionengine.UtilConversion;
+
+/**
+ * Acknowledge of a {@link NetworkMessageSnapshot} sequence sent by a client, consumed by server.
+ * <p>
+ * Its type is reserved, decoded by networked world before the {@link NetworkMessageDecoder}.
+ * </p>
+ */
+public class NetworkMessageSnapshotAck extends NetworkMessage
+{
+    /** Reserved message type. */
+    public static final byte TYPE = Byte.MIN_VALUE + 1;
+
+    /** The received sequence. */
+    private int sequence;
+
+    /**
+     * Constructor.
+     */
+    public NetworkMessageSnapshotAck()
+    {
+        super();
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param clientId The client id.
+     * @param sequence The received sequence.
+     */
+    public NetworkMessageSnapshotAck(byte clientId, int sequence)
+    {
+        super(TYPE, clientId);
+        this.sequence = sequence;
+    }
+
+    /**
+     * Get the received sequence.
+     * 
+     * @return The received sequence.
+     */
+    public int getSequence()
+    {
+        return sequence;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    @Override
+    protected void encode(ByteArrayOutputStream buffer) throws IOException
+    {
+        buffer.write(UtilConversion.intToByteArray(sequence));
+    }
+
+    @Override
+    protected void decode(DataInputStream buffer) throws IOException
+    {
+        sequence = buffer.readInt();
+    }
+}
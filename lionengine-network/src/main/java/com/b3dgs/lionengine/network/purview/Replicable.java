@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.purview;
+
+/**
+ * Represents an entity state replicated from server to clients by delta snapshots.
+ * <p>
+ * State is stored as a constant number of integer fields. Server records it each time messages are sent, and only
+ * fields changed since the last state acknowledged by a client are sent to it. Client applies each received change.
+ * </p>
+ * 
+ * @see com.b3dgs.lionengine.network.NetworkedWorld#addReplicable(int, Replicable)
+ */
+public interface Replicable
+{
+    /**
+     * Get the number of state fields. Must not change once replicated.
+     * 
+     * @return The number of state fields.
+     */
+    int getFields();
+
+    /**
+     * Record the current state (server side).
+     * 
+     * @param state The state buffer to fill.
+     * @param offset The first field index in buffer.
+     */
+    void record(int[] state, int offset);
+
+    /**
+     * Apply a received state (client side).
+     * 
+     * @param state The state buffer to read.
+     * @param offset The first field index in buffer.
+     */
+    void apply(int[] state, int offset);
+}
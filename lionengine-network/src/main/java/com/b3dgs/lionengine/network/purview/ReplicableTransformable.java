@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.purview;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Transformable;
+
+/**
+ * Replicate a transformable location, quantized to a fixed precision so small moves are encoded on a few bits.
+ */
+public class ReplicableTransformable implements Replicable
+{
+    /** Number of fields (horizontal and vertical location). */
+    private static final int FIELDS = 2;
+
+    /** Transformable reference. */
+    private final Transformable transformable;
+    /** Location precision. */
+    private final double precision;
+
+    /**
+     * Create replicable.
+     * 
+     * @param transformable The transformable reference (must not be <code>null</code>).
+     * @param precision The location precision, as the smallest replicated move (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public ReplicableTransformable(Transformable transformable, double precision)
+    {
+        super();
+
+        Check.notNull(transformable);
+        Check.superiorStrict(precision, 0.0);
+
+        this.transformable = transformable;
+        this.precision = precision;
+    }
+
+    /*
+     * Replicable
+     */
+
+    @Override
+    public int getFields()
+    {
+        return FIELDS;
+    }
+
+    @Override
+    public void record(int[] state, int offset)
+    {
+        state[offset] = (int) Math.round(transformable.getX() / precision);
+        state[offset + 1] = (int) Math.round(transformable.getY() / precision);
+    }
+
+    @Override
+    public void apply(int[] state, int offset)
+    {
+        transformable.teleport(state[offset] * precision, state[offset + 1] * precision);
+    }
+}
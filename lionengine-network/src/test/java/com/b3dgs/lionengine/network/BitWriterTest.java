@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link BitWriter} and {@link BitReader}.
+ */
+public final class BitWriterTest
+{
+    /** Unsigned values tested. */
+    private static final int[] UNSIGNED =
+    {
+        0, 1, 2, 3, 255, 256, 65_535, Integer.MAX_VALUE, -1, Integer.MIN_VALUE
+    };
+    /** Signed values tested. */
+    private static final int[] SIGNED =
+    {
+        0, 1, -1, 2, -2, 63, -64, 1000, -1000, Integer.MAX_VALUE, Integer.MIN_VALUE
+    };
+
+    /** Writer tested. */
+    private final BitWriter writer = new BitWriter();
+    /** Reader tested. */
+    private final BitReader reader = new BitReader();
+
+    /**
+     * Test raw bits and flags round trip.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testBits() throws IOException
+    {
+        writer.write(5, 3);
+        writer.writeBoolean(true);
+        writer.write(0x1ABC, 13);
+        writer.writeBoolean(false);
+        writer.write(0xCAFEBABE, BitWriter.INT);
+
+        assertEquals(7, writer.getSize());
+
+        reader.reset(writer.toByteArray());
+
+        assertEquals(5, reader.read(3));
+        assertTrue(reader.readBoolean());
+        assertEquals(0x1ABC, reader.read(13));
+        assertFalse(reader.readBoolean());
+        assertEquals(0xCAFEBABE, reader.read(BitWriter.INT));
+        assertEquals(6, reader.getRemaining());
+    }
+
+    /**
+     * Test unsigned values round trip.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testUnsigned() throws IOException
+    {
+        for (final int value : UNSIGNED)
+        {
+            writer.writeUnsigned(value);
+        }
+        reader.reset(writer.toByteArray());
+
+        for (final int value : UNSIGNED)
+        {
+            assertEquals(value, reader.readUnsigned());
+        }
+        assertTrue(reader.getRemaining() < BitWriter.BYTE);
+    }
+
+    /**
+     * Test signed values round trip.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSigned() throws IOException
+    {
+        for (final int value : SIGNED)
+        {
+            writer.writeSigned(value);
+        }
+        reader.reset(writer.toByteArray());
+
+        for (final int value : SIGNED)
+        {
+            assertEquals(value, reader.readSigned());
+        }
+        assertTrue(reader.getRemaining() < BitWriter.BYTE);
+    }
+
+    /**
+     * Test small values are packed.
+     */
+    @Test
+    public void testPacked()
+    {
+        writer.writeSigned(0);
+        writer.writeSigned(-1);
+
+        assertEquals(2, writer.getSize());
+
+        writer.clear();
+
+        assertEquals(0, writer.getSize());
+    }
+
+    /**
+     * Test reading beyond data.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testOverflow() throws IOException
+    {
+        writer.write(1, 4);
+        reader.reset(writer.toByteArray());
+
+        assertEquals(0, reader.read(3));
+        assertThrows(IOException.class, () -> reader.read(6), "Bit data overflow: 9");
+        assertThrows(IOException.class, () -> reader.readUnsigned(), "Bit data overflow: 9");
+    }
+}
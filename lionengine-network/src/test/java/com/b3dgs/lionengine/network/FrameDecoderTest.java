@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+
+/**
+ * Test {@link FrameDecoder}.
+ */
+public final class FrameDecoderTest
+{
+    /**
+     * Create a framed message.
+     * 
+     * @param system The system id.
+     * @param from The source id.
+     * @param body The message body.
+     * @return The frame data.
+     * @throws IOException If error.
+     */
+    private static byte[] createFrame(byte system, byte from, byte[] body) throws IOException
+    {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(data))
+        {
+            out.writeInt(NetworkProtocol.HEADER + body.length);
+            out.writeByte(system);
+            out.writeByte(from);
+            out.writeByte(NetworkProtocol.SERVER);
+            out.writeByte(1);
+            out.write(body);
+        }
+        return data.toByteArray();
+    }
+
+    /**
+     * Create a legacy connecting message.
+     * 
+     * @param from The source id.
+     * @param name The client name.
+     * @return The message data, without version.
+     * @throws IOException If error.
+     */
+    private static byte[] createConnecting(byte from, String name) throws IOException
+    {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(data))
+        {
+            final byte[] bytes = name.getBytes(NetworkMessage.CHARSET);
+            out.writeByte(NetworkMessageSystemId.CONNECTING);
+            out.writeByte(from);
+            out.writeByte(bytes.length);
+            out.write(bytes);
+        }
+        return data.toByteArray();
+    }
+
+    /**
+     * Append data to decoder.
+     * 
+     * @param decoder The decoder.
+     * @param data The data.
+     * @param offset The first byte.
+     * @param length The number of bytes.
+     * @throws IOException If error.
+     */
+    private static void put(FrameDecoder decoder, byte[] data, int offset, int length) throws IOException
+    {
+        decoder.put(ByteBuffer.wrap(data, offset, length), length);
+    }
+
+    /**
+     * Concatenate data.
+     * 
+     * @param parts The data to concatenate.
+     * @return The concatenated data.
+     */
+    private static byte[] concat(byte[]... parts)
+    {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (final byte[] part : parts)
+        {
+            data.write(part, 0, part.length);
+        }
+        return data.toByteArray();
+    }
+
+    /** Decoder tested. */
+    private final FrameDecoder decoder = new FrameDecoder();
+    /** Header read. */
+    private final FrameHeader header = new FrameHeader();
+
+    /**
+     * Test framed message received byte per byte.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testFramedSplit() throws IOException
+    {
+        final byte[] frame = createFrame(NetworkMessageSystemId.USER_MESSAGE, (byte) 2, new byte[]
+        {
+            5, 6, 7
+        });
+        for (int i = 0; i < frame.length - 1; i++)
+        {
+            put(decoder, frame, i, 1);
+
+            assertFalse(decoder.next(NetworkProtocol.VERSION_FRAMED, header));
+        }
+        put(decoder, frame, frame.length - 1, 1);
+
+        assertTrue(decoder.next(NetworkProtocol.VERSION_FRAMED, header));
+        assertEquals(NetworkMessageSystemId.USER_MESSAGE, header.getSystem());
+        assertEquals(2, header.getFrom());
+        assertEquals(NetworkProtocol.SERVER, header.getDest());
+        assertEquals(1, header.getType());
+        assertEquals(3, header.getSize());
+        assertEquals(5, decoder.getBody().readByte());
+        assertEquals(6, decoder.getBody().readByte());
+        assertEquals(7, decoder.getBody().readByte());
+        assertEquals(-1, decoder.getBody().read());
+        assertFalse(decoder.next(NetworkProtocol.VERSION_FRAMED, header));
+        assertEquals(frame.length, decoder.compact());
+        assertTrue(decoder.isEmpty());
+    }
+
+    /**
+     * Test framed messages received concatenated, with partial tail completed later.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testFramedConcatenated() throws IOException
+    {
+        final byte[] first = createFrame(NetworkMessageSystemId.PING, (byte) 1, new byte[0]);
+        final byte[] second = createFrame(NetworkMessageSystemId.USER_MESSAGE, (byte) 1, new byte[]
+        {
+            8
+        });
+        final byte[] third = createFrame(NetworkMessageSystemId.USER_MESSAGE, (byte) 3, new byte[]
+        {
+            9, 10
+        });
+        final byte[] data = concat(first, second, third);
+        final int partial = first.length + second.length + 3;
+        decoder.read(new ByteArrayInputStream(data), partial);
+
+        assertTrue(decoder.next(NetworkProtocol.VERSION_FRAMED, header));
+        assertEquals(NetworkMessageSystemId.PING, header.getSystem());
+        assertEquals(0, header.getSize());
+
+        assertTrue(decoder.next(NetworkProtocol.VERSION_FRAMED, header));
+        assertEquals(NetworkMessageSystemId.USER_MESSAGE, header.getSystem());
+        assertEquals(8, decoder.getBody().readByte());
+
+        assertFalse(decoder.next(NetworkProtocol.VERSION_FRAMED, header));
+        assertEquals(first.length + second.length, decoder.compact());
+        assertFalse(decoder.isEmpty());
+
+        put(decoder, data, partial, data.length - partial);
+
+        assertTrue(decoder.next(NetworkProtocol.VERSION_FRAMED, header));
+        assertEquals(3, header.getFrom());
+        assertEquals(9, decoder.getBody().readByte());
+        assertEquals(10, decoder.getBody().readByte());
+        assertFalse(decoder.next(NetworkProtocol.VERSION_FRAMED, header));
+        assertEquals(third.length, decoder.compact());
+        assertTrue(decoder.isEmpty());
+    }
+
+    /**
+     * Test framed message with invalid length.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testFramedInvalid() throws IOException
+    {
+        final byte[] data =
+        {
+            0, 0, 0, 1, 0
+        };
+        put(decoder, data, 0, data.length);
+
+        assertThrows(IOException.class,
+                     () -> decoder.next(NetworkProtocol.VERSION_FRAMED, header),
+                     "Invalid client data: 1");
+        assertEquals(data.length, decoder.clear());
+        assertTrue(decoder.isEmpty());
+    }
+
+    /**
+     * Test legacy connecting with version received after name.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testLegacyConnectingVersion() throws IOException
+    {
+        final byte[] connecting = createConnecting((byte) 4, "client");
+        put(decoder, connecting, 0, connecting.length);
+
+        assertFalse(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+
+        put(decoder, new byte[]
+        {
+            NetworkProtocol.VERSION_FRAMED
+        }, 0, 1);
+
+        assertTrue(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+        assertEquals(NetworkMessageSystemId.CONNECTING, header.getSystem());
+        assertEquals(4, header.getFrom());
+        assertEquals(6, decoder.getBody().readByte());
+        decoder.getBody().skipBytes(6);
+        assertEquals(NetworkProtocol.VERSION_FRAMED, decoder.getBody().readByte());
+        assertEquals(-1, decoder.getBody().read());
+        assertFalse(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+        assertEquals(connecting.length + 1, decoder.compact());
+        assertTrue(decoder.isEmpty());
+    }
+
+    /**
+     * Test legacy connecting without version, decided on next call without new data.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testLegacyConnectingWithoutVersion() throws IOException
+    {
+        final byte[] connecting = createConnecting((byte) 4, "client");
+        put(decoder, connecting, 0, 4);
+
+        assertFalse(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+        assertEquals(0, decoder.compact());
+
+        put(decoder, connecting, 4, connecting.length - 4);
+
+        assertFalse(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+        assertEquals(0, decoder.compact());
+        assertTrue(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+        assertEquals(NetworkMessageSystemId.CONNECTING, header.getSystem());
+        assertEquals(6, decoder.getBody().readByte());
+        decoder.getBody().skipBytes(6);
+        assertEquals(-1, decoder.getBody().read());
+        assertEquals(connecting.length, decoder.compact());
+        assertTrue(decoder.isEmpty());
+    }
+
+    /**
+     * Test legacy connecting without version, followed by another message.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testLegacyConnectingFollowed() throws IOException
+    {
+        final byte[] connecting = createConnecting((byte) 4, "client");
+        final byte[] data = concat(connecting, new byte[]
+        {
+            NetworkMessageSystemId.CONNECTED, 4
+        });
+        put(decoder, data, 0, data.length);
+
+        assertTrue(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+        assertEquals(NetworkMessageSystemId.CONNECTING, header.getSystem());
+        decoder.getBody().skipBytes(7);
+        assertEquals(-1, decoder.getBody().read());
+
+        assertTrue(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+        assertEquals(NetworkMessageSystemId.CONNECTED, header.getSystem());
+        assertEquals(4, header.getFrom());
+        assertFalse(decoder.next(NetworkProtocol.VERSION_LEGACY, header));
+        assertEquals(data.length, decoder.compact());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link NetworkProtocol}.
+ */
+public final class NetworkProtocolTest
+{
+    /** Pool maximum size. */
+    private static final int POOL_SIZE = 64;
+
+    /**
+     * Empty the buffers pool.
+     */
+    private static void drain()
+    {
+        for (int i = 0; i < POOL_SIZE * 4; i++)
+        {
+            NetworkProtocol.acquire(1);
+        }
+    }
+
+    /**
+     * Test pool keeps at most its size, even after dropping large buffers.
+     */
+    @Test
+    public void testPoolBound()
+    {
+        drain();
+
+        for (int i = 0; i < 10; i++)
+        {
+            NetworkProtocol.release(ByteBuffer.allocate(1024 * 1024));
+        }
+
+        final Set<ByteBuffer> released = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE + 10; i++)
+        {
+            buffers.add(ByteBuffer.allocate(16));
+        }
+        for (final ByteBuffer buffer : buffers)
+        {
+            released.add(buffer);
+            NetworkProtocol.release(buffer);
+        }
+
+        int reused = 0;
+        for (int i = 0; i < POOL_SIZE + 10; i++)
+        {
+            if (released.contains(NetworkProtocol.acquire(1)))
+            {
+                reused++;
+            }
+        }
+
+        assertEquals(POOL_SIZE, reused);
+    }
+}
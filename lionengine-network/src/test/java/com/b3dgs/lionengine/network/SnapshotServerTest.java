@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.purview.Replicable;
+
+/**
+ * Test {@link SnapshotServer} encoding decoded by {@link SnapshotClient}.
+ */
+public final class SnapshotServerTest
+{
+    /** Client id. */
+    private static final byte CLIENT = 0;
+
+    /** Server snapshots. */
+    private final SnapshotServer server = new SnapshotServer();
+    /** Client snapshots. */
+    private final SnapshotClient client = new SnapshotClient();
+    /** Sent messages. */
+    private final Messages network = new Messages();
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void prepare()
+    {
+        server.addClient(CLIENT);
+    }
+
+    /**
+     * Record and send current snapshot.
+     * 
+     * @return The encoded snapshot.
+     */
+    private byte[] send()
+    {
+        server.record();
+        network.messages.clear();
+        server.send(network);
+
+        assertEquals(1, network.messages.size());
+
+        final NetworkMessageSnapshot message = (NetworkMessageSnapshot) network.messages.get(0);
+
+        assertEquals(CLIENT, message.getClientDestId());
+
+        return message.getData();
+    }
+
+    /**
+     * Test full snapshot, then entity change, add and remove against baseline.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDelta() throws IOException
+    {
+        final State state1 = new State(10, 20);
+        final State state3 = new State(5);
+        server.put(1, state1);
+        server.put(3, state3);
+
+        final State replica1 = new State(0, 0);
+        final State replica3 = new State(0);
+        final State replica4 = new State(0, 0);
+        client.put(1, replica1);
+        client.put(3, replica3);
+        client.put(4, replica4);
+
+        server.acknowledge(CLIENT, Snapshot.NONE);
+        final byte[] full = send();
+
+        assertEquals(0, client.decode(full));
+        assertArrayEquals(new int[]
+        {
+            10, 20
+        }, replica1.values);
+        assertArrayEquals(new int[]
+        {
+            5
+        }, replica3.values);
+        assertEquals(0, replica4.applied);
+
+        server.acknowledge(CLIENT, 0);
+        state1.values[0] = 11;
+        server.remove(3);
+        server.put(4, new State(7, -8));
+        final byte[] delta = send();
+
+        assertEquals(1, client.decode(delta));
+        assertArrayEquals(new int[]
+        {
+            11, 20
+        }, replica1.values);
+        assertEquals(1, replica3.applied);
+        assertArrayEquals(new int[]
+        {
+            7, -8
+        }, replica4.values);
+
+        final State added3 = new State(0);
+        client.put(3, added3);
+
+        assertEquals(0, added3.applied);
+
+        server.acknowledge(CLIENT, 1);
+        final byte[] unchanged = send();
+
+        assertTrue(unchanged.length < delta.length);
+        assertEquals(2, client.decode(unchanged));
+        assertEquals(2, replica1.applied);
+        assertEquals(1, replica4.applied);
+
+        assertEquals(Snapshot.NONE, client.decode(full));
+    }
+
+    /**
+     * Test delta with a baseline not known by client.
+     */
+    @Test
+    public void testUnknownBaseline()
+    {
+        server.put(1, new State(1));
+        server.acknowledge(CLIENT, Snapshot.NONE);
+        send();
+        server.acknowledge(CLIENT, 0);
+        final byte[] delta = send();
+
+        assertThrows(IOException.class, () -> client.decode(delta), "Unknown snapshot baseline: 0");
+    }
+
+    /**
+     * Test client removed does not receive snapshots anymore, even with a late acknowledge.
+     */
+    @Test
+    public void testRemoveClient()
+    {
+        server.put(1, new State(1));
+        server.acknowledge(CLIENT, Snapshot.NONE);
+        server.removeClient(CLIENT);
+        server.record();
+        server.send(network);
+
+        assertTrue(network.messages.isEmpty());
+
+        server.acknowledge(CLIENT, Snapshot.NONE);
+        server.send(network);
+
+        assertTrue(network.messages.isEmpty());
+    }
+
+    /**
+     * Test client id reused does not receive snapshots before its first acknowledge.
+     */
+    @Test
+    public void testReuseClient()
+    {
+        server.put(1, new State(1));
+        server.acknowledge(CLIENT, Snapshot.NONE);
+        server.addClient(CLIENT);
+        server.record();
+        server.send(network);
+
+        assertTrue(network.messages.isEmpty());
+
+        server.acknowledge(CLIENT, Snapshot.NONE);
+        server.send(network);
+
+        assertEquals(1, network.messages.size());
+    }
+
+    /**
+     * Replicated state mock.
+     */
+    private static final class State implements Replicable
+    {
+        /** State values. */
+        private final int[] values;
+        /** Number of apply. */
+        private int applied;
+
+        /**
+         * Create state.
+         * 
+         * @param values The initial values.
+         */
+        State(int... values)
+        {
+            super();
+
+            this.values = values;
+        }
+
+        @Override
+        public int getFields()
+        {
+            return values.length;
+        }
+
+        @Override
+        public void record(int[] state, int offset)
+        {
+            System.arraycopy(values, 0, state, offset, values.length);
+        }
+
+        @Override
+        public void apply(int[] state, int offset)
+        {
+            System.arraycopy(state, offset, values, 0, values.length);
+            applied++;
+        }
+    }
+
+    /**
+     * Networker mock, storing added messages.
+     */
+    private static final class Messages implements Networker<ClientListener>
+    {
+        /** Added messages. */
+        private final List<NetworkMessage> messages = new ArrayList<>();
+
+        /**
+         * Create mock.
+         */
+        Messages()
+        {
+            super();
+        }
+
+        @Override
+        public void disconnect()
+        {
+            // Mock
+        }
+
+        @Override
+        public void addListener(ClientListener listener)
+        {
+            // Mock
+        }
+
+        @Override
+        public void removeListener(ClientListener listener)
+        {
+            // Mock
+        }
+
+        @Override
+        public void addMessage(NetworkMessage message)
+        {
+            messages.add(message);
+        }
+
+        @Override
+        public void addMessages(Collection<NetworkMessage> messages)
+        {
+            this.messages.addAll(messages);
+        }
+
+        @Override
+        public Collection<NetworkMessage> getMessages()
+        {
+            return messages;
+        }
+
+        @Override
+        public void sendMessages()
+        {
+            // Mock
+        }
+
+        @Override
+        public void receiveMessages()
+        {
+            // Mock
+        }
+
+        @Override
+        public int getBandwidth()
+        {
+            return 0;
+        }
+    }
+}